@@ -30,6 +30,14 @@ public abstract class StratagemRenderer implements ClickHandler, LongPressHandle
         injector.getInstance(GameFlowController.class).setIsRunning(false);
     }
     
-    /** Draw the current frame. */
+    /**
+     * Latches the interpolation alpha of the frame about to be drawn. Anything drawn in the
+     * frame that moves between ticks reads it from {@link GameFlowController#getFrameAlpha()}.
+     */
+    public void beginFrame() {
+        injector.getInstance(GameFlowController.class).beginFrame();
+    }
+    
+    /** Draw the current frame. Called after {@link #beginFrame()}. */
     public abstract void drawFrame(final MVP mvp);
 }
@@ -53,6 +53,10 @@ public abstract class Action extends Executable implements RenderableMVP, Threat
     }
     
     public boolean isEnabled() { return isEnabled; }
+    
+    /** Actions reach past whatever is in the way unless overridden. */
+    @Override
+    public boolean isLineOfSightNeeded() { return false; }
 
     @Override
     public boolean isExecutable() {
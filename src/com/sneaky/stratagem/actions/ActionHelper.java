@@ -1,13 +1,11 @@
 package com.sneaky.stratagem.actions;
 
 import static com.google.common.base.Preconditions.*;
-import com.google.common.base.Optional;
 import com.sneaky.stratagem.units.Unit;
 import com.sneaky.stratagem.units.Unit.Heading;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
 
 public class ActionHelper {
     /** This is a utility class, so prevent its instantiation. */
@@ -16,13 +14,13 @@ public class ActionHelper {
     public static GridPoint2D calcDirectionVector(final GridPoint2D sourceTile,
                                                   final GridPoint2D targetTile) {
         if (targetTile.getColumn() > sourceTile.getColumn()) {
-            return new GridPoint2D(0, 1);
+            return GridPoint2D.of(0, 1);
         } else if (targetTile.getColumn() < sourceTile.getColumn()) {
-            return new GridPoint2D(0, -1);
+            return GridPoint2D.of(0, -1);
         } else if (targetTile.getRow() > sourceTile.getRow()) {
-            return new GridPoint2D(1, 0);
+            return GridPoint2D.of(1, 0);
         } else if (targetTile.getRow() < sourceTile.getRow()) {
-            return new GridPoint2D(-1, 0);
+            return GridPoint2D.of(-1, 0);
         } else {
             throw new RuntimeException("Unexpected directionality relationship between source and target!");
         }
@@ -40,18 +38,14 @@ public class ActionHelper {
         checkArgument(nextTilePos != null, "NextTilePos must not be null!");
         
         // If the next tile is missing, don't occupy it
-        Optional<Tile> nextTile = battlefield.getTile(nextTilePos);
-        if (!nextTile.isPresent()) {
-            return false;
-        }
-        // If the next tile exists, but is occupied
-        else if (nextTile.get().hasOccupant()) {
+        final int row = nextTilePos.getRow();
+        final int column = nextTilePos.getColumn();
+        if (!battlefield.isInside(row, column)) {
             return false;
         }
+        
         // If the next tile exists and is emptied, let the bashed unit slide into it
-        else {
-            return true;
-        }
+        return battlefield.getOccupancy().isEmpty(battlefield.indexOf(row, column));
     }
     
     /**
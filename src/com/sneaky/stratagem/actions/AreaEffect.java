@@ -0,0 +1,20 @@
+package com.sneaky.stratagem.actions;
+
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Effect applied to each unit caught in an area of effect. Effects are meant to be created
+ * once and reused, so resolving an area does not allocate anything. See {@link AreaResolver}.
+ * 
+ * @author R. Matt McCann
+ */
+public interface AreaEffect {
+    /**
+     * Applies the effect to the unit.
+     * 
+     * @param target Unit caught in the area. Never null.
+     * @param row Row of the unit's tile.
+     * @param column Column of the unit's tile.
+     */
+    void apply(final Unit target, final int row, final int column);
+}
@@ -0,0 +1,140 @@
+package com.sneaky.stratagem.actions;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import scatcat.map.Battlefield;
+import scatcat.map.OccupantFilter;
+import scatcat.map.TileVisitor;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Resolves areas of effect, such as splash damage and auras. An area is a shape around a
+ * center, a filter on the occupants it catches and an effect applied to each caught unit.
+ * Resolving walks only the tiles of the shape, filtering them with the occupancy bitboard,
+ * and hands each caught unit straight to the effect, so no set of targets is ever built and
+ * a multi-target ability costs the same per affected unit as a single-target one.
+ *
+ * Areas may either be resolved immediately or queued and then resolved together with
+ * {@link #resolveQueued()}, so an update that sets off many areas in one tick resolves them
+ * in a single batch. The queue is reused between batches.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class AreaResolver {
+    private final Battlefield battlefield;
+
+    /** Effect of the area being resolved. */
+    private AreaEffect currentEffect = null;
+
+    /** Hands the occupant of each visited tile to the current effect. */
+    private final TileVisitor targetVisitor = new TileVisitor() {
+        @Override
+        public void visit(final int row, final int column, final int index) {
+            // If the tile is empty, there's nothing to affect
+            final Unit target = battlefield.tileAt(index).getOccupant();
+            if (target == null) { return; }
+
+            currentEffect.apply(target, row, column);
+        }
+    };
+
+    /** Queued areas, in the order they were queued. */
+    private int[] queuedColumns = new int[0];
+    private AreaEffect[] queuedEffects = new AreaEffect[0];
+    private OccupantFilter[] queuedFilters = new OccupantFilter[0];
+    private Player[] queuedPlayers = new Player[0];
+    private int[] queuedRadii = new int[0];
+    private int[] queuedRows = new int[0];
+    private AreaShape[] queuedShapes = new AreaShape[0];
+
+    /** Number of queued areas. */
+    private int numQueued = 0;
+
+    /** Guice injection constructor. */
+    @Inject
+    protected AreaResolver(final Battlefield battlefield) {
+        this.battlefield = battlefield;
+    }
+
+    /**
+     * Queues the area, to be resolved by the next call to {@link #resolveQueued()}. Takes the
+     * same parameters as {@link #resolve}.
+     */
+    public synchronized void queue(final AreaShape shape, final int row, final int column, final int radius,
+                                   final OccupantFilter filter, final Player player, final AreaEffect effect) {
+        checkParameters(shape, radius, filter, effect);
+
+        if (numQueued == queuedRows.length) {
+            final int capacity = Math.max(2 * numQueued, 8);
+            queuedColumns = Arrays.copyOf(queuedColumns, capacity);
+            queuedEffects = Arrays.copyOf(queuedEffects, capacity);
+            queuedFilters = Arrays.copyOf(queuedFilters, capacity);
+            queuedPlayers = Arrays.copyOf(queuedPlayers, capacity);
+            queuedRadii = Arrays.copyOf(queuedRadii, capacity);
+            queuedRows = Arrays.copyOf(queuedRows, capacity);
+            queuedShapes = Arrays.copyOf(queuedShapes, capacity);
+        }
+
+        queuedColumns[numQueued] = column;
+        queuedEffects[numQueued] = effect;
+        queuedFilters[numQueued] = filter;
+        queuedPlayers[numQueued] = player;
+        queuedRadii[numQueued] = radius;
+        queuedRows[numQueued] = row;
+        queuedShapes[numQueued++] = shape;
+    }
+
+    /**
+     * Applies the effect to every unit caught in the area.
+     *
+     * @param shape Footprint of the area. Must not be null.
+     * @param row Row of the area's center.
+     * @param column Column of the area's center.
+     * @param radius Must not be negative.
+     * @param filter Occupants caught by the area. Must not be null.
+     * @param player Player the filter is relative to, usually the caster's owner.
+     * @param effect Applied to each caught unit. Must not be null.
+     */
+    public synchronized void resolve(final AreaShape shape, final int row, final int column, final int radius,
+                                     final OccupantFilter filter, final Player player, final AreaEffect effect) {
+        checkParameters(shape, radius, filter, effect);
+
+        // An effect may set off another area, so hang on to the one being resolved
+        final AreaEffect outerEffect = currentEffect;
+        currentEffect = effect;
+        try {
+            shape.visit(battlefield, row, column, radius, filter, player, targetVisitor);
+        } finally {
+            currentEffect = outerEffect;
+        }
+    }
+
+    /** Resolves the queued areas in the order they were queued, including any queued meanwhile. */
+    public synchronized void resolveQueued() {
+        for (int queuedIter = 0; queuedIter < numQueued; queuedIter++) {
+            resolve(queuedShapes[queuedIter], queuedRows[queuedIter], queuedColumns[queuedIter],
+                    queuedRadii[queuedIter], queuedFilters[queuedIter], queuedPlayers[queuedIter],
+                    queuedEffects[queuedIter]);
+        }
+
+        // Let go of the effects and players so they can be collected
+        Arrays.fill(queuedEffects, 0, numQueued, null);
+        Arrays.fill(queuedPlayers, 0, numQueued, null);
+        numQueued = 0;
+    }
+
+    private static void checkParameters(final AreaShape shape, final int radius,
+                                        final OccupantFilter filter, final AreaEffect effect) {
+        checkArgument(shape != null, "Shape must not be null!");
+        checkArgument(radius >= 0, "Radius must not be negative!");
+        checkArgument(filter != null, "Filter must not be null!");
+        checkArgument(effect != null, "Effect must not be null!");
+    }
+}
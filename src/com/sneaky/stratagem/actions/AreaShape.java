@@ -0,0 +1,44 @@
+package com.sneaky.stratagem.actions;
+
+import scatcat.map.Battlefield;
+import scatcat.map.OccupantFilter;
+import scatcat.map.TileVisitor;
+
+import com.sneaky.stratagem.match.Player;
+
+/**
+ * Footprint of an area of effect around its center, walked with the battlefield's spatial
+ * queries so only the tiles inside the footprint are touched.
+ * 
+ * @author R. Matt McCann
+ */
+public enum AreaShape {
+    /** Tiles within the radius' Manhattan distance, the center included. */
+    DIAMOND {
+        @Override
+        void visit(final Battlefield battlefield, final int row, final int column, final int radius,
+                   final OccupantFilter filter, final Player player, final TileVisitor visitor) {
+            battlefield.visitDiamond(row, column, radius, filter, player, visitor);
+        }
+    },
+    /** Tiles at exactly the radius' Manhattan distance. */
+    RING {
+        @Override
+        void visit(final Battlefield battlefield, final int row, final int column, final int radius,
+                   final OccupantFilter filter, final Player player, final TileVisitor visitor) {
+            battlefield.visitRing(row, column, radius, filter, player, visitor);
+        }
+    },
+    /** Tiles within the radius' Chebyshev distance, the center included. */
+    SQUARE {
+        @Override
+        void visit(final Battlefield battlefield, final int row, final int column, final int radius,
+                   final OccupantFilter filter, final Player player, final TileVisitor visitor) {
+            battlefield.visitSquare(row, column, radius, filter, player, visitor);
+        }
+    };
+    
+    /** Visits the tiles of the footprint that pass the filter. */
+    abstract void visit(final Battlefield battlefield, final int row, final int column, final int radius,
+                        final OccupantFilter filter, final Player player, final TileVisitor visitor);
+}
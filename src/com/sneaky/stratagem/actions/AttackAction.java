@@ -49,6 +49,10 @@ public class AttackAction extends Action {
     @Override
     public int getRange() { return actor.getAttackRange(); }
     
+    /** Ranged units, such as the crossbowman and catapult, can't shoot through walls or hills. */
+    @Override
+    public boolean isLineOfSightNeeded() { return true; }
+    
     @Override
     public void performThreatenedAction(Unit actingUnit, GridPoint2D sourceTile, GridPoint2D targetTile) {
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
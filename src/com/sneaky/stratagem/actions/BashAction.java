@@ -74,9 +74,7 @@ public class BashAction extends Action {
             targetedUnit.takeDamage(actingUnit.getAttackDamage());
             
             // Determine what direction the bash occurs in
-            bashVector = new GridPoint2D();
-            bashVector.setRow(targetTile.getRow() - sourceTile.getRow());
-            bashVector.setColumn(targetTile.getColumn() - sourceTile.getColumn());
+            bashVector = targetTile.minus(sourceTile);
             
             // Initialize the animation state
             isMovingToNextTile = ActionHelper.checkIfNextTileIsOccupiable(battlefield, targetTile.plus(bashVector));
@@ -99,6 +97,9 @@ public class BashAction extends Action {
         final float tilesSlidPerSecond = 10.0f;
         Point2D tileOffset = targetedUnit.getTileOffset();
         
+        // Frames drawn until the next tick slide the unit on from where it is now
+        targetedUnit.latchTileOffset();
+        
         // If the unit has slid into the next tile, update its position
         if ((Math.abs(tileOffset.getX()) >= 0.5f) || (Math.abs(tileOffset.getY()) >= 0.5f)) {
             final Battlefield battlefield = injector.getInstance(Battlefield.class);
@@ -112,9 +113,8 @@ public class BashAction extends Action {
             Tile newTile = battlefield.getTile(targetedTilePos).get();
             newTile.setOccupant(targetedUnit);
             
-            // Invert the tile offset
-            tileOffset.setX(-tileOffset.getX());
-            tileOffset.setY(-tileOffset.getY());
+            // Carry the tile offsets over to the new tile, so the slide continues from where it is
+            targetedUnit.rebaseTileOffset(bashVector);
             
             // Determine if the next tile is occupiable
             isMovingToNextTile = ActionHelper.checkIfNextTileIsOccupiable(battlefield, targetedTilePos.plus(bashVector));
@@ -128,8 +128,7 @@ public class BashAction extends Action {
                 ((bashVector.getColumn() > 0.0f) && (tileOffset.getY() <= 0.0f)) ||
                 ((bashVector.getColumn() < 0.0f) && (tileOffset.getY() >= 0.0f))) {
                 // Zero out any hanging offset
-                tileOffset.setX(0.0f);
-                tileOffset.setY(0.0f);
+                targetedUnit.setTileOffset(new Point2D());
                 
                 // Finish the bash action
                 GameFlowController gameFlow = injector.getInstance(GameFlowController.class);
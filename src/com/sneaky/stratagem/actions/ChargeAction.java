@@ -102,6 +102,9 @@ public class ChargeAction extends Action {
         final float tilesChargedPerSecond = 5.0f;
         final Point2D tileOffset = actor.getTileOffset();
         
+        // Frames drawn until the next tick slide the unit on from where it is now
+        actor.latchTileOffset();
+        
         // If the charger has slid into the next tile, update its position
         if ((Math.abs(tileOffset.getX()) >= 0.5f) || (Math.abs(tileOffset.getY()) >= 0.5f)) {
             final Battlefield battlefield = injector.getInstance(Battlefield.class);
@@ -122,9 +125,8 @@ public class ChargeAction extends Action {
             newTile.setIsSelected(true);
             battlefield.setSelectedTile(Optional.of(actorPos));
             
-            // Invert the tile offset
-            tileOffset.setX(-tileOffset.getX());
-            tileOffset.setY(-tileOffset.getY());
+            // Carry the tile offsets over to the new tile, so the slide continues from where it is
+            actor.rebaseTileOffset(chargeVector);
             
             // Determine if the next tile is occupiable
             isMovingToNextTile = ActionHelper.checkIfNextTileIsOccupiable(
@@ -138,8 +140,7 @@ public class ChargeAction extends Action {
                 ((chargeVector.getColumn() > 0.0f) && (tileOffset.getY() <= 0.0f)) ||
                 ((chargeVector.getColumn() < 0.0f) && (tileOffset.getY() >= 0.0f))) {
                 // Zero out any hanging offset
-                tileOffset.setX(0.0f);
-                tileOffset.setY(0.0f);
+                actor.setTileOffset(new Point2D());
                 
                 // Finish the charge action
                 GameFlowController gameFlow = injector.getInstance(GameFlowController.class);
@@ -1,16 +1,15 @@
 package com.sneaky.stratagem.actions;
 
-import java.util.Set;
+import static com.google.common.base.Preconditions.checkState;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.graphics.MVP;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
-import com.sneaky.stratagem.actions.threats.ThreatPatternHelper;
 import com.sneaky.stratagem.units.Unit;
 
 public class ManaBatteryAction extends Action {
@@ -22,6 +21,19 @@ public class ManaBatteryAction extends Action {
     
     private final Injector injector;
     
+    /** Grants a charge point to each unit next to the caster. Reused so casting doesn't allocate. */
+    private final AreaEffect chargeEffect = new AreaEffect() {
+        @Override
+        public void apply(final Unit occupant, final int row, final int column) {
+            // If the occupant isn't the caster of mana battery
+            if (occupant != actor) {
+                // Grant the unit an extra charge point
+                int chargePointsGained = 1;
+                occupant.gainChargePoints(chargePointsGained);
+            }
+        }
+    };
+    
     @Inject
     protected ManaBatteryAction(@Assisted Unit actor,
                                 Injector injector) {
@@ -41,19 +53,16 @@ public class ManaBatteryAction extends Action {
     public void execute() { 
         Battlefield battlefield = injector.getInstance(Battlefield.class);
         
-        // Get all of the adjacent tiles
-        final int radius = 1;
-        Set<Tile> tilesInRange = ThreatPatternHelper.getTilesInSquarePattern(battlefield, actor, radius);
+        // Retrieve the tile the caster is occupying
+        final int actorIndex = battlefield.getUnitIndex(actor);
+        checkState(actorIndex != Battlefield.NOT_ON_BATTLEFIELD, "The caster must exist on the battlefield!");
         
-        // For each tile in range of the mana battery effect
-        for (Tile tile : tilesInRange) {
-            // If the tile has an occupant and it isn't the caster of mana battery
-            if (tile.hasOccupant() && (tile.getOccupant() != actor)) {
-                // Grant the unit an extra charge point
-                int chargePointsGained = 1;
-                tile.getOccupant().gainChargePoints(chargePointsGained);
-            }
-        }
+        // Charge each occupied tile adjacent to the caster
+        final int radius = 1;
+        final int actorRow = actorIndex / battlefield.getWidth();
+        final int actorColumn = actorIndex % battlefield.getWidth();
+        injector.getInstance(AreaResolver.class).resolve(AreaShape.SQUARE, actorRow, actorColumn, radius, 
+                OccupantFilter.OCCUPIED, actor.getOwner(), chargeEffect);
     }
     
     @Override
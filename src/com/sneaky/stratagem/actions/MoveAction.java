@@ -1,8 +1,10 @@
 package com.sneaky.stratagem.actions;
 
 import scatcat.general.points.GridPoint2D;
+import scatcat.general.points.Point2D;
 import scatcat.graphics.MVP;
 import scatcat.map.Battlefield;
+import scatcat.map.PathService;
 import scatcat.map.Tile;
 
 import com.google.common.base.Optional;
@@ -10,8 +12,9 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.name.Named;
-import com.sneaky.stratagem.actions.threats.RadialMovementPattern;
-import com.sneaky.stratagem.actions.threats.RadialMovementPattern.RadialMovementPatternFactory;
+import com.sneaky.stratagem.actions.threats.ReachableMovementPattern;
+import com.sneaky.stratagem.actions.threats.ReachableMovementPattern.ReachableMovementPatternFactory;
+import com.sneaky.stratagem.flow.GameFlowController;
 import com.sneaky.stratagem.match.Match;
 import com.sneaky.stratagem.units.Unit;
 
@@ -24,13 +27,25 @@ public class MoveAction extends Action {
     
     private final Injector injector;
     
-    private final RadialMovementPattern movementRange;
+    private final ReachableMovementPattern movementRange;
+    
+    /** Position of the tile the walking unit moved to. */
+    private GridPoint2D walkGoal;
+    
+    /** Tiles the walking unit steps through, goal included. */
+    private int[] walkPath = new int[0];
+    
+    /** Step of the walk path the unit is currently heading for. */
+    private int walkStep = 0;
+    
+    /** Unit currently walking its path. */
+    private Unit walkingUnit;
     
     @Inject
     protected MoveAction(@Assisted final Unit actor,
                          @Named("MoveIcon") final int icon,
                          final Injector injector,
-                         final RadialMovementPatternFactory movementRangeFactory
+                         final ReachableMovementPatternFactory movementRangeFactory
                          ) {
         super(actionPointCost, actor, chargePointCost, injector);
         
@@ -74,6 +89,13 @@ public class MoveAction extends Action {
         final Tile        sourceTile = battlefield.getTile(sourceTilePos).get();
         final Tile        targetTile = battlefield.getTile(targetTilePos).get();
         
+        // Find the way there before the unit leaves its tile
+        final PathService pathService = injector.getInstance(PathService.class);
+        final Optional<int[]> path = pathService.findPath(battlefield, 
+                battlefield.indexOf(sourceTilePos.getRow(), sourceTilePos.getColumn()),
+                battlefield.indexOf(targetTilePos.getRow(), targetTilePos.getColumn()), 
+                actingUnit.getOwner());
+        
         // Remove the unit from its current tile
         sourceTile.setOccupant(null);
         
@@ -92,8 +114,69 @@ public class MoveAction extends Action {
         
         // Set the acting unit as having moved
         actingUnit.setHasMoved(true);
+        
+        // If there's a path to walk, draw the unit back at its source and walk it over
+        if (path.isPresent() && (path.get().length > 0)) {
+            walkingUnit = actingUnit;
+            walkGoal = targetTilePos;
+            walkPath = path.get();
+            walkStep = 0;
+            actingUnit.setTileOffset(new Point2D(sourceTilePos.getRow() - targetTilePos.getRow(),
+                    sourceTilePos.getColumn() - targetTilePos.getColumn()));
+            ActionHelper.orientActor(actingUnit, sourceTilePos, stepAt(0));
+            
+            GameFlowController gameFlow = injector.getInstance(GameFlowController.class);
+            gameFlow.addUpdatable(this);
+        }
+    }
+    
+    /** Position of the tile at the provided step of the walk path. */
+    private GridPoint2D stepAt(final int step) {
+        final int width = injector.getInstance(Battlefield.class).getWidth();
+        
+        return GridPoint2D.of(walkPath[step] / width, walkPath[step] % width);
     }
 
+    /**
+     * Walks the unit tile by tile along its path. The unit already occupies the goal tile,
+     * so its tile offset runs from the source tile back down to zero.
+     */
     @Override
-    public void updateState(int updatesPerSecond) { throw new UnsupportedOperationException(); }
+    public void updateState(int updatesPerSecond) {
+        final float tilesWalkedPerSecond = 5.0f;
+        final Point2D tileOffset = walkingUnit.getTileOffset();
+        
+        // Frames drawn until the next tick walk the unit on from where it is now
+        walkingUnit.latchTileOffset();
+        
+        // Head for the current step, relative to the goal tile
+        final GridPoint2D step = stepAt(walkStep);
+        final float toStepX = (step.getRow() - walkGoal.getRow()) - tileOffset.getX();
+        final float toStepY = (step.getColumn() - walkGoal.getColumn()) - tileOffset.getY();
+        final float stepLength = tilesWalkedPerSecond / updatesPerSecond;
+        
+        // If the unit hasn't reached the step yet, keep walking
+        if (Math.abs(toStepX) + Math.abs(toStepY) > stepLength) {
+            tileOffset.addToX(Math.signum(toStepX) * stepLength);
+            tileOffset.addToY(Math.signum(toStepY) * stepLength);
+            return;
+        }
+        
+        // Snap the unit onto the step
+        tileOffset.addToX(toStepX);
+        tileOffset.addToY(toStepY);
+        walkStep++;
+        
+        // If that was the last step, the unit is home
+        if (walkStep == walkPath.length) {
+            walkingUnit.setTileOffset(new Point2D());
+            
+            GameFlowController gameFlow = injector.getInstance(GameFlowController.class);
+            gameFlow.removeUpdatable(this);
+        }
+        // Otherwise face the next step
+        else {
+            ActionHelper.orientActor(walkingUnit, step, stepAt(walkStep));
+        }
+    }
 }
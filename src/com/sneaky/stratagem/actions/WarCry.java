@@ -1,14 +1,9 @@
 package com.sneaky.stratagem.actions;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import scatcat.general.points.GridPoint2D;
 import scatcat.graphics.MVP;
-import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -25,6 +20,22 @@ public class WarCry extends Action {
     
     private final Injector injector;
     
+    /** Buffs each friendly unit the war cry reaches. Reused so casting doesn't allocate. */
+    private final AreaEffect rallyEffect = new AreaEffect() {
+        @Override
+        public void apply(final Unit unit, final int row, final int column) {
+            // Heal the unit
+            final int amountHealed = 2;
+            unit.gainHealth(amountHealed);
+            
+            // Temporarily increase the units movement speed
+            MoveBuffFactory buffFactory = injector.getInstance(MoveBuffFactory.class);
+            final int moveBuffAmount = 1;
+            final int moveBuffDuration = 2;
+            buffFactory.create(moveBuffAmount, moveBuffDuration, unit);
+        }
+    };
+    
     @Inject
     protected WarCry(@Assisted final Unit actor,
                      final Injector injector,
@@ -52,32 +63,10 @@ public class WarCry extends Action {
     public void performThreatenedAction(final Unit actingUnit,
                                         final GridPoint2D sourceTile, 
                                         final GridPoint2D targetTile) {
-        final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        
-        // Get all of the tiles in range of the buff
-        final Set<GridPoint2D> tilesInRange = new HashSet<GridPoint2D>();
-        getThreatRange().populateThreatenedTiles(actingUnit, sourceTile, tilesInRange);
-        
-        // For each tile in range of the buff
-        for (GridPoint2D tilePos : tilesInRange) {
-            final Optional<Tile> tile = battlefield.getTile(tilePos);
-            
-            // If the tile exists and it contains a friendly unit
-            if (tile.isPresent() && tile.get().hasOccupant() &&
-                tile.get().getOccupant().getOwner() == actor.getOwner()) {
-                Unit unit = tile.get().getOccupant();
-                
-                // Heal the unit
-                final int amountHealed = 2;
-                unit.gainHealth(amountHealed);
-                
-                // Temporarily increase the units movement speed
-                MoveBuffFactory buffFactory = injector.getInstance(MoveBuffFactory.class);
-                final int moveBuffAmount = 1;
-                final int moveBuffDuration = 2;
-                buffFactory.create(moveBuffAmount, moveBuffDuration, unit);
-            }
-        }
+        // Rally each friendly unit in range of the buff
+        injector.getInstance(AreaResolver.class).resolve(AreaShape.DIAMOND, 
+                sourceTile.getRow(), sourceTile.getColumn(), getRange(), 
+                OccupantFilter.FRIENDLY, actor.getOwner(), rallyEffect);
     }
 
     @Override
@@ -4,9 +4,8 @@ import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.Visibility;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -29,6 +28,16 @@ public class LinearAttackPattern extends LinearThreatPattern {
         this.injector = injector;
     }
     
+    @Override
+    protected boolean isThreatenable(final GridPoint2D selectedTile, 
+                                     final int row, final int column, final int index) {
+        // If the action needs to see its target, leave out the tiles that are out of sight
+        if (!actionPerformer.isLineOfSightNeeded()) { return true; }
+        
+        final Visibility visibility = injector.getInstance(Battlefield.class).getVisibility();
+        return visibility.isVisible(selectedTile.getRow(), selectedTile.getColumn(), row, column);
+    }
+    
     public interface LinearAttackPatternFactory {
         LinearAttackPattern create(ThreatenedActionPerformer actionPerformer);
     }
@@ -37,29 +46,7 @@ public class LinearAttackPattern extends LinearThreatPattern {
     public void populateThreatenedTiles(final Unit selectedUnit,
                                            final GridPoint2D selectedTile, 
                                            final Set<GridPoint2D> threatenedTiles) {
-        final Set<GridPoint2D> inRangeTiles 
-                = getTilesInLinearPattern(selectedTile, actionPerformer.getRange());
-        
-        // For each potentially threatened tile
-        final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        for (GridPoint2D tilePos : inRangeTiles) {
-            final Optional<Tile> tile = battlefield.getTile(tilePos);
-            
-            // If the tile does not exist
-            if (!tile.isPresent()) {
-                // Do not threaten it
-                continue;
-            }
-            // If the potentially threatened tile is the actor's tile
-            else if (tilePos.equals(selectedTile)) {
-                // Do not threaten it
-                continue;
-            }
-            // Otherwise
-            else {
-                // Threaten the tile
-                threatenedTiles.add(tilePos);
-            }
-        }
+        // Threaten every tile in the line, other than the actor's own
+        addTilesInLinearPattern(selectedTile, actionPerformer.getRange(), threatenedTiles);
     }
 }
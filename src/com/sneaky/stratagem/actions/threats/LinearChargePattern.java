@@ -4,9 +4,8 @@ import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupancyBitboard;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -38,46 +37,20 @@ public class LinearChargePattern extends LinearThreatPattern {
     public void populateThreatenedTiles(final Unit selectedUnit,
                                            final GridPoint2D selectedTile, 
                                            final Set<GridPoint2D> threatenedTiles) {
+        final int range = actionPerformer.getRange();
+        final ThreatShape rays = ThreatShape.of(ThreatShape.Kind.RAYS, range);
         
-       
-        // Determine how far up the row linear path is threatened 
-        for (int rowIter = 1; rowIter <= actionPerformer.getRange(); rowIter++) {
-            // Decide if the tile is threatened
-            boolean continueProcessing = handleTileThreat(selectedUnit, 
-                    threatenedTiles, selectedTile.plus(new GridPoint2D(rowIter, 0)));
-            
-            // If the line is done being processed
-            if (!continueProcessing) { break; }
-        }
-        
-        // Determine how far down the row linear path is threatened 
-        for (int rowIter = -1; rowIter >= -actionPerformer.getRange(); rowIter--) {
-            // Decide if the tile is threatened
-            boolean continueProcessing = handleTileThreat(selectedUnit, 
-                    threatenedTiles, selectedTile.plus(new GridPoint2D(rowIter, 0)));
-            
-            // If the line is done being processed
-            if (!continueProcessing) { break; }
-        }
-        
-        // Determine how far up the column linear path is threatened
-        for (int colIter = 1; colIter <= actionPerformer.getRange(); colIter++) {
-            // Decide if the tile is threatened
-            boolean continueProcessing = handleTileThreat(selectedUnit, 
-                    threatenedTiles, selectedTile.plus(new GridPoint2D(0, colIter)));
-            
-            // If the line is done being processed
-            if (!continueProcessing) { break; }
-        }
-        
-        // Determine how far down the column linear path is threatened
-        for (int colIter = -1; colIter >= -actionPerformer.getRange(); colIter--) {
-            // Decide if the tile is threatened
-            boolean continueProcessing = handleTileThreat(selectedUnit, 
-                    threatenedTiles, selectedTile.plus(new GridPoint2D(0, colIter)));
-            
-            // If the line is done being processed
-            if (!continueProcessing) { break; }
+        // Determine how far along each of the four linear paths is threatened
+        for (int rayStart = 0; rayStart < rays.size(); rayStart += range) {
+            for (int tileIter = rayStart; tileIter < rayStart + range; tileIter++) {
+                // Decide if the tile is threatened
+                boolean continueProcessing = handleTileThreat(selectedUnit, threatenedTiles, 
+                        selectedTile.getRow() + rays.getRowOffset(tileIter),
+                        selectedTile.getColumn() + rays.getColumnOffset(tileIter));
+                
+                // If the line is done being processed
+                if (!continueProcessing) { break; }
+            }
         }
     }
     
@@ -86,29 +59,33 @@ public class LinearChargePattern extends LinearThreatPattern {
      * 
      * @param selectedUnit Unit performing the action. Must not be null.
      * @param threatenedTiles Set to add tile position to if it is threatened
-     * @param tilePos Tile to inspect. Must not be null.
+     * @param row Row of the tile to inspect.
+     * @param column Column of the tile to inspect.
      * @return 
      * true - continue processing this line
      * false - stop processing this line
      */
     private boolean handleTileThreat(final Unit selectedUnit,
                                      final Set<GridPoint2D> threatenedTiles,
-                                     final GridPoint2D tilePos) {
+                                     final int row,
+                                     final int column) {
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        final Optional<Tile> tile = battlefield.getTile(tilePos);
+        final OccupancyBitboard occupancy = battlefield.getOccupancy();
         
         // If this tile does not exist, don't mark it as threatened or any after
-        if (!tile.isPresent()) {
+        if (!battlefield.isInside(row, column)) {
             return false;
-        }            
+        }
+        
         // If this tile does not have an occupant, mark it as threatened
-        else if (!tile.get().hasOccupant()) {
-            threatenedTiles.add(tilePos);
+        final int index = battlefield.indexOf(row, column);
+        if (occupancy.isEmpty(index)) {
+            threatenedTiles.add(GridPoint2D.of(row, column));
             return true;
         }
         // If this tile has an enemy occupant, mark it as threatened but no more in the line
-        else if (tile.get().getOccupant().getOwner() != selectedUnit.getOwner()) {
-            threatenedTiles.add(tilePos);
+        else if (occupancy.isHostileTo(selectedUnit.getOwner(), index)) {
+            threatenedTiles.add(GridPoint2D.of(row, column));
             return false;
         }
         // If this tile has a friend occupant, don't mark it or any after
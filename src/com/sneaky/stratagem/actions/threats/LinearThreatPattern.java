@@ -1,45 +1,48 @@
 package com.sneaky.stratagem.actions.threats;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
+import scatcat.map.Battlefield;
 
 import com.google.inject.Injector;
 import com.sneaky.stratagem.graphics.textures.HighlightTexturePack;
 
 public abstract class LinearThreatPattern extends ThreatPattern {
+    private final Injector injector;
+    
     protected LinearThreatPattern(final ThreatenedActionPerformer actionPerformer,
                                   final HighlightTexturePack highlightTextures, 
                                   final Injector injector) {
         super(actionPerformer, highlightTextures, injector);
+        
+        this.injector = injector;
     }
 
-    /** Returns a set of tile points within the linear pattern. */
-    protected Set<GridPoint2D> getTilesInLinearPattern(final GridPoint2D selectedTile,
-                                                       final int range) {
-        final Set<GridPoint2D> tilesInRange = new HashSet<GridPoint2D>();
+    /**
+     * Adds the tiles of the linear pattern around the selected tile to the threatened tiles,
+     * leaving out the selected tile itself. Tiles off the battlefield are never added.
+     */
+    protected void addTilesInLinearPattern(final GridPoint2D selectedTile,
+                                           final int range,
+                                           final Set<GridPoint2D> threatenedTiles) {
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        final ThreatShape shape = ThreatShape.of(ThreatShape.Kind.LINE, range);
        
-        for (int colIter = -range; colIter <= range; colIter++) {
-            final GridPoint2D tilePos = new GridPoint2D();
-            
-            tilePos.setColumn(selectedTile.getColumn() + colIter);
-            tilePos.setRow(selectedTile.getRow());
+        for (int tileIter = 0; tileIter < shape.size(); tileIter++) {
+            final int row = selectedTile.getRow() + shape.getRowOffset(tileIter);
+            final int column = selectedTile.getColumn() + shape.getColumnOffset(tileIter);
             
-            tilesInRange.add(tilePos);
+            if (battlefield.isInside(row, column) 
+                    && isThreatenable(selectedTile, row, column, battlefield.indexOf(row, column))) {
+                threatenedTiles.add(GridPoint2D.of(row, column));
+            }
         }
-        
-        for (int rowIter = -range; rowIter < range; rowIter++) {
-            if (rowIter == 0) { continue; } // Don't double add the center tile
-            
-            final GridPoint2D tilePos = new GridPoint2D();
-            
-            tilePos.setColumn(selectedTile.getColumn());
-            tilePos.setRow(selectedTile.getRow() + rowIter);
-            
-            tilesInRange.add(tilePos);
-        };
-        
-        return tilesInRange;
+    }
+    
+    /** Last say on whether a tile of the pattern may be threatened. Accepts every tile unless overridden. */
+    protected boolean isThreatenable(final GridPoint2D selectedTile, 
+                                     final int row, final int column, final int index) {
+        return true;
     }
 }
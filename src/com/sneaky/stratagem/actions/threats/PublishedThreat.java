@@ -0,0 +1,146 @@
+package com.sneaky.stratagem.actions.threats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.Set;
+
+import scatcat.general.points.GridPoint2D;
+import scatcat.map.HighlightRegion;
+import scatcat.map.OccupancyBitboard;
+
+/**
+ * Tiles threatened by a pattern, one bit per tile in row-major order, as last published by the
+ * {@link ThreatWorker}. Every application of the threat takes a ticket and only the latest
+ * ticket may publish, so a stale computation never overwrites a newer threat or one that has
+ * been cleaned up. Lookups made while the latest ticket is still being computed wait for it,
+ * so a tap is never judged against a half-applied threat.
+ *
+ * Thread safe. Hold the threat's lock to act atomically with a publish or retraction, such as
+ * handing its highlights to the battlefield.
+ *
+ * @author R. Matt McCann
+ */
+final class PublishedThreat {
+    /** Latest ticket handed out. */
+    private int generation = 0;
+
+    /** Highlights published along with the threatened tiles. */
+    private HighlightRegion highlights = HighlightRegion.EMPTY;
+
+    /** Number of columns the threatened tiles are indexed with. */
+    private int numColumns = 0;
+
+    /** Number of rows the threatened tiles are indexed with. */
+    private int numRows = 0;
+
+    /** Latest ticket that has been published or given up on. */
+    private int published = 0;
+
+    /** Threatened tiles, one bit per tile in row-major order. Reused between threats. */
+    private long[] threatened = new long[0];
+
+    /**
+     * Starts computing a new threat, superseding any still being computed.
+     *
+     * @return Ticket the computation publishes with.
+     */
+    synchronized int begin() {
+        return ++generation;
+    }
+
+    /**
+     * Gives up on the ticket's computation, releasing the lookups waiting on it with nothing
+     * threatened. Does nothing if the ticket has been published or superseded.
+     */
+    synchronized void abandon(final int ticket) {
+        if ((ticket != generation) || (published == ticket)) { return; }
+
+        Arrays.fill(threatened, 0L);
+        release(ticket);
+    }
+
+    /**
+     * Whether or not the threat covers the tile. If the latest threat is still being computed,
+     * waits for it to be published, abandoned or retracted first.
+     *
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    synchronized boolean isThreatened(final int row, final int column) throws InterruptedException {
+        while (published != generation) {
+            wait();
+        }
+
+        if ((row < 0) || (row >= numRows) || (column < 0) || (column >= numColumns)) {
+            return false;
+        }
+
+        return OccupancyBitboard.test(threatened, row * numColumns + column);
+    }
+
+    /**
+     * Replaces the threatened tiles, unless the ticket has been superseded.
+     *
+     * @param ticket Ticket the computation began with.
+     * @param numRows Rows of the battlefield the tiles were computed on. Must not be negative.
+     * @param numColumns Columns of the battlefield the tiles were computed on. Must not be
+     *                   negative.
+     * @param tiles Threatened tiles. Those off the battlefield are ignored. Must not be null.
+     * @param region Highlights of the tiles. Must not be null.
+     * @return Whether or not the threat was published.
+     */
+    synchronized boolean publish(final int ticket, final int numRows, final int numColumns,
+                                 final Set<GridPoint2D> tiles, final HighlightRegion region) {
+        checkArgument((numRows >= 0) && (numColumns >= 0), "Dimensions must not be negative!");
+        checkArgument(tiles != null, "Tiles must not be null!");
+        checkArgument(region != null, "Region must not be null!");
+
+        // If the threat has been cleaned up or reapplied meanwhile, drop the computation
+        if (ticket != generation) { return false; }
+
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+
+        // Only reallocate the bits when the battlefield has changed size
+        final int numWords = OccupancyBitboard.wordsFor(numRows * numColumns);
+        if (threatened.length != numWords) {
+            threatened = new long[numWords];
+        } else {
+            Arrays.fill(threatened, 0L);
+        }
+
+        for (GridPoint2D tile : tiles) {
+            final int row = tile.getRow();
+            final int column = tile.getColumn();
+            if ((row >= 0) && (row < numRows) && (column >= 0) && (column < numColumns)) {
+                OccupancyBitboard.set(threatened, row * numColumns + column);
+            }
+        }
+        highlights = region;
+        release(ticket);
+
+        return true;
+    }
+
+    /**
+     * Drops the threat, along with any computation of it still running, releasing the lookups
+     * waiting on it with nothing threatened.
+     *
+     * @return Highlights that had been published, to be retracted from the battlefield.
+     */
+    synchronized HighlightRegion retract() {
+        final HighlightRegion retracted = highlights;
+
+        highlights = HighlightRegion.EMPTY;
+        Arrays.fill(threatened, 0L);
+        release(++generation);
+
+        return retracted;
+    }
+
+    /** Marks the ticket as done with and wakes the lookups waiting on it. Must hold the lock. */
+    private void release(final int ticket) {
+        published = ticket;
+        notifyAll();
+    }
+}
@@ -4,9 +4,9 @@ import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
+import scatcat.map.Visibility;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -29,6 +29,16 @@ public class RadialAttackPattern extends RadialThreatPattern {
         this.injector = injector;
     }
     
+    @Override
+    protected boolean isThreatenable(final GridPoint2D selectedTile, 
+                                     final int row, final int column, final int index) {
+        // If the action needs to see its target, leave out the tiles that are out of sight
+        if (!attackAction.isLineOfSightNeeded()) { return true; }
+        
+        final Visibility visibility = injector.getInstance(Battlefield.class).getVisibility();
+        return visibility.isVisible(selectedTile.getRow(), selectedTile.getColumn(), row, column);
+    }
+    
     public interface RadialAttackPatternFactory {
         RadialAttackPattern create(ThreatenedActionPerformer attackAction);
     }
@@ -37,28 +47,8 @@ public class RadialAttackPattern extends RadialThreatPattern {
     public void populateThreatenedTiles(final Unit selectedUnit, 
                                            final GridPoint2D selectedTile, 
                                            final Set<GridPoint2D> threatenedTiles) {
-        // Get the tiles within the action's attack range
-        final Set<GridPoint2D> tilesInRadius = getTilesInRadius(selectedTile, attackAction.getRange());
-        
-        // Add the tiles that can be moved to
-        final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        for (GridPoint2D tileInRadius : tilesInRadius) {
-            Optional<Tile> tile = battlefield.getTile(tileInRadius);
-            
-            // If the tile doesn't exist, don't highlight it
-            if (!tile.isPresent()) {
-                continue;
-            } 
-            // If the tile occupant is on the same team, don't highlight it
-            else if (tile.get().hasOccupant()) {
-                Unit occupant = tile.get().getOccupant();
-                
-                if (occupant.getOwner() == selectedUnit.getOwner()) {
-                    continue;
-                }
-            }
-                         
-            threatenedTiles.add(tileInRadius);
-        }
+        // Threaten the tiles within the action's attack range that aren't held by the same team
+        addTilesInRadius(selectedTile, attackAction.getRange(), 
+                OccupantFilter.NOT_FRIENDLY, selectedUnit.getOwner(), threatenedTiles);
     }
 }
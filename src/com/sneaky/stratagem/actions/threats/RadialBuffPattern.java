@@ -3,10 +3,8 @@ package com.sneaky.stratagem.actions.threats;
 import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
-import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -22,8 +20,6 @@ import com.sneaky.stratagem.units.Unit;
 public class RadialBuffPattern extends RadialThreatPattern {
     private final ThreatenedActionPerformer action;
     
-    private final Injector injector;
-    
     @Inject
     protected RadialBuffPattern(
             @Assisted final ThreatenedActionPerformer action,
@@ -32,7 +28,6 @@ public class RadialBuffPattern extends RadialThreatPattern {
         super(action, highlightTextures, injector);
         
         this.action = action;
-        this.injector = injector;
     }
 
     public interface RadialBuffPatternFactory {
@@ -44,25 +39,8 @@ public class RadialBuffPattern extends RadialThreatPattern {
             final Unit selectedUnit,
             final GridPoint2D selectedTile, 
             final Set<GridPoint2D> threatenedTiles) {
-        // Get the tiles within the action's range
-        final Set<GridPoint2D> tilesInRadius = getTilesInRadius(selectedTile, action.getRange());
-        
-        // For each tile in range
-        final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        for (GridPoint2D tileInRadius : tilesInRadius) {
-            Optional<Tile> tile = battlefield.getTile(tileInRadius);
-            
-            // If the tile doesn't exist, don't highlight it
-            if (!tile.isPresent()) {
-                continue;
-            }
-            // If the tile has an occupant that isn't on the same team, don't highlight it
-            if (tile.get().hasOccupant() && 
-                    tile.get().getOccupant().getOwner() != selectedUnit.getOwner()) {
-                continue;
-            }
-            
-            threatenedTiles.add(tileInRadius);
-        }
+        // Threaten the tiles within the action's range that aren't held by another team
+        addTilesInRadius(selectedTile, action.getRange(), 
+                OccupantFilter.NOT_HOSTILE, selectedUnit.getOwner(), threatenedTiles);
     }
 }
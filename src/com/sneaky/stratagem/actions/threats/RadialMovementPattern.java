@@ -4,9 +4,8 @@ import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -37,24 +36,16 @@ public class RadialMovementPattern extends RadialThreatPattern {
     public void populateThreatenedTiles(final Unit selectedUnit, 
                                            final GridPoint2D selectedTile, 
                                            final Set<GridPoint2D> threatenedTiles) {
-        // Get the tiles within the unit's movement range
-        final Set<GridPoint2D> tilesInRadius = getTilesInRadius(selectedTile, action.getRange());
+        // Add the empty tiles within the unit's movement range that can be moved to
+        addTilesInRadius(selectedTile, action.getRange(), 
+                OccupantFilter.EMPTY, selectedUnit.getOwner(), threatenedTiles);
         
-        // Add the tiles that can be moved to
+        // The moving unit's own tile is in range too
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        for (GridPoint2D tileInRadius : tilesInRadius) {
-            Optional<Tile> tile = battlefield.getTile(tileInRadius);
-            
-            // If the tile doesn't exist, don't highlight it
-            if (!tile.isPresent()) {
-                continue;
-            } 
-            // If the tile has an occupant and its not the moving unit itself, don't highlight it
-            else if (tile.get().hasOccupant() && (tile.get().getOccupant() != selectedUnit)) {
-                continue;
-            }
-                         
-            threatenedTiles.add(tileInRadius);
+        final int selectedUnitIndex = battlefield.getUnitIndex(selectedUnit);
+        if ((selectedUnitIndex != Battlefield.NOT_ON_BATTLEFIELD) && 
+                (selectedUnitIndex == battlefield.indexOf(selectedTile.getRow(), selectedTile.getColumn()))) {
+            threatenedTiles.add(selectedTile);
         }
     }
 }
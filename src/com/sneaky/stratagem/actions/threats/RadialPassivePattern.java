@@ -4,9 +4,8 @@ import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
@@ -44,28 +43,17 @@ public class RadialPassivePattern extends RadialThreatPattern {
             final Unit selectedUnit,
             final GridPoint2D selectedTile, 
             final Set<GridPoint2D> threatenedTiles) {
-        // Get the tiles within the unit's movement range
-        final Set<GridPoint2D> tilesInRadius = getTilesInRadius(selectedTile, action.getRange());
-        
-        // For each tile in range
+        // Threaten the unoccupied tiles within the action's range
+        addTilesInRadius(selectedTile, action.getRange(), 
+                OccupantFilter.EMPTY, selectedUnit.getOwner(), threatenedTiles);
+    }
+    
+    @Override
+    protected boolean isThreatenable(final GridPoint2D selectedTile, 
+                                     final int row, final int column, final int index) {
+        // If the tile has obstacle, don't highlight it. Untouched tiles are open grass, so
+        // don't create them just to ask
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        for (GridPoint2D tileInRadius : tilesInRadius) {
-            Optional<Tile> tile = battlefield.getTile(tileInRadius);
-            
-            // If the tile doesn't exist, don't highlight it
-            if (!tile.isPresent()) {
-                continue;
-            }
-            // If the tile has an occupant, don't highlight it
-            if (tile.get().hasOccupant()) {
-                continue;
-            }
-            // If the tile has obstacle, don't highlight it
-            if (tile.get().hasObstacle()) {
-                continue;
-            }
-            
-            threatenedTiles.add(tileInRadius);
-        }
+        return !battlefield.hasTerrainObstacle(row, column);
     }
 }
@@ -1,35 +1,64 @@
 package com.sneaky.stratagem.actions.threats;
 
-import java.util.HashSet;
 import java.util.Set;
 
 import scatcat.general.points.GridPoint2D;
+import scatcat.map.Battlefield;
+import scatcat.map.OccupancyBitboard;
+import scatcat.map.OccupantFilter;
 
 import com.google.inject.Injector;
 import com.sneaky.stratagem.graphics.textures.HighlightTexturePack;
+import com.sneaky.stratagem.match.Player;
 
 public abstract class RadialThreatPattern extends ThreatPattern {
+    private final Injector injector;
+    
     protected RadialThreatPattern(final ThreatenedActionPerformer actionPerformer,
                                   final HighlightTexturePack highlightTextures, 
                                   final Injector injector) {
         super(actionPerformer, highlightTextures, injector);
+        
+        this.injector = injector;
     }
 
-    /** Returns a set of tile points within a radial pattern. */
-    protected Set<GridPoint2D> getTilesInRadius(final GridPoint2D selectedTile,
-                                                final int radius) {
-        final int column = selectedTile.getColumn();
-        final int row = selectedTile.getRow();
+    /**
+     * Adds the tiles within the radius of the selected tile that pass the filter to the
+     * threatened tiles. Tiles off the battlefield are never added.
+     * 
+     * @param selectedTile Center of the radius.
+     * @param radius Manhattan distance from the center. Must not be negative.
+     * @param filter Occupants of the tiles that may be threatened.
+     * @param player Player the filter is relative to.
+     * @param threatenedTiles Set the tiles are added to.
+     */
+    protected void addTilesInRadius(final GridPoint2D selectedTile,
+                                    final int radius,
+                                    final OccupantFilter filter,
+                                    final Player player,
+                                    final Set<GridPoint2D> threatenedTiles) {
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        final OccupancyBitboard occupancy = battlefield.getOccupancy();
+        final ThreatShape shape = ThreatShape.of(ThreatShape.Kind.DIAMOND, radius);
         
-        final Set<GridPoint2D> tilesInRadius = new HashSet<GridPoint2D>();
-        for (int rowIter = row - radius; rowIter <= row + radius; rowIter++) {
-            for (int colIter = column - Math.abs(Math.abs(row - rowIter) - radius);
-                     colIter <= column + Math.abs(Math.abs(row - rowIter) - radius); colIter++) {
-                tilesInRadius.add(new GridPoint2D(rowIter, colIter));
+        for (int tileIter = 0; tileIter < shape.size(); tileIter++) {
+            final int row = selectedTile.getRow() + shape.getRowOffset(tileIter);
+            final int column = selectedTile.getColumn() + shape.getColumnOffset(tileIter);
+            if (!battlefield.isInside(row, column)) { continue; }
+            
+            final int index = battlefield.indexOf(row, column);
+            if (filter.accepts(occupancy, player, index) && isThreatenable(selectedTile, row, column, index)) {
+                threatenedTiles.add(GridPoint2D.of(row, column));
             }
         }
-        
-        return tilesInRadius;
+    }
+    
+    /**
+     * Last say on whether a tile that passed the occupant filter may be threatened. Accepts
+     * every tile unless overridden.
+     */
+    protected boolean isThreatenable(final GridPoint2D selectedTile, 
+                                     final int row, final int column, final int index) {
+        return true;
     }
 }
-
@@ -0,0 +1,71 @@
+package com.sneaky.stratagem.actions.threats;
+
+import java.util.Set;
+
+import scatcat.general.points.GridPoint2D;
+import scatcat.map.Battlefield;
+import scatcat.map.Reachability;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.assistedinject.Assisted;
+import com.google.inject.name.Named;
+import com.sneaky.stratagem.graphics.textures.HighlightTexturePack;
+import com.sneaky.stratagem.match.Match;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Threatens the tiles a unit can actually walk to within its movement range, routing around
+ * walls and enemies rather than taking every empty tile in the radius. See
+ * {@link Reachability}.
+ * 
+ * @author R. Matt McCann
+ */
+public class ReachableMovementPattern extends ThreatPattern {
+    private final ThreatenedActionPerformer action;
+    
+    private final Injector injector;
+    
+    @Inject
+    protected ReachableMovementPattern(@Assisted final ThreatenedActionPerformer action,
+                                       @Named("Move") final HighlightTexturePack highlightTextures,
+                                       final Injector injector) {
+        super(action, highlightTextures, injector);
+        
+        this.action = action;
+        this.injector = injector;
+    }
+    
+    public interface ReachableMovementPatternFactory {
+        ReachableMovementPattern create(ThreatenedActionPerformer action);
+    }
+    
+    @Override
+    public void populateThreatenedTiles(final Unit selectedUnit, 
+                                        final GridPoint2D selectedTile, 
+                                        final Set<GridPoint2D> threatenedTiles) {
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        final Match match = injector.getInstance(Match.class);
+        final Reachability reachability = injector.getInstance(Reachability.class);
+        if (!battlefield.isInside(selectedTile.getRow(), selectedTile.getColumn())) { return; }
+        
+        // If the unit can't afford to move, it can only stay where it is
+        final int maxSteps = (match.getCurrentActionPoints() >= selectedUnit.getApCostOfMovement()) 
+                ? action.getRange() : 0;
+        reachability.compute(battlefield, selectedTile.getRow(), selectedTile.getColumn(), 
+                selectedUnit.getOwner(), maxSteps);
+        
+        // Add the tiles that can be moved to
+        final int width = battlefield.getWidth();
+        for (int destinationIter = 0; destinationIter < reachability.getNumDestinations(); destinationIter++) {
+            final int index = reachability.getDestination(destinationIter);
+            
+            // The moving unit's own tile is in range too, but only if it's actually there
+            if ((index == reachability.getSource()) && (battlefield.getUnitIndex(selectedUnit) != index)) {
+                continue;
+            }
+            
+            threatenedTiles.add(GridPoint2D.of(index / width, index % width));
+        }
+    }
+}
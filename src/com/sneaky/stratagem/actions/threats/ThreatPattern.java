@@ -14,6 +14,7 @@ import scatcat.general.Cleanable;
 import scatcat.general.points.GridPoint2D;
 import scatcat.input.TileSelectionHandler;
 import scatcat.map.Battlefield;
+import scatcat.map.HighlightRegion;
 import scatcat.map.Tile;
 
 public abstract class ThreatPattern implements TileSelectionHandler {
@@ -24,11 +25,10 @@ public abstract class ThreatPattern implements TileSelectionHandler {
         public void cleanUp() {
             Battlefield battlefield = injector.getInstance(Battlefield.class);
             
-            // Remove the attack-potential highlight from the highlighted tiles 
-            for (GridPoint2D tile : threatenedTiles) {
-                battlefield.getTile(tile).get().setHighlightTexture(Optional.<Integer>absent());
+            // Drop any computation still running and remove the attack-potential highlight
+            synchronized (threat) {
+                battlefield.retractHighlights(threat.retract());
             }
-            threatenedTiles.clear();
             
             // Remove the action as a tile pick handler
             battlefield.setActiveAction(Optional.<TileSelectionHandler>absent());
@@ -39,7 +39,11 @@ public abstract class ThreatPattern implements TileSelectionHandler {
     
     private final Injector injector;
     
-    private final Set<GridPoint2D> threatenedTiles = new HashSet<GridPoint2D>();
+    /** Scratch set the threatened tiles are computed into. Threat worker only. */
+    private final Set<GridPoint2D> computed = new HashSet<GridPoint2D>();
+    
+    /** Tiles threatened by the last computed threat. Never locked by the render thread. */
+    private final PublishedThreat threat = new PublishedThreat();
     
     protected ThreatPattern(final ThreatenedActionPerformer actionPerformer,
                             final HighlightTexturePack highlightTextures,
@@ -49,21 +53,38 @@ public abstract class ThreatPattern implements TileSelectionHandler {
         this.injector = injector;
     }
     
+    /**
+     * Computes the threatened tiles and their highlights on the {@link ThreatWorker}, then
+     * publishes them whole. Returns without waiting. Taps made before the computation finishes
+     * are held until it has.
+     */
     public void applyThreat() {
-        Battlefield battlefield = injector.getInstance(Battlefield.class);
-        UnitHUD unitHUD = injector.getInstance(UnitHUD.class);
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        final UnitHUD unitHUD = injector.getInstance(UnitHUD.class);
         
         // Retrieve the resources needed to set up the threat
         final Unit        selectedUnit = unitHUD.getActiveUnit();
         final GridPoint2D selectedTile = battlefield.getSelectedTile().get();
+        final int ticket = threat.begin();
         
-        // Populate the set of tiles to be threatened
-        populateThreatenedTiles(selectedUnit, selectedTile, threatenedTiles);
-        
-        // Highlight the tiles that are threatened
-        for (GridPoint2D tilePoint : threatenedTiles) {
-            highlightTextures.setTexture(tilePoint, threatenedTiles);
-        }
+        injector.getInstance(ThreatWorker.class).submit(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // Read the battlefield as of a single moment, so neither an occupant change
+                    // nor a resize lands halfway through the computation
+                    battlefield.readLocked(new Runnable() {
+                        @Override
+                        public void run() {
+                            computeThreat(battlefield, ticket, selectedUnit, selectedTile);
+                        }
+                    });
+                } finally {
+                    // If the computation failed, don't leave the taps held for it waiting
+                    threat.abandon(ticket);
+                }
+            }
+        });
         
         // Set this threat pattern as a tile pick handler for the battlefield
         battlefield.setActiveAction(Optional.<TileSelectionHandler>of(this));
@@ -73,6 +94,46 @@ public abstract class ThreatPattern implements TileSelectionHandler {
         cleanUpFunction.cleanUp();
     }
     
+    /**
+     * Computes the threatened tiles and their highlights, then publishes them unless the threat
+     * has been cleaned up or reapplied meanwhile. Threat worker only, holding the battlefield's
+     * read lock, so this must never create a tile.
+     */
+    private void computeThreat(final Battlefield battlefield, final int ticket,
+                               final Unit selectedUnit, final GridPoint2D selectedTile) {
+        // Populate the set of tiles to be threatened
+        computed.clear();
+        populateThreatenedTiles(selectedUnit, selectedTile, computed);
+        
+        // Pick the highlight of each threatened tile
+        final HighlightRegion.Builder builder = HighlightRegion.builder();
+        for (GridPoint2D tilePoint : computed) {
+            highlightTextures.addTo(tilePoint, computed, builder);
+        }
+        final HighlightRegion region = builder.build();
+        
+        // Hand the highlights over along with the tiles, so a clean up can't slip in between
+        synchronized (threat) {
+            if (threat.publish(ticket, battlefield.getHeight(), battlefield.getWidth(), computed, region)) {
+                battlefield.publishHighlights(region);
+            }
+        }
+    }
+    
+    /**
+     * Whether or not the threat covers the tile. Holds the tap until the threat being computed
+     * has been published, so it is never judged against a half-applied threat.
+     */
+    private boolean isThreatened(final GridPoint2D tile) {
+        try {
+            return threat.isThreatened(tile.getRow(), tile.getColumn());
+        } catch (InterruptedException e) {
+            // Treat the tap as a miss, but let the input thread know it was interrupted
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
     // Orients the unit to face an action given the start and stop points
     protected void orientActor(final Unit toBeOriented, final GridPoint2D start, final GridPoint2D stop) {
         final int eastInfluence = stop.getRow() - start.getRow();
@@ -109,21 +170,16 @@ public abstract class ThreatPattern implements TileSelectionHandler {
             return true;
         }
         
-        // If the selected tile exists
-        if (clickedTile.isPresent()) {
-            // If the tile is threatened
-            for (GridPoint2D threatenedTile : threatenedTiles) {
-                if (tileLocation.equals(threatenedTile)) {
-                    final UnitHUD unitHUD = injector.getInstance(UnitHUD.class);
-                    final Unit actingUnit = unitHUD.getActiveUnit();
-                    
-                    actionPerformer.performThreatenedAction(actingUnit, activeTilePos, tileLocation);
-                    orientActor(actingUnit, activeTilePos, tileLocation);
-                    cleanUp();
-                    
-                    return true;
-                }
-            }
+        // If the selected tile exists and is threatened
+        if (clickedTile.isPresent() && isThreatened(tileLocation)) {
+            final UnitHUD unitHUD = injector.getInstance(UnitHUD.class);
+            final Unit actingUnit = unitHUD.getActiveUnit();
+            
+            actionPerformer.performThreatenedAction(actingUnit, activeTilePos, tileLocation);
+            orientActor(actingUnit, activeTilePos, tileLocation);
+            cleanUp();
+            
+            return true;
         }
         
         cleanUp();
@@ -16,7 +16,8 @@ import scatcat.map.Tile;
 
 public abstract class ThreatPatternHelper {
     /**
-     * Retrieves the grid points in a square pattern around the focal point.
+     * Retrieves the grid points in a square pattern around the focal point. This allocates
+     * a point per tile, prefer {@link Battlefield#visitSquare} in hot paths.
      * 
      * @param focalPoint Point around which to retrieve the square pattern. Must not be null.
      * @param radius Must be a positive integer.
@@ -34,7 +35,7 @@ public abstract class ThreatPatternHelper {
         final Set<GridPoint2D> tilesInRadius = new HashSet<GridPoint2D>();
         for (int rowIter = row - radius; rowIter <= row + radius; rowIter++) {
             for (int colIter = column - radius; colIter <= column + radius; colIter++) {
-                tilesInRadius.add(new GridPoint2D(rowIter, colIter));
+                tilesInRadius.add(GridPoint2D.of(rowIter, colIter));
             }
         }
         
@@ -42,7 +43,8 @@ public abstract class ThreatPatternHelper {
     }
     
     /**
-     * Retrieves the tiles in a square pattern around the focal point.
+     * Retrieves the tiles in a square pattern around the focal point. Prefer
+     * {@link Battlefield#visitSquare} in hot paths, as this builds a new set.
      * 
      * @param battlefield Battlefield from which to retrieve the tiles. Must not be null.
      * @param focalPoint Tile around which to retrieve the square pattern. Must not be null.
@@ -56,14 +58,18 @@ public abstract class ThreatPatternHelper {
         checkArgument(battlefield != null, "Battlefield must not be null!");
         checkArgument(focalPoint != null, "Focal point must not be null!");
         
-        Set<GridPoint2D> tilesInRadius = getTilePointsInSquarePattern(focalPoint, radius);
+        checkArgument(radius > 0, "Radius must be a positive integer");
+        
+        // Walk the square clipped to the battlefield rather than building the points first
+        final int column = focalPoint.getColumn();
+        final int row = focalPoint.getRow();
+        final int lastRow = Math.min(row + radius, battlefield.getHeight() - 1);
+        final int lastColumn = Math.min(column + radius, battlefield.getWidth() - 1);
         
         Set<Tile> tiles = new HashSet<Tile>();
-        for (GridPoint2D tilePoint : tilesInRadius) {
-            Optional<Tile> tile = battlefield.getTile(tilePoint);
-            
-            if (tile.isPresent()) {
-                tiles.add(tile.get());
+        for (int rowIter = Math.max(row - radius, 0); rowIter <= lastRow; rowIter++) {
+            for (int colIter = Math.max(column - radius, 0); colIter <= lastColumn; colIter++) {
+                tiles.add(battlefield.tileAt(rowIter, colIter));
             }
         }
         
@@ -0,0 +1,138 @@
+package com.sneaky.stratagem.actions.threats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Precomputed geometry of a threat pattern, as row and column offsets from the selected tile.
+ * Shapes are built once per kind and range and shared by every pattern, so populating the
+ * threatened tiles only has to filter the offsets against the battlefield. Immutable.
+ *
+ * @author R. Matt McCann
+ */
+final class ThreatShape {
+    /** Shapes built so far, indexed by range. Guarded by the class. */
+    private static final Map<Kind, ThreatShape[]> cache = new EnumMap<Kind, ThreatShape[]>(Kind.class);
+
+    /** Row offset of each tile in the shape. */
+    private final int[] rowOffsets;
+
+    /** Column offset of each tile in the shape. */
+    private final int[] columnOffsets;
+
+    /** Kinds of shapes. */
+    enum Kind {
+        /**
+         * Tiles within the range's Manhattan distance, the selected tile included. Row by
+         * row, top to bottom.
+         */
+        DIAMOND {
+            @Override
+            ThreatShape build(final int range) {
+                final ThreatShape shape = new ThreatShape(2 * range * (range + 1) + 1);
+
+                int tileIter = 0;
+                for (int rowIter = -range; rowIter <= range; rowIter++) {
+                    final int span = range - Math.abs(rowIter);
+                    for (int colIter = -span; colIter <= span; colIter++) {
+                        shape.rowOffsets[tileIter] = rowIter;
+                        shape.columnOffsets[tileIter++] = colIter;
+                    }
+                }
+
+                return shape;
+            }
+        },
+
+        /**
+         * Tiles along the selected tile's row out to the range on either side, and along its
+         * column out to the range above and one short of it below. The selected tile is left
+         * out.
+         */
+        LINE {
+            @Override
+            ThreatShape build(final int range) {
+                final ThreatShape shape = new ThreatShape(Math.max(4 * range - 1, 0));
+
+                int tileIter = 0;
+                for (int colIter = -range; colIter <= range; colIter++) {
+                    if (colIter == 0) { continue; }
+
+                    shape.rowOffsets[tileIter] = 0;
+                    shape.columnOffsets[tileIter++] = colIter;
+                }
+                for (int rowIter = -range; rowIter < range; rowIter++) {
+                    if (rowIter == 0) { continue; }
+
+                    shape.rowOffsets[tileIter] = rowIter;
+                    shape.columnOffsets[tileIter++] = 0;
+                }
+
+                return shape;
+            }
+        },
+
+        /**
+         * Four rays of the range's length, each walking outward from the selected tile. In
+         * order: down the rows, up the rows, up the columns and down the columns. Ray
+         * {@code rayIter} covers the offsets from {@code rayIter * range} up to
+         * {@code (rayIter + 1) * range}.
+         */
+        RAYS {
+            @Override
+            ThreatShape build(final int range) {
+                final ThreatShape shape = new ThreatShape(4 * range);
+                final int[] rowSteps = {1, -1, 0, 0};
+                final int[] columnSteps = {0, 0, 1, -1};
+
+                int tileIter = 0;
+                for (int rayIter = 0; rayIter < rowSteps.length; rayIter++) {
+                    for (int stepIter = 1; stepIter <= range; stepIter++) {
+                        shape.rowOffsets[tileIter] = rowSteps[rayIter] * stepIter;
+                        shape.columnOffsets[tileIter++] = columnSteps[rayIter] * stepIter;
+                    }
+                }
+
+                return shape;
+            }
+        };
+
+        /** Builds the shape of the provided range. */
+        abstract ThreatShape build(int range);
+    }
+
+    /** Allocates the offsets of a shape of the provided size, filled in by its kind. */
+    private ThreatShape(final int size) {
+        rowOffsets = new int[size];
+        columnOffsets = new int[size];
+    }
+
+    /**
+     * Retrieves the shape of the kind and range, building it on first use.
+     *
+     * @param kind Must not be null.
+     * @param range Must not be negative.
+     */
+    static synchronized ThreatShape of(final Kind kind, final int range) {
+        checkArgument(kind != null, "Kind must not be null!");
+        checkArgument(range >= 0, "Range must not be negative!");
+
+        ThreatShape[] shapes = cache.get(kind);
+        if ((shapes == null) || (range >= shapes.length)) {
+            shapes = (shapes == null) ? new ThreatShape[range + 1] : Arrays.copyOf(shapes, range + 1);
+            cache.put(kind, shapes);
+        }
+        if (shapes[range] == null) {
+            shapes[range] = kind.build(range);
+        }
+
+        return shapes[range];
+    }
+
+    int getColumnOffset(final int tileIter) { return columnOffsets[tileIter]; }
+    int getRowOffset(final int tileIter) { return rowOffsets[tileIter]; }
+    int size() { return rowOffsets.length; }
+}
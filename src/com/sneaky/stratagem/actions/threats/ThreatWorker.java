@@ -0,0 +1,42 @@
+package com.sneaky.stratagem.actions.threats;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Background thread the threat patterns compute their threatened tiles and highlights on, so
+ * neither the input nor the render thread waits on a large pattern. A single thread, so the
+ * patterns may share the non thread safe search helpers, such as
+ * {@link scatcat.map.Reachability}, and patterns finish in the order they were applied.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class ThreatWorker {
+    /** Runs the computations. Daemon thread, so an idle worker doesn't hold up exit. */
+    private final ExecutorService executor;
+
+    /** Guice injection constructor. */
+    @Inject
+    protected ThreatWorker() {
+        executor = Executors.newSingleThreadExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("ThreatWorker-%d").build());
+    }
+
+    /**
+     * Queues the computation.
+     *
+     * @param computation Must not be null.
+     */
+    public void submit(final Runnable computation) {
+        checkArgument(computation != null, "Computation must not be null!");
+
+        executor.execute(computation);
+    }
+}
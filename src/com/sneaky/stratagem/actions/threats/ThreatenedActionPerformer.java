@@ -7,5 +7,8 @@ import com.sneaky.stratagem.units.Unit;
 public interface ThreatenedActionPerformer {
     int getRange();
     
+    /** Whether or not the action can only reach tiles its actor can see. */
+    boolean isLineOfSightNeeded();
+    
     void performThreatenedAction(final Unit actingUnit, final GridPoint2D sourceTile, final GridPoint2D targetTile);
 }
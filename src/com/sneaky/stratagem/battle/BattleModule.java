@@ -27,6 +27,7 @@ import com.sneaky.stratagem.actions.threats.RadialAttackPattern.RadialAttackPatt
 import com.sneaky.stratagem.actions.threats.RadialBuffPattern.RadialBuffPatternFactory;
 import com.sneaky.stratagem.actions.threats.RadialMovementPattern.RadialMovementPatternFactory;
 import com.sneaky.stratagem.actions.threats.RadialPassivePattern.RadialPassivePatternFactory;
+import com.sneaky.stratagem.actions.threats.ReachableMovementPattern.ReachableMovementPatternFactory;
 import com.sneaky.stratagem.effects.MoveBuff.MoveBuffFactory;
 import com.sneaky.stratagem.effects.StunEffect.StunEffectFactory;
 import com.sneaky.stratagem.graphics.textures.HighlightTexturePack;
@@ -162,6 +163,7 @@ public class BattleModule extends StratagemModule {
         install(new FactoryModuleBuilder().build(RadialMovementPatternFactory.class));
         install(new FactoryModuleBuilder().build(RadialPassivePatternFactory.class));
         install(new FactoryModuleBuilder().build(RaiseHandFactory.class));
+        install(new FactoryModuleBuilder().build(ReachableMovementPatternFactory.class));
         install(new FactoryModuleBuilder().build(SingleTexturePackFactory.class));
         install(new FactoryModuleBuilder().build(StatsBarFactory.class));
         install(new FactoryModuleBuilder().build(StunActionFactory.class));
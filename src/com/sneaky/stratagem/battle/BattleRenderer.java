@@ -125,7 +125,7 @@ public class BattleRenderer extends StratagemRenderer3D {
         tile[1] = x * (float) Math.sin(angle) + y * (float) Math.cos(angle);
         
         // Select the unit
-        return new GridPoint2D((int) -tile[1], (int) -tile[0]);
+        return GridPoint2D.of((int) -tile[1], (int) -tile[0]);
     }
     
     @Override
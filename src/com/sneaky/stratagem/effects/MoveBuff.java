@@ -43,6 +43,12 @@ public class MoveBuff {
                         @Assisted("target") final Unit target);
     }
     
+    /** Movement range granted by the buff. */
+    public final int getBuffAmount() { return buffAmount; }
+    
+    /** Number of round ends left before the buff wears off. */
+    public final int getRoundsRemaining() { return roundsRemaining; }
+    
     @Subscribe
     public void listenForEndOfRound(final EndRoundEvent e) {
         roundsRemaining--;
@@ -19,7 +19,9 @@ public class StunEffect {
         this.roundsRemaining = duration;
         this.target = target;
     
+        // Apply the stun as an active effect
         target.setIsStunned(true);
+        target.addEffect(this);
         notifier.register(this);
     }
     
@@ -27,6 +29,9 @@ public class StunEffect {
         StunEffect create(int duration, Unit target);
     }
     
+    /** Number of round ends left before the stun wears off. */
+    public final int getRoundsRemaining() { return roundsRemaining; }
+    
     @Subscribe
     public void listenForEndOfRound(final EndRoundEvent e) {
         roundsRemaining--;
@@ -0,0 +1,23 @@
+package com.sneaky.stratagem.flow;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * Source of time for the game flow. Swapping in a {@link ManualClock} lets the pacing of the
+ * game loop be checked without waiting on real time.
+ * 
+ * @author R. Matt McCann
+ */
+@ImplementedBy(SystemClock.class)
+public interface Clock {
+    /** Current time in nanoseconds. Only meaningful relative to other readings. */
+    long nanoTime();
+    
+    /**
+     * Waits out the provided time.
+     * 
+     * @param nanos Time to wait in nanoseconds. Nothing is waited if not positive.
+     * @throws InterruptedException If the wait is interrupted.
+     */
+    void sleep(long nanos) throws InterruptedException;
+}
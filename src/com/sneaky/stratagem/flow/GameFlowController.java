@@ -1,52 +1,339 @@
 package com.sneaky.stratagem.flow;
 
-import java.util.HashSet;
-import java.util.Set;
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import android.opengl.GLSurfaceView;
 
 /**
  * Controls the update-render flow of the game.
- * 
+ *
+ * Each tick updates the {@link UpdatePhase}s in order, and the objects of each phase in the
+ * order they were added. A phase has a time budget, and a tick is over budget once it has
+ * taken longer than the budgets of the phases run so far. Deferrable phases are put off while
+ * the tick is over budget and caught up on later ticks that have time to spare, so cosmetic
+ * work piling up never delays the simulation.
+ *
+ * Within a phase, the objects that share game state are updated one after another on the game
+ * loop. Then the phase's {@link IndependentUpdatable}s are spread across the
+ * {@link UpdateWorkers}, and the next phase waits for them all to finish. While the
+ * {@link UpdateProfiler} is enabled, every update is timed.
+ *
+ * Updatables may be added and removed from any thread without ever waiting on the update
+ * pass. Requests are queued lock-free and applied by the game loop between ticks, into arrays
+ * the loop walks without allocating an iterator. Additions are applied before removals, so an
+ * updatable added and removed between the same two ticks ends up removed.
+ *
  * @author R. Matt McCann
  */
 public abstract class GameFlowController extends Thread {
-    /** Whether or not the game flow is running. */
-    private boolean isRunning = false;
-    
+    /** Most ticks a deferred phase may fall behind. Older ticks are dropped. */
+    private static final int MAX_DEFERRED_TICKS = 50;
+
+    /** Time budget of each phase in nanoseconds, by ordinal. */
+    private final AtomicLongArray budgets = new AtomicLongArray(UpdatePhase.values().length);
+
+    /** Interpolation alpha of the frame being drawn. */
+    private volatile float frameAlpha = 1.0f;
+
+    /** Whether or not the game flow is running. Volatile as the renderer stops the loop. */
+    private volatile boolean isRunning = false;
+
+    /** Objects in each phase. Game loop only. */
+    private final Map<UpdatePhase, PhaseUpdatables> phases =
+            new EnumMap<UpdatePhase, PhaseUpdatables>(UpdatePhase.class);
+
+    /** Times the updates, when enabled. */
+    private final UpdateProfiler profiler;
+
     /** Interface for triggering a render. */
     private final GLSurfaceView renderer;
-    
-    private final Set<Updatable> toBeAdded = new HashSet<Updatable>();
-    
-    private final Set<Updatable> toBeRemoved = new HashSet<Updatable>();
-    
-    /** All objects who require the opportunity to update their state during the update phase. */
-    private final Set<Updatable> updatables = new HashSet<Updatable>();
-    
-    /** Injection renderer. */
-    protected GameFlowController(final GLSurfaceView renderer) {
+
+    /** Objects waiting to join each phase. */
+    private final Map<UpdatePhase, Queue<Updatable>> toBeAdded =
+            new EnumMap<UpdatePhase, Queue<Updatable>>(UpdatePhase.class);
+
+    /** Objects waiting to leave the update phase. */
+    private final Queue<Updatable> toBeRemoved = new ConcurrentLinkedQueue<Updatable>();
+
+    /** Removals taken from the queue for the registrations being applied. Game loop only. */
+    private final List<Updatable> removals = new ArrayList<Updatable>();
+
+    /** Phase each object in the update phase belongs to. Game loop only. */
+    private final Map<Updatable, UpdatePhase> registered = new IdentityHashMap<Updatable, UpdatePhase>();
+
+    /** Threads the independent objects are spread across. */
+    private final UpdateWorkers workers;
+
+    /** Injection constructor. */
+    protected GameFlowController(final GLSurfaceView renderer, final UpdateWorkers workers,
+                                 final UpdateProfiler profiler) {
+        this.profiler = profiler;
         this.renderer = renderer;
+        this.workers = workers;
+
+        for (UpdatePhase phase : UpdatePhase.values()) {
+            budgets.set(phase.ordinal(), phase.getDefaultBudget());
+            phases.put(phase, new PhaseUpdatables());
+            toBeAdded.put(phase, new ConcurrentLinkedQueue<Updatable>());
+        }
+    }
+
+    /**
+     * Queues the object to join the simulation phase from the next tick on. Never blocks.
+     * See {@link #addUpdatable(Updatable, UpdatePhase)}.
+     */
+    public void addUpdatable(final Updatable updatable) {
+        addUpdatable(updatable, UpdatePhase.SIMULATION);
     }
-    
-    public synchronized void addUpdatable(final Updatable updatable) { 
-        toBeAdded.add(updatable); 
+
+    /**
+     * Queues the object to join the phase from the next tick on. Never blocks. Objects that
+     * are already updated stay in their current phase.
+     *
+     * @param updatable Object to update every tick.
+     * @param phase Must not be null.
+     */
+    public void addUpdatable(final Updatable updatable, final UpdatePhase phase) {
+        checkArgument(phase != null, "Phase must not be null!");
+
+        toBeAdded.get(phase).offer(updatable);
+    }
+
+    /**
+     * Applies the queued additions and removals. Called by the game loop between ticks.
+     *
+     * The removals are taken before the additions are drained, so a removal is never applied
+     * ahead of an addition requested before it. Removals queued while the additions are
+     * drained wait for the next tick.
+     */
+    protected final void applyRegistrations() {
+        Updatable removeMe;
+        while ((removeMe = toBeRemoved.poll()) != null) {
+            removals.add(removeMe);
+        }
+
+        for (UpdatePhase phase : UpdatePhase.values()) {
+            final Queue<Updatable> queue = toBeAdded.get(phase);
+            final PhaseUpdatables updatables = phases.get(phase);
+
+            Updatable addMe;
+            while ((addMe = queue.poll()) != null) {
+                if (registered.containsKey(addMe)) { continue; }
+
+                registered.put(addMe, phase);
+                updatables.add(addMe);
+            }
+        }
+
+        for (int removalIter = 0; removalIter < removals.size(); removalIter++) {
+            final UpdatePhase phase = registered.remove(removals.get(removalIter));
+            if (phase != null) {
+                phases.get(phase).remove(removals.get(removalIter));
+            }
+        }
+        removals.clear();
     }
-    
+
+    /**
+     * Latches the interpolation alpha of the frame about to be drawn, so everything drawn in
+     * the frame agrees on it. Called by the renderer once per frame.
+     *
+     * @return How far the frame falls between the last tick and the next, from 0 to 1.
+     */
+    public final float beginFrame() {
+        frameAlpha = getInterpolation();
+
+        return frameAlpha;
+    }
+
+    /** Time budget of the phase in nanoseconds. */
+    public final long getBudget(final UpdatePhase phase) { return budgets.get(phase.ordinal()); }
+
+    /**
+     * Interpolation alpha of the frame being drawn. This is how drawing code learns the
+     * alpha, rather than having it handed down the render calls. Objects that move every tick
+     * draw themselves this far between their previous and current state. Only meaningful on
+     * the render thread, between {@link #beginFrame()} and the end of the frame.
+     */
+    public final float getFrameAlpha() { return frameAlpha; }
+
+    /** How far the current time falls between the last tick and the next, from 0 to 1. */
+    protected abstract float getInterpolation();
+
+    protected final UpdateProfiler getProfiler() { return profiler; }
+
     protected final GLSurfaceView getRenderer() { return renderer; }
-    protected final Set<Updatable> getToBeAdded() { return toBeAdded; }
-    protected final Set<Updatable> getToBeRemoved() { return toBeRemoved; }
-    protected final Set<Updatable> getUpdatables() { return updatables; }
-    
+
     public final boolean isRunning() { return isRunning; }
-    
-    public synchronized void removeUpdatable(final Updatable updatable) {
-        toBeRemoved.add(updatable); 
+
+    /** Queues the object to leave the update phase from the next tick on. Never blocks. */
+    public void removeUpdatable(final Updatable updatable) {
+        toBeRemoved.offer(updatable);
     }
-    
+
     /** Starts the game. Controls all state updating and rendering flow. */
     @Override
     public abstract void run();
-    
+
+    /**
+     * Sets the time budget of the phase. Safe to call from any thread.
+     *
+     * @param phase Must not be null.
+     * @param budget Time in nanoseconds. Must not be negative.
+     */
+    public final void setBudget(final UpdatePhase phase, final long budget) {
+        checkArgument(phase != null, "Phase must not be null!");
+        checkArgument(budget >= 0, "Budget must not be negative!");
+
+        budgets.set(phase.ordinal(), budget);
+    }
+
     public final void setIsRunning(boolean isRunning) { this.isRunning = isRunning; }
+
+    /**
+     * Runs a tick, updating each phase in order. Called by the game loop.
+     *
+     * @param clock Times the phases against their budgets.
+     * @param ticksPerSecond Handed to the updated objects.
+     */
+    protected final void tick(final Clock clock, final int ticksPerSecond) {
+        // Bring in the updatable objects that were added or removed since the last update
+        applyRegistrations();
+
+        final long tickStart = clock.nanoTime();
+        long allowed = 0;
+        for (UpdatePhase phase : UpdatePhase.values()) {
+            final PhaseUpdatables updatables = phases.get(phase);
+            allowed += budgets.get(phase.ordinal());
+
+            // If the phase can wait and the tick has no time left, put the phase off
+            if (phase.isDeferrable() && (clock.nanoTime() - tickStart > allowed)) {
+                updatables.numDeferred = Math.min(updatables.numDeferred + 1, MAX_DEFERRED_TICKS);
+                continue;
+            }
+
+            updatables.update(workers, profiler, ticksPerSecond);
+
+            // Catch up on the ticks the phase was put off for while there's time to spare
+            while ((updatables.numDeferred > 0) && (clock.nanoTime() - tickStart <= allowed)) {
+                updatables.update(workers, profiler, ticksPerSecond);
+                updatables.numDeferred--;
+            }
+        }
+
+        // If the tick ran past the budgets of all the phases, it's late
+        if (clock.nanoTime() - tickStart > allowed) {
+            profiler.recordLateTick();
+        }
+    }
+
+    /** Objects of a single phase. Game loop only. */
+    private static final class PhaseUpdatables {
+        /** Objects that may be updated alongside each other. */
+        private final OrderedUpdatables independent = new OrderedUpdatables();
+
+        /** Number of ticks the phase has been put off for. */
+        private int numDeferred = 0;
+
+        /** Objects that share game state, so are updated one at a time. */
+        private final OrderedUpdatables sequential = new OrderedUpdatables();
+
+        void add(final Updatable updatable) {
+            if (updatable instanceof IndependentUpdatable) {
+                independent.add(updatable);
+            } else {
+                sequential.add(updatable);
+            }
+        }
+
+        void remove(final Updatable updatable) {
+            if (updatable instanceof IndependentUpdatable) {
+                independent.remove(updatable);
+            } else {
+                sequential.remove(updatable);
+            }
+        }
+
+        /** Updates the sequential objects in order, then the independent ones across the workers. */
+        void update(final UpdateWorkers workers, final UpdateProfiler profiler, final int ticksPerSecond) {
+            sequential.closeGaps();
+            if (profiler.isEnabled()) {
+                for (int updatableIter = 0; updatableIter < sequential.size; updatableIter++) {
+                    final long start = profiler.now();
+                    sequential.updatables[updatableIter].updateState(ticksPerSecond);
+                    profiler.record(sequential.updatables[updatableIter], start);
+                }
+            } else {
+                for (int updatableIter = 0; updatableIter < sequential.size; updatableIter++) {
+                    sequential.updatables[updatableIter].updateState(ticksPerSecond);
+                }
+            }
+
+            independent.closeGaps();
+            workers.update(independent.updatables, independent.size, ticksPerSecond);
+        }
+    }
+
+    /** Objects in the order they were added. Game loop only. */
+    private static final class OrderedUpdatables {
+        /** Slot of each object. */
+        private final Map<Updatable, Integer> positions = new IdentityHashMap<Updatable, Integer>();
+
+        /** Number of slots used, gaps included. */
+        private int size = 0;
+
+        /** Objects in the order they were added. Removed objects leave null gaps. */
+        private Updatable[] updatables = new Updatable[16];
+
+        /** Whether or not any object has been removed since the gaps were last closed. */
+        private boolean hasGaps = false;
+
+        void add(final Updatable updatable) {
+            closeGaps();
+            if (size == updatables.length) {
+                updatables = Arrays.copyOf(updatables, 2 * size);
+            }
+            positions.put(updatable, size);
+            updatables[size++] = updatable;
+        }
+
+        /** Removes the object, leaving a gap until the next update. */
+        void remove(final Updatable updatable) {
+            final Integer position = positions.remove(updatable);
+            if (position != null) {
+                updatables[position] = null;
+                hasGaps = true;
+            }
+        }
+
+        /** Slides the remaining objects down over the gaps, keeping their order. */
+        void closeGaps() {
+            if (!hasGaps) { return; }
+
+            int packed = 0;
+            for (int updatableIter = 0; updatableIter < size; updatableIter++) {
+                final Updatable updatable = updatables[updatableIter];
+                if (updatable == null) { continue; }
+
+                if (packed != updatableIter) {
+                    updatables[packed] = updatable;
+                    positions.put(updatable, packed);
+                }
+                packed++;
+            }
+            Arrays.fill(updatables, packed, size, null);
+            size = packed;
+            hasGaps = false;
+        }
+    }
 }
@@ -1,6 +1,6 @@
 package com.sneaky.stratagem.flow;
 
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import android.opengl.GLSurfaceView;
 
@@ -10,85 +10,112 @@ import com.google.inject.Singleton;
 /**
  * This update-render flow controller strives for a constant game speed with a maximum
  * rendered frames per second.
- * 
+ *
+ * Elapsed time is gathered into an accumulator and spent in fixed ticks, so the game speed
+ * holds steady however the frames and ticks drift against each other. Frames fall between
+ * ticks, and the renderer is told how far between with {@link #beginFrame()}.
+ *
  * @author R. Matt McCann
  */
 @Singleton
 public class GameFlowControllerImpl extends GameFlowController {
     /** Maximum number of game updates that can occur before trying to render. */
     private final int maxSkippedRenders = 20;
-    
-    /** Tick period is milliseconds. */
-    private final int tickPeriod;
-    
+
+    /** Source of time. */
+    private final Clock clock;
+
+    /** Time that has passed but not yet been spent on ticks, in nanoseconds. Game loop only. */
+    private long accumulated = 0;
+
+    /** Time the previous pass of the loop started, in nanoseconds. Game loop only. */
+    private long previousPass = 0;
+
+    /** Time the game state has been updated up to, in nanoseconds. */
+    private volatile long simulatedUpTo = 0;
+
+    /** Tick period in nanoseconds. */
+    private final long tickPeriod;
+
     /** Desired game speed. */
     private final int ticksPerSecond = 50;
-    
+
     /** Injection constructor. */
     @Inject
-    public GameFlowControllerImpl(final GLSurfaceView renderer) {
-        super(renderer);
-        
-        final int oneSecond = 1000;
-        tickPeriod = oneSecond / ticksPerSecond;
+    public GameFlowControllerImpl(final GLSurfaceView renderer, final Clock clock,
+                                  final UpdateWorkers workers, final UpdateProfiler profiler) {
+        super(renderer, workers, profiler);
+
+        this.clock = clock;
+        tickPeriod = TimeUnit.SECONDS.toNanos(1) / ticksPerSecond;
     }
-    
+
+    /** {@inheritDoc} */
+    @Override
+    protected float getInterpolation() {
+        final float alpha = (float) (clock.nanoTime() - simulatedUpTo) / tickPeriod;
+
+        return Math.max(0.0f, Math.min(alpha, 1.0f));
+    }
+
     /** {@inheritDoc} */
     @Override
     public void run() {
-        int stateUpdatesSinceLastRender = 0;
-        
         // Set the game loop as running
         setIsRunning(true);
-        
+        resetTimekeeping(clock.nanoTime());
+
         while (isRunning()) {
-            final long flowStart = System.currentTimeMillis();
-            long timeLeftInFlow;
-            
-            // Render a frame
-            getRenderer().requestRender();
-            stateUpdatesSinceLastRender = 0;
-            
-            // Keep updating the game state until we have enough time left to perform a rendering
-            do {
-                synchronized (this) {
-                    Set<Updatable> updatables = getUpdatables();
-                
-                    // Add any updatable objects that requested themselves to be added
-                    Set<Updatable> toBeAdded = getToBeAdded();
-                    for (Updatable addMe : toBeAdded) {
-                        updatables.add(addMe);
-                    }
-                    toBeAdded.clear();
-                
-                    // Remove any updatable objects that requested themselves for removal
-                    Set<Updatable> toBeRemoved = getToBeRemoved();
-                    for (Updatable removeMe : toBeRemoved) {
-                        updatables.remove(removeMe);
-                    }
-                    toBeRemoved.clear();
-                
-                    // Update the game state
-                    for (Updatable toBeUpdated : updatables) {
-                        toBeUpdated.updateState(ticksPerSecond);
-                    }
-                }
-                
-                // Update the number up state updates that have occurred
-                stateUpdatesSinceLastRender++;
-                
-                // Calculate how much time is left over after updating the state
-                final long flowStopDeadline = flowStart + tickPeriod * stateUpdatesSinceLastRender;
-                timeLeftInFlow = flowStopDeadline - System.currentTimeMillis();
-            } while ((timeLeftInFlow < 0) && 
-                     (stateUpdatesSinceLastRender < maxSkippedRenders));
-            
-            // Sleep until its time to render another frame
-            if (timeLeftInFlow > 0) {
-                try {
-                    Thread.sleep(timeLeftInFlow);
-                } catch (InterruptedException ex) { }
-            }
+            pass();
+
+            // Sleep until its time to update again
+            try {
+                clock.sleep(tickPeriod - accumulated);
+            } catch (InterruptedException ex) { }
+        }
+    }
+
+    /**
+     * Runs one pass of the game loop. Spends the time passed since the previous pass on as
+     * many ticks as it covers, then requests a frame.
+     *
+     * @return Number of ticks run.
+     */
+    protected final int pass() {
+        final long passStart = clock.nanoTime();
+        accumulated += passStart - previousPass;
+        previousPass = passStart;
+
+        int numTicks = 0;
+        while ((accumulated >= tickPeriod) && (numTicks < maxSkippedRenders)) {
+            tick(clock, ticksPerSecond);
+
+            accumulated -= tickPeriod;
+            numTicks++;
+        }
+
+        // If more than one tick ran, the frames between them were skipped
+        if (numTicks > 1) {
+            getProfiler().recordSkippedRenders(numTicks - 1);
+        }
+
+        // If the game has fallen too far behind to catch up, let the backlog go rather than spiral
+        if (accumulated >= tickPeriod) {
+            getProfiler().recordDroppedTicks(accumulated / tickPeriod);
+            accumulated %= tickPeriod;
         }
+        simulatedUpTo = passStart - accumulated;
+
+        // Render a frame
+        getRenderer().requestRender();
+
+        return numTicks;
+    }
+
+    /** Starts the loop's timekeeping at the provided time, in nanoseconds. */
+    protected final void resetTimekeeping(final long now) {
+        accumulated = 0;
+        previousPass = now;
+        simulatedUpTo = now;
     }
 }
@@ -0,0 +1,11 @@
+package com.sneaky.stratagem.flow;
+
+/**
+ * Marks an updatable that touches no game state shared with other updatables, such as a
+ * cosmetic effect moving itself along. Independent updatables of a phase are spread across the
+ * {@link UpdateWorkers} and updated alongside each other, so they may be updated on any thread
+ * and in any order relative to one another. They still finish before the next phase starts.
+ * 
+ * @author R. Matt McCann
+ */
+public interface IndependentUpdatable extends Updatable { }
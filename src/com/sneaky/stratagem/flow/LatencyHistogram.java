@@ -0,0 +1,146 @@
+package com.sneaky.stratagem.flow;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds, bucketed log-linearly in the manner of an HDR
+ * histogram. Each power of two is split into {@link #SUB_BUCKETS} equal buckets, so any
+ * recorded latency is reported to within an eighth of itself while the whole range of a long
+ * fits in a few hundred counters. Recording is lock-free and allocation free, so the histogram
+ * may be recorded into from several threads at once.
+ *
+ * @author R. Matt McCann
+ */
+public final class LatencyHistogram {
+    /** Bits of precision kept below each latency's leading bit. */
+    private static final int SUB_BUCKET_BITS = 3;
+
+    /** Number of buckets each power of two is split into. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** Number of buckets needed to cover every non-negative long. */
+    private static final int NUM_BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /** Number of latencies recorded into each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(NUM_BUCKETS);
+
+    /** Longest latency recorded. */
+    private final AtomicLong max = new AtomicLong();
+
+    /** Number of latencies recorded. */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /** Sum of the latencies recorded. */
+    private final AtomicLong totalTime = new AtomicLong();
+
+    /** Copy of the histogram as it stands. Taken bucket by bucket, so racing records may be cut. */
+    public LatencyHistogram copy() {
+        final LatencyHistogram copy = new LatencyHistogram();
+        for (int bucketIter = 0; bucketIter < NUM_BUCKETS; bucketIter++) {
+            copy.counts.set(bucketIter, counts.get(bucketIter));
+        }
+        copy.max.set(max.get());
+        copy.totalCount.set(totalCount.get());
+        copy.totalTime.set(totalTime.get());
+
+        return copy;
+    }
+
+    /** Longest latency recorded, in nanoseconds. */
+    public long getMax() { return max.get(); }
+
+    /** Mean latency recorded, in nanoseconds. Zero if nothing is recorded. */
+    public long getMean() {
+        final long count = totalCount.get();
+
+        return (count == 0) ? 0 : totalTime.get() / count;
+    }
+
+    /** Number of latencies recorded. */
+    public long getTotalCount() { return totalCount.get(); }
+
+    /** Sum of the latencies recorded, in nanoseconds. */
+    public long getTotalTime() { return totalTime.get(); }
+
+    /**
+     * Latency at or below which the percentage of recorded latencies fall, rounded up to the
+     * top of its bucket.
+     *
+     * @param percentile From 0 to 100.
+     * @return Latency in nanoseconds. Zero if nothing is recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        checkArgument((percentile >= 0.0) && (percentile <= 100.0), "Percentile must be from 0 to 100!");
+
+        long count = 0;
+        for (int bucketIter = 0; bucketIter < NUM_BUCKETS; bucketIter++) {
+            count += counts.get(bucketIter);
+        }
+        if (count == 0) { return 0; }
+
+        // Walk the buckets until enough of the latencies have been passed
+        final long wanted = Math.max((long) Math.ceil(percentile / 100.0 * count), 1);
+        long passed = 0;
+        for (int bucketIter = 0; bucketIter < NUM_BUCKETS; bucketIter++) {
+            passed += counts.get(bucketIter);
+            if (passed >= wanted) {
+                return Math.min(highestInBucket(bucketIter), max.get());
+            }
+        }
+
+        return max.get();
+    }
+
+    /**
+     * Records the latency.
+     *
+     * @param latency In nanoseconds. Negative latencies, as from a clock stepping back, count as zero.
+     */
+    public void record(final long latency) {
+        final long value = Math.max(latency, 0);
+
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.incrementAndGet();
+        totalTime.addAndGet(value);
+
+        long currentMax = max.get();
+        while ((value > currentMax) && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /** Forgets everything recorded. */
+    public void reset() {
+        for (int bucketIter = 0; bucketIter < NUM_BUCKETS; bucketIter++) {
+            counts.set(bucketIter, 0);
+        }
+        max.set(0);
+        totalCount.set(0);
+        totalTime.set(0);
+    }
+
+    /** Bucket of the non-negative value. */
+    static int bucketOf(final long value) {
+        // If the value is small enough, it gets a bucket of its own
+        if (value < SUB_BUCKETS) { return (int) value; }
+
+        final int leadingBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int shift = leadingBit - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /** Highest value that falls in the bucket. */
+    static long highestInBucket(final int bucket) {
+        if (bucket < SUB_BUCKETS) { return bucket; }
+
+        final int shift = bucket / SUB_BUCKETS - 1;
+        final long subBucket = bucket % SUB_BUCKETS;
+
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.sneaky.stratagem.flow;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Deterministic time that only moves when told to. Sleeping advances the clock by the time
+ * slept and returns at once, so a game loop driven by this clock runs its ticks exactly as it
+ * would in real time, just without waiting.
+ * 
+ * @author R. Matt McCann
+ */
+public final class ManualClock implements Clock {
+    /** Current time in nanoseconds. */
+    private long now;
+    
+    /** Total time slept in nanoseconds. */
+    private long slept = 0;
+    
+    /** Starts the clock at the provided time. */
+    public ManualClock(final long startNanos) {
+        now = startNanos;
+    }
+    
+    /**
+     * Moves the clock forward, as if the caller had spent the time working.
+     * 
+     * @param nanos Must not be negative.
+     */
+    public synchronized void advance(final long nanos) {
+        checkArgument(nanos >= 0, "Time must not run backwards!");
+        
+        now += nanos;
+    }
+    
+    /** Total time slept in nanoseconds. */
+    public synchronized long getSlept() { return slept; }
+    
+    /** {@inheritDoc} */
+    @Override
+    public synchronized long nanoTime() { return now; }
+    
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void sleep(final long nanos) {
+        if (nanos > 0) {
+            now += nanos;
+            slept += nanos;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Singleton;
+
+/**
+ * Real time, as measured by {@link System#nanoTime()}.
+ * 
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class SystemClock implements Clock {
+    /** {@inheritDoc} */
+    @Override
+    public long nanoTime() { return System.nanoTime(); }
+    
+    /** {@inheritDoc} */
+    @Override
+    public void sleep(final long nanos) throws InterruptedException {
+        TimeUnit.NANOSECONDS.sleep(nanos);
+    }
+}
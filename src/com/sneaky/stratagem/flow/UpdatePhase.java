@@ -0,0 +1,44 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Phases of a game tick, in the order they are updated. Within a phase, objects are updated
+ * in the order they were added. Each phase has a default share of the tick's time, which the
+ * {@link GameFlowController} lets be reconfigured.
+ * 
+ * @author R. Matt McCann
+ */
+public enum UpdatePhase {
+    /** Reacting to the player's input. */
+    INPUT(2, false),
+    
+    /** Game rules and the actions that change the game's state. */
+    SIMULATION(8, false),
+    
+    /** Animations of the units and actions. */
+    ANIMATION(4, false),
+    
+    /** Cosmetic effects, such as the drifting clouds. Put off when the tick runs over budget. */
+    EFFECTS(2, true),
+    
+    /** Menus, HUDs and their animations. */
+    UI(2, false);
+    
+    /** Default time budget of the phase, in nanoseconds. */
+    private final long defaultBudget;
+    
+    /** Whether or not the phase may be put off to a later tick when the tick is over budget. */
+    private final boolean isDeferrable;
+    
+    private UpdatePhase(final long defaultBudgetMillis, final boolean isDeferrable) {
+        this.defaultBudget = TimeUnit.MILLISECONDS.toNanos(defaultBudgetMillis);
+        this.isDeferrable = isDeferrable;
+    }
+    
+    /** Default time budget of the phase, in nanoseconds. */
+    public long getDefaultBudget() { return defaultBudget; }
+    
+    /** Whether or not the phase may be put off to a later tick when the tick is over budget. */
+    public boolean isDeferrable() { return isDeferrable; }
+}
@@ -0,0 +1,201 @@
+package com.sneaky.stratagem.flow;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Measures where the game loop's time goes. While enabled, every update of every updatable is
+ * timed and recorded into a {@link LatencyHistogram} for its class, and the loop counts the
+ * ticks that ran over budget, the frames skipped to catch up and the ticks dropped when
+ * catching up was hopeless.
+ *
+ * Off by default, as timing each update costs two clock readings. Disabled, the loop checks a
+ * single flag per batch of updates. May be switched, read and reset from any thread.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class UpdateProfiler {
+    /** Orders the profiles by the time spent on them, most first. */
+    private static final Comparator<Profile> BY_TOTAL_TIME = new Comparator<Profile>() {
+        @Override
+        public int compare(final Profile profile1, final Profile profile2) {
+            final long time1 = profile1.getHistogram().getTotalTime();
+            final long time2 = profile2.getHistogram().getTotalTime();
+
+            return (time1 > time2) ? -1 : ((time1 == time2) ? 0 : 1);
+        }
+    };
+
+    /** Source of time. */
+    private final Clock clock;
+
+    /** Ticks dropped when the game fell too far behind to catch up. */
+    private final AtomicLong droppedTicks = new AtomicLong();
+
+    /** Update times of each class of updatable. */
+    private final ConcurrentMap<Class<?>, LatencyHistogram> histograms =
+            new ConcurrentHashMap<Class<?>, LatencyHistogram>();
+
+    /** Whether or not the updates are being measured. */
+    private volatile boolean isEnabled = false;
+
+    /** Ticks that took longer than the phase budgets together. */
+    private final AtomicLong lateTicks = new AtomicLong();
+
+    /** Frames skipped by running ticks back to back to catch up. */
+    private final AtomicLong skippedRenders = new AtomicLong();
+
+    /** Guice injection constructor. */
+    @Inject
+    protected UpdateProfiler(final Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Writes the profiles and counts to the file, replacing it. Times are in microseconds.
+     *
+     * @param file Must not be null.
+     * @throws IOException If the file can't be written.
+     */
+    public void dump(final File file) throws IOException {
+        checkArgument(file != null, "File must not be null!");
+
+        final PrintWriter writer = new PrintWriter(new FileWriter(file));
+        try {
+            writer.println("late ticks: " + getLateTicks());
+            writer.println("skipped renders: " + getSkippedRenders());
+            writer.println("dropped ticks: " + getDroppedTicks());
+            writer.println();
+            writer.println("updatable\tupdates\ttotal\tmean\tp50\tp90\tp99\tp99.9\tmax");
+            for (Profile profile : getProfiles()) {
+                final LatencyHistogram histogram = profile.getHistogram();
+                writer.println(profile.getName() + "\t" + histogram.getTotalCount()
+                        + "\t" + toMicros(histogram.getTotalTime())
+                        + "\t" + toMicros(histogram.getMean())
+                        + "\t" + toMicros(histogram.getValueAtPercentile(50.0))
+                        + "\t" + toMicros(histogram.getValueAtPercentile(90.0))
+                        + "\t" + toMicros(histogram.getValueAtPercentile(99.0))
+                        + "\t" + toMicros(histogram.getValueAtPercentile(99.9))
+                        + "\t" + toMicros(histogram.getMax()));
+            }
+        } finally {
+            writer.close();
+        }
+
+        // PrintWriter swallows write failures, so check for them once it's done
+        if (writer.checkError()) {
+            throw new IOException("Failed to write the update profile to " + file + "!");
+        }
+    }
+
+    /** Ticks dropped when the game fell too far behind to catch up. */
+    public long getDroppedTicks() { return droppedTicks.get(); }
+
+    /** Ticks that took longer than the phase budgets together. */
+    public long getLateTicks() { return lateTicks.get(); }
+
+    /** Copies of the profile of each class of updatable, most time spent first. */
+    public ImmutableList<Profile> getProfiles() {
+        final List<Profile> profiles = Lists.newArrayList();
+        for (Map.Entry<Class<?>, LatencyHistogram> entry : histograms.entrySet()) {
+            // If the class is anonymous, fall back on its binary name
+            final Class<?> updatableClass = entry.getKey();
+            final String name = updatableClass.getSimpleName().isEmpty()
+                    ? updatableClass.getName() : updatableClass.getSimpleName();
+
+            profiles.add(new Profile(name, entry.getValue().copy()));
+        }
+        Collections.sort(profiles, BY_TOTAL_TIME);
+
+        return ImmutableList.copyOf(profiles);
+    }
+
+    /** Frames skipped by running ticks back to back to catch up. */
+    public long getSkippedRenders() { return skippedRenders.get(); }
+
+    public boolean isEnabled() { return isEnabled; }
+
+    /** Forgets everything measured so far. */
+    public void reset() {
+        histograms.clear();
+        droppedTicks.set(0);
+        lateTicks.set(0);
+        skippedRenders.set(0);
+    }
+
+    public void setEnabled(final boolean isEnabled) { this.isEnabled = isEnabled; }
+
+    /** Current time, for starting an update's measurement. */
+    long now() { return clock.nanoTime(); }
+
+    /**
+     * Records an update of the object.
+     *
+     * @param updatable Object updated.
+     * @param start Time the update started, from {@link #now()}.
+     */
+    void record(final Updatable updatable, final long start) {
+        final long elapsed = clock.nanoTime() - start;
+
+        LatencyHistogram histogram = histograms.get(updatable.getClass());
+        if (histogram == null) {
+            // If another thread got the class in first, use its histogram
+            final LatencyHistogram created = new LatencyHistogram();
+            histogram = histograms.putIfAbsent(updatable.getClass(), created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+        histogram.record(elapsed);
+    }
+
+    void recordDroppedTicks(final long numTicks) {
+        if (isEnabled) { droppedTicks.addAndGet(numTicks); }
+    }
+
+    void recordLateTick() {
+        if (isEnabled) { lateTicks.incrementAndGet(); }
+    }
+
+    void recordSkippedRenders(final long numRenders) {
+        if (isEnabled) { skippedRenders.addAndGet(numRenders); }
+    }
+
+    private static long toMicros(final long nanos) { return TimeUnit.NANOSECONDS.toMicros(nanos); }
+
+    /** Update times of one class of updatable. */
+    public static final class Profile {
+        private final LatencyHistogram histogram;
+
+        /** Simple name of the class. */
+        private final String name;
+
+        private Profile(final String name, final LatencyHistogram histogram) {
+            this.name = name;
+            this.histogram = histogram;
+        }
+
+        /** Update times, in nanoseconds. A copy, so it doesn't change while it's read. */
+        public LatencyHistogram getHistogram() { return histogram; }
+
+        public String getName() { return name; }
+    }
+}
@@ -0,0 +1,147 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Threads the game loop spreads its {@link IndependentUpdatable}s across. A batch is split into
+ * one contiguous chunk per core, the game loop updating the first chunk itself while the
+ * workers take the rest, and the loop waits on all of them before moving on. Batches too small
+ * to be worth the hand off are updated on the game loop alone.
+ *
+ * The chunks and the barrier are reused from batch to batch, so a batch doesn't allocate. Only
+ * the game loop hands out batches. While the {@link UpdateProfiler} is enabled, each update
+ * is timed on the thread that runs it.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class UpdateWorkers {
+    /** Fewest objects worth handing to a chunk of their own. */
+    private static final int MIN_CHUNK_SIZE = 16;
+
+    /** Chunks of the batch being updated. The first is the game loop's own. */
+    private final Chunk[] chunks;
+
+    /** Runs the chunks. Daemon threads, so idle workers don't hold up exit. Null without workers. */
+    private final ExecutorService executor;
+
+    /** Released by each chunk as it finishes. */
+    private final Semaphore finished = new Semaphore(0);
+
+    /** First failure of the batch being updated. */
+    private volatile Throwable failure = null;
+
+    /** Times the updates, when enabled. */
+    private final UpdateProfiler profiler;
+
+    /** Guice injection constructor. One worker per core, not counting the game loop's. */
+    @Inject
+    protected UpdateWorkers(final UpdateProfiler profiler) {
+        this(profiler, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    /** @param numWorkers Number of threads besides the game loop. Zero updates everything inline. */
+    UpdateWorkers(final UpdateProfiler profiler, final int numWorkers) {
+        final int numThreads = Math.max(numWorkers, 0);
+        this.profiler = profiler;
+
+        chunks = new Chunk[numThreads + 1];
+        for (int chunkIter = 0; chunkIter < chunks.length; chunkIter++) {
+            chunks[chunkIter] = new Chunk();
+        }
+
+        executor = (numThreads == 0) ? null : Executors.newFixedThreadPool(numThreads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("UpdateWorker-%d").build());
+    }
+
+    /**
+     * Updates the objects, returning once all of them are updated. Failures are rethrown on the
+     * calling thread once the whole batch has finished.
+     *
+     * @param updatables Objects to update, from the start of the array.
+     * @param size Number of objects to update.
+     * @param ticksPerSecond Handed to the updated objects.
+     */
+    void update(final Updatable[] updatables, final int size, final int ticksPerSecond) {
+        final int numChunks = Math.min(chunks.length, size / MIN_CHUNK_SIZE);
+
+        // If the batch is too small to be worth splitting, update it here
+        if (numChunks <= 1) {
+            updateRange(updatables, 0, size, ticksPerSecond);
+            return;
+        }
+
+        for (int chunkIter = 0; chunkIter < numChunks; chunkIter++) {
+            chunks[chunkIter].set(updatables, size * chunkIter / numChunks,
+                    size * (chunkIter + 1) / numChunks, ticksPerSecond);
+        }
+        for (int chunkIter = 1; chunkIter < numChunks; chunkIter++) {
+            executor.execute(chunks[chunkIter]);
+        }
+        chunks[0].run();
+
+        // Wait for every chunk before the next phase touches anything they might
+        finished.acquireUninterruptibly(numChunks);
+        for (int chunkIter = 0; chunkIter < numChunks; chunkIter++) {
+            chunks[chunkIter].updatables = null;
+        }
+
+        final Throwable batchFailure = failure;
+        if (batchFailure != null) {
+            failure = null;
+            throw Throwables.propagate(batchFailure);
+        }
+    }
+
+    /** Updates the objects from the start up to but not including the end. */
+    private void updateRange(final Updatable[] updatables, final int start, final int end,
+                             final int ticksPerSecond) {
+        if (profiler.isEnabled()) {
+            for (int updatableIter = start; updatableIter < end; updatableIter++) {
+                final long updateStart = profiler.now();
+                updatables[updatableIter].updateState(ticksPerSecond);
+                profiler.record(updatables[updatableIter], updateStart);
+            }
+        } else {
+            for (int updatableIter = start; updatableIter < end; updatableIter++) {
+                updatables[updatableIter].updateState(ticksPerSecond);
+            }
+        }
+    }
+
+    /** Contiguous run of a batch's objects. Set by the game loop, run by a worker. */
+    private final class Chunk implements Runnable {
+        private int end;
+        private int start;
+        private int ticksPerSecond;
+        private Updatable[] updatables;
+
+        @Override
+        public void run() {
+            try {
+                updateRange(updatables, start, end, ticksPerSecond);
+            } catch (Throwable ex) {
+                // If another chunk already failed, the first failure is the one reported
+                if (failure == null) {
+                    failure = ex;
+                }
+            } finally {
+                finished.release();
+            }
+        }
+
+        void set(final Updatable[] updatables, final int start, final int end, final int ticksPerSecond) {
+            this.updatables = updatables;
+            this.start = start;
+            this.end = end;
+            this.ticksPerSecond = ticksPerSecond;
+        }
+    }
+}
@@ -1,18 +1,14 @@
 package com.sneaky.stratagem.graphics.textures;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.Set;
 
 import scatcat.general.Constants;
 import scatcat.general.points.GridPoint2D;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.HighlightRegion;
 import scatcat.map.Tile.HighlightOrientation;
 import android.opengl.GLES20;
 
-import com.google.common.base.Optional;
-import com.google.common.collect.Sets;
 import com.google.inject.Injector;
 
 /**
@@ -21,6 +17,291 @@ import com.google.inject.Injector;
  * @author R. Matt McCann
  */
 public class HighlightTexturePack {
+    /** Bits of the adjacency mask, one per neighboring tile. */
+    private static final int TOP_LEFT = 1 << 0;
+    private static final int TOP_CENTER = 1 << 1;
+    private static final int TOP_RIGHT = 1 << 2;
+    private static final int MID_LEFT = 1 << 3;
+    private static final int MID_RIGHT = 1 << 4;
+    private static final int BOTTOM_LEFT = 1 << 5;
+    private static final int BOTTOM_CENTER = 1 << 6;
+    private static final int BOTTOM_RIGHT = 1 << 7;
+    private static final int ALL = 0xFF;
+    private static final int NONE = 0;
+
+    /** Row offset of the neighbor behind each bit of the adjacency mask. */
+    private static final int[] NEIGHBOR_ROW_OFFSETS = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    /** Column offset of the neighbor behind each bit of the adjacency mask. */
+    private static final int[] NEIGHBOR_COLUMN_OFFSETS = {-1, -1, -1, 0, 0, 1, 1, 1};
+
+    /** Slots of the textures, in the order they are released. */
+    private static final int BRIDGE = 0;
+    private static final int CENTER = 1;
+    private static final int CORNER = 2;
+    private static final int CORNER_MISSING_1_CORNER = 3;
+    private static final int ISLAND = 4;
+    private static final int MISSING_1_CORNER = 5;
+    private static final int MISSING_2_CORNERS = 6;
+    private static final int MISSING_2_CORNERS_OPPOSITE = 7;
+    private static final int MISSING_3_CORNERS = 8;
+    private static final int MISSING_4_CORNERS = 9;
+    private static final int PENINSULA = 10;
+    private static final int SHORE = 11;
+    private static final int SHORE_MISSING_1_CORNER = 12;
+    private static final int SHORE_MISSING_2_CORNERS = 13;
+
+    /** Shapes of highlight, in order of precedence. The first rule the adjacency matches wins. */
+    private static final Rule[] RULES = {
+        // If the tile is surrounded on all sides and corners [Center]
+        new Rule(ALL,
+                 NONE,
+                 CENTER, HighlightOrientation.NORTH, false),
+
+        // If the tile is completely surrounded except one side [North-Facing Shore]
+        new Rule(MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_CENTER,
+                 SHORE, HighlightOrientation.NORTH, false),
+
+        // If the tile is completely surrounded except one side [East-Facing Shore]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 MID_RIGHT,
+                 SHORE, HighlightOrientation.EAST, false),
+
+        // If the tile is completely surrounded except one side [South-Facing Shore]
+        new Rule(TOP_LEFT | TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT,
+                 BOTTOM_CENTER,
+                 SHORE, HighlightOrientation.SOUTH, false),
+
+        // If the tile is completely surrounded except on side [West-Facing Shore]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 MID_LEFT,
+                 SHORE, HighlightOrientation.WEST, false),
+
+        // If the tile is surrounded by two sides [North-East-Facing Corner]
+        new Rule(MID_LEFT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_CENTER | MID_RIGHT,
+                 CORNER, HighlightOrientation.NORTH, false),
+
+        // If the tile is surrounded by two sides [East-South-Facing Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT,
+                 MID_RIGHT | BOTTOM_CENTER,
+                 CORNER, HighlightOrientation.EAST, false),
+
+        // If the tile is surrounded by two sides [South-West-Facing Corner]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_RIGHT,
+                 BOTTOM_CENTER | MID_LEFT,
+                 CORNER, HighlightOrientation.SOUTH, false),
+
+        // If the tile is surrounded by two sides [West-North-Facing Corner]
+        new Rule(MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 MID_LEFT | TOP_CENTER,
+                 CORNER, HighlightOrientation.WEST, false),
+
+        // If the tile is surrounded on opposite sides [North-South Bridge]
+        new Rule(TOP_CENTER | BOTTOM_CENTER,
+                 MID_LEFT | MID_RIGHT,
+                 BRIDGE, HighlightOrientation.NORTH, false),
+
+        // If the tile is surrounded on opposite sides [East-West Bridge]
+        new Rule(MID_LEFT | MID_RIGHT,
+                 TOP_CENTER | BOTTOM_CENTER,
+                 BRIDGE, HighlightOrientation.EAST, false),
+
+        // If the tile has one adjacent side [North Facing Peninsula]
+        new Rule(BOTTOM_CENTER,
+                 TOP_CENTER | MID_LEFT | MID_RIGHT,
+                 PENINSULA, HighlightOrientation.NORTH, false),
+
+        // If the tile has one adjacent side [East Facing Peninsula]
+        new Rule(MID_LEFT,
+                 TOP_CENTER | MID_RIGHT | BOTTOM_CENTER,
+                 PENINSULA, HighlightOrientation.EAST, false),
+
+        // If the tile has one adjacent side [South Facing Peninsula]
+        new Rule(TOP_CENTER,
+                 MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 PENINSULA, HighlightOrientation.SOUTH, false),
+
+        // If the tile has one adjacent side [West Facing Peninsula]
+        new Rule(MID_RIGHT,
+                 TOP_CENTER | MID_LEFT | BOTTOM_CENTER,
+                 PENINSULA, HighlightOrientation.WEST, false),
+
+        // If the tile has no adjacent highlighted tiles [Island]
+        new Rule(NONE,
+                 TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 ISLAND, HighlightOrientation.NORTH, false),
+
+        // If the tile has total adjacency except for one corner [North-East Missing One Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_RIGHT,
+                 MISSING_1_CORNER, HighlightOrientation.NORTH, false),
+
+        // If the tile has total adjacency except for one corner [East-South Missing One Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 BOTTOM_RIGHT,
+                 MISSING_1_CORNER, HighlightOrientation.EAST, false),
+
+        // If the tile has total adjacency except for one corner [South-West Missing One Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 BOTTOM_LEFT,
+                 MISSING_1_CORNER, HighlightOrientation.SOUTH, false),
+
+        // If the tile has total adjacency except for one corner [West-North Missing One Corner]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_LEFT,
+                 MISSING_1_CORNER, HighlightOrientation.WEST, false),
+
+        // If the tile has total adjacency except for two adjacent corners [North Missing Two Corners]
+        new Rule(TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_LEFT | TOP_RIGHT,
+                 MISSING_2_CORNERS, HighlightOrientation.NORTH, false),
+
+        // If the tile has total adjacency except for two adjacent corners [East Missing Two Corners]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_RIGHT | BOTTOM_RIGHT,
+                 MISSING_2_CORNERS, HighlightOrientation.EAST, false),
+
+        // If the tile has total adjacency except for two adjacent corners [South Missing Two Corners]
+        new Rule(TOP_LEFT | TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 BOTTOM_LEFT | BOTTOM_RIGHT,
+                 MISSING_2_CORNERS, HighlightOrientation.SOUTH, false),
+
+        // If the tile has total adjacency except for two adjacent corners [West Missing Two Corners]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_LEFT | BOTTOM_LEFT,
+                 MISSING_2_CORNERS, HighlightOrientation.WEST, false),
+
+        // If the tile has total adjacency except for two opposite corners [North-East-South-West Missing Two Corners]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_RIGHT | BOTTOM_LEFT,
+                 MISSING_2_CORNERS_OPPOSITE, HighlightOrientation.NORTH, false),
+
+        // If the tile has total adjacency except for two opposite corners [North-West-South-East Missing Two Corners]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_LEFT | BOTTOM_RIGHT,
+                 MISSING_2_CORNERS_OPPOSITE, HighlightOrientation.EAST, false),
+
+        // If the tile has total adjacency except for three corners [North-East Missing Three Corners]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 TOP_LEFT | BOTTOM_LEFT | BOTTOM_RIGHT,
+                 MISSING_3_CORNERS, HighlightOrientation.NORTH, false),
+
+        // If the tile has total adjacency except for three corners [East-South Missing Three Corners]
+        new Rule(TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_LEFT | TOP_RIGHT | BOTTOM_LEFT,
+                 MISSING_3_CORNERS, HighlightOrientation.EAST, false),
+
+        // If the tile has total adjacency except for three corners [South-West Missing Three Corners]
+        new Rule(TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_LEFT | TOP_RIGHT | BOTTOM_RIGHT,
+                 MISSING_3_CORNERS, HighlightOrientation.SOUTH, false),
+
+        // If the tile has total adjacency except for three corners [West-North Missing Three Corners]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 TOP_RIGHT | BOTTOM_LEFT | BOTTOM_RIGHT,
+                 MISSING_3_CORNERS, HighlightOrientation.WEST, false),
+
+        // If the tile has all sides adjacent but no corners [Missing Four Corners]
+        new Rule(TOP_CENTER | MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 TOP_LEFT | TOP_RIGHT | BOTTOM_LEFT | BOTTOM_RIGHT,
+                 MISSING_4_CORNERS, HighlightOrientation.NORTH, false),
+
+        // If the tile has adjacencies except a side and one corner [North Untransposed Shore Missing Corner]
+        new Rule(MID_LEFT | MID_RIGHT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_CENTER | BOTTOM_RIGHT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.NORTH, false),
+
+        // If the tile has adjacencies except a side and one corner [North Transposed Shore Missing Corner]
+        new Rule(MID_LEFT | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_CENTER | BOTTOM_LEFT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.NORTH, true),
+
+        // If the tile has adjacencies except a side and one corner [East Untransposed Shore Missing Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | BOTTOM_CENTER,
+                 MID_RIGHT | BOTTOM_LEFT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.EAST, false),
+
+        // If the tile has adjacencies except a side and one corner [East Transposed Shore Missing Corner]
+        new Rule(TOP_CENTER | MID_LEFT | BOTTOM_LEFT | BOTTOM_CENTER,
+                 TOP_LEFT | MID_RIGHT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.EAST, true),
+
+        // If the tile has adjacencies except a side and one corner [South Untransposed Shore Missing Corner]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_LEFT | MID_RIGHT,
+                 TOP_LEFT | BOTTOM_CENTER,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.SOUTH, false),
+
+        // If the tile has adjacencies except a side and one corner [South Transposed Shore Missing Corner]
+        new Rule(TOP_LEFT | TOP_CENTER | MID_LEFT | MID_RIGHT,
+                 TOP_RIGHT | BOTTOM_CENTER,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.SOUTH, true),
+
+        // If the tile has adjacencies except a side and one corner [West Untransposed Shore Missing Corner]
+        new Rule(TOP_CENTER | MID_RIGHT | BOTTOM_CENTER | BOTTOM_RIGHT,
+                 TOP_RIGHT | MID_LEFT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.WEST, false),
+
+        // If the tile has adjacencies except a side and one corner [West Transposed Shore Missing Corner]
+        new Rule(TOP_CENTER | TOP_RIGHT | MID_RIGHT | BOTTOM_CENTER,
+                 MID_LEFT | BOTTOM_RIGHT,
+                 SHORE_MISSING_1_CORNER, HighlightOrientation.WEST, true),
+
+        // If the tile has adjacencies except a side and two corner [North Shore Missing 2 Corners]
+        new Rule(MID_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 TOP_CENTER | BOTTOM_LEFT | BOTTOM_RIGHT,
+                 SHORE_MISSING_2_CORNERS, HighlightOrientation.NORTH, false),
+
+        // If the tile has adjacencies except a side and two corner [East Shore Missing 2 Corners]
+        new Rule(TOP_CENTER | MID_LEFT | BOTTOM_CENTER,
+                 TOP_LEFT | MID_RIGHT | BOTTOM_LEFT,
+                 SHORE_MISSING_2_CORNERS, HighlightOrientation.EAST, false),
+
+        // If the tile has adjacencies except a side and two corner [South Shore Missing 2 Corners]
+        new Rule(TOP_CENTER | MID_LEFT | MID_RIGHT,
+                 TOP_LEFT | TOP_RIGHT | BOTTOM_CENTER,
+                 SHORE_MISSING_2_CORNERS, HighlightOrientation.SOUTH, false),
+
+        // If the tile has adjacencies except a side and two corner [West Shore Missing 2 Corners]
+        new Rule(TOP_CENTER | MID_RIGHT | BOTTOM_CENTER,
+                 TOP_RIGHT | MID_LEFT | BOTTOM_RIGHT,
+                 SHORE_MISSING_2_CORNERS, HighlightOrientation.WEST, false),
+
+        // If the tile has adjacencies except two consecutive sides and the opposite corner [North Corner Missing Corner]
+        new Rule(TOP_CENTER | MID_RIGHT,
+                 TOP_RIGHT | MID_LEFT | BOTTOM_CENTER,
+                 CORNER_MISSING_1_CORNER, HighlightOrientation.NORTH, false),
+
+        // If the tile has adjacencies except two consecutive sides and the opposite corner [East Corner Missing Corner]
+        new Rule(MID_RIGHT | BOTTOM_CENTER,
+                 TOP_CENTER | MID_LEFT | BOTTOM_RIGHT,
+                 CORNER_MISSING_1_CORNER, HighlightOrientation.EAST, false),
+
+        // If the tile has adjacencies except two consecutive sides and the opposite corner [South Corner Missing Corner]
+        new Rule(MID_LEFT | BOTTOM_CENTER,
+                 TOP_CENTER | MID_RIGHT | BOTTOM_LEFT,
+                 CORNER_MISSING_1_CORNER, HighlightOrientation.SOUTH, false),
+
+        // If the tile has adjacencies except two consecutive sides and the opposite corner [West Corner Missing Corner]
+        new Rule(TOP_CENTER | MID_LEFT,
+                 TOP_LEFT | MID_RIGHT | BOTTOM_CENTER,
+                 CORNER_MISSING_1_CORNER, HighlightOrientation.WEST, false)
+    };
+
+    /** Rule each of the 256 adjacency masks resolves to, or null if none match. */
+    private static final Rule[] RULE_BY_MASK = new Rule[ALL + 1];
+    static {
+        for (int mask = 0; mask <= ALL; mask++) {
+            for (Rule rule : RULES) {
+                if (rule.matches(mask)) {
+                    RULE_BY_MASK[mask] = rule;
+                    break;
+                }
+            }
+        }
+    }
+
     /** Texture that represents a highlight square with two sides exposed to non-highlighted areas. */
     private final int bridgeTexture;
     
@@ -66,6 +347,9 @@ public class HighlightTexturePack {
     /** Texture that represents a higlight square with adjacency except one side and two corners. */
     protected final int shoreMissing2CornersTexture;
 
+    /** Textures indexed by slot. */
+    private final int[] textures;
+
     public HighlightTexturePack(final Injector injector,
                                 final int bridgeTexture,
                                 final int centerTexture,
@@ -96,630 +380,101 @@ public class HighlightTexturePack {
         this.shoreTexture = shoreTexture;
         this.shoreMissing1CornerTexture = shoreMissing1CornerTexture;
         this.shoreMissing2CornersTexture = shoreMissing2CornersTexture;
+
+        textures = new int[] {bridgeTexture, centerTexture, cornerTexture, cornerMissing1CornerTexture,
+                              islandTexture, missing1CornerTexture, missing2CornersTexture,
+                              missing2CornersOppositeTexture, missing3CornersTexture, missing4CornersTexture,
+                              peninsulaTexture, shoreTexture, shoreMissing1CornerTexture,
+                              shoreMissing2CornersTexture};
     }
     
     /** Releases the textures. */
     public final void cleanUp() {
-        final int numTextures = 14;
-        
-        final int[] toBeDeleted = new int[numTextures];
-        toBeDeleted[0] = bridgeTexture;
-        toBeDeleted[1] = centerTexture;
-        toBeDeleted[2] = cornerTexture;
-        toBeDeleted[3] = cornerMissing1CornerTexture;
-        toBeDeleted[4] = islandTexture;
-        toBeDeleted[5] = missing1CornerTexture;
-        toBeDeleted[6] = missing2CornersTexture;
-        toBeDeleted[7] = missing2CornersOppositeTexture;
-        toBeDeleted[8] = missing3CornersTexture;
-        toBeDeleted[9] = missing4CornersTexture;
-        toBeDeleted[10] = peninsulaTexture;
-        toBeDeleted[11] = shoreTexture;
-        toBeDeleted[12] = shoreMissing1CornerTexture;
-        toBeDeleted[13] = shoreMissing2CornersTexture;
-        
-        GLES20.glDeleteTextures(numTextures, toBeDeleted, Constants.NO_OFFSET);
+        GLES20.glDeleteTextures(textures.length, textures, Constants.NO_OFFSET);
     }
     
     /**
-     * Picks the appropriate highlight texture for the tile given the surrounding highlighted textures.
+     * Picks the appropriate highlight texture for the tile given the surrounding highlighted
+     * tiles, and adds the tile to the region. Touches no tile state, so it is safe to call off
+     * the render thread.
      * 
      * @param target Tile to be highlighted.
      * @param highlighted Other tiles that will be highlighted.
+     * @param region Region the highlighted tile is added to.
      */
-    public final void setTexture(final GridPoint2D target, final Set<GridPoint2D> highlighted) {
-        // Retrieve the tile
+    public final void addTo(final GridPoint2D target, 
+                            final Set<GridPoint2D> highlighted,
+                            final HighlightRegion.Builder region) {
+        // If the tile is off the battlefield, there's nothing to highlight
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
-        Optional<Tile> refTile = battlefield.getTile(target);
-        if (!refTile.isPresent()) {
-            return;
-        }
-        Tile tile = refTile.get();
-        
-        // Get the adjacent tiles
-        GridPoint2D topLeft = new GridPoint2D(target.getRow() - 1, target.getColumn() - 1);
-        GridPoint2D topCenter = new GridPoint2D(target.getRow(), target.getColumn() - 1);
-        GridPoint2D topRight = new GridPoint2D(target.getRow() + 1, target.getColumn() - 1);
-        GridPoint2D midLeft = new GridPoint2D(target.getRow() - 1, target.getColumn());
-        GridPoint2D midRight = new GridPoint2D(target.getRow() + 1, target.getColumn());
-        GridPoint2D bottomLeft = new GridPoint2D(target.getRow() - 1,target.getColumn() + 1);
-        GridPoint2D bottomCenter = new GridPoint2D(target.getRow(), target.getColumn() + 1);
-        GridPoint2D bottomRight = new GridPoint2D(target.getRow() + 1, target.getColumn() + 1);
-        Set<GridPoint2D> all = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter, topRight, 
-                midLeft, midRight, bottomLeft, bottomCenter, bottomRight));
-        
-        // If the tile is surrounded on all sides and corners [Center]
-        if (highlighted.containsAll(Arrays.asList(all.toArray()))) {
-            tile.setHighlightTexture(Optional.of(centerTexture));
-            return;
-        }
-        
-        // If the tile is completely surrounded except one side [North-Facing Shore]
-        Set<GridPoint2D> contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,                  midRight,
-                                                                            bottomLeft, bottomCenter, bottomRight));
-        Set<GridPoint2D> missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile is completely surrounded except one side [East-Facing Shore]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter, 
-                                                           midLeft, 
-                                                           bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile is completely surrounded except one side [South-Facing Shore]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter, topRight,
-                                                           midLeft,            midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile is completely surrounded except on side [West-Facing Shore]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(      topCenter,    topRight,
-                                                                               midRight,
-                                                                 bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile is surrounded by two sides [North-East-Facing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft, 
-                                                           bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, midRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile is surrounded by two sides [East-South-Facing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
-                                                           midLeft));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midRight, bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile is surrounded by two sides [South-West-Facing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter, topRight,
-                                                                      midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter, midLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile is surrounded by two sides [West-North-Facing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(              midRight,
-                                                           bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, topCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile is surrounded on opposite sides [North-South Bridge]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, midRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(bridgeTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile is surrounded on opposite sides [East-West Bridge]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft, midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(bridgeTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has one adjacent side [North Facing Peninsula]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
-                                                         midLeft,           midRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(peninsulaTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
+        if (!battlefield.isInside(target.getRow(), target.getColumn())) {
             return;
         }
         
-        // If the tile has one adjacent side [East Facing Peninsula]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter,
-                                                                     midRight,
-                                                         bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(peninsulaTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has one adjacent side [South Facing Peninsula]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft,            midRight,
-                                                                 bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(peninsulaTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile has one adjacent side [West Facing Peninsula]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
-                                                         midLeft,
-                                                                 bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(peninsulaTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile has no adjacent highlighted tiles [Island]
-        missing = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
-                                                         midLeft,                  midRight,
-                                                                     bottomCenter));
-        if (Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(islandTexture));
-            return;
-        }
-        
-        // If the tile has total adjacency except for one corner [North-East Missing One Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter, 
-                                                          midLeft,                  midRight,
-                                                          bottomLeft, bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for one corner [East-South Missing One Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter,    topRight,
-                                                          midLeft,                  midRight,
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for one corner [South-West Missing One Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,    topRight,
-                                                          midLeft,               midRight,
-                                                                   bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for one corner [West-North Missing One Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,    topRight,
-                                                          midLeft,               midRight,
-                                                          bottomLeft, bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two adjacent corners [North Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
-                                                          midLeft,                  midRight,
-                                                          bottomLeft, bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two adjacent corners [East Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter,
-                                                          midLeft,                  midRight,
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two adjacent corners [South Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,   topRight,
-                                                          midLeft,              midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(bottomLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two adjacent corners [West Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,    topRight,
-                                                          midLeft,               midRight,
-                                                                   bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two opposite corners [North-East-South-West Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
-                                                          midLeft,               midRight,
-                                                                   bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersOppositeTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for two opposite corners [North-West-South-East Missing Two Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,    topRight,
-                                                          midLeft,                  midRight,
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing2CornersOppositeTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for three corners [North-East Missing Three Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,   topRight,
-                                                          midLeft,              midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing3CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for three corners [East-South Missing Three Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                          midLeft,               midRight,
-                                                                   bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing3CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
-        
-        // If the tile has total adjacency except for three corners [South-West Missing Three Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
-                                                          midLeft,                 midRight,
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing3CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
-        
-        // If the tile has total adjacency except for three corners [West-North Missing Three Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
-                                                          midLeft,              midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing3CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
-        
-        // If the tile has all sides adjacent but no corners [Missing Four Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                          midLeft,              midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,               topRight,
-                 
-                                                         bottomLeft,            bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(missing4CornersTexture));
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [North Untransposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,                 midRight,
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            tile.setTransposeHighlight(false);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [North Transposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,               midRight,
-                                                                   bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            tile.setTransposeHighlight(true);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [East Untransposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
-                                                          midLeft,               
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midRight, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            tile.setTransposeHighlight(false);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [East Transposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
-                                                          midLeft,               
-                                                          bottomLeft, bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, midRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            tile.setTransposeHighlight(true);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [South Untransposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(        topCenter, topRight,
-                                                          midLeft,           midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            tile.setTransposeHighlight(false);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [South Transposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
-                                                          midLeft,           midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            tile.setTransposeHighlight(true);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [West Untransposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter,
-                                                                        midRight,
-                                                          bottomCenter, bottomRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, midLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            tile.setTransposeHighlight(false);
-            return;
-        }
-        
-        // If the tile has adjacencies except a side and one corner [West Transposed Shore Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter,   topRight,
-                                                                       midRight,
-                                                          bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            tile.setTransposeHighlight(true);
+        addTo(target.getRow(), target.getColumn(), adjacencyOf(target, highlighted), region);
+    }
+    
+    /**
+     * Adds the tile to the region with the highlight whose shape fits the adjacency mask, or
+     * leaves it out if no shape does.
+     * 
+     * @param mask Adjacency mask, see {@link #adjacencyOf(GridPoint2D, Set)}.
+     */
+    final void addTo(final int row, final int column, final int mask, final HighlightRegion.Builder region) {
+        // If no shape fits the adjacency, leave the tile unhighlighted
+        final Rule rule = RULE_BY_MASK[mask];
+        if (rule == null) {
             return;
         }
         
-        // If the tile has adjacencies except a side and two corner [North Shore Missing 2 Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(
-                                                          midLeft,              midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomLeft, bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
+        region.add(row, column, textures[rule.texture], rule.orientation, rule.transpose);
+    }
+    
+    /** Adjacency mask of the target, with a bit set for each highlighted neighbor. */
+    static int adjacencyOf(final GridPoint2D target, final Set<GridPoint2D> highlighted) {
+        int mask = NONE;
+        for (int neighborIter = 0; neighborIter < NEIGHBOR_ROW_OFFSETS.length; neighborIter++) {
+            if (highlighted.contains(GridPoint2D.of(target.getRow() + NEIGHBOR_ROW_OFFSETS[neighborIter],
+                                                    target.getColumn() + NEIGHBOR_COLUMN_OFFSETS[neighborIter]))) {
+                mask |= 1 << neighborIter;
+            }
         }
         
-        // If the tile has adjacencies except a side and two corner [East Shore Missing 2 Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                          midLeft,             
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, midRight, bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
+        return mask;
+    }
+    
+    /** Shape of highlight, as the neighbors it needs highlighted and not highlighted. Immutable. */
+    private static final class Rule {
+        /** Neighbors that must be highlighted. */
+        private final int contains;
         
-        // If the tile has adjacencies except a side and two corner [South Shore Missing 2 Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                          midLeft,              midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,               topRight, 
-                
-                                                                  bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
-        }
+        /** Neighbors that must not be highlighted. */
+        private final int missing;
         
-        // If the tile has adjacencies except a side and two corner [West Shore Missing 2 Corners]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
-                                                                               midRight,
-                                                                  bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(                      topRight, 
-                                                          midLeft,
-                                                                               bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(shoreMissing2CornersTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
-        }
+        /** Orientation of the texture. */
+        private final HighlightOrientation orientation;
         
-        // If the tile has adjacencies except two consecutive sides and the opposite corner [North Corner Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                                             midRight));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(                    topRight,
-                                                           midLeft,
-                                                                   bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.NORTH);
-            return;
-        }
+        /** Slot of the texture. */
+        private final int texture;
         
-        // If the tile has adjacencies except two consecutive sides and the opposite corner [East Corner Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(                      midRight,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(          topCenter,
-                                                         midLeft,
-                                                                                bottomRight));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.EAST);
-            return;
-        }
+        /** Whether or not to transpose the texture. */
+        private final boolean transpose;
         
-        // If the tile has adjacencies except two consecutive sides and the opposite corner [South Corner Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,
-                                                                   bottomCenter));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(          topCenter,
-                                                                              midRight,
-                                                         bottomLeft));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.SOUTH);
-            return;
+        Rule(final int contains,
+             final int missing,
+             final int texture,
+             final HighlightOrientation orientation,
+             final boolean transpose) {
+            this.contains = contains;
+            this.missing = missing;
+            this.texture = texture;
+            this.orientation = orientation;
+            this.transpose = transpose;
         }
         
-        // If the tile has adjacencies except two consecutive sides and the opposite corner [West Corner Missing Corner]
-        contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
-                                                          midLeft));
-        missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,
-                                                                             midRight,
-                                                                 bottomCenter));
-        if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
-            Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
-            tile.setHighlightTexture(Optional.of(cornerMissing1CornerTexture));
-            tile.setHighlightOrientation(HighlightOrientation.WEST);
-            return;
+        /** Whether or not the adjacency mask fits the shape. */
+        boolean matches(final int mask) {
+            return ((mask & contains) == contains) && ((mask & missing) == 0);
         }
     }
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
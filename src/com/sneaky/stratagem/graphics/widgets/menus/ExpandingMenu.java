@@ -3,7 +3,8 @@ package com.sneaky.stratagem.graphics.widgets.menus;
 import com.google.inject.Inject;
 import com.google.inject.name.Named;
 import com.sneaky.stratagem.flow.GameFlowController;
-import com.sneaky.stratagem.flow.Updatable;
+import com.sneaky.stratagem.flow.IndependentUpdatable;
+import com.sneaky.stratagem.flow.UpdatePhase;
 import com.sneaky.stratagem.graphics.textures.TextureFactory;
 
 import android.opengl.Matrix;
@@ -15,7 +16,7 @@ import scatcat.graphics.MVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
 import scatcat.input.ClickHandlerManager;
 
-public class ExpandingMenu extends Menu implements Updatable {
+public class ExpandingMenu extends Menu implements IndependentUpdatable {
     /** Used to add/remove this as an active click handler. */
     //private ClickHandlerManager activeClickHandlers;
     
@@ -61,7 +62,7 @@ public class ExpandingMenu extends Menu implements Updatable {
             //activeClickHandlers.remove(this);
         }
         
-        updater.addUpdatable(this);
+        updater.addUpdatable(this, UpdatePhase.UI);
     }
 
     public float getOffset() {
@@ -165,7 +165,9 @@ public class ArmyPlacementHUD extends HUD {
                         droppedOnTile.get().setOccupant(null);
                     }
                     
-                    if (!tile.get().hasOccupant()) {
+                    // Only deploy onto empty tiles within the player's spawn zones
+                    if (!tile.get().hasOccupant()
+                            && battlefield.isDeployable(currentPlayer, gridPoint.getRow(), gridPoint.getColumn())) {
                         tile.get().setOccupant(pickedUpUnit.get());
                         droppedOnTile = Optional.<Tile>of(tile.get());
                     }
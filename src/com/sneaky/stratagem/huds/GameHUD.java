@@ -1,5 +1,8 @@
 package com.sneaky.stratagem.huds;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -10,6 +13,8 @@ import android.graphics.Paint;
 import android.opengl.GLES20;
 import android.opengl.Matrix;
 import com.sneaky.stratagem.R;
+import com.sneaky.stratagem.flow.LatencyHistogram;
+import com.sneaky.stratagem.flow.UpdateProfiler;
 import com.sneaky.stratagem.graphics.textures.TextureFactory;
 import com.sneaky.stratagem.graphics.widgets.Button;
 import com.sneaky.stratagem.graphics.widgets.Button.ButtonFactory;
@@ -59,12 +64,30 @@ public class GameHUD extends HUD {
     
     private final Injector injector;
     
+    /** Whether or not the update profile is shown under the FPS while profiling. */
+    private volatile boolean isProfileShown = false;
+    
     /** Settings and values of the match. */
     private final Match match;
     
     /** Timestamp of the last frame rendering. */
     private long lastFrameTime;
     
+    /** Most time between refreshes of the update profile texture, in milliseconds. */
+    private final long profileRefreshPeriod = 1000;
+    
+    /** Measures where the game loop's time goes. */
+    private final UpdateProfiler profiler;
+    
+    /** Time the update profile texture was last refreshed. */
+    private long profileRefreshTime = 0;
+    
+    /** Rendering size of the update profile. */
+    private Dimension profileSize = new Dimension();
+    
+    /** Texture handle of the update profile. */
+    private int profileTexture = -1;
+    
     /** Action point value used in the current action points texture. */
     private int renderedActionPoints = -1;
     
@@ -81,11 +104,13 @@ public class GameHUD extends HUD {
                       final Device device,
                       final Injector injector,
                       final Match match,
+                      final UpdateProfiler profiler,
                       final SimpleTexturedShader shader,
                       final TextureFactory textureFactory) {
         this.device = device;
         this.injector = injector;
         this.match = match;
+        this.profiler = profiler;
         this.shader = shader;
         this.textureFactory = textureFactory;
         
@@ -134,6 +159,7 @@ public class GameHUD extends HUD {
         renderApBackground(mvp);
         renderActionPoints(mvp);
         renderFPS(mvp);
+        renderProfile(mvp);
         match.getCurrentPlayer().renderMyTurn(mvp);
         //match.renderCurrentRound(mvp);
         
@@ -244,6 +270,55 @@ public class GameHUD extends HUD {
         shader.draw();
     }
 
+    /**
+     * Renders the most expensive updatable and the late tick and skipped render counts under
+     * the FPS, while the profiler is enabled and the profile is shown.
+     * 
+     * @param mvp Model-View-Projection matrices.
+     */
+    private void renderProfile(final MVP mvp) {
+        if (!isProfileShown || !profiler.isEnabled()) { return; }
+        
+        // Refresh the profile texture if it's stale, as texturizing text every frame is too slow
+        final long now = System.currentTimeMillis();
+        if ((profileTexture == -1) || (now - profileRefreshTime >= profileRefreshPeriod)) {
+            profileRefreshTime = now;
+            
+            // Release the previous profile texture
+            if (profileTexture != -1) {
+                GLES20.glDeleteTextures(1, new int[] {profileTexture}, Constants.NO_STRIDE);
+            }
+            
+            // Generate the new profile texture
+            String profileText = "late " + profiler.getLateTicks() + " skipped " + profiler.getSkippedRenders();
+            final List<UpdateProfiler.Profile> profiles = profiler.getProfiles();
+            if (!profiles.isEmpty()) {
+                final UpdateProfiler.Profile worst = profiles.get(0);
+                final LatencyHistogram histogram = worst.getHistogram();
+                profileText = worst.getName() + " " + TimeUnit.NANOSECONDS.toMicros(histogram.getMean())
+                        + "us p99 " + TimeUnit.NANOSECONDS.toMicros(histogram.getValueAtPercentile(99.0))
+                        + "us " + profileText;
+            }
+            final int profileFontSize = 20;
+            profileTexture = textureFactory.texturizeText(profileText, Color.WHITE, Paint.Align.LEFT,
+                    profileFontSize, profileSize);
+        }
+        
+        // Set the MVP Matrix, placing the profile under the FPS
+        final float[] model = mvp.peekCopy(MVP.Type.MODEL);
+        float yTranslate = -fpsSize.getHeight() - profileSize.getHeight() / 2.0f;
+        Matrix.translateM(model, Constants.NO_OFFSET, 0.0f, yTranslate, 0.0f);
+        Matrix.scaleM(model, Constants.NO_OFFSET, profileSize.getWidth(), profileSize.getHeight(), 1.0f);
+        shader.setMVPMatrix(mvp.collapseM(model));
+        
+        // Draw the texture
+        shader.setTexture(profileTexture);
+        shader.draw();
+    }
+    
+    /** Sets whether or not the update profile is shown under the FPS while profiling. */
+    public void setIsProfileShown(final boolean isProfileShown) { this.isProfileShown = isProfileShown; }
+
     @Override
     public boolean handleLongPress(NormalizedPoint2D pressLocation) {
         // TODO Auto-generated method stub
@@ -4,7 +4,8 @@ import java.util.Comparator;
 import java.util.Random;
 
 import com.google.inject.Inject;
-import com.sneaky.stratagem.flow.Updatable;
+import com.sneaky.stratagem.flow.GameFlowController;
+import com.sneaky.stratagem.flow.IndependentUpdatable;
 
 import scatcat.general.Constants;
 import scatcat.general.points.Point2D;
@@ -14,13 +15,19 @@ import scatcat.graphics.RenderableMVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
 import android.opengl.Matrix;
 
-public class Cloud implements RenderableMVP, Updatable {
+public class Cloud implements RenderableMVP, IndependentUpdatable {
     /** Speed at which the cloud floats. */
     private float floatSpeed;
     
+    /** Supplies how far the frame being drawn falls between ticks. */
+    private final GameFlowController flowController;
+    
     /** Current position of the cloud. */
     private Point3D position = new Point3D();
     
+    /** Horizontal position of the cloud as of the previous tick. */
+    private float previousX = 0.0f;
+    
     private final SimpleTexturedShader shader;
     
     /** Size of the cloud. */
@@ -32,7 +39,9 @@ public class Cloud implements RenderableMVP, Updatable {
 	public final Point3D getPosition() { return position; }
 
 	@Inject
-	protected Cloud(final SimpleTexturedShader shader) {
+	protected Cloud(final GameFlowController flowController,
+	                final SimpleTexturedShader shader) {
+	    this.flowController = flowController;
 	    this.shader = shader;
 	}
 	
@@ -41,9 +50,10 @@ public class Cloud implements RenderableMVP, Updatable {
     public void render(MVP mvp) {
         shader.activate();
         
-        // Position the cloud
+        // Position the cloud between where it was last tick and where it is now
+        final float x = previousX + (position.getX() - previousX) * flowController.getFrameAlpha();
         final float[] model = mvp.peekCopy(MVP.Type.MODEL);
-        Matrix.translateM(model, Constants.NO_OFFSET, position.getX(), position.getY(), position.getZ());
+        Matrix.translateM(model, Constants.NO_OFFSET, x, position.getY(), position.getZ());
         Matrix.scaleM(model, Constants.NO_OFFSET, size.getX(), size.getY(), 1.0f);
         
         // Draw the cloud
@@ -53,17 +63,22 @@ public class Cloud implements RenderableMVP, Updatable {
     }
     
     public final void setFloatSpeed(final float floatSpeed) { this.floatSpeed = floatSpeed; }
-    public final void setPosition(final Point3D position) { this.position = position; }
+    public final void setPosition(final Point3D position) { 
+        this.position = position;
+        previousX = position.getX();
+    }
     public final void setSize(final Point2D size) { this.size = size; }
     public final void setTexture(final int texture) { this.texture = texture; }
 
     @Override
     public void updateState(int updatesPerSecond) {
+        previousX = position.getX();
         position.addToX(floatSpeed / updatesPerSecond);
         
         if (position.getX() >= 1.0f) {
             Random randomizer = new Random();
             position.setX(-1.0f);
+            previousX = position.getX();
             position.setY(0.5f - randomizer.nextFloat());
         }
     }
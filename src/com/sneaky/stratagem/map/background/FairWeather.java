@@ -9,6 +9,7 @@ import android.opengl.GLES20;
 
 import com.google.inject.Inject;
 import com.sneaky.stratagem.flow.GameFlowController;
+import com.sneaky.stratagem.flow.UpdatePhase;
 
 public class FairWeather extends Background {
     /** Clouds that float around in the background. */
@@ -26,7 +27,7 @@ public class FairWeather extends Background {
         for (int cloudIter = 0; cloudIter < numClouds; cloudIter++) {
             Cloud cloud = cloudFactory.createRandomCloud();
             
-            flowController.addUpdatable(cloud);
+            flowController.addUpdatable(cloud, UpdatePhase.EFFECTS);
             clouds.add(cloud);
         }
     }
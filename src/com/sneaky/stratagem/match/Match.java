@@ -9,11 +9,14 @@ import scatcat.general.Dimension;
 import scatcat.graphics.Color;
 import scatcat.graphics.MVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
+import scatcat.map.Battlefield;
+import scatcat.map.Zobrist;
 import android.graphics.Paint.Align;
 import android.opengl.Matrix;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import com.google.common.base.Optional;
 import com.google.common.eventbus.EventBus;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
@@ -21,6 +24,7 @@ import com.google.inject.Singleton;
 import com.sneaky.stratagem.flow.EndRoundEvent;
 import com.sneaky.stratagem.flow.EndTurnEvent;
 import com.sneaky.stratagem.graphics.textures.TextureFactory;
+import com.sneaky.stratagem.match.snapshot.MatchSnapshot;
 
 /**
  * Model representing a match.
@@ -39,6 +43,9 @@ public class Match {
     
     private final Injector injector;
     
+    /** Most recent snapshot of the match, shared with by the next one. */
+    private Optional<MatchSnapshot> lastSnapshot = Optional.<MatchSnapshot>absent();
+    
     /** Players in the match order according to play position. */
     private final List<Player> players = new ArrayList<Player>();
     
@@ -48,6 +55,9 @@ public class Match {
     /** Current turn. */
     private int round = 1;
     
+    /** Zobrist hash of whose turn it is, their remaining action points and the round. */
+    private long turnHash = Zobrist.EMPTY;
+    
     /** Texture of the current turn. */
     private int turnTexture;
     
@@ -67,9 +77,16 @@ public class Match {
         turnTexture = textureFactory.texturizeText("Round 1", Color.WHITE, Align.RIGHT, fontSize, turnTextureSize);
     }
     
+    /**
+     * Seats the player in the match. Players must be added before their units are placed on
+     * the battlefield, as units hash their owner by seat.
+     */
     public final void addPlayer(final Player player, final Army army) { 
         armies.add(checkNotNull(army));
-        players.add(checkNotNull(player));
+        checkNotNull(player).setSeat(players.size());
+        players.add(player);
+        
+        rehashTurn();
     }
     
     /** Finishes the current player's turn. */
@@ -94,16 +111,40 @@ public class Match {
             // Move to the next round
             round++;
         }
+        
+        rehashTurn();
     }
     
     public final int getCurrentActionPoints() { return players.get(currentPlayer).getCurrentActionPoints(); }
     public final Army getCurrentArmy() { return armies.get(currentPlayer); }
     public final Player getCurrentPlayer() { return players.get(currentPlayer); }
+    public final int getCurrentPlayerPosition() { return currentPlayer; }
     public final int getNumPlayers() { return players.size(); }
     public final int getRound() { return round; }
+    
+    /**
+     * Zobrist hash of the match state, combining the battlefield's hash with whose turn it
+     * is, their remaining action points and the round. Equal positions hash equally.
+     */
+    public final long getZobristHash() {
+        return injector.getInstance(Battlefield.class).getZobristHash() ^ turnHash;
+    }
+    
     public final Army getArmy(int pos) { return armies.get(pos); }
     public final Player getPlayer(int pos) { return players.get(pos); }
     
+    /** Recomputes the turn part of the hash. O(1), it only covers three features. */
+    private void rehashTurn() {
+        if (players.isEmpty()) {
+            turnHash = Zobrist.EMPTY;
+            return;
+        }
+        
+        turnHash = Zobrist.key(Zobrist.CURRENT_PLAYER, currentPlayer)
+                ^ Zobrist.key(Zobrist.ACTION_POINTS, players.get(currentPlayer).getCurrentActionPoints())
+                ^ Zobrist.key(Zobrist.ROUND, round);
+    }
+    
     /**
      * Renders the current round.
      * 
@@ -123,6 +164,20 @@ public class Match {
         shader.draw();
     }
     
+    /**
+     * Takes an immutable snapshot of the match, sharing everything that hasn't changed with
+     * the previous snapshot. Must be called on the thread that plays the match.
+     * 
+     * @return Snapshot of the match.
+     */
+    public final MatchSnapshot snapshot() {
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        final MatchSnapshot snapshot = MatchSnapshot.capture(battlefield, this, lastSnapshot);
+        lastSnapshot = Optional.of(snapshot);
+        
+        return snapshot;
+    }
+    
     public final void spendActionPoints(final int spentPoints) {
         // Update the player's action points
         Player player = players.get(currentPlayer);
@@ -135,6 +190,7 @@ public class Match {
             finishTurn();
         } else {
             player.setCurrentActionPoints(actionPoints);
+            rehashTurn();
         }
     }
 }
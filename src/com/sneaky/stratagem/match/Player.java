@@ -27,6 +27,9 @@ public class Player {
     private float             myTurnWidth;
     
     
+    /** Play position of the player within its match, or {@link #NO_SEAT}. */
+    private int seat = NO_SEAT;
+    
     /** Name of the player. */
     private String name;
     
@@ -42,6 +45,9 @@ public class Player {
     /** Tile overlay sporting the player's color. */
     private int teamColorTexture;
     
+    /** Seat of players that haven't been added to a match. */
+    public static final int NO_SEAT = -1;
+    
     @Inject
     public Player(final Device device,
                   final SimpleTexturedShader shader,
@@ -81,6 +87,7 @@ public class Player {
     public final int getCurrentActionPoints() { return currentActionPoints; }
     public final int getMaxActionPoints() { return maxActionPoints; }
     public final String getName() { return name; }
+    public final int getSeat() { return seat; }
     public final Color getTeamColor() { return teamColor; }
     public final int getTeamColorTexture() { return teamColorTexture; }
     
@@ -89,6 +96,7 @@ public class Player {
     public final void setMaxActionPoints(final int maxActionPoints) {
         this.maxActionPoints = maxActionPoints; }
     public final void setName(final String name) { this.name = name; }
+    final void setSeat(final int seat) { this.seat = seat; }
     public final void setTeamColor(final Color teamColor) { this.teamColor = teamColor; }
     public final void setTeamColorTexture(final int teamColorTexture) { this.teamColorTexture = teamColorTexture; }
 }
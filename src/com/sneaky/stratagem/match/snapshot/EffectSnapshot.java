@@ -0,0 +1,70 @@
+package com.sneaky.stratagem.match.snapshot;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.sneaky.stratagem.effects.MoveBuff;
+import com.sneaky.stratagem.effects.StunEffect;
+
+/**
+ * Immutable record of a timed effect active on a unit.
+ * 
+ * @author R. Matt McCann
+ */
+public final class EffectSnapshot {
+    /** Strength of the effect, such as the movement granted by a buff. Zero for stuns. */
+    private final int amount;
+    
+    private final Kind kind;
+    
+    /** Number of round ends left before the effect wears off. */
+    private final int roundsRemaining;
+    
+    /** Kinds of timed effects captured in snapshots. */
+    public enum Kind {
+        MOVE_BUFF,
+        STUN
+    }
+    
+    public EffectSnapshot(final Kind kind, final int amount, final int roundsRemaining) {
+        this.kind = checkNotNull(kind);
+        this.amount = amount;
+        this.roundsRemaining = roundsRemaining;
+    }
+    
+    /**
+     * Captures the live effect.
+     * 
+     * @param effect One of the effects found in {@link com.sneaky.stratagem.units.Unit#getEffects()}.
+     * @return Snapshot of the effect, or null if the effect isn't a timed effect snapshots track.
+     */
+    static EffectSnapshot capture(final Object effect) {
+        if (effect instanceof MoveBuff) {
+            final MoveBuff buff = (MoveBuff) effect;
+            return new EffectSnapshot(Kind.MOVE_BUFF, buff.getBuffAmount(), buff.getRoundsRemaining());
+        } else if (effect instanceof StunEffect) {
+            return new EffectSnapshot(Kind.STUN, 0, ((StunEffect) effect).getRoundsRemaining());
+        }
+        
+        return null;
+    }
+    
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof EffectSnapshot)) {
+            return false;
+        }
+        
+        final EffectSnapshot comparee = (EffectSnapshot) object;
+        return (kind == comparee.kind) && (amount == comparee.amount) 
+                && (roundsRemaining == comparee.roundsRemaining);
+    }
+    
+    public int getAmount() { return amount; }
+    public Kind getKind() { return kind; }
+    public int getRoundsRemaining() { return roundsRemaining; }
+    
+    @Override
+    public int hashCode() {
+        return (31 * kind.hashCode() + amount) * 31 + roundsRemaining;
+    }
+}
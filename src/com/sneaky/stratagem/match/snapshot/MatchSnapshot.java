@@ -0,0 +1,277 @@
+package com.sneaky.stratagem.match.snapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import scatcat.map.Battlefield;
+import scatcat.map.TileVisitor;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.sneaky.stratagem.match.Match;
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Immutable snapshot of the full match state: who occupies each tile, each unit's combat
+ * state and timed effects, and whose turn it is. Every <code>with</code> method forks a new
+ * snapshot that shares all unchanged tiles and units with this one, so a fork costs time in
+ * proportion to the number of units changed rather than the size of the battlefield.
+ * 
+ * Snapshots hold plain values only, so they are safe to read from any thread and can be
+ * built and searched without an injector or a GL context.
+ * 
+ * @author R. Matt McCann
+ */
+public final class MatchSnapshot {
+    /** Play position of the player whose turn it is. */
+    private final int currentPlayer;
+    
+    /** Number of rows of tiles. */
+    private final int height;
+    
+    /** Turn state of each player, ordered by play position. */
+    private final ImmutableList<PlayerSnapshot> players;
+    
+    /** Current round. */
+    private final int round;
+    
+    /** Occupant of each tile, indexed row-major. */
+    private final PersistentTileArray<UnitSnapshot> tiles;
+    
+    /** Number of columns of tiles. */
+    private final int width;
+    
+    private MatchSnapshot(final int height,
+                          final int width,
+                          final PersistentTileArray<UnitSnapshot> tiles,
+                          final ImmutableList<PlayerSnapshot> players,
+                          final int currentPlayer,
+                          final int round) {
+        this.height = height;
+        this.width = width;
+        this.tiles = tiles;
+        this.players = players;
+        this.currentPlayer = currentPlayer;
+        this.round = round;
+    }
+    
+    /** Callback for {@link MatchSnapshot#visitUnits(UnitVisitor)}. */
+    public interface UnitVisitor {
+        void visit(final int row, final int column, final UnitSnapshot unit);
+    }
+    
+    /**
+     * Captures the live match. Must be called on the thread that mutates the match. Units
+     * and tiles that haven't changed since the previous snapshot are shared with it.
+     * 
+     * @param battlefield Live battlefield. Must not be null.
+     * @param match Live match. Must not be null.
+     * @param previous Snapshot to share unchanged state with.
+     * @return Snapshot of the match.
+     */
+    public static MatchSnapshot capture(final Battlefield battlefield,
+                                        final Match match,
+                                        final Optional<MatchSnapshot> previous) {
+        checkNotNull(battlefield, "Battlefield must not be null!");
+        checkNotNull(match, "Match must not be null!");
+        
+        // Capture the players, remembering where each one sits
+        final Map<Player, Integer> seats = new IdentityHashMap<Player, Integer>();
+        final ImmutableList.Builder<PlayerSnapshot> players = ImmutableList.builder();
+        for (int seatIter = 0; seatIter < match.getNumPlayers(); seatIter++) {
+            final Player player = match.getPlayer(seatIter);
+            seats.put(player, seatIter);
+            players.add(PlayerSnapshot.capture(seatIter, player));
+        }
+        
+        final int height = battlefield.getHeight();
+        final int width = battlefield.getWidth();
+        
+        // Start from the previous tiles if the battlefield is still the same shape
+        PersistentTileArray<UnitSnapshot> tiles;
+        if (previous.isPresent() && (previous.get().height == height) && (previous.get().width == width)) {
+            tiles = previous.get().tiles;
+        } else {
+            tiles = PersistentTileArray.empty(height * width);
+        }
+        
+        final TileCapture capture = new TileCapture(battlefield, seats, tiles);
+        
+        // Clear out the units that have since left their tiles
+        tiles.visit(capture);
+        
+        // Record the current occupants, reusing the previous snapshots of unchanged units
+        battlefield.visitOccupied(capture);
+        
+        return new MatchSnapshot(height, width, capture.tiles, players.build(), 
+                match.getCurrentPlayerPosition(), match.getRound());
+    }
+    
+    /**
+     * Creates a snapshot of an empty battlefield, for building states that never existed live.
+     * 
+     * @param height Must not be negative.
+     * @param width Must not be negative.
+     * @param players Turn state of each player, ordered by play position. Must not be empty.
+     */
+    public static MatchSnapshot empty(final int height, final int width, final ImmutableList<PlayerSnapshot> players) {
+        checkArgument((height >= 0) && (width >= 0), "Dimensions must not be negative!");
+        checkArgument(!players.isEmpty(), "A match needs at least one player!");
+        
+        return new MatchSnapshot(height, width, PersistentTileArray.<UnitSnapshot>empty(height * width), 
+                players, 0, 1);
+    }
+    
+    /** Play position of the player whose turn it is. */
+    public int getCurrentPlayer() { return currentPlayer; }
+    
+    /** Number of rows of tiles. */
+    public int getHeight() { return height; }
+    
+    /** Occupant of the tile at the provided position. The position must be inside. */
+    public Optional<UnitSnapshot> getOccupant(final int row, final int column) {
+        return Optional.fromNullable(tiles.get(indexOf(row, column)));
+    }
+    
+    /** Turn state of the player at the provided play position. */
+    public PlayerSnapshot getPlayer(final int seat) { return players.get(seat); }
+    
+    /** Turn state of each player, ordered by play position. */
+    public ImmutableList<PlayerSnapshot> getPlayers() { return players; }
+    
+    /** Current round. */
+    public int getRound() { return round; }
+    
+    /** Number of columns of tiles. */
+    public int getWidth() { return width; }
+    
+    /** Whether or not the tile at the provided position has an occupant. The position must be inside. */
+    public boolean hasOccupant(final int row, final int column) {
+        return tiles.get(indexOf(row, column)) != null;
+    }
+    
+    /** Row-major index of the position, checking it falls within the battlefield. */
+    private int indexOf(final int row, final int column) {
+        checkArgument(isInside(row, column), "Position (%s, %s) is off the battlefield!", row, column);
+        
+        return row * width + column;
+    }
+    
+    /** Whether or not the provided position falls within the battlefield. */
+    public boolean isInside(final int row, final int column) {
+        return (row >= 0) && (row < height) && (column >= 0) && (column < width);
+    }
+    
+    /** Visits every unit in row-major order. */
+    public void visitUnits(final UnitVisitor visitor) {
+        tiles.visit(new PersistentTileArray.EntryVisitor<UnitSnapshot>() {
+            @Override
+            public void visit(final int index, final UnitSnapshot unit) {
+                visitor.visit(index / width, index % width, unit);
+            }
+        });
+    }
+    
+    /** Forks the snapshot with the turn passed to the player at the provided play position. */
+    public MatchSnapshot withCurrentPlayer(final int currentPlayer) {
+        checkArgument((currentPlayer >= 0) && (currentPlayer < players.size()), "No player sits at %s!", currentPlayer);
+        
+        return new MatchSnapshot(height, width, tiles, players, currentPlayer, round);
+    }
+    
+    /** Forks the snapshot with the unit moved between tiles. The source must be occupied. */
+    public MatchSnapshot withMovedUnit(final int fromRow, final int fromColumn, final int toRow, final int toColumn) {
+        final UnitSnapshot unit = tiles.get(indexOf(fromRow, fromColumn));
+        checkArgument(unit != null, "There is no unit to move at (%s, %s)!", fromRow, fromColumn);
+        
+        final PersistentTileArray<UnitSnapshot> moved = tiles
+                .set(indexOf(fromRow, fromColumn), null)
+                .set(indexOf(toRow, toColumn), unit);
+        return new MatchSnapshot(height, width, moved, players, currentPlayer, round);
+    }
+    
+    /** Forks the snapshot with the tile's occupant replaced. */
+    public MatchSnapshot withOccupant(final int row, final int column, final UnitSnapshot unit) {
+        checkNotNull(unit, "Unit must not be null, use withoutOccupant to clear a tile!");
+        
+        return withTiles(tiles.set(indexOf(row, column), unit));
+    }
+    
+    /** Forks the snapshot with the tile's occupant removed. */
+    public MatchSnapshot withoutOccupant(final int row, final int column) {
+        return withTiles(tiles.set(indexOf(row, column), null));
+    }
+    
+    /** Forks the snapshot with the player's turn state replaced. */
+    public MatchSnapshot withPlayer(final PlayerSnapshot player) {
+        final int seat = player.getSeat();
+        checkArgument((seat >= 0) && (seat < players.size()), "No player sits at %s!", seat);
+        
+        final ImmutableList.Builder<PlayerSnapshot> replaced = ImmutableList.builder();
+        for (int seatIter = 0; seatIter < players.size(); seatIter++) {
+            replaced.add((seatIter == seat) ? player : players.get(seatIter));
+        }
+        
+        return new MatchSnapshot(height, width, tiles, replaced.build(), currentPlayer, round);
+    }
+    
+    /** Forks the snapshot with the round replaced. */
+    public MatchSnapshot withRound(final int round) {
+        return new MatchSnapshot(height, width, tiles, players, currentPlayer, round);
+    }
+    
+    /** Forks the snapshot with the tiles replaced, reusing this snapshot if nothing changed. */
+    private MatchSnapshot withTiles(final PersistentTileArray<UnitSnapshot> tiles) {
+        if (tiles == this.tiles) {
+            return this;
+        }
+        
+        return new MatchSnapshot(height, width, tiles, players, currentPlayer, round);
+    }
+    
+    /** Brings a previous snapshot's tiles in step with the live battlefield. */
+    private static final class TileCapture 
+            implements TileVisitor, PersistentTileArray.EntryVisitor<UnitSnapshot> {
+        private final Battlefield battlefield;
+        
+        private final Map<Player, Integer> seats;
+        
+        /** Tiles captured so far. */
+        private PersistentTileArray<UnitSnapshot> tiles;
+        
+        TileCapture(final Battlefield battlefield,
+                    final Map<Player, Integer> seats,
+                    final PersistentTileArray<UnitSnapshot> tiles) {
+            this.battlefield = battlefield;
+            this.seats = seats;
+            this.tiles = tiles;
+        }
+        
+        /** Clears a previously captured tile whose unit has since left. */
+        @Override
+        public void visit(final int index, final UnitSnapshot previous) {
+            final Unit occupant = battlefield.tileAt(index).getOccupant();
+            if ((occupant == null) || (occupant.getId() != previous.getId())) {
+                tiles = tiles.set(index, null);
+            }
+        }
+        
+        /** Records the live occupant of the tile. */
+        @Override
+        public void visit(final int row, final int column, final int index) {
+            final Unit occupant = battlefield.tileAt(index).getOccupant();
+            if (occupant == null) { return; }
+            
+            // Share the previous snapshot of the unit if nothing about it has changed
+            final UnitSnapshot captured = UnitSnapshot.capture(occupant, seats);
+            final UnitSnapshot previous = tiles.get(index);
+            if (!captured.equals(previous)) {
+                tiles = tiles.set(index, captured);
+            }
+        }
+    }
+}
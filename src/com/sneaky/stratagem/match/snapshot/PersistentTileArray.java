@@ -0,0 +1,123 @@
+package com.sneaky.stratagem.match.snapshot;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Immutable array of per-tile values, indexed by row-major tile index. Stored as a 32-way
+ * trie, so setting a value copies only the nodes on the path to it and shares every other
+ * node with the array it was forked from. Subtrees holding nothing are left null.
+ * 
+ * @param <T> Type of the values.
+ * @author R. Matt McCann
+ */
+final class PersistentTileArray<T> {
+    /** Log2 of the node width. */
+    private static final int BITS = 5;
+    
+    /** Picks a child within a node. */
+    private static final int MASK = (1 << BITS) - 1;
+    
+    /** Number of children per node. */
+    private static final int WIDTH = 1 << BITS;
+    
+    /** Root of the trie. Null while the array holds nothing. */
+    private final Object[] root;
+    
+    /** Shift applied to an index to pick the root's child. */
+    private final int shift;
+    
+    /** Number of tiles covered. */
+    private final int size;
+    
+    private PersistentTileArray(final int size, final int shift, final Object[] root) {
+        this.root = root;
+        this.shift = shift;
+        this.size = size;
+    }
+    
+    /**
+     * Creates an array covering the provided number of tiles, all holding null.
+     * 
+     * @param size Must not be negative.
+     */
+    static <T> PersistentTileArray<T> empty(final int size) {
+        checkArgument(size >= 0, "Size must not be negative!");
+        
+        // Add levels until the trie can address every tile
+        int shift = 0;
+        while ((shift + BITS < Integer.SIZE - 1) && ((1 << (shift + BITS)) < size)) {
+            shift += BITS;
+        }
+        
+        return new PersistentTileArray<T>(size, shift, null);
+    }
+    
+    /** Callback for {@link PersistentTileArray#visit(EntryVisitor)}. */
+    interface EntryVisitor<T> {
+        void visit(final int index, final T value);
+    }
+    
+    /** Value held for the tile, or null. */
+    @SuppressWarnings("unchecked")
+    T get(final int index) {
+        Object[] node = root;
+        for (int level = shift; (node != null) && (level > 0); level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        
+        return (node != null) ? (T) node[index & MASK] : null;
+    }
+    
+    /** Number of tiles covered. */
+    int getSize() { return size; }
+    
+    /**
+     * Forks the array with the tile's value replaced. Returns this array if the value is
+     * already held.
+     */
+    PersistentTileArray<T> set(final int index, final T value) {
+        checkArgument((index >= 0) && (index < size), "Index %s is outside of the array!", index);
+        
+        if (get(index) == value) {
+            return this;
+        }
+        
+        return new PersistentTileArray<T>(size, shift, setIn(root, shift, index, value));
+    }
+    
+    /** Copies the node and sets the value beneath it, copying the path down to the leaf. */
+    private static Object[] setIn(final Object[] node, final int level, final int index, final Object value) {
+        final Object[] copy = (node != null) ? node.clone() : new Object[WIDTH];
+        
+        if (level == 0) {
+            copy[index & MASK] = value;
+        } else {
+            final int child = (index >>> level) & MASK;
+            copy[child] = setIn((Object[]) copy[child], level - BITS, index, value);
+        }
+        
+        return copy;
+    }
+    
+    /** Visits each non-null value in index order, skipping empty subtrees. */
+    void visit(final EntryVisitor<T> visitor) {
+        visitIn(root, shift, 0, visitor);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void visitIn(final Object[] node, final int level, final int base, final EntryVisitor<T> visitor) {
+        if (node == null) { return; }
+        
+        for (int childIter = 0; childIter < WIDTH; childIter++) {
+            final Object child = node[childIter];
+            if (child == null) { continue; }
+            
+            final int index = base + (childIter << level);
+            if (level == 0) {
+                visitor.visit(index, (T) child);
+            } else {
+                visitIn((Object[]) child, level - BITS, index, visitor);
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.sneaky.stratagem.match.snapshot;
+
+import com.sneaky.stratagem.match.Player;
+
+/**
+ * Immutable record of a player's turn state.
+ * 
+ * @author R. Matt McCann
+ */
+public final class PlayerSnapshot {
+    private final int currentActionPoints;
+    
+    private final int maxActionPoints;
+    
+    /** Play position of the player within the match. */
+    private final int seat;
+    
+    public PlayerSnapshot(final int seat, final int currentActionPoints, final int maxActionPoints) {
+        this.seat = seat;
+        this.currentActionPoints = currentActionPoints;
+        this.maxActionPoints = maxActionPoints;
+    }
+    
+    /** Captures the live player sitting at the provided play position. */
+    static PlayerSnapshot capture(final int seat, final Player player) {
+        return new PlayerSnapshot(seat, player.getCurrentActionPoints(), player.getMaxActionPoints());
+    }
+    
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof PlayerSnapshot)) {
+            return false;
+        }
+        
+        final PlayerSnapshot comparee = (PlayerSnapshot) object;
+        return (seat == comparee.seat) && (currentActionPoints == comparee.currentActionPoints) 
+                && (maxActionPoints == comparee.maxActionPoints);
+    }
+    
+    public int getCurrentActionPoints() { return currentActionPoints; }
+    public int getMaxActionPoints() { return maxActionPoints; }
+    public int getSeat() { return seat; }
+    
+    @Override
+    public int hashCode() {
+        return (31 * seat + currentActionPoints) * 31 + maxActionPoints;
+    }
+    
+    /** Forks the snapshot with the current action points replaced. */
+    public PlayerSnapshot withCurrentActionPoints(final int currentActionPoints) {
+        return new PlayerSnapshot(seat, currentActionPoints, maxActionPoints);
+    }
+}
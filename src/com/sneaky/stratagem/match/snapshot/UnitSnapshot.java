@@ -0,0 +1,261 @@
+package com.sneaky.stratagem.match.snapshot;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Immutable record of a unit's combat state. Forking a unit through one of the
+ * <code>with</code> methods leaves the original untouched, so snapshots of the match can
+ * share every unit that didn't change.
+ * 
+ * @author R. Matt McCann
+ */
+public final class UnitSnapshot {
+    private final int apCostOfAttack;
+    private final int apCostOfMovement;
+    private final int attackDamage;
+    private final int attackRange;
+    private final boolean canAct;
+    private final boolean canMove;
+    private final float chargePoints;
+    
+    /** Timed effects active on the unit. */
+    private final ImmutableList<EffectSnapshot> effects;
+    
+    private final boolean hasActed;
+    private final boolean hasMoved;
+    private final float health;
+    
+    /** Id of the live unit the snapshot was taken from. See {@link Unit#getId()}. */
+    private final int id;
+    
+    private final boolean isObstacle;
+    private final boolean isStunned;
+    private final float maxChargePoints;
+    private final float maxHealth;
+    private final int movementRange;
+    
+    /** Play position of the owning player, or {@link #NO_OWNER}. */
+    private final int ownerSeat;
+    
+    /** Class name of the live unit, identifying what kind of unit it is. */
+    private final String type;
+    
+    /** Owner seat of units that don't belong to any player, such as walls. */
+    public static final int NO_OWNER = -1;
+    
+    private UnitSnapshot(final Builder builder) {
+        this.apCostOfAttack = builder.apCostOfAttack;
+        this.apCostOfMovement = builder.apCostOfMovement;
+        this.attackDamage = builder.attackDamage;
+        this.attackRange = builder.attackRange;
+        this.canAct = builder.canAct;
+        this.canMove = builder.canMove;
+        this.chargePoints = builder.chargePoints;
+        this.effects = builder.effects;
+        this.hasActed = builder.hasActed;
+        this.hasMoved = builder.hasMoved;
+        this.health = builder.health;
+        this.id = builder.id;
+        this.isObstacle = builder.isObstacle;
+        this.isStunned = builder.isStunned;
+        this.maxChargePoints = builder.maxChargePoints;
+        this.maxHealth = builder.maxHealth;
+        this.movementRange = builder.movementRange;
+        this.ownerSeat = builder.ownerSeat;
+        this.type = checkNotNull(builder.type, "Unit type must not be null!");
+    }
+    
+    /** Starts a snapshot from scratch, for building states that never existed live. */
+    public static Builder builder(final int id, final String type) {
+        final Builder builder = new Builder();
+        builder.id = id;
+        builder.type = type;
+        
+        return builder;
+    }
+    
+    /**
+     * Captures the live unit. Must be called on the thread that mutates the match.
+     * 
+     * @param unit Unit to capture. Must not be null.
+     * @param seats Play position of each player in the match.
+     */
+    static UnitSnapshot capture(final Unit unit, final Map<Player, Integer> seats) {
+        final Builder builder = builder(unit.getId(), unit.getClass().getName());
+        
+        final Integer ownerSeat = seats.get(unit.getOwner());
+        builder.ownerSeat = (ownerSeat != null) ? ownerSeat : NO_OWNER;
+        builder.apCostOfAttack = unit.getApCostOfAttack();
+        builder.apCostOfMovement = unit.getApCostOfMovement();
+        builder.attackDamage = unit.getAttackDamage();
+        builder.attackRange = unit.getAttackRange();
+        builder.canAct = unit.getCanAct();
+        builder.canMove = unit.getCanMove();
+        builder.chargePoints = unit.getChargePoints();
+        builder.hasActed = unit.hasActed();
+        builder.hasMoved = unit.hasMoved();
+        builder.health = unit.getHealth();
+        builder.isObstacle = unit.isObstacle();
+        builder.isStunned = unit.isStunned();
+        builder.maxChargePoints = unit.getMaxChargePoints();
+        builder.maxHealth = unit.getMaxHealth();
+        builder.movementRange = unit.getMovementRange();
+        
+        // Keep the timed effects, leaving out the purely cosmetic ones
+        final ImmutableList.Builder<EffectSnapshot> effects = ImmutableList.builder();
+        for (Object effect : unit.getEffects()) {
+            final EffectSnapshot captured = EffectSnapshot.capture(effect);
+            if (captured != null) {
+                effects.add(captured);
+            }
+        }
+        builder.effects = effects.build();
+        
+        return builder.build();
+    }
+    
+    @Override
+    public boolean equals(final Object object) {
+        if (!(object instanceof UnitSnapshot)) {
+            return false;
+        }
+        
+        final UnitSnapshot comparee = (UnitSnapshot) object;
+        return (id == comparee.id) && type.equals(comparee.type) && (ownerSeat == comparee.ownerSeat)
+                && (apCostOfAttack == comparee.apCostOfAttack) 
+                && (apCostOfMovement == comparee.apCostOfMovement)
+                && (attackDamage == comparee.attackDamage) && (attackRange == comparee.attackRange)
+                && (canAct == comparee.canAct) && (canMove == comparee.canMove)
+                && (Float.compare(chargePoints, comparee.chargePoints) == 0)
+                && (hasActed == comparee.hasActed) && (hasMoved == comparee.hasMoved)
+                && (Float.compare(health, comparee.health) == 0)
+                && (isObstacle == comparee.isObstacle) && (isStunned == comparee.isStunned)
+                && (Float.compare(maxChargePoints, comparee.maxChargePoints) == 0)
+                && (Float.compare(maxHealth, comparee.maxHealth) == 0)
+                && (movementRange == comparee.movementRange) && effects.equals(comparee.effects);
+    }
+    
+    public boolean canAct() { return canAct && !hasActed; }
+    public boolean canMove() { return canMove && !hasMoved; }
+    public int getApCostOfAttack() { return apCostOfAttack; }
+    public int getApCostOfMovement() { return apCostOfMovement; }
+    public int getAttackDamage() { return attackDamage; }
+    public int getAttackRange() { return attackRange; }
+    public float getChargePoints() { return chargePoints; }
+    public ImmutableList<EffectSnapshot> getEffects() { return effects; }
+    public float getHealth() { return health; }
+    public int getId() { return id; }
+    public float getMaxChargePoints() { return maxChargePoints; }
+    public float getMaxHealth() { return maxHealth; }
+    public int getMovementRange() { return movementRange; }
+    public int getOwnerSeat() { return ownerSeat; }
+    public String getType() { return type; }
+    public boolean hasActed() { return hasActed; }
+    public boolean hasMoved() { return hasMoved; }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id, type, ownerSeat, health, chargePoints, hasActed, hasMoved, effects);
+    }
+    
+    /** Whether or not the unit's health has run out. */
+    public boolean isDead() { return health <= 0.0f; }
+    
+    public boolean isObstacle() { return isObstacle; }
+    public boolean isStunned() { return isStunned; }
+    
+    /** Copies the snapshot into a builder, to fork it with several changes at once. */
+    public Builder toBuilder() {
+        final Builder builder = builder(id, type);
+        builder.apCostOfAttack = apCostOfAttack;
+        builder.apCostOfMovement = apCostOfMovement;
+        builder.attackDamage = attackDamage;
+        builder.attackRange = attackRange;
+        builder.canAct = canAct;
+        builder.canMove = canMove;
+        builder.chargePoints = chargePoints;
+        builder.effects = effects;
+        builder.hasActed = hasActed;
+        builder.hasMoved = hasMoved;
+        builder.health = health;
+        builder.isObstacle = isObstacle;
+        builder.isStunned = isStunned;
+        builder.maxChargePoints = maxChargePoints;
+        builder.maxHealth = maxHealth;
+        builder.movementRange = movementRange;
+        builder.ownerSeat = ownerSeat;
+        
+        return builder;
+    }
+    
+    /** Forks the snapshot with the charge points replaced. */
+    public UnitSnapshot withChargePoints(final float chargePoints) {
+        return toBuilder().setChargePoints(chargePoints).build();
+    }
+    
+    /** Forks the snapshot with the acted and moved flags replaced. */
+    public UnitSnapshot withFlags(final boolean hasActed, final boolean hasMoved) {
+        return toBuilder().setHasActed(hasActed).setHasMoved(hasMoved).build();
+    }
+    
+    /** Forks the snapshot with the health replaced. */
+    public UnitSnapshot withHealth(final float health) {
+        return toBuilder().setHealth(health).build();
+    }
+    
+    /** Mutable builder for unit snapshots. */
+    public static final class Builder {
+        private int apCostOfAttack;
+        private int apCostOfMovement;
+        private int attackDamage;
+        private int attackRange;
+        private boolean canAct = true;
+        private boolean canMove = true;
+        private float chargePoints;
+        private ImmutableList<EffectSnapshot> effects = ImmutableList.of();
+        private boolean hasActed = false;
+        private boolean hasMoved = false;
+        private float health;
+        private int id;
+        private boolean isObstacle = false;
+        private boolean isStunned = false;
+        private float maxChargePoints;
+        private float maxHealth;
+        private int movementRange;
+        private int ownerSeat = NO_OWNER;
+        private String type;
+        
+        private Builder() { }
+        
+        public UnitSnapshot build() { return new UnitSnapshot(this); }
+        
+        public Builder setApCostOfAttack(final int apCostOfAttack) { 
+            this.apCostOfAttack = apCostOfAttack; return this; }
+        public Builder setApCostOfMovement(final int apCostOfMovement) { 
+            this.apCostOfMovement = apCostOfMovement; return this; }
+        public Builder setAttackDamage(final int attackDamage) { this.attackDamage = attackDamage; return this; }
+        public Builder setAttackRange(final int attackRange) { this.attackRange = attackRange; return this; }
+        public Builder setCanAct(final boolean canAct) { this.canAct = canAct; return this; }
+        public Builder setCanMove(final boolean canMove) { this.canMove = canMove; return this; }
+        public Builder setChargePoints(final float chargePoints) { this.chargePoints = chargePoints; return this; }
+        public Builder setEffects(final ImmutableList<EffectSnapshot> effects) { 
+            this.effects = checkNotNull(effects); return this; }
+        public Builder setHasActed(final boolean hasActed) { this.hasActed = hasActed; return this; }
+        public Builder setHasMoved(final boolean hasMoved) { this.hasMoved = hasMoved; return this; }
+        public Builder setHealth(final float health) { this.health = health; return this; }
+        public Builder setIsObstacle(final boolean isObstacle) { this.isObstacle = isObstacle; return this; }
+        public Builder setIsStunned(final boolean isStunned) { this.isStunned = isStunned; return this; }
+        public Builder setMaxChargePoints(final float maxChargePoints) { 
+            this.maxChargePoints = maxChargePoints; return this; }
+        public Builder setMaxHealth(final float maxHealth) { this.maxHealth = maxHealth; return this; }
+        public Builder setMovementRange(final int movementRange) { this.movementRange = movementRange; return this; }
+        public Builder setOwnerSeat(final int ownerSeat) { this.ownerSeat = ownerSeat; return this; }
+    }
+}
@@ -0,0 +1,6 @@
+/**
+ * Immutable snapshots of the match state, for look-ahead search, replays and reads from
+ * other threads. Snapshots hold plain values only, so they can be built and forked without
+ * an injector or a GL context.
+ */
+package com.sneaky.stratagem.match.snapshot;
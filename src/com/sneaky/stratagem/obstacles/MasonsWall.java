@@ -32,6 +32,9 @@ public class MasonsWall extends Unit {
         setMaxHealth(7);
     }
     
+    @Override
+    public boolean isObstacle() { return true; }
+    
     @Override
     public void render(final MVP mvp) {
         Device device = injector.getInstance(Device.class);
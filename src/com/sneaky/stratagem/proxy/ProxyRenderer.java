@@ -72,6 +72,8 @@ public class ProxyRenderer implements ClickHandler, Draggable, GLSurfaceView.Ren
         // Draw the background color
         GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT);
         
+        // Draw the frame between the game ticks it falls between
+        currentRenderer.beginFrame();
         currentRenderer.drawFrame(new MVP());
     }
 
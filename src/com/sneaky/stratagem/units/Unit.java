@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -15,11 +16,13 @@ import com.google.common.eventbus.Subscribe;
 import com.google.inject.Injector;
 import com.sneaky.stratagem.actions.Executable;
 import com.sneaky.stratagem.flow.EndRoundEvent;
+import com.sneaky.stratagem.flow.GameFlowController;
 import com.sneaky.stratagem.match.Player;
 
 import scatcat.effects.StatusMessageAnimation.StatusMessageAnimationFactory;
 import scatcat.general.Constants;
 import scatcat.general.Device;
+import scatcat.general.points.GridPoint2D;
 import scatcat.general.points.Point2D;
 import scatcat.general.points.Point3D;
 import scatcat.graphics.Color;
@@ -27,6 +30,7 @@ import scatcat.graphics.MVP;
 import scatcat.graphics.RenderableMVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
 import scatcat.map.Battlefield;
+import scatcat.map.Zobrist;
 
 /**
  * Basic class representing units in the game.
@@ -48,12 +52,18 @@ public abstract class Unit implements RenderableMVP {
     
     private Point2D tileOffset = new Point2D();
     
+    /** Tile offset as of the previous tick, relative to the same tile as the current offset. */
+    private Point2D previousTileOffset = new Point2D();
+    
     private ChargeType abilityChargeType;
     
     private float chargePoints;
     
     private List<Executable> actions = new ArrayList<Executable>(); 
     
+    /** Battlefield the unit stands on, told whenever the unit's hashed state changes. */
+    private Battlefield battlefield = null;
+    
     private int apCostOfAttack;
     
     private int apCostOfMovement;
@@ -88,6 +98,9 @@ public abstract class Unit implements RenderableMVP {
     
     private float height = 1.0f;
     
+    /** Identifies the unit across snapshots of the match. Unique within the process. */
+    private final int id = nextId.getAndIncrement();
+    
     private final Injector injector;
     
     private boolean isStunned = false;
@@ -106,6 +119,12 @@ public abstract class Unit implements RenderableMVP {
     
     private float width = 1.0f;
     
+    /** Zobrist key of the unit as last reported to its battlefield. */
+    private long zobristKey = Zobrist.EMPTY;
+    
+    /** Source of unit ids. */
+    private static final AtomicInteger nextId = new AtomicInteger();
+    
     public enum AttackType {
         PHYSICAL("Physical"),
         FIRE("Fire");
@@ -226,6 +245,8 @@ public abstract class Unit implements RenderableMVP {
         } else {
             chargePoints += chargePointsGained;
         }
+        
+        refreshZobristKey();
     }
     
     public void gainHealth(final int healthGained) {
@@ -234,6 +255,8 @@ public abstract class Unit implements RenderableMVP {
         } else {
             health += healthGained;
         }
+        
+        refreshZobristKey();
     }
     
     public final ChargeType getAbilityChargeType() { return abilityChargeType; }
@@ -253,6 +276,7 @@ public abstract class Unit implements RenderableMVP {
     public final int getEnlistCost() { return enlistCost; }
     public final float getHealth() { return health; }
     public final float getHeight() { return height; }
+    public final int getId() { return id; }
     public final float getMaxChargePoints() { return maxChargePoints; }   
     public final float getMaxHealth() { return maxHealth; }
     public final int getMovementRange() { return movementRange; } 
@@ -266,9 +290,25 @@ public abstract class Unit implements RenderableMVP {
     
     public final float getWidth() { return width; }
     
+    /**
+     * Position independent Zobrist key of the unit, covering its kind, its owner's seat and
+     * its discretized health and charge. See {@link Zobrist}.
+     */
+    public final long getZobristKey() {
+        final int ownerSeat = (owner != null) ? owner.getSeat() : Player.NO_SEAT;
+        
+        return Zobrist.key(Zobrist.TYPE, getClass().getName().hashCode())
+                ^ Zobrist.key(Zobrist.OWNER, ownerSeat)
+                ^ Zobrist.key(Zobrist.HEALTH, Zobrist.discretize(health))
+                ^ Zobrist.key(Zobrist.CHARGE, Zobrist.discretize(chargePoints));
+    }
+    
     public boolean hasActed() { return hasActed; }
     public boolean hasMoved() { return hasMoved; }
     
+    /** Whether or not the unit is an obstacle, such as a wall, rather than a fighting unit. */
+    public boolean isObstacle() { return false; }
+    
     public boolean isStunned() { return isStunned; }
     
     @Subscribe
@@ -281,6 +321,24 @@ public abstract class Unit implements RenderableMVP {
         setHasMoved(false);
     }
     
+    /** Tells the battlefield the unit stands on that its reach or damage may have changed. */
+    private void refreshInfluence() {
+        if (battlefield != null) {
+            battlefield.handleUnitChange(this);
+        }
+    }
+    
+    /** Tells the battlefield the unit stands on if its hashed state has changed. */
+    private void refreshZobristKey() {
+        final long refreshed = getZobristKey();
+        if (refreshed == zobristKey) { return; }
+        
+        zobristKey = refreshed;
+        if (battlefield != null) {
+            battlefield.handleUnitChange(this);
+        }
+    }
+    
     public void removeBackgroundDecoration(final RenderableMVP decoration) {
         backgroundDecorations.remove(decoration);
     }
@@ -347,11 +405,15 @@ public abstract class Unit implements RenderableMVP {
                 throw new RuntimeException("Unsupported heading!");
         }
         
-        // Shift the unit in tile space based off its offset. This is an interface for abilities
-        // causing the unit to move around the map in a strictly animation sense
+        // Shift the unit in tile space based off its offset, between where it was last tick and
+        // where it is now. This is an interface for abilities causing the unit to move around the
+        // map in a strictly animation sense
+        final float alpha = injector.getInstance(GameFlowController.class).getFrameAlpha();
         final Battlefield battlefield = injector.getInstance(Battlefield.class);
         float[] model = mvp.peekCopy(MVP.Type.MODEL);
-        battlefield.moveInTileSpace(model, tileOffset.getX(), tileOffset.getY());
+        battlefield.moveInTileSpace(model, 
+                previousTileOffset.getX() + (tileOffset.getX() - previousTileOffset.getX()) * alpha, 
+                previousTileOffset.getY() + (tileOffset.getY() - previousTileOffset.getY()) * alpha);
         
         // Scale the unit texture according to the individual units dimensions
         Matrix.scaleM(model, Constants.NO_OFFSET, textureScale, textureScale, 1.0f);
@@ -388,12 +450,24 @@ public abstract class Unit implements RenderableMVP {
     public void renderAnimations(final MVP mvp) { }
     
     public final void setAbilityChargeType(final ChargeType abilityChargeType) { this.abilityChargeType = abilityChargeType; }
-    public final void setChargePoints(final float chargePoints) { this.chargePoints = chargePoints; }
+    public final void setChargePoints(final float chargePoints) { 
+        this.chargePoints = chargePoints;
+        refreshZobristKey();
+    }
     public final void setActions(final List<Executable> actions) { this.actions = actions; }
     public final void setApCostOfAttack(final int apCostOfAttack) { this.apCostOfAttack = apCostOfAttack; }
     public final void setApCostOfMovement(final int apCostOfMovement) { this.apCostOfMovement = apCostOfMovement; }
-    public final void setAttackDamage(final float attackDamage) { this.attackDamage = attackDamage; }
-    public final void setAttackRange(final int attackRange) { this.attackRange = attackRange; }
+    public final void setAttackDamage(final float attackDamage) { 
+        this.attackDamage = attackDamage;
+        refreshInfluence();
+    }
+    public final void setAttackRange(final int attackRange) { 
+        this.attackRange = attackRange;
+        refreshInfluence();
+    }
+    
+    /** Called by the battlefield as the unit is placed on and removed from it. */
+    public final void setBattlefield(final Battlefield battlefield) { this.battlefield = battlefield; }
     
     public void setCanAct(final boolean canAct) { this.canAct = canAct; }
     
@@ -405,6 +479,7 @@ public abstract class Unit implements RenderableMVP {
     public final void setHeading(final Heading heading) { this.heading = heading; }
     public final void setHealth(final float health) {
         this.health = health;
+        refreshZobristKey();
         
         // If the unit's health has fallen to zero or less, it has died
         if (health <= 0.0f) {
@@ -418,14 +493,27 @@ public abstract class Unit implements RenderableMVP {
     
     public final void setMaxChargePoints(final float maxChargePoints) { this.maxChargePoints = maxChargePoints; }  
     public final void setMaxHealth(final float maxHealth) { this.maxHealth = maxHealth; }
-    public final void setMovementRange(final int movementRange) { this.movementRange = movementRange; }    
+    public final void setMovementRange(final int movementRange) { 
+        this.movementRange = movementRange;
+        refreshInfluence();
+    }
     public final void setName(final String name) { this.name = name; }
     
     public void setNumPassivelyAccruedChargePoints(int numPoints) {
         this.numPassivelyAccruedChargePoints = numPoints;
     }
     
-    public final void setOwner(final Player owner) { this.owner = owner; }
+    public final void setOwner(final Player owner) { 
+        if (owner == this.owner) { return; }
+        
+        this.owner = owner;
+        
+        // Always tell the battlefield, as it tracks owners by identity rather than by seat
+        zobristKey = getZobristKey();
+        if (battlefield != null) {
+            battlefield.handleUnitChange(this);
+        }
+    }
     
     public void setTextureOffset(final Point3D textureOffset) {
         this.textureOffset = textureOffset;
@@ -438,16 +526,44 @@ public abstract class Unit implements RenderableMVP {
      
     public void setTileOffset(final Point2D tileOffset) {
         this.tileOffset = checkNotNull(tileOffset);
+        previousTileOffset = new Point2D(tileOffset);
+    }
+    
+    /**
+     * Records the tile offset as of the start of a tick. Abilities animating the offset call
+     * this before moving it, so frames drawn before the next tick fall between the two.
+     */
+    public void latchTileOffset() {
+        previousTileOffset.setX(tileOffset.getX());
+        previousTileOffset.setY(tileOffset.getY());
+    }
+    
+    /**
+     * Re-bases the tile offsets onto the tile one step away, for when the unit is moved into it
+     * mid animation. Both offsets stay relative to the same tile, so the unit is drawn where it
+     * was and the animation carries on without a jump.
+     * 
+     * @param step Step from the tile the unit occupied to the one it now occupies.
+     */
+    public void rebaseTileOffset(final GridPoint2D step) {
+        checkNotNull(step);
+        
+        tileOffset.addToX(-step.getRow());
+        tileOffset.addToY(-step.getColumn());
+        previousTileOffset.addToX(-step.getRow());
+        previousTileOffset.addToY(-step.getColumn());
     }
     
     public void spendChargePoints(final int points) {
         checkArgument(chargePoints >= points, "Available charge points less than amount attempting to spend!");
         
         chargePoints -= points;
+        refreshZobristKey();
     }
     
     public void takeDamage(final int damage) {
         health -= damage;
+        refreshZobristKey();
         
         StatusMessageAnimationFactory statusFactory = injector.getInstance(StatusMessageAnimationFactory.class);
         addEffect(statusFactory.create(Color.RED, "-" + damage));
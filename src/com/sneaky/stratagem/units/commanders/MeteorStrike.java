@@ -6,17 +6,20 @@ import scatcat.general.points.Point3D;
 import scatcat.graphics.MVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
 import scatcat.map.Battlefield;
-import scatcat.map.Tile;
+import scatcat.map.OccupantFilter;
 import android.opengl.Matrix;
 
-import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
 import com.google.inject.name.Named;
 import com.sneaky.stratagem.actions.Action;
+import com.sneaky.stratagem.actions.AreaEffect;
+import com.sneaky.stratagem.actions.AreaResolver;
+import com.sneaky.stratagem.actions.AreaShape;
 import com.sneaky.stratagem.actions.threats.RadialAttackPattern.RadialAttackPatternFactory;
 import com.sneaky.stratagem.battle.BattleRenderer;
+import com.sneaky.stratagem.flow.GameFlowController;
 import com.sneaky.stratagem.units.Unit;
 
 public class MeteorStrike extends Action {
@@ -46,9 +49,21 @@ public class MeteorStrike extends Action {
     private Point3D       movementVector = initialMovementVector.clone();
     private final Point3D initialPosition = new Point3D(0.0f, 1.0f, 0.0f);
     private Point3D       position = initialPosition.clone();
+    private Point3D       previousPosition = initialPosition.clone(); // As of the previous tick
     
     private final SimpleTexturedShader shader;
     
+    /** Deals the secondary damage around the impact site. Reused so exploding doesn't allocate. */
+    private final AreaEffect splashEffect = new AreaEffect() {
+        @Override
+        public void apply(final Unit secondaryTarget, final int row, final int column) {
+            // If its the direct impact site, don't apply secondary damage
+            if ((row == targetedTile.getRow()) && (column == targetedTile.getColumn())) { return; }
+            
+            secondaryTarget.takeDamage(damage / 2);
+        }
+    };
+    
     private Unit target;
     private GridPoint2D targetedTile;
         
@@ -105,6 +120,7 @@ public class MeteorStrike extends Action {
         movementVector.setX(movementVector.getX() / currentZoom);
         movementVector.setY(movementVector.getY() / currentZoom);
         movementVector.setZ(movementVector.getZ() / currentZoom);
+        previousPosition = position.clone();
         
         // Adjust the starting position based off the target tile location
         //position.addToY(-targetTile.getRow() + sourceTile.getRow());
@@ -134,9 +150,13 @@ public class MeteorStrike extends Action {
     public void render(MVP mvp) {
         // If the meteorite hasn't reached its impact location yet
         if (isInFlight) {
-            // Draw the meteorite
+            // Draw the meteorite between where it was last tick and where it is now
+            final float alpha = injector.getInstance(GameFlowController.class).getFrameAlpha();
             final float[] model = mvp.peekCopy(MVP.Type.MODEL);
-            Matrix.translateM(model, Constants.NO_OFFSET, position.getX(), position.getY(), position.getZ());
+            Matrix.translateM(model, Constants.NO_OFFSET, 
+                    previousPosition.getX() + (position.getX() - previousPosition.getX()) * alpha, 
+                    previousPosition.getY() + (position.getY() - previousPosition.getY()) * alpha, 
+                    previousPosition.getZ() + (position.getZ() - previousPosition.getZ()) * alpha);
             Matrix.scaleM(model, Constants.NO_OFFSET, 1.0f, 2.0f, 1.0f);
             Matrix.rotateM(model, Constants.NO_OFFSET, -90.0f, 0.0f, 0.0f, 1.0f);
             Matrix.scaleM(model, Constants.NO_OFFSET, 0.5f, 0.5f, 1.0f);
@@ -163,6 +183,9 @@ public class MeteorStrike extends Action {
         if (isInFlight) {
             final float timeToImpact = 1.5f;
             
+            previousPosition.setX(position.getX());
+            previousPosition.setY(position.getY());
+            previousPosition.setZ(position.getZ());
             position.addToX(movementVector.getX() / timeToImpact / (float) updatesPerSecond);
             position.addToY(movementVector.getY() / timeToImpact / (float) updatesPerSecond);
             position.addToZ(movementVector.getZ() / timeToImpact / (float) updatesPerSecond);
@@ -187,35 +210,17 @@ public class MeteorStrike extends Action {
                 explosionScale = initialExplosionScale;
                 movementVector = initialMovementVector.clone();
                 position = initialPosition.clone();
+                previousPosition = initialPosition.clone();
                 
                 // Apply the direct impact damage to the target
                 target.removeEffect(this);
                 target.takeDamage(damage);
                 
-                // Apply the secondary damage to the adjacent units
-                Battlefield battlefield = injector.getInstance(Battlefield.class);
-                for (int rowIter = -1; rowIter <= 1; rowIter++) {
-                    for (int colIter = -1; colIter <= 1; colIter++) {
-                        // If its the direct impact site, don't apply secondary damage
-                        if ((rowIter == 0) && (colIter == 0)) { continue; }
-                        
-                        GridPoint2D tilePos = new GridPoint2D(targetedTile.getRow() + rowIter,
-                                targetedTile.getColumn() + colIter);
-                        Optional<Tile> tile = battlefield.getTile(tilePos);
-                        
-                        // If the tile doesn't exist, move on
-                        if (!tile.isPresent()) { continue; }
-                        
-                        // If the tile doesn't contain a unit, move on
-                        if (!tile.get().hasOccupant()) { continue; }
-                        
-                        // If the secondary target is an enemy, apply the secondary damage
-                        Unit secondaryTarget = tile.get().getOccupant();
-                        if (secondaryTarget.getOwner() != actor.getOwner()) {
-                            secondaryTarget.takeDamage(damage / 2);
-                        }
-                    }
-                }
+                // Apply the secondary damage to the adjacent enemy units
+                final int splashRadius = 1;
+                injector.getInstance(AreaResolver.class).resolve(AreaShape.SQUARE, 
+                        targetedTile.getRow(), targetedTile.getColumn(), splashRadius, 
+                        OccupantFilter.HOSTILE, actor.getOwner(), splashEffect);
             }
         }
     }
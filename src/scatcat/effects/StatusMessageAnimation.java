@@ -4,6 +4,7 @@ import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.assistedinject.Assisted;
 import com.sneaky.stratagem.flow.GameFlowController;
+import com.sneaky.stratagem.flow.UpdatePhase;
 import com.sneaky.stratagem.graphics.textures.TextureFactory;
 
 import android.graphics.Paint.Align;
@@ -24,10 +25,12 @@ public class StatusMessageAnimation implements Effect {
     /** How far the damage icon has dropped so far. */
     private float distanceDropped = 0.0f;
     
+    private final GameFlowController flowController;
+    
     private final Injector injector;
     
-    /** Whether or not the animation has been cleaned up. */
-    private boolean isCleanedUp = false;
+    /** Whether or not the animation has been cleaned up. Read by the render thread. */
+    private volatile boolean isCleanedUp = false;
     
     /** How far the damage icon drops before the animation is finished. */
     private final float maxDistanceDropped = 0.6f;
@@ -43,6 +46,9 @@ public class StatusMessageAnimation implements Effect {
     /** Starting position of the damage icon. */
     private final float startingPosition = 1.1f;
     
+    /** View whose GL thread owns the texture. */
+    private final GLSurfaceView view;
+    
     @Inject
     protected StatusMessageAnimation(
             @Assisted final Color color,
@@ -52,8 +58,10 @@ public class StatusMessageAnimation implements Effect {
             final SimpleTexturedShader shader,
             final TextureFactory textureFactory,
             final GLSurfaceView view) {
+        this.flowController = flowController;
         this.injector = injector;
         this.shader = shader;
+        this.view = view;
         
         view.queueEvent(new Runnable() {
             public void run() {
@@ -63,18 +71,28 @@ public class StatusMessageAnimation implements Effect {
             }
         });
         
-        flowController.addUpdatable(this);
+        flowController.addUpdatable(this, UpdatePhase.UI);
     }
     public interface StatusMessageAnimationFactory {
         StatusMessageAnimation create(Color color, String statusMessage);
     }
     
+    /** Stops the animation and frees its texture. Only the first call has any effect. */
     @Override
-    public void cleanUp() {
-        final int numTextures = 1;
-        GLES20.glDeleteTextures(numTextures, new int[]{statusMessageTexture}, Constants.NO_OFFSET);
-        
+    public synchronized void cleanUp() {
+        if (isCleanedUp) { return; }
         isCleanedUp = true;
+        
+        flowController.removeUpdatable(this);
+        
+        // The texture belongs to the GL thread, which also created it, so it is still queued
+        // ahead of this if the animation finishes before it was ever drawn
+        view.queueEvent(new Runnable() {
+            public void run() {
+                final int numTextures = 1;
+                GLES20.glDeleteTextures(numTextures, new int[]{statusMessageTexture}, Constants.NO_OFFSET);
+            }
+        });
     }
 
     @Override
@@ -103,6 +121,7 @@ public class StatusMessageAnimation implements Effect {
     public void updateState(int updatesPerSecond) {
         distanceDropped += percentDropPerSecond / updatesPerSecond * maxDistanceDropped;
         
+        // If the icon has finished dropping, the animation is done
         if (distanceDropped >= maxDistanceDropped) {
             cleanUp();
         }
@@ -1,37 +1,70 @@
 package scatcat.general.points;
 
-import com.google.common.base.Objects;
-
 /**
- * Represents a point in a grid i.e. a tile in the battlefield
+ * Represents a point in a grid i.e. a tile in the battlefield. Grid points are immutable, so
+ * the points near the origin are interned and handed out by {@link #of(int, int)} rather
+ * than allocated on every use.
  * 
  * @author R. Matt McCann
  */
 public class GridPoint2D {
-    private int column = 0;
-    private int row = 0;
+    private final int column;
+    private final int row;
+    
+    /** Rows and columns below this are not interned. */
+    private static final int CACHE_MIN = -16;
+    
+    /** Rows and columns at or above this are not interned. */
+    private static final int CACHE_MAX = 256;
+    
+    /** Interned points, indexed by row then column. Rows are filled in as they're used. */
+    private static final GridPoint2D[][] cache = new GridPoint2D[CACHE_MAX - CACHE_MIN][];
     
-    /** Empty constructor. */
-    public GridPoint2D() { }
     public GridPoint2D(int row, int column) {
         this.row = row;
         this.column = column;
     }
+    
+    /**
+     * Retrieves the grid point for the provided row and column. Points near the origin are
+     * interned, so this only allocates for points far off the battlefields we build. Compare
+     * points with {@link #equals(Object)}, as two threads may race to intern the same point.
+     */
+    public static GridPoint2D of(final int row, final int column) {
+        // If the point is outside of the interned range, build a new one
+        if ((row < CACHE_MIN) || (row >= CACHE_MAX) || (column < CACHE_MIN) || (column >= CACHE_MAX)) {
+            return new GridPoint2D(row, column);
+        }
+        
+        GridPoint2D[] cachedRow = cache[row - CACHE_MIN];
+        if (cachedRow == null) {
+            cachedRow = new GridPoint2D[CACHE_MAX - CACHE_MIN];
+            cache[row - CACHE_MIN] = cachedRow;
+        }
+        
+        GridPoint2D point = cachedRow[column - CACHE_MIN];
+        if (point == null) {
+            point = new GridPoint2D(row, column);
+            cachedRow[column - CACHE_MIN] = point;
+        }
+        
+        return point;
+    }
+    
+    /** Retrieves the grid point for the packed coordinate. See {@link PackedGridPoint}. */
+    public static GridPoint2D of(final long packed) {
+        return of(PackedGridPoint.row(packed), PackedGridPoint.column(packed));
+    }
 
     /**
      * Adds to the row and column pointed to by this grid point.
      * 
      * @param rowOffset Row offset to add.
      * @param columnOffset Column offset to add.
-     * @return New grid point pointing to the adjusted row and column.
+     * @return Grid point pointing to the adjusted row and column.
      */
     public final GridPoint2D add(final int rowOffset, final int columnOffset) {
-        GridPoint2D result = new GridPoint2D();
-        
-        result.row = this.row + rowOffset;
-        result.column = this.column + columnOffset;
-        
-        return result;
+        return of(row + rowOffset, column + columnOffset);
     }
     
     @Override
@@ -49,27 +82,20 @@ public class GridPoint2D {
     
     @Override
     public int hashCode() {
-        return Objects.hashCode(column, row);
+        return 31 * row + column;
     }
     
     public GridPoint2D minus(final GridPoint2D subtractee) {
-        GridPoint2D sum = new GridPoint2D();
-        
-        sum.setColumn(column - subtractee.getColumn());
-        sum.setRow(row - subtractee.getRow());
-        
-        return sum;
+        return of(row - subtractee.getRow(), column - subtractee.getColumn());
     }
     
-    public GridPoint2D plus(final GridPoint2D addee) {
-        GridPoint2D sum = new GridPoint2D();
-        
-        sum.setColumn(column + addee.getColumn());
-        sum.setRow(row + addee.getRow());
+    /** Packs the point into a single long. See {@link PackedGridPoint}. */
+    public final long pack() { return PackedGridPoint.pack(row, column); }
     
-        return sum;
+    public GridPoint2D plus(final GridPoint2D addee) {
+        return of(row + addee.getRow(), column + addee.getColumn());
     }
     
-    public final void setColumn(int column) { this.column = column; }
-    public final void setRow(int row) { this.row = row; }
+    @Override
+    public String toString() { return "(" + row + ", " + column + ")"; }
 }
@@ -0,0 +1,62 @@
+package scatcat.general.points;
+
+/**
+ * Grid points packed into a single long, the row in the high 32 bits and the column in the
+ * low 32 bits. Packed points are plain primitives, so they can be added, compared and stored
+ * in {@link PackedGridPointSet} or {@link PackedGridPointMap} without allocating.
+ * 
+ * @author R. Matt McCann
+ */
+public final class PackedGridPoint {
+    /** Hidden constructor. This is a utility class. */
+    private PackedGridPoint() { }
+    
+    /** Row and column offsets of the four orthogonal neighbors, north, east, south then west. */
+    public static final int[] ORTHOGONAL_ROW_OFFSETS = new int[] {0, 1, 0, -1};
+    public static final int[] ORTHOGONAL_COLUMN_OFFSETS = new int[] {-1, 0, 1, 0};
+    
+    /** Adds the row and column offsets to the packed point. */
+    public static long add(final long packed, final int rowOffset, final int columnOffset) {
+        return pack(row(packed) + rowOffset, column(packed) + columnOffset);
+    }
+    
+    /** Column of the packed point. */
+    public static int column(final long packed) { return (int) packed; }
+    
+    /** Manhattan distance between the two packed points. */
+    public static int manhattanDistance(final long first, final long second) {
+        return Math.abs(row(first) - row(second)) + Math.abs(column(first) - column(second));
+    }
+    
+    /** Subtracts the second packed point from the first, component by component. */
+    public static long minus(final long first, final long second) {
+        return pack(row(first) - row(second), column(first) - column(second));
+    }
+    
+    /**
+     * Orthogonal neighbor of the packed point.
+     * 
+     * @param direction Index into {@link #ORTHOGONAL_ROW_OFFSETS}, 0 to 3.
+     */
+    public static long neighbor(final long packed, final int direction) {
+        return add(packed, ORTHOGONAL_ROW_OFFSETS[direction], ORTHOGONAL_COLUMN_OFFSETS[direction]);
+    }
+    
+    /** Packs the row and column into a single long. */
+    public static long pack(final int row, final int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+    
+    /** Adds the two packed points, component by component. */
+    public static long plus(final long first, final long second) {
+        return pack(row(first) + row(second), column(first) + column(second));
+    }
+    
+    /** Row of the packed point. */
+    public static int row(final long packed) { return (int) (packed >> 32); }
+    
+    /** Readable form of the packed point, for logging. */
+    public static String toString(final long packed) {
+        return "(" + row(packed) + ", " + column(packed) + ")";
+    }
+}
@@ -0,0 +1,206 @@
+package scatcat.general.points;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Hash map from packed grid points to values. Open addressing with linear probing over
+ * primitive key arrays, so lookups never box the key. Iterate with {@link #nextSlot(int)},
+ * {@link #keyAt(int)} and {@link #valueAt(int)}, as with {@link PackedGridPointSet}.
+ * 
+ * @param <V> Type of the values.
+ * @author R. Matt McCann
+ */
+public final class PackedGridPointMap<V> {
+    /** Packed points, valid where {@link #used} is set. */
+    private long[] keys;
+    
+    /** Number of entries in the map. */
+    private int size = 0;
+    
+    /** Whether or not each slot holds an entry. */
+    private boolean[] used;
+    
+    /** Values, matching {@link #keys}. */
+    private Object[] values;
+    
+    /** Creates a map with room for a handful of entries before it grows. */
+    public PackedGridPointMap() { this(16); }
+    
+    /**
+     * Creates a map with room for the provided number of entries before it grows.
+     * 
+     * @param expectedSize Must not be negative.
+     */
+    public PackedGridPointMap(final int expectedSize) {
+        checkArgument(expectedSize >= 0, "Expected size must not be negative!");
+        
+        final int capacity = capacityFor(expectedSize);
+        keys = new long[capacity];
+        used = new boolean[capacity];
+        values = new Object[capacity];
+    }
+    
+    /** Power of two capacity that holds the expected size at a load factor of a half. */
+    static int capacityFor(final int expectedSize) {
+        int capacity = 4;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        
+        return capacity;
+    }
+    
+    /** Home slot of the packed point in a table of the provided power of two capacity. */
+    static int slotFor(final long packed, final int capacity) {
+        // Fibonacci hashing spreads neighboring points across the table
+        final long hash = packed * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 40) & (capacity - 1);
+    }
+    
+    /** Removes every entry, keeping the capacity. */
+    public void clear() {
+        if (size == 0) { return; }
+        
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    
+    /** Whether or not the map holds an entry for the point. */
+    public boolean containsKey(final long packed) {
+        return find(packed) != -1;
+    }
+    
+    /** Slot holding the point's entry, or -1 if there isn't one. */
+    private int find(final long packed) {
+        int slot = slotFor(packed, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == packed) { return slot; }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        
+        return -1;
+    }
+    
+    /** Value mapped to the point, or null if there isn't one. */
+    @SuppressWarnings("unchecked")
+    public V get(final long packed) {
+        final int slot = find(packed);
+        
+        return (slot != -1) ? (V) values[slot] : null;
+    }
+    
+    /** Doubles the capacity and re-inserts every entry. */
+    private void grow() {
+        final long[] oldKeys = keys;
+        final boolean[] oldUsed = used;
+        final Object[] oldValues = values;
+        
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        for (int slotIter = 0; slotIter < oldKeys.length; slotIter++) {
+            if (!oldUsed[slotIter]) { continue; }
+            
+            int slot = slotFor(oldKeys[slotIter], keys.length);
+            while (used[slot]) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = oldKeys[slotIter];
+            used[slot] = true;
+            values[slot] = oldValues[slotIter];
+        }
+    }
+    
+    public boolean isEmpty() { return size == 0; }
+    
+    /** Point of the entry in the slot. Only valid for slots returned by {@link #nextSlot(int)}. */
+    public long keyAt(final int slot) { return keys[slot]; }
+    
+    /**
+     * Finds the first slot at or after the provided one that holds an entry.
+     * 
+     * @return Slot index, or -1 once every slot has been visited.
+     */
+    public int nextSlot(final int from) {
+        for (int slotIter = from; slotIter < used.length; slotIter++) {
+            if (used[slotIter]) { return slotIter; }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Maps the point to the value.
+     * 
+     * @return Value previously mapped to the point, or null if there wasn't one.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final long packed, final V value) {
+        int slot = slotFor(packed, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == packed) {
+                final V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        
+        keys[slot] = packed;
+        used[slot] = true;
+        values[slot] = value;
+        size++;
+        
+        // Keep the load factor at or below a half
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Removes the point's entry from the map.
+     * 
+     * @return Value that was mapped to the point, or null if there wasn't one.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final long packed) {
+        final int slot = find(packed);
+        if (slot == -1) { return null; }
+        
+        final V previous = (V) values[slot];
+        used[slot] = false;
+        values[slot] = null;
+        size--;
+        
+        // Shift the rest of the probe run back so lookups don't stop at the hole
+        final int mask = keys.length - 1;
+        int hole = slot;
+        int slotIter = (slot + 1) & mask;
+        while (used[slotIter]) {
+            final int home = slotFor(keys[slotIter], keys.length);
+            if (((slotIter - home) & mask) >= ((slotIter - hole) & mask)) {
+                keys[hole] = keys[slotIter];
+                values[hole] = values[slotIter];
+                used[hole] = true;
+                used[slotIter] = false;
+                values[slotIter] = null;
+                hole = slotIter;
+            }
+            slotIter = (slotIter + 1) & mask;
+        }
+        
+        return previous;
+    }
+    
+    /** Number of entries in the map. */
+    public int size() { return size; }
+    
+    /** Value of the entry in the slot. Only valid for slots returned by {@link #nextSlot(int)}. */
+    @SuppressWarnings("unchecked")
+    public V valueAt(final int slot) { return (V) values[slot]; }
+}
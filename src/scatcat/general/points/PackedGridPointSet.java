@@ -0,0 +1,173 @@
+package scatcat.general.points;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Hash set of packed grid points. Open addressing with linear probing over primitive arrays,
+ * so adding, checking and removing points never allocates once the set has grown to size.
+ * Iterate with {@link #nextSlot(int)} and {@link #keyAt(int)}:
+ * 
+ * <pre>
+ * for (int slot = set.nextSlot(0); slot != -1; slot = set.nextSlot(slot + 1)) {
+ *     final long point = set.keyAt(slot);
+ * }
+ * </pre>
+ * 
+ * @author R. Matt McCann
+ */
+public final class PackedGridPointSet {
+    /** Packed points, valid where {@link #used} is set. */
+    private long[] keys;
+    
+    /** Number of points in the set. */
+    private int size = 0;
+    
+    /** Whether or not each slot holds a point. */
+    private boolean[] used;
+    
+    /** Creates a set with room for a handful of points before it grows. */
+    public PackedGridPointSet() { this(16); }
+    
+    /**
+     * Creates a set with room for the provided number of points before it grows.
+     * 
+     * @param expectedSize Must not be negative.
+     */
+    public PackedGridPointSet(final int expectedSize) {
+        checkArgument(expectedSize >= 0, "Expected size must not be negative!");
+        
+        final int capacity = PackedGridPointMap.capacityFor(expectedSize);
+        keys = new long[capacity];
+        used = new boolean[capacity];
+    }
+    
+    /**
+     * Adds the point to the set.
+     * 
+     * @return Whether or not the point was not already in the set.
+     */
+    public boolean add(final long packed) {
+        int slot = PackedGridPointMap.slotFor(packed, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == packed) { return false; }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        
+        keys[slot] = packed;
+        used[slot] = true;
+        size++;
+        
+        // Keep the load factor at or below a half
+        if (size * 2 > keys.length) {
+            grow();
+        }
+        
+        return true;
+    }
+    
+    /** Adds the point to the set. */
+    public boolean add(final int row, final int column) {
+        return add(PackedGridPoint.pack(row, column));
+    }
+    
+    /** Removes every point, keeping the capacity. */
+    public void clear() {
+        if (size == 0) { return; }
+        
+        Arrays.fill(used, false);
+        size = 0;
+    }
+    
+    /** Whether or not the point is in the set. */
+    public boolean contains(final long packed) {
+        return find(packed) != -1;
+    }
+    
+    /** Whether or not the point is in the set. */
+    public boolean contains(final int row, final int column) {
+        return contains(PackedGridPoint.pack(row, column));
+    }
+    
+    /** Slot holding the point, or -1 if it isn't in the set. */
+    private int find(final long packed) {
+        int slot = PackedGridPointMap.slotFor(packed, keys.length);
+        while (used[slot]) {
+            if (keys[slot] == packed) { return slot; }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        
+        return -1;
+    }
+    
+    /** Doubles the capacity and re-inserts every point. */
+    private void grow() {
+        final long[] oldKeys = keys;
+        final boolean[] oldUsed = used;
+        
+        keys = new long[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        for (int slotIter = 0; slotIter < oldKeys.length; slotIter++) {
+            if (!oldUsed[slotIter]) { continue; }
+            
+            int slot = PackedGridPointMap.slotFor(oldKeys[slotIter], keys.length);
+            while (used[slot]) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            keys[slot] = oldKeys[slotIter];
+            used[slot] = true;
+        }
+    }
+    
+    public boolean isEmpty() { return size == 0; }
+    
+    /** Point held in the slot. Only valid for slots returned by {@link #nextSlot(int)}. */
+    public long keyAt(final int slot) { return keys[slot]; }
+    
+    /**
+     * Finds the first slot at or after the provided one that holds a point.
+     * 
+     * @return Slot index, or -1 once every slot has been visited.
+     */
+    public int nextSlot(final int from) {
+        for (int slotIter = from; slotIter < used.length; slotIter++) {
+            if (used[slotIter]) { return slotIter; }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Removes the point from the set.
+     * 
+     * @return Whether or not the point was in the set.
+     */
+    public boolean remove(final long packed) {
+        final int slot = find(packed);
+        if (slot == -1) { return false; }
+        
+        used[slot] = false;
+        size--;
+        
+        // Shift the rest of the probe run back so lookups don't stop at the hole
+        final int mask = keys.length - 1;
+        int hole = slot;
+        int slotIter = (slot + 1) & mask;
+        while (used[slotIter]) {
+            final int home = PackedGridPointMap.slotFor(keys[slotIter], keys.length);
+            if (((slotIter - home) & mask) >= ((slotIter - hole) & mask)) {
+                keys[hole] = keys[slotIter];
+                used[hole] = true;
+                used[slotIter] = false;
+                hole = slotIter;
+            }
+            slotIter = (slotIter + 1) & mask;
+        }
+        
+        return true;
+    }
+    
+    /** Number of points in the set. */
+    public int size() { return size; }
+}
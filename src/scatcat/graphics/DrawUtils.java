@@ -146,24 +146,59 @@ public final class DrawUtils {
      */
     public static int getUnitSquarePtVbo() {
         if (mUnitSquareVBOHandle == null) {
-            final int stride = POS_TEX_STRIDE;
-            final float[] data = new float[stride * NUM_SQUARE_VERTICES];
-            
-            // Populate the data array
-            for (int iter = 0; iter < NUM_SQUARE_VERTICES; iter++) {
-                data[iter * stride] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE];
-                data[iter * stride + 1] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 1];
-                data[iter * stride + 2] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 2];
-                data[iter * stride + 3] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE];
-                data[iter * stride + 4] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE + 1];
-            }
-
             // Generate a VBO, load it, and get the handle 
-            mUnitSquareVBOHandle = packVerticesIntoVbo(data);
+            mUnitSquareVBOHandle = packVerticesIntoVbo(getUnitSquarePtVertices());
         }
         
         return mUnitSquareVBOHandle;
     }
+    
+    /**
+     * Returns the unit square vertices and texture coordinates, interleaved
+     * as in the unit square VBO.
+     * 
+     * @return Fresh copy of the vertex data.
+     */
+    public static float[] getUnitSquarePtVertices() {
+        final int stride = POS_TEX_STRIDE;
+        final float[] data = new float[stride * NUM_SQUARE_VERTICES];
+        
+        // Populate the data array
+        for (int iter = 0; iter < NUM_SQUARE_VERTICES; iter++) {
+            data[iter * stride] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE];
+            data[iter * stride + 1] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 1];
+            data[iter * stride + 2] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 2];
+            data[iter * stride + 3] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE];
+            data[iter * stride + 4] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE + 1];
+        }
+        
+        return data;
+    }
+
+    /**
+     * Returns the handle to a VBO packed with unit square vertices whose texture
+     * coordinates repeat the texture the provided number of times along each axis.
+     * The texture must wrap, so this only suits power of two textures.
+     * 
+     * @param numRepeatsX Number of times the texture repeats along the x axis.
+     * @param numRepeatsY Number of times the texture repeats along the y axis.
+     * @return Handle to packed VBO.
+     */
+    public static int buildTiledSquarePtVbo(final int numRepeatsX, final int numRepeatsY) {
+        final int stride = POS_TEX_STRIDE;
+        final float[] data = new float[stride * NUM_SQUARE_VERTICES];
+        
+        // Populate the data array
+        for (int iter = 0; iter < NUM_SQUARE_VERTICES; iter++) {
+            data[iter * stride] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE];
+            data[iter * stride + 1] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 1];
+            data[iter * stride + 2] = UNIT_POSITIONS[iter * POSITION_DATA_SIZE + 2];
+            data[iter * stride + 3] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE] * numRepeatsX;
+            data[iter * stride + 4] = UNIT_TEX_COORDS[iter * TEX_COORD_DATA_SIZE + 1] * numRepeatsY;
+        }
+        
+        return packVerticesIntoVbo(data);
+    }
 
     /**
      * Sets up a 2D orthographic projection.
@@ -41,6 +41,17 @@ public final class SimpleTexturedShader extends Shader {
 
     @Override
     public void draw(final int drawMode, final int numVertices) {
+        draw(drawMode, Constants.BEGINNING_OF_BUFFER, numVertices);
+    }
+    
+    /**
+     * Draws a range of the loaded vertices.
+     * 
+     * @param drawMode Primitive to draw.
+     * @param firstVertex First vertex of the range.
+     * @param numVertices Number of vertices in the range.
+     */
+    public void draw(final int drawMode, final int firstVertex, final int numVertices) {
         final int vbo;
         if (mVBO.isPresent()) {
             vbo = mVBO.get();
@@ -73,7 +84,7 @@ public final class SimpleTexturedShader extends Shader {
         GLES20.glVertexAttribPointer(mTexCoordHandle, TEX_COORD_DATA_SIZE, GLES20.GL_FLOAT, 
                 willNormalize, STRIDE, TEX_COORD_OFFSET);
         
-        GLES20.glDrawArrays(drawMode, Constants.BEGINNING_OF_BUFFER, numVertices);
+        GLES20.glDrawArrays(drawMode, firstVertex, numVertices);
         
         // Clean up the vbo
         mVBO = Optional.<Integer>absent();
@@ -1,25 +1,36 @@
 package scatcat.map;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.sneaky.stratagem.R;
 import com.sneaky.stratagem.graphics.textures.TextureFactory;
 import com.sneaky.stratagem.huds.UnitHUD;
+import com.sneaky.stratagem.match.Player;
 import com.sneaky.stratagem.units.Unit;
 
 import scatcat.general.Constants;
 import scatcat.general.Device;
 import scatcat.general.points.GridPoint2D;
 import scatcat.general.points.Point3D;
+import scatcat.graphics.DrawUtils;
 import scatcat.graphics.MVP;
 import scatcat.graphics.RenderableMVP;
 import scatcat.graphics.shaders.SimpleTexturedShader;
 import scatcat.input.TileSelectionHandler;
+import android.opengl.GLES20;
 import android.opengl.Matrix;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
 import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -30,6 +41,11 @@ import com.google.inject.Singleton;
  * with a collection of structures and other features of consequence.
  * Construction of the tiles starts with the bottom left corner.
  * 
+ * Tiles are stored in square chunks that are only allocated once one of their tiles is
+ * used, and tiles themselves are only created on first access. Untouched terrain is drawn
+ * as a single tiled quad under the whole field, so very large fields cost little more than
+ * the tiles actually in play. Positions are still addressed by their row-major index.
+ * 
  * @author R. Matt McCann
  */
 @Singleton
@@ -37,13 +53,36 @@ public class Battlefield implements RenderableMVP {
     /** Currently active battlefield action. Given first crack at handling click actions. */
     private Optional<TileSelectionHandler> activeAction = Optional.<TileSelectionHandler>absent();
     
+    /** Tiled quad VBO the untouched terrain is drawn with. Rebuilt when the field is resized. */
+    private int backgroundVbo = 0;
+    
+    /** Rows and columns of tiles the background VBO was built for. Render thread only. */
+    private int backgroundVboRows = 0;
+    private int backgroundVboColumns = 0;
+    
+    /** Shared flyweight standing in for tiles that have not been created yet. Never attached. */
+    private final Tile defaultTile;
+    
     private final Device device;
     
+    /** Highlight quads of every highlighted tile, drawn as one batch. Render thread only. */
+    private final HighlightMesh highlightMesh = new HighlightMesh();
+    
+    /** Highlighted region, swapped in whole so the render thread never sees one half-built. */
+    private final AtomicReference<HighlightRegion> highlights = 
+            new AtomicReference<HighlightRegion>(HighlightRegion.EMPTY);
+    
+    /** Whether or not the unit index is verified against a full scan after every change. */
+    private boolean isCheckingUnitIndex = false;
+    
     /** Base of the island. */
     //private Model islandBase;
     private final int islandBack;
     private final int islandFront;
     
+    /** Bitboard view of the tiles' occupants. */
+    private final OccupancyBitboard occupancy = new OccupancyBitboard();
+    
     /** Currently selected (read:focused) tile. */
     private Optional<GridPoint2D> selectedTile = Optional.<GridPoint2D>absent();
     
@@ -54,14 +93,24 @@ public class Battlefield implements RenderableMVP {
     /** Used to set the active unit. */
     private final UnitHUD unitHUD;
     
+    /** How many enemy units threaten each tile, kept in step with the units. */
+    private final DangerMap dangerMap = new DangerMap();
+    
+    /** Line of sight between tiles, cached per source tile. */
+    private final Visibility visibility = new Visibility(this);
+    
+    /** Reverse index from each unit on the battlefield to the row-major index of its tile. */
+    private final Map<Unit, Integer> unitIndex = new IdentityHashMap<Unit, Integer>();
+    
+    /** Tile key each unit on the battlefield contributed to the Zobrist hash. */
+    private final Map<Unit, Long> zobristKeys = new IdentityHashMap<Unit, Long>();
+    
     @Inject
 	protected Battlefield(final Device device,
 	                      final SimpleTexturedShader shader,
 	                      final TextureFactory textureFactory,
 	                      final TileFactory tileFactory,
 	                      final UnitHUD unitHUD) {
-		mLayout = new Vector<Vector<Tile>>();
-		
 		islandBack = textureFactory.loadTexture(R.drawable.island_back);
 		islandFront = textureFactory.loadTexture(R.drawable.island_front);
 		
@@ -69,19 +118,21 @@ public class Battlefield implements RenderableMVP {
 		this.shader = shader;
 		this.tileFactory = tileFactory;
 		this.unitHUD = unitHUD;
+		
+		defaultTile = tileFactory.create(TileFactory.Type.GRASS);
 	}
     
 	/**
-	 * Removes the provided unit from the battlefield. //TODO Make faster?
+	 * Removes the provided unit from the battlefield.
 	 * 
 	 * @param Unit To be removed.
 	 */
 	public final void removeUnit(final Unit unit) {
-	    for (Vector<Tile> row : mLayout) {
-	        for (Tile tile : row) {
-	            if (tile.hasOccupant() && (tile.getOccupant() == unit)) {
-	                tile.setOccupant(null);
-	            }
+	    final int index = getUnitIndex(unit);
+	    if (index != NOT_ON_BATTLEFIELD) {
+	        final Tile tile = tileAt(index);
+	        if (tile.getOccupant() == unit) {
+	            tile.setOccupant(null);
 	        }
 	    }
 	}
@@ -105,75 +156,76 @@ public class Battlefield implements RenderableMVP {
         Matrix.rotateM(model, Constants.BEGINNING_OF_BUFFER, X_AXIS_VIEWING_ANGLE, 1.0f, 0.0f, 0.0f);
         Matrix.rotateM(model, Constants.BEGINNING_OF_BUFFER, Z_AXIS_VIEWING_ANGLE, 0.0f, 0.0f, 1.0f);
         
-        // Render the tiles
+        // Render the untouched terrain in one call, then the created tiles over it. Only
+        // allocated chunks can hold created tiles
         Matrix.translateM(model, 0, Tile.SIZE / 2.0f, Tile.SIZE / 2.0f, 0.1f);
-        mvp.push(MVP.Type.MODEL, model);
-        for (Iterator<Vector<Tile>> rowIter = mLayout.iterator(); rowIter.hasNext();) {
-            Vector<Tile> row = rowIter.next();
-            
-            // Move to the next row
-            Matrix.translateM(model, Constants.BEGINNING_OF_BUFFER, 0.0f, -Tile.SIZE, 0.0f);
-            mvp.push(MVP.Type.MODEL, model);
+        final AtomicReferenceArray<Chunk> current = chunks;
+        renderBackground(mvp, model);
+        for (int chunkIter = 0; chunkIter < current.length(); chunkIter++) {
+            final Chunk chunk = current.get(chunkIter);
+            if (chunk == null) { continue; }
             
-            // For each tile in the row
-            for (Iterator<Tile> colIter = row.iterator(); colIter.hasNext();) {  
-                // Move to the next column
-                Matrix.translateM(model, Constants.BEGINNING_OF_BUFFER, -Tile.SIZE, 0.0f, 0.0f);
-                mvp.push(MVP.Type.MODEL, model);
+            final int firstRow = (chunkIter / numChunkColumns) << CHUNK_SHIFT;
+            final int firstColumn = (chunkIter % numChunkColumns) << CHUNK_SHIFT;
+            for (int slotIter = 0; slotIter < chunk.length(); slotIter++) {
+                final Tile tile = chunk.get(slotIter);
+                if (tile == null) { continue; }
                 
-                // Render the tile
-                Tile current = colIter.next();
-                current.render(mvp);
-        
-                model = mvp.pop(MVP.Type.MODEL);
+                pushTileModel(mvp, model, firstRow + (slotIter >> CHUNK_SHIFT), firstColumn + (slotIter & CHUNK_MASK));
+                tile.render(mvp);
+                mvp.pop(MVP.Type.MODEL);
             }
-            
-            model = mvp.pop(MVP.Type.MODEL);
         }
-        model = mvp.pop(MVP.Type.MODEL);
         
-        // Render the units
-        for (Iterator<Vector<Tile>> rowIter = mLayout.iterator(); rowIter.hasNext();) {
-            Vector<Tile> row = rowIter.next();
-            
-            // Move to the next row
-            Matrix.translateM(model, Constants.BEGINNING_OF_BUFFER, 0.0f, -Tile.SIZE, 0.0f);
-            mvp.push(MVP.Type.MODEL, model);
+        // Render the highlighted region, and over it the selection and team colors
+        highlightMesh.render(mvp, model, shader, highlights.get());
+        renderOverlays(mvp, model);
+        
+        // Render the units. Only allocated chunks can hold occupants or effects
+        for (int chunkRowIter = 0; chunkRowIter < numChunkRows; chunkRowIter++) {
+            final int firstRow = chunkRowIter << CHUNK_SHIFT;
+            final int lastRow = Math.min(firstRow + CHUNK_SIZE, height);
             
-            // For each tile in the row
-            for (Iterator<Tile> colIter = row.iterator(); colIter.hasNext();) {  
-                // Move to the next column
-                Matrix.translateM(model, Constants.BEGINNING_OF_BUFFER, -Tile.SIZE, 0.0f, 0.0f);
-                mvp.push(MVP.Type.MODEL, model);
-                
-                // If the tile has an occupant
-                Tile current = colIter.next();
-                synchronized (current) {
-                    // Orient the unit so it is standing upright
-                    Matrix.rotateM(model, Constants.BEGINNING_OF_BUFFER, -Z_AXIS_VIEWING_ANGLE, 0.0f, 0.0f, 1.0f);
-                    Matrix.rotateM(model, Constants.BEGINNING_OF_BUFFER, -X_AXIS_VIEWING_ANGLE, 1.0f, 0.0f, 0.0f);
-                    mvp.push(MVP.Type.MODEL, model);
-
-                    // If the tile has an occupant
-                    if (current.hasOccupant()) {
-                        // Render the unit
-                        current.getOccupant().render(mvp);
-                    }
+            // Walk the rows across the chunks so units are still drawn back to front
+            for (int rowIter = firstRow; rowIter < lastRow; rowIter++) {
+                for (int chunkColIter = 0; chunkColIter < numChunkColumns; chunkColIter++) {
+                    final Chunk chunk = chunks.get(chunkRowIter * numChunkColumns + chunkColIter);
+                    if (chunk == null) { continue; }
                     
-                    for (Object effect : current.getEffects()) {
-                        if (effect instanceof RenderableMVP) {
-                            RenderableMVP renderable = (RenderableMVP) effect;
-                            renderable.render(mvp);
+                    final int firstColumn = chunkColIter << CHUNK_SHIFT;
+                    final int lastColumn = Math.min(firstColumn + CHUNK_SIZE, width);
+                    for (int colIter = firstColumn; colIter < lastColumn; colIter++) {
+                        final Tile current = chunk.get(slotOf(rowIter, colIter));
+                        if (current == null) { continue; }
+                        
+                        synchronized (current) {
+                            if (!current.hasOccupant() && current.getEffects().isEmpty()) { continue; }
+                            
+                            // Orient the unit so it is standing upright
+                            pushTileModel(mvp, model, rowIter, colIter);
+                            final float[] upright = mvp.pop(MVP.Type.MODEL);
+                            Matrix.rotateM(upright, Constants.BEGINNING_OF_BUFFER, -Z_AXIS_VIEWING_ANGLE, 0.0f, 0.0f, 1.0f);
+                            Matrix.rotateM(upright, Constants.BEGINNING_OF_BUFFER, -X_AXIS_VIEWING_ANGLE, 1.0f, 0.0f, 0.0f);
+                            mvp.push(MVP.Type.MODEL, upright);
+                            
+                            // If the tile has an occupant
+                            if (current.hasOccupant()) {
+                                // Render the unit
+                                current.getOccupant().render(mvp);
+                            }
+                            
+                            for (Object effect : current.getEffects()) {
+                                if (effect instanceof RenderableMVP) {
+                                    RenderableMVP renderable = (RenderableMVP) effect;
+                                    renderable.render(mvp);
+                                }
+                            }
+                            
+                            mvp.pop(MVP.Type.MODEL);
                         }
                     }
-
-                    model = mvp.pop(MVP.Type.MODEL);
                 }
-                
-                model = mvp.pop(MVP.Type.MODEL);
             }
-            
-            model = mvp.pop(MVP.Type.MODEL);
         }
         
         shader.activate();
@@ -191,23 +243,86 @@ public class Battlefield implements RenderableMVP {
 	 * Adds a tile to the battlefield. The battlefield will automatically resize
 	 * to include the specified location
 	 */
-	public final void addTile(final int rowPos, //!< Row position of tile
-			                  final int colPos, //!< Column position of tile
-			                  Tile      tile //!< Tile object to be added
+	public final synchronized void addTile(final int rowPos, //!< Row position of tile
+			                               final int colPos, //!< Column position of tile
+			                               Tile      tile //!< Tile object to be added
 			            ) {
-		// Add additional rows to the tile container if necessary
-		for (int resizeIter = mLayout.size(); resizeIter <= rowPos; resizeIter++) {
-			mLayout.add(new Vector<Tile>());
-		}
-
-		// Add additional columns to the row if necessary
-		for (int resizeIter = mLayout.get(rowPos).size(); resizeIter <= colPos; resizeIter++) {
-			mLayout.get(rowPos).add(tileFactory.create(TileFactory.Type.GRASS));
+	    checkArgument((rowPos >= 0) && (colPos >= 0), "Tile position must not be negative!");
+	    
+		// Grow the grid if the tile falls outside of it
+		if ((rowPos >= height) || (colPos >= width)) {
+		    resize(Math.max(height, rowPos + 1), Math.max(width, colPos + 1));
 		}
 
-		mLayout.get(rowPos).setElementAt(tile, colPos);
+		attachTile(rowPos, colPos, tile);
 	}
 
+	/**
+	 * Places the tile in the grid and hooks it up to the unit index, detaching whichever tile
+	 * previously held the slot.
+	 */
+	private void attachTile(final int row, final int column, final Tile tile) {
+	    final int index = indexOf(row, column);
+	    final Chunk chunk = chunkAt(row, column);
+	    final int slot = slotOf(row, column);
+	    
+	    final Tile previous = chunk.get(slot);
+	    if (previous != null) {
+	        previous.detach();
+	        if (previous.hasOccupant()) {
+	            handleOccupantChange(index, previous.getOccupant(), null);
+	        }
+	    }
+	    
+	    tile.attach(this, index);
+	    chunk.set(slot, tile);
+	    if (tile.hasOccupant()) {
+	        handleOccupantChange(index, null, tile.getOccupant());
+	    }
+	}
+	
+	/**
+	 * Retrieves the chunk holding the position, allocating it if this is its first use. Must
+	 * hold the battlefield's lock.
+	 */
+	private Chunk chunkAt(final int row, final int column) {
+	    final int chunkIndex = (row >> CHUNK_SHIFT) * numChunkColumns + (column >> CHUNK_SHIFT);
+	    
+	    Chunk chunk = chunks.get(chunkIndex);
+	    if (chunk == null) {
+	        chunk = new Chunk();
+	        chunks.set(chunkIndex, chunk);
+	    }
+	    
+	    return chunk;
+	}
+	
+	/** Tile at the provided position, or null if it hasn't been created yet. Never creates one. */
+	private Tile peekTile(final int row, final int column) {
+	    final AtomicReferenceArray<Chunk> current = chunks;
+	    final Chunk chunk = current.get((row >> CHUNK_SHIFT) * numChunkColumns + (column >> CHUNK_SHIFT));
+	    
+	    return (chunk != null) ? chunk.get(slotOf(row, column)) : null;
+	}
+	
+	/**
+	 * Creates the grass tile for a position that has not been used yet. Synchronized so two
+	 * threads touching the same position for the first time end up sharing one tile.
+	 */
+	private synchronized Tile createTile(final int row, final int column) {
+	    final Chunk chunk = chunkAt(row, column);
+	    final int slot = slotOf(row, column);
+	    
+	    // Another thread may have beaten us here
+	    if (chunk.get(slot) == null) {
+	        final Tile tile = tileFactory.create(TileFactory.Type.GRASS);
+	        tile.attach(this, indexOf(row, column));
+	        chunk.set(slot, tile);
+	    }
+	    
+	    return chunk.get(slot);
+	}
+	
 	/**
 	 * Adds a unit to the battlefield.
 	 * 
@@ -216,18 +331,72 @@ public class Battlefield implements RenderableMVP {
 	 * @param unit Unit stack to be added
 	 */
 	public final void addUnit(final int rowPos, final int colPos, final Unit unit) {
-		mLayout.get(rowPos).get(colPos).setOccupant(unit);
+		tileAt(rowPos, colPos).setOccupant(unit);
+	}
+	
+	/** How many enemy units threaten each tile. */
+	public final DangerMap getDangerMap() { return dangerMap; }
+	
+	/** Number of rows in the battlefield. */
+	public final int getHeight() { return height; }
+	
+	/** Bitboard view of the tiles' occupants, indexed the same as {@link #indexOf(int, int)}. */
+	public final OccupancyBitboard getOccupancy() { return occupancy; }
+	
+	/**
+	 * Looks up the row-major index of the tile the unit occupies.
+	 * 
+	 * @param unit Must not be null.
+	 * @return Index of the unit's tile, or {@link #NOT_ON_BATTLEFIELD}.
+	 */
+	public final int getUnitIndex(final Unit unit) {
+	    checkArgument(unit != null, "Unit must not be null!");
+	    
+	    synchronized (unitIndex) {
+	        final Integer index = unitIndex.get(unit);
+	        return (index != null) ? index : NOT_ON_BATTLEFIELD;
+	    }
 	}
 	
-	public Vector<Vector<Tile>> getLayout() { return mLayout; }
+	/**
+	 * Looks up the position of the tile the unit occupies.
+	 * 
+	 * @param unit Must not be null.
+	 * @return Position of the unit's tile if the unit is on the battlefield.
+	 */
+	public final Optional<GridPoint2D> getUnitPosition(final Unit unit) {
+	    final int index = getUnitIndex(unit);
+	    if (index == NOT_ON_BATTLEFIELD) {
+	        return Optional.absent();
+	    }
+	    
+	    return Optional.of(GridPoint2D.of(index / width, index % width));
+	}
+	
+	/**
+	 * Builds a row-major copy of the tile grid. This allocates on every call, so
+	 * prefer {@link #tileAt(int, int)} for lookups.
+	 * 
+	 * @deprecated Use {@link #tileAt(int, int)}, {@link #getHeight()} and {@link #getWidth()}.
+	 */
+	@Deprecated
+	public Vector<Vector<Tile>> getLayout() {
+	    final Vector<Vector<Tile>> layout = new Vector<Vector<Tile>>(height);
+	    for (int rowIter = 0; rowIter < height; rowIter++) {
+	        final Vector<Tile> row = new Vector<Tile>(width);
+	        for (int colIter = 0; colIter < width; colIter++) {
+	            row.add(tileAt(rowIter, colIter));
+	        }
+	        layout.add(row);
+	    }
+	    
+	    return layout;
+	}
 	
 	public final Optional<Tile> getTile(final GridPoint2D tilePoint) {
 	    // If the indicated point falls within the realm of the tiles, return it
-	    if ((tilePoint.getRow() >= 0) && 
-	        (tilePoint.getRow() < mLayout.size()) &&
-	        (tilePoint.getColumn() >= 0) && 
-	        (tilePoint.getColumn() < mLayout.get(tilePoint.getRow()).size())) {
-	        return Optional.<Tile>of(mLayout.get(tilePoint.getRow()).get(tilePoint.getColumn()));
+	    if (isInside(tilePoint.getRow(), tilePoint.getColumn())) {
+	        return Optional.<Tile>of(tileAt(tilePoint.getRow(), tilePoint.getColumn()));
 	    } 
 	    // The indicated point was outside of the battlefield, so return a null
 	    else {
@@ -235,6 +404,443 @@ public class Battlefield implements RenderableMVP {
 	    }
 	}
 	
+	/** Line of sight between the tiles. */
+	public final Visibility getVisibility() { return visibility; }
+	
+	/** Number of columns in the battlefield. */
+	public final int getWidth() { return width; }
+	
+	/**
+	 * Counter bumped whenever any tile's occupant, elevation or terrain obstacle changes, or the
+	 * battlefield is resized. Results derived from what stands on the tiles stay valid for as
+	 * long as the epoch is unchanged.
+	 */
+	public final int getOccupancyEpoch() {
+	    synchronized (unitIndex) {
+	        return occupancyEpoch;
+	    }
+	}
+	
+	/** Zones the players deploy their armies into. Empty if deployment is unrestricted. */
+	public final synchronized List<SpawnZone> getSpawnZones() { return spawnZones; }
+	
+	/**
+	 * Zobrist hash of the units on the battlefield, covering each unit's tile, kind, owner and
+	 * discretized health and charge. Kept up to date in O(1) per change. See {@link Zobrist}.
+	 */
+	public final long getZobristHash() {
+	    synchronized (unitIndex) {
+	        return zobristHash;
+	    }
+	}
+	
+	/**
+	 * Replaces the highlighted region. The render thread picks the region up on its next frame,
+	 * whole, so it may be built on any thread.
+	 * 
+	 * @param region Must not be null.
+	 */
+	public final void publishHighlights(final HighlightRegion region) {
+	    checkArgument(region != null, "Region must not be null!");
+	    
+	    highlights.set(region);
+	}
+	
+	/**
+	 * Clears the highlighted region, but only if it is still the provided one, so clearing a
+	 * stale region never erases one published since.
+	 */
+	public final void retractHighlights(final HighlightRegion region) {
+	    highlights.compareAndSet(region, HighlightRegion.EMPTY);
+	}
+	
+	/**
+	 * Keeps the unit index in step with a tile's occupant. Called by the tile whenever its
+	 * occupant is replaced, while it still holds its own lock, so tile before unit index is
+	 * the lock order. Nothing under the unit index may wait on a tile.
+	 * 
+	 * @param index Row-major index of the tile.
+	 * @param previous Occupant before the change. May be null.
+	 * @param current Occupant after the change. May be null.
+	 */
+	final void handleOccupantChange(final int index, final Unit previous, final Unit current) {
+	    synchronized (unitIndex) {
+	        // Only forget the previous occupant if it hasn't already been placed elsewhere
+	        if ((previous != null) && (previous != current)) {
+	            final Integer knownIndex = unitIndex.get(previous);
+	            if ((knownIndex != null) && (knownIndex == index)) {
+	                unitIndex.remove(previous);
+	                unhashUnit(previous);
+	                dangerMap.remove(previous);
+	                previous.setBattlefield(null);
+	            }
+	        }
+	        
+	        if (current != null) {
+	            // A unit placed before leaving its old tile is hashed at its new tile only
+	            unhashUnit(current);
+	            unitIndex.put(current, index);
+	            hashUnit(current, index);
+	            dangerMap.place(current, index);
+	            current.setBattlefield(this);
+	        }
+	        
+	        occupancy.update(index, previous, current);
+	        occupancyEpoch++;
+	        
+	        // Walls block sight, so only they affect what can be seen
+	        if (((previous != null) && previous.isObstacle()) || ((current != null) && current.isObstacle())) {
+	            visibility.handleChange(index);
+	        }
+	    }
+	    
+	    if (isCheckingUnitIndex) {
+	        verifyUnitIndex();
+	    }
+	}
+	
+	/**
+	 * Forgets the sight lines through a tile whose elevation or terrain obstacle has changed,
+	 * and moves the occupancy epoch on, as a terrain obstacle opens or closes paths just as an
+	 * occupant does. Called by the tile.
+	 * 
+	 * @param index Row-major index of the tile.
+	 */
+	final void handleTerrainChange(final int index) {
+	    synchronized (unitIndex) {
+	        occupancyEpoch++;
+	    }
+	    
+	    visibility.handleChange(index);
+	}
+	
+	/**
+	 * Rehashes a unit whose hashed state, owner or influence has changed. Called by the unit.
+	 * O(players), plus the tiles inside the unit's old and new influence if that has changed.
+	 * 
+	 * @param unit Must not be null.
+	 */
+	public final void handleUnitChange(final Unit unit) {
+	    checkArgument(unit != null, "Unit must not be null!");
+	    
+	    synchronized (unitIndex) {
+	        // If the unit has since left the battlefield, there's nothing to rehash
+	        final Integer index = unitIndex.get(unit);
+	        if (index == null) { return; }
+	        
+	        unhashUnit(unit);
+	        hashUnit(unit, index);
+	        dangerMap.place(unit, index);
+	        
+	        // If the unit changed hands, move its tile to the new owner's layer
+	        if (occupancy.updateOwner(index, unit.getOwner())) {
+	            occupancyEpoch++;
+	        }
+	    }
+	}
+	
+	/** XORs the unit's key at the tile into the hash. Must hold the unit index lock. */
+	private void hashUnit(final Unit unit, final int index) {
+	    final long key = Zobrist.tileKey(index, unit.getZobristKey());
+	    
+	    zobristKeys.put(unit, key);
+	    zobristHash ^= key;
+	}
+	
+	/**
+	 * Whether or not the player in the provided seat may deploy onto the tile at the provided
+	 * position. Deployment is unrestricted on battlefields without spawn zones.
+	 */
+	public final synchronized boolean isDeployable(final int seat, final int row, final int column) {
+	    if (spawnZones.isEmpty()) { return true; }
+	    
+	    for (SpawnZone zone : spawnZones) {
+	        if ((zone.getSeat() == seat) && zone.contains(row, column)) {
+	            return true;
+	        }
+	    }
+	    
+	    return false;
+	}
+	
+	/**
+	 * Whether or not the player's units may walk across the tile at the provided position.
+	 * Walls, terrain obstacles and other players' units block the way. The player's own units
+	 * don't, though they can't be stopped on. The position is not bounds checked.
+	 */
+	public final boolean isPassable(final Player player, final int row, final int column) {
+	    return !occupancy.isHostileTo(player, indexOf(row, column)) && !hasTerrainObstacle(row, column);
+	}
+	
+	/**
+	 * Elevation of the tile at the provided position. Tiles that haven't been created yet are
+	 * flat, so this never creates one. The position is not bounds checked.
+	 */
+	public final float getElevation(final int row, final int column) {
+	    final Tile tile = peekTile(row, column);
+	    
+	    return (tile != null) ? tile.getElevation() : 0.0f;
+	}
+	
+	/**
+	 * Whether or not the tile at the provided position is blocked by terrain. Tiles that
+	 * haven't been created yet are open grass, so this never creates one. The position is not
+	 * bounds checked.
+	 */
+	public final boolean hasTerrainObstacle(final int row, final int column) {
+	    final Tile tile = peekTile(row, column);
+	    
+	    return (tile != null) && tile.hasObstacle();
+	}
+	
+	/**
+	 * Row-major index of the tile at the provided position. The position is not bounds
+	 * checked, so pair this with {@link #isInside(int, int)}.
+	 */
+	public final int indexOf(final int row, final int column) { return row * width + column; }
+	
+	/** Whether or not the provided position falls within the battlefield. */
+	public final boolean isInside(final int row, final int column) {
+	    return (row >= 0) && (row < height) && (column >= 0) && (column < width);
+	}
+	
+	/**
+	 * Resizes the battlefield grid. Tiles that fall within both the old and new dimensions
+	 * are kept, any new space is grass that is only created once it is used.
+	 * 
+	 * @param numRows Must not be negative.
+	 * @param numColumns Must not be negative.
+	 */
+	public final synchronized void resize(final int numRows, final int numColumns) {
+	    checkArgument((numRows >= 0) && (numColumns >= 0), "Dimensions must not be negative!");
+	    
+	    final AtomicReferenceArray<Chunk> previousChunks = chunks;
+	    final int previousChunkColumns = numChunkColumns;
+	    final int previousHeight = height;
+	    final int previousWidth = width;
+	    
+	    // Every index has shifted, so carry over the created tiles and rebuild the unit index.
+	    // The new layout is swapped in under the unit index so readers holding it see it whole
+	    synchronized (unitIndex) {
+	        numChunkRows = (numRows + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+	        numChunkColumns = (numColumns + CHUNK_SIZE - 1) >> CHUNK_SHIFT;
+	        height = numRows;
+	        width = numColumns;
+	        chunks = new AtomicReferenceArray<Chunk>(numChunkRows * numChunkColumns);
+	        
+	        unitIndex.clear();
+	        occupancy.reset(numRows * numColumns);
+	        zobristHash = Zobrist.EMPTY;
+	        zobristKeys.clear();
+	        dangerMap.reset(numRows, numColumns);
+	        visibility.reset(numRows, numColumns);
+	        occupancyEpoch++;
+	        
+	        for (int chunkIter = 0; chunkIter < previousChunks.length(); chunkIter++) {
+	            final Chunk chunk = previousChunks.get(chunkIter);
+	            if (chunk == null) { continue; }
+	            
+	            final int firstRow = (chunkIter / previousChunkColumns) << CHUNK_SHIFT;
+	            final int firstColumn = (chunkIter % previousChunkColumns) << CHUNK_SHIFT;
+	            for (int slotIter = 0; slotIter < chunk.length(); slotIter++) {
+	                final Tile tile = chunk.get(slotIter);
+	                if (tile == null) { continue; }
+	                
+	                final int row = firstRow + (slotIter >> CHUNK_SHIFT);
+	                final int column = firstColumn + (slotIter & CHUNK_MASK);
+	                if ((row >= previousHeight) || (column >= previousWidth)) { continue; }
+	                
+	                // Drop the tiles that fall outside of the new dimensions
+	                if ((row >= numRows) || (column >= numColumns)) {
+	                    tile.detach();
+	                    continue;
+	                }
+	                
+	                final int index = indexOf(row, column);
+	                tile.attach(this, index);
+	                chunkAt(row, column).set(slotOf(row, column), tile);
+	                if (tile.hasOccupant()) {
+	                    unitIndex.put(tile.getOccupant(), index);
+	                    occupancy.update(index, null, tile.getOccupant());
+	                    hashUnit(tile.getOccupant(), index);
+	                    dangerMap.place(tile.getOccupant(), index);
+	                }
+	            }
+	        }
+	    }
+	}
+	
+	/** Replaces the zones the players deploy their armies into. */
+	public final synchronized void setSpawnZones(final Collection<SpawnZone> spawnZones) {
+	    this.spawnZones = ImmutableList.copyOf(spawnZones);
+	}
+	
+	/**
+	 * Retrieves the tile at the provided position without any bounds checking. The tile is
+	 * created on first access. Pair this with {@link #isInside(int, int)} when the position
+	 * may fall off the battlefield.
+	 */
+	public final Tile tileAt(final int row, final int column) {
+	    final Tile tile = peekTile(row, column);
+	    
+	    return (tile != null) ? tile : createTile(row, column);
+	}
+	
+	/** Retrieves the tile at the provided row-major index. See {@link #indexOf(int, int)}. */
+	public final Tile tileAt(final int index) { 
+	    final int row = index / width;
+	    
+	    return tileAt(row, index - row * width); 
+	}
+	
+	/**
+	 * Visits the tiles within Manhattan distance of the center, in row-major order, clipped
+	 * to the battlefield. Nothing is allocated, so this is safe to run on every tap.
+	 * 
+	 * @param row Row of the center.
+	 * @param column Column of the center.
+	 * @param radius Must not be negative.
+	 * @param filter Occupants of the tiles to visit. Must not be null.
+	 * @param player Player the filter is relative to.
+	 * @param visitor Called for each tile in the diamond. Must not be null.
+	 */
+	public final void visitDiamond(final int row, final int column, final int radius,
+	                               final OccupantFilter filter, final Player player,
+	                               final TileVisitor visitor) {
+	    checkArgument(radius >= 0, "Radius must not be negative!");
+	    
+	    final int lastRow = Math.min(row + radius, height - 1);
+	    for (int rowIter = Math.max(row - radius, 0); rowIter <= lastRow; rowIter++) {
+	        final int span = radius - Math.abs(row - rowIter);
+	        visitRowSpan(rowIter, column - span, column + span, filter, player, visitor);
+	    }
+	}
+	
+	/**
+	 * Visits the tiles along a straight line leaving the origin, clipped to the battlefield.
+	 * The origin itself is not visited.
+	 * 
+	 * @param row Row of the origin.
+	 * @param column Column of the origin.
+	 * @param rowStep Rows moved per step, usually -1, 0 or 1.
+	 * @param columnStep Columns moved per step, usually -1, 0 or 1.
+	 * @param length Number of steps to take. Must not be negative.
+	 * @param filter Occupants of the tiles to visit. Must not be null.
+	 * @param player Player the filter is relative to.
+	 * @param visitor Called for each tile on the line. Must not be null.
+	 */
+	public final void visitLine(final int row, final int column, 
+	                            final int rowStep, final int columnStep, final int length,
+	                            final OccupantFilter filter, final Player player,
+	                            final TileVisitor visitor) {
+	    checkArgument(length >= 0, "Length must not be negative!");
+	    
+	    int rowIter = row;
+	    int colIter = column;
+	    for (int stepIter = 0; stepIter < length; stepIter++) {
+	        rowIter += rowStep;
+	        colIter += columnStep;
+	        
+	        // Once the line leaves the battlefield it never comes back
+	        if (!isInside(rowIter, colIter)) { return; }
+	        
+	        visitTile(rowIter, colIter, filter, player, visitor);
+	    }
+	}
+	
+	/**
+	 * Visits every occupied tile in row-major order. Walks the occupancy bitboard a word at
+	 * a time, so the cost follows the number of occupants rather than the size of the field.
+	 * 
+	 * @param visitor Called for each occupied tile. Must not be null.
+	 */
+	public final void visitOccupied(final TileVisitor visitor) {
+	    final long[] empty = occupancy.getEmpty();
+	    final int numTiles = occupancy.getNumTiles();
+	    for (int wordIter = 0; wordIter < empty.length; wordIter++) {
+	        long occupied = ~empty[wordIter];
+	        while (occupied != 0) {
+	            final int index = (wordIter * OccupancyBitboard.BITS_PER_WORD) + Long.numberOfTrailingZeros(occupied);
+	            occupied &= occupied - 1;
+	            
+	            // The padding bits past the last tile read as occupied
+	            if (index >= numTiles) { return; }
+	            
+	            visitor.visit(index / width, index % width, index);
+	        }
+	    }
+	}
+	
+	/**
+	 * Visits the tiles at exactly the Manhattan distance from the center, clipped to the
+	 * battlefield.
+	 * 
+	 * @param row Row of the center.
+	 * @param column Column of the center.
+	 * @param radius Must not be negative.
+	 * @param filter Occupants of the tiles to visit. Must not be null.
+	 * @param player Player the filter is relative to.
+	 * @param visitor Called for each tile on the ring. Must not be null.
+	 */
+	public final void visitRing(final int row, final int column, final int radius,
+	                            final OccupantFilter filter, final Player player,
+	                            final TileVisitor visitor) {
+	    checkArgument(radius >= 0, "Radius must not be negative!");
+	    
+	    final int lastRow = Math.min(row + radius, height - 1);
+	    for (int rowIter = Math.max(row - radius, 0); rowIter <= lastRow; rowIter++) {
+	        final int span = radius - Math.abs(row - rowIter);
+	        if (isInside(rowIter, column - span)) {
+	            visitTile(rowIter, column - span, filter, player, visitor);
+	        }
+	        if ((span != 0) && isInside(rowIter, column + span)) {
+	            visitTile(rowIter, column + span, filter, player, visitor);
+	        }
+	    }
+	}
+	
+	/** Visits the tiles of a single row between the provided columns, inclusive and clipped. */
+	private void visitRowSpan(final int row, final int firstColumn, final int lastColumn,
+	                          final OccupantFilter filter, final Player player,
+	                          final TileVisitor visitor) {
+	    final int clippedLast = Math.min(lastColumn, width - 1);
+	    for (int colIter = Math.max(firstColumn, 0); colIter <= clippedLast; colIter++) {
+	        visitTile(row, colIter, filter, player, visitor);
+	    }
+	}
+	
+	/**
+	 * Visits the tiles within Chebyshev distance of the center, in row-major order, clipped
+	 * to the battlefield.
+	 * 
+	 * @param row Row of the center.
+	 * @param column Column of the center.
+	 * @param radius Must not be negative.
+	 * @param filter Occupants of the tiles to visit. Must not be null.
+	 * @param player Player the filter is relative to.
+	 * @param visitor Called for each tile in the square. Must not be null.
+	 */
+	public final void visitSquare(final int row, final int column, final int radius,
+	                              final OccupantFilter filter, final Player player,
+	                              final TileVisitor visitor) {
+	    checkArgument(radius >= 0, "Radius must not be negative!");
+	    
+	    final int lastRow = Math.min(row + radius, height - 1);
+	    for (int rowIter = Math.max(row - radius, 0); rowIter <= lastRow; rowIter++) {
+	        visitRowSpan(rowIter, column - radius, column + radius, filter, player, visitor);
+	    }
+	}
+	
+	/** Hands the tile to the visitor if it passes the filter. The position must be inside. */
+	private void visitTile(final int row, final int column,
+	                       final OccupantFilter filter, final Player player,
+	                       final TileVisitor visitor) {
+	    final int index = indexOf(row, column);
+	    if (filter.accepts(occupancy, player, index)) {
+	        visitor.visit(row, column, index);
+	    }
+	}
+	
 	/** Move the model position the specified number of rows and columns. */
     public void moveInTileSpace(final float[] model, final float numRows, final float numColumns) {
         checkArgument(model.length == Constants.MATRIX_SIZE, "Model must be float[16]!");
@@ -267,13 +873,14 @@ public class Battlefield implements RenderableMVP {
     }
     
     public void resetUnits() {
-        for (Vector<Tile> row : mLayout) {
-            for (Tile tile : row) {
-                if (tile.hasOccupant()) {
-                    tile.getOccupant().setHasActed(false);
-                    tile.getOccupant().setHasMoved(false);
-                }
-            }
+        final List<Unit> units;
+        synchronized (unitIndex) {
+            units = new ArrayList<Unit>(unitIndex.keySet());
+        }
+        
+        for (Unit unit : units) {
+            unit.setHasActed(false);
+            unit.setHasMoved(false);
         }
     }
     
@@ -282,11 +889,71 @@ public class Battlefield implements RenderableMVP {
         Matrix.rotateM(model, Constants.NO_OFFSET, Z_AXIS_VIEWING_ANGLE, 0.0f, 0.0f, 1.0f);
     }
 	
+	/** Pushes the model matrix of the tile at the provided position, relative to the field origin. */
+	private void pushTileModel(final MVP mvp, final float[] origin, final int row, final int column) {
+	    System.arraycopy(origin, Constants.NO_OFFSET, tileModel, Constants.NO_OFFSET, tileModel.length);
+	    Matrix.translateM(tileModel, Constants.NO_OFFSET, -Tile.SIZE * (column + 1), -Tile.SIZE * (row + 1), 0.0f);
+	    mvp.push(MVP.Type.MODEL, tileModel);
+	}
+	
+	/** Draws the selection and team colors over the tiles that have them. */
+	private void renderOverlays(final MVP mvp, final float[] origin) {
+	    shader.activate();
+	    final AtomicReferenceArray<Chunk> current = chunks;
+	    for (int chunkIter = 0; chunkIter < current.length(); chunkIter++) {
+	        final Chunk chunk = current.get(chunkIter);
+	        if (chunk == null) { continue; }
+	        
+	        final int firstRow = (chunkIter / numChunkColumns) << CHUNK_SHIFT;
+	        final int firstColumn = (chunkIter % numChunkColumns) << CHUNK_SHIFT;
+	        for (int slotIter = 0; slotIter < chunk.length(); slotIter++) {
+	            final Tile tile = chunk.get(slotIter);
+	            if ((tile == null) || !tile.hasOverlay()) { continue; }
+	            
+	            pushTileModel(mvp, origin, firstRow + (slotIter >> CHUNK_SHIFT), firstColumn + (slotIter & CHUNK_MASK));
+	            tile.renderOverlay(mvp);
+	            mvp.pop(MVP.Type.MODEL);
+	        }
+	    }
+	}
+	
+	/**
+	 * Draws the untouched terrain of the whole field as one quad, with the default tile's
+	 * surface repeated across it. Created tiles are drawn over it. Relies on the surface
+	 * texture being a power of two so it wraps.
+	 */
+	private void renderBackground(final MVP mvp, final float[] origin) {
+	    final int numRows = height;
+	    final int numColumns = width;
+	    if ((numRows == 0) || (numColumns == 0)) { return; }
+	    
+	    // If the field has been resized since the quad was built, rebuild it
+	    if ((numRows != backgroundVboRows) || (numColumns != backgroundVboColumns)) {
+	        if (backgroundVbo != 0) {
+	            GLES20.glDeleteBuffers(1, new int[] {backgroundVbo}, Constants.NO_OFFSET);
+	        }
+	        backgroundVbo = DrawUtils.buildTiledSquarePtVbo(numColumns, numRows);
+	        backgroundVboRows = numRows;
+	        backgroundVboColumns = numColumns;
+	    }
+	    
+	    // Center the quad on the middle of the field's tiles, sunk just under them so the
+	    // created tiles drawn over it always win the depth test
+	    final float backgroundDepth = -0.01f;
+	    System.arraycopy(origin, Constants.NO_OFFSET, tileModel, Constants.NO_OFFSET, tileModel.length);
+	    Matrix.translateM(tileModel, Constants.NO_OFFSET, 
+	            -Tile.SIZE * (numColumns + 1) / 2.0f, -Tile.SIZE * (numRows + 1) / 2.0f, backgroundDepth);
+	    Matrix.scaleM(tileModel, Constants.NO_OFFSET, Tile.SIZE * numColumns, Tile.SIZE * numRows, 1.0f);
+	    
+	    shader.activate();
+	    shader.setMVPMatrix(mvp.collapseM(tileModel));
+	    shader.setTexture(defaultTile.getSurfaceTexture());
+	    shader.setVBO(backgroundVbo);
+	    shader.draw();
+	}
+	
 	public boolean pickTile(final GridPoint2D gridLocation) {
-	    boolean isValidTile = (gridLocation.getRow() >= 0) && 
-	                          (gridLocation.getRow() < mLayout.size()) &&
-	                          (gridLocation.getColumn() >= 0) && 
-	                          (gridLocation.getColumn() < mLayout.get(gridLocation.getRow()).size());
+	    boolean isValidTile = isInside(gridLocation.getRow(), gridLocation.getColumn());
 	    // If the user has clicked on a valid tile
 	    if (isValidTile) {
 	        // Allow the active action, if there is one, to handle the picking. If it handles the
@@ -295,7 +962,7 @@ public class Battlefield implements RenderableMVP {
 	            return selectedTile.isPresent();
 	        }
 	        
-	        Tile pickedTile = mLayout.get(gridLocation.getRow()).get(gridLocation.getColumn());
+	        Tile pickedTile = tileAt(gridLocation.getRow(), gridLocation.getColumn());
 	        
 	        // If the user has clicked the currently selected tile for a second time, deselect it
 	        if (selectedTile.isPresent() && (selectedTile.get().equals(gridLocation))) {
@@ -305,8 +972,7 @@ public class Battlefield implements RenderableMVP {
 	        else {
 	            // De-select the currently selected tile
 	            if (selectedTile.isPresent()) {
-	                mLayout.get(selectedTile.get().getRow())
-	                       .get(selectedTile.get().getColumn()).setIsSelected(false);
+	                tileAt(selectedTile.get().getRow(), selectedTile.get().getColumn()).setIsSelected(false);
 	            }
 	            
 	            // Select the picked tile
@@ -327,8 +993,7 @@ public class Battlefield implements RenderableMVP {
 	    } 
 	    // The user has clicked off the battlefield so deselect the currently selected tile
 	    else if (selectedTile.isPresent()) {
-	        mLayout.get(selectedTile.get().getRow())
-	               .get(selectedTile.get().getColumn()).setIsSelected(false);
+	        tileAt(selectedTile.get().getRow(), selectedTile.get().getColumn()).setIsSelected(false);
 	        selectedTile = Optional.<GridPoint2D>absent();
 	        unitHUD.setActiveUnit(null);
 	    }
@@ -341,12 +1006,98 @@ public class Battlefield implements RenderableMVP {
 	
 	public final void setActiveAction(final Optional<TileSelectionHandler> activeAction) { 
 	    this.activeAction = activeAction; }
+	
+	/**
+	 * Enables verification of the unit index against a full scan of the grid after every
+	 * occupant change. This is slow and intended for tests and debugging only.
+	 */
+	public final void setIsCheckingUnitIndex(final boolean isCheckingUnitIndex) {
+	    this.isCheckingUnitIndex = isCheckingUnitIndex;
+	}
 	//public final void setIslandBase(final Model islandBase) { this.islandBase = islandBase; }
 	public final void setSelectedTile(final Optional<GridPoint2D> selectedTile) {
 	    this.selectedTile = selectedTile;
 	}
 	
-	private Vector<Vector<Tile>> mLayout; //!< Container of tiles that makes up the field
+	/**
+	 * Runs the reader while no occupant can change or the battlefield resize, holding the lock
+	 * the occupancy mutators hold, so it sees the layout, unit index and occupancy layers of a
+	 * single moment. The reader must not create tiles nor wait on a tile, as the tiles notify
+	 * the battlefield while holding their own lock.
+	 * 
+	 * @param reader Must not be null.
+	 */
+	public final void readLocked(final Runnable reader) {
+	    checkArgument(reader != null, "Reader must not be null!");
+	    
+	    synchronized (unitIndex) {
+	        reader.run();
+	    }
+	}
+	
+	/** Position of the tile within its chunk. */
+	private static int slotOf(final int row, final int column) {
+	    return ((row & CHUNK_MASK) << CHUNK_SHIFT) | (column & CHUNK_MASK);
+	}
+	
+	/** XORs the unit's key out of the hash if the unit had been hashed. Must hold the unit index lock. */
+	private void unhashUnit(final Unit unit) {
+	    final Long key = zobristKeys.remove(unit);
+	    if (key != null) {
+	        zobristHash ^= key;
+	    }
+	}
+	
+	/**
+	 * Compares the unit index and Zobrist hash against a full scan of the grid.
+	 * 
+	 * @throws IllegalStateException If the index or hash and the grid disagree.
+	 */
+	public final void verifyUnitIndex() {
+	    synchronized (unitIndex) {
+	        long rehashed = Zobrist.EMPTY;
+	        int numOccupants = 0;
+	        for (int rowIter = 0; rowIter < height; rowIter++) {
+	            for (int colIter = 0; colIter < width; colIter++) {
+	                final Tile tile = peekTile(rowIter, colIter);
+	                if ((tile == null) || !tile.hasOccupant()) { continue; }
+	                
+	                numOccupants++;
+	                final int tileIndex = indexOf(rowIter, colIter);
+	                final Integer indexed = unitIndex.get(tile.getOccupant());
+	                checkState((indexed != null) && (indexed == tileIndex), 
+	                        "Unit index disagrees with the occupant of tile " + tileIndex + "!");
+	                rehashed ^= Zobrist.tileKey(tileIndex, tile.getOccupant().getZobristKey());
+	            }
+	        }
+	        checkState(numOccupants == unitIndex.size(), "Unit index contains units not on the battlefield!");
+	        checkState(rehashed == zobristHash, "Zobrist hash disagrees with the grid!");
+	    }
+	}
+	
+	/**
+	 * Square of row-major tiles, null until created. Atomic slots so tiles created under the
+	 * battlefield's lock are safely published to the threads reading without it.
+	 */
+	private static final class Chunk extends AtomicReferenceArray<Tile> {
+	    private static final long serialVersionUID = 1L;
+	    
+	    Chunk() { super(CHUNK_SIZE * CHUNK_SIZE); }
+	}
+	
+	private static final int     CHUNK_SHIFT = 4; //!< Log2 of the chunk size
+	public static final int      CHUNK_SIZE = 1 << CHUNK_SHIFT; //!< Number of rows and columns of tiles in a chunk
+	private static final int     CHUNK_MASK = CHUNK_SIZE - 1; //!< Picks a position within its chunk
+	public static final int      NOT_ON_BATTLEFIELD = -1; //!< Unit index returned for units not on the field
+	private volatile AtomicReferenceArray<Chunk> chunks = new AtomicReferenceArray<Chunk>(0); //!< Row-major chunks, null until used. Written after the dimensions
+	private int                  height = 0; //!< Number of rows of tiles
+	private int                  numChunkColumns = 0; //!< Number of columns of chunks
+	private int                  numChunkRows = 0; //!< Number of rows of chunks
+	private int                  occupancyEpoch = 0; //!< Bumped on every occupant or terrain change, guarded by the unit index
+	private List<SpawnZone>      spawnZones = ImmutableList.of(); //!< Zones the players deploy into, empty if unrestricted
+	private final float[]        tileModel = new float[Constants.MATRIX_SIZE]; //!< Scratch model matrix used while rendering
+	private int                  width = 0; //!< Number of columns of tiles
+	private long                 zobristHash = Zobrist.EMPTY; //!< XOR of the tile keys of every unit, guarded by the unit index
 	public static final float    X_AXIS_VIEWING_ANGLE = -50.0f; //!< The angle at which the field is viewed, X-axis 
 	public static final float    Z_AXIS_VIEWING_ANGLE = 45.0f; //!< The angle at which the field is viewed, Z-axis
 }
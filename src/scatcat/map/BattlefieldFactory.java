@@ -1,5 +1,14 @@
 package scatcat.map;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 
@@ -12,12 +21,16 @@ import com.google.inject.Injector;
 public final class BattlefieldFactory {
     private final Injector injector;
     
+    private final MapGenerator mapGenerator;
+    
     private final TileFactory tileFactory;
     
     @Inject
     protected BattlefieldFactory(final Injector injector,
+                                 final MapGenerator mapGenerator,
                                  final TileFactory tileFactory) { 
         this.injector = injector;
+        this.mapGenerator = mapGenerator;
         this.tileFactory = tileFactory;
     }
 
@@ -39,6 +52,145 @@ public final class BattlefieldFactory {
         }
     };
     
+    /**
+     * Creates an open grass battlefield of the provided size. Tiles are only created once
+     * they are used, so this stays cheap for very large fields (1000x1000 and up).
+     * 
+     * @param numRows Must not be negative.
+     * @param numColumns Must not be negative.
+     * @return Open battlefield
+     */
+    public Battlefield createOpenField(final int numRows, final int numColumns) {
+        Battlefield openField = injector.getInstance(Battlefield.class);
+        openField.resize(numRows, numColumns);
+        
+        return openField;
+    }
+    
+    /**
+     * Loads a battlefield from a binary map. The file is memory-mapped and read in place, see
+     * {@link MapFormat}. Only the tiles that differ from flat, open grass are created, the
+     * rest are filled in as they are used.
+     * 
+     * @param mapFile Binary map, as written by {@link MapConverter}.
+     * @return Loaded battlefield
+     * @throws IOException If the map can't be read or is malformed.
+     */
+    public Battlefield load(final File mapFile) throws IOException {
+        final RandomAccessFile file = new RandomAccessFile(mapFile, "r");
+        
+        try {
+            final FileChannel channel = file.getChannel();
+            
+            // The mapping stays valid once the file is closed
+            return load(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            file.close();
+        }
+    }
+    
+    /**
+     * Loads a battlefield from a binary map held in the buffer, see {@link MapFormat}.
+     * 
+     * @param map Read with absolute gets up to its limit, so its position is left untouched.
+     * @return Loaded battlefield
+     * @throws IOException If the map is malformed.
+     */
+    public Battlefield load(final ByteBuffer map) throws IOException {
+        if ((map.limit() < MapFormat.HEADER_SIZE) || (map.getInt(0) != MapFormat.MAGIC)) {
+            throw new IOException("Not a Stratagem map!");
+        }
+        final int version = map.getInt(4);
+        if (version != MapFormat.VERSION) {
+            throw new IOException("Unsupported map version " + version + "!");
+        }
+        
+        final int numRows = map.getInt(8);
+        final int numColumns = map.getInt(12);
+        final int numSpawnZones = map.getInt(16);
+        if ((numRows < 0) || (numColumns < 0) || (numSpawnZones < 0)
+                || ((long) numRows * numColumns > Integer.MAX_VALUE / 4)) {
+            throw new IOException("Map dimensions are corrupt!");
+        }
+        final int numTiles = numRows * numColumns;
+        
+        // Sizes are compared as longs, so a corrupt number of spawn zones can't wrap around
+        if (map.limit() < MapFormat.sizeOf(numTiles, numSpawnZones)) {
+            throw new IOException("Map is truncated!");
+        }
+        
+        // Check the spawn zones before building anything, as the converter would have
+        final List<SpawnZone> spawnZones = new ArrayList<SpawnZone>(numSpawnZones);
+        for (int zoneIter = 0; zoneIter < numSpawnZones; zoneIter++) {
+            final int offset = MapFormat.spawnZoneOffset(numTiles) + zoneIter * MapFormat.SPAWN_ZONE_SIZE;
+            final SpawnZone zone;
+            try {
+                zone = new SpawnZone(map.getInt(offset), map.getInt(offset + 4), 
+                        map.getInt(offset + 8), map.getInt(offset + 12), map.getInt(offset + 16));
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Spawn zone " + zoneIter + " is corrupt!");
+            }
+            
+            // Summed as longs, so a corrupt zone can't wrap back onto the battlefield
+            if (((long) zone.getFirstRow() + zone.getNumRows() > numRows)
+                    || ((long) zone.getFirstColumn() + zone.getNumColumns() > numColumns)) {
+                throw new IOException("Spawn zone for seat " + zone.getSeat() + " falls off the battlefield!");
+            }
+            spawnZones.add(zone);
+        }
+        
+        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+        battlefield.resize(numRows, numColumns);
+        
+        // Create only the tiles that aren't flat, open grass
+        final TileFactory.Type[] types = TileFactory.Type.values();
+        final Optional<Obstacle> obstacle = Optional.of(new Obstacle());
+        final int terrainOffset = MapFormat.terrainOffset();
+        final int obstacleOffset = MapFormat.obstacleOffset(numTiles);
+        final int elevationOffset = (int) MapFormat.elevationOffset(numTiles, numSpawnZones);
+        for (int tileIter = 0; tileIter < numTiles; tileIter++) {
+            final int terrain = map.get(terrainOffset + tileIter);
+            final long obstacleWord = map.getLong(obstacleOffset + (tileIter >>> 6) * 8);
+            final boolean isObstacle = (obstacleWord & (1L << tileIter)) != 0;
+            final short elevation = map.getShort(elevationOffset + tileIter * 2);
+            if ((terrain == TileFactory.Type.GRASS.ordinal()) && !isObstacle && (elevation == 0)) { continue; }
+            
+            if ((terrain < 0) || (terrain >= types.length)) {
+                throw new IOException("Unknown terrain type " + terrain + " at tile " + tileIter + "!");
+            }
+            
+            final int row = tileIter / numColumns;
+            final int column = tileIter % numColumns;
+            final Tile tile = tileFactory.create(types[terrain]);
+            tile.setElevation(elevation / MapFormat.ELEVATION_SCALE);
+            if (isObstacle) {
+                tile.setObstacle(obstacle);
+            }
+            battlefield.addTile(row, column, tile);
+        }
+        
+        battlefield.setSpawnZones(spawnZones);
+        
+        return battlefield;
+    }
+    
+    /**
+     * Creates a procedurally generated battlefield. The same seed and dimensions always give
+     * the same battlefield. See {@link MapGenerator}.
+     * 
+     * @param seed Seed of the battlefield.
+     * @param numRows Must leave room for both spawn zones.
+     * @param numColumns Must be positive.
+     * @return Generated battlefield
+     */
+    public Battlefield createProcedural(final long seed, final int numRows, final int numColumns) {
+        try {
+            return load(mapGenerator.generate(seed, numRows, numColumns));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Generated an unreadable map!", ex);
+        }
+    }
+    
     /**
      * Creates a simple test battlefield.
      * 
@@ -49,11 +201,10 @@ public final class BattlefieldFactory {
         //prototype.setIslandBase(ModelHelper.buildModel(ModelHelper.Type.ISLAND));
         //prototype.setBackground(BackgroundFactory.create(BackgroundFactory.WeatherType.FAIR_WEATHER));
  
-        for (int rowIter = 0; rowIter < 10; rowIter++) {
-            for (int colIter = 0; colIter < 10; colIter++) {
-                prototype.addTile(rowIter, colIter, tileFactory.create(TileFactory.Type.GRASS));
-            }
-        }
+        // Size the grid up front, the grass is filled in as it is used
+        final int numRows = 10;
+        final int numColumns = 10;
+        prototype.resize(numRows, numColumns);
 
         return prototype;
     }
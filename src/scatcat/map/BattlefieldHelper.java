@@ -1,7 +1,6 @@
 package scatcat.map;
 
 import static com.google.common.base.Preconditions.checkArgument;
-import java.util.Vector;
 import scatcat.general.points.GridPoint2D;
 
 import com.google.common.base.Optional;
@@ -23,21 +22,6 @@ public abstract class BattlefieldHelper {
         checkArgument(battlefield != null, "Battlefield must not be null!");
         checkArgument(unit != null, "Unit must not be null!");
         
-        // For each row
-        for (int rowIter = 0; rowIter < battlefield.getLayout().size(); rowIter++) {
-            Vector<Tile> row = battlefield.getLayout().get(rowIter);
-            
-            // For each column
-            for (int colIter = 0; colIter < row.size(); colIter++) {
-                Tile tile = row.get(colIter);
-                
-                if (tile.hasOccupant() && tile.getOccupant() == unit) {
-                    return Optional.of(new GridPoint2D(rowIter, colIter));
-                }
-            }
-        }
-        
-        // Unit wasn't found!
-        return Optional.absent();
+        return battlefield.getUnitPosition(unit);
     }
 }
@@ -0,0 +1,273 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Tracks, for every tile, how many enemy units could attack it and the most damage any one of
+ * them deals. A unit's influence is the diamond it can reach with a move followed by an
+ * attack, so its radius is its movement range plus its attack range. Walls and unowned units
+ * exert no influence.
+ *
+ * Influence is kept in one layer per seat. A player's danger combines every layer but their
+ * own. The battlefield keeps the map in step with its units, and changing a unit only touches
+ * the tiles inside its old and new influence.
+ *
+ * @author R. Matt McCann
+ */
+public final class DangerMap {
+    /** Influence each unit currently contributes, so it can be taken back out. */
+    private final Map<Unit, Influence> influences = new IdentityHashMap<Unit, Influence>();
+
+    /** Layers of influence, indexed by the seat of the units' owner. Null until used. */
+    private List<Layer> layers = new ArrayList<Layer>();
+
+    /** Number of columns of tiles. */
+    private int numColumns = 0;
+
+    /** Number of rows of tiles. */
+    private int numRows = 0;
+
+    /** Package-private as the battlefield owns the danger map. */
+    DangerMap() { }
+
+    /**
+     * Most damage a single enemy of the player could deal to the tile at the index.
+     *
+     * @param player Player whose enemies are counted. Must not be null.
+     * @param index Row-major index of the tile.
+     */
+    public synchronized int getMaxDamage(final Player player, final int index) {
+        checkArgument(player != null, "Player must not be null!");
+
+        int maxDamage = 0;
+        for (int seatIter = 0; seatIter < layers.size(); seatIter++) {
+            final Layer layer = layers.get(seatIter);
+            if ((seatIter != player.getSeat()) && (layer != null)) {
+                maxDamage = Math.max(maxDamage, layer.maxDamage[index]);
+            }
+        }
+
+        return maxDamage;
+    }
+
+    /**
+     * Number of the player's enemies that could attack the tile at the index.
+     *
+     * @param player Player whose enemies are counted. Must not be null.
+     * @param index Row-major index of the tile.
+     */
+    public synchronized int getNumThreats(final Player player, final int index) {
+        checkArgument(player != null, "Player must not be null!");
+
+        int numThreats = 0;
+        for (int seatIter = 0; seatIter < layers.size(); seatIter++) {
+            final Layer layer = layers.get(seatIter);
+            if ((seatIter != player.getSeat()) && (layer != null)) {
+                numThreats += layer.numThreats[index];
+            }
+        }
+
+        return numThreats;
+    }
+
+    /** Whether or not any enemy of the player could attack the tile at the index. */
+    public boolean isThreatened(final Player player, final int index) {
+        return getNumThreats(player, index) > 0;
+    }
+
+    /**
+     * Adds or refreshes the unit's influence around the tile at the index. Only touches the
+     * tiles when the unit's influence has actually changed.
+     */
+    synchronized void place(final Unit unit, final int index) {
+        final Influence previous = influences.get(unit);
+        final Influence current = Influence.of(unit, index);
+        if ((previous != null) && previous.equals(current)) { return; }
+
+        if (previous != null) {
+            influences.remove(unit);
+            retract(previous);
+        }
+        if (current.isExerted()) {
+            influences.put(unit, current);
+            exert(current);
+        }
+    }
+
+    /** Takes the unit's influence back out. */
+    synchronized void remove(final Unit unit) {
+        final Influence previous = influences.remove(unit);
+        if (previous != null) {
+            retract(previous);
+        }
+    }
+
+    /** Clears the map and resizes it to the provided dimensions. */
+    synchronized void reset(final int numRows, final int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        influences.clear();
+        layers = new ArrayList<Layer>();
+    }
+
+    /** Adds the influence to its layer. */
+    private void exert(final Influence influence) {
+        while (layers.size() <= influence.seat) {
+            layers.add(null);
+        }
+        Layer layer = layers.get(influence.seat);
+        if (layer == null) {
+            layer = new Layer(numRows * numColumns);
+            layers.set(influence.seat, layer);
+        }
+
+        final int centerRow = influence.index / numColumns;
+        final int centerColumn = influence.index % numColumns;
+        final int firstRow = Math.max(centerRow - influence.radius, 0);
+        final int lastRow = Math.min(centerRow + influence.radius, numRows - 1);
+        for (int rowIter = firstRow; rowIter <= lastRow; rowIter++) {
+            final int span = influence.radius - Math.abs(rowIter - centerRow);
+            final int rowStart = rowIter * numColumns;
+            final int lastColumn = Math.min(centerColumn + span, numColumns - 1);
+            for (int colIter = Math.max(centerColumn - span, 0); colIter <= lastColumn; colIter++) {
+                final int tile = rowStart + colIter;
+                layer.numThreats[tile]++;
+                if (influence.damage > layer.maxDamage[tile]) {
+                    layer.maxDamage[tile] = influence.damage;
+                    layer.numAtMax[tile] = 1;
+                } else if (influence.damage == layer.maxDamage[tile]) {
+                    layer.numAtMax[tile]++;
+                }
+            }
+        }
+    }
+
+    /** Takes the influence back out of its layer. */
+    private void retract(final Influence influence) {
+        final Layer layer = layers.get(influence.seat);
+
+        final int centerRow = influence.index / numColumns;
+        final int centerColumn = influence.index % numColumns;
+        final int firstRow = Math.max(centerRow - influence.radius, 0);
+        final int lastRow = Math.min(centerRow + influence.radius, numRows - 1);
+        for (int rowIter = firstRow; rowIter <= lastRow; rowIter++) {
+            final int span = influence.radius - Math.abs(rowIter - centerRow);
+            final int rowStart = rowIter * numColumns;
+            final int lastColumn = Math.min(centerColumn + span, numColumns - 1);
+            for (int colIter = Math.max(centerColumn - span, 0); colIter <= lastColumn; colIter++) {
+                final int tile = rowStart + colIter;
+                layer.numThreats[tile]--;
+
+                // If the retracted unit was the last to deal the tile's max damage, find the
+                // next strongest
+                if (layer.numThreats[tile] == 0) {
+                    layer.maxDamage[tile] = 0;
+                    layer.numAtMax[tile] = 0;
+                } else if ((influence.damage == layer.maxDamage[tile]) && (--layer.numAtMax[tile] == 0)) {
+                    findStrongestOver(layer, influence.seat, rowIter, colIter);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sets the tile's max damage in the seat's layer to the most any of the layer's units
+     * deals to it, and counts the units that deal it. Scans the layer's units.
+     */
+    private void findStrongestOver(final Layer layer, final int seat, final int row, final int column) {
+        int maxDamage = 0;
+        int numAtMax = 0;
+        for (Influence influence : influences.values()) {
+            if ((influence.seat != seat) || !influence.covers(row, column, numColumns)) { continue; }
+
+            if (influence.damage > maxDamage) {
+                maxDamage = influence.damage;
+                numAtMax = 1;
+            } else if (influence.damage == maxDamage) {
+                numAtMax++;
+            }
+        }
+
+        final int tile = row * numColumns + column;
+        layer.maxDamage[tile] = maxDamage;
+        layer.numAtMax[tile] = numAtMax;
+    }
+
+    /** Influence of a single unit. Immutable. */
+    private static final class Influence {
+        private final int damage;
+
+        private final int index;
+
+        private final int radius;
+
+        private final int seat;
+
+        private Influence(final int seat, final int index, final int radius, final int damage) {
+            this.seat = seat;
+            this.index = index;
+            this.radius = radius;
+            this.damage = damage;
+        }
+
+        /** Influence the unit exerts from the tile at the index. */
+        static Influence of(final Unit unit, final int index) {
+            final Player owner = unit.getOwner();
+            final int seat = (owner != null) ? owner.getSeat() : Player.NO_SEAT;
+
+            return new Influence(seat, index, unit.getMovementRange() + unit.getAttackRange(),
+                    unit.isObstacle() ? 0 : unit.getAttackDamage());
+        }
+
+        /** Whether or not the influence's diamond covers the tile. */
+        boolean covers(final int row, final int column, final int numColumns) {
+            return Math.abs(index / numColumns - row) + Math.abs(index % numColumns - column) <= radius;
+        }
+
+        @Override
+        public boolean equals(final Object comparee) {
+            if (!(comparee instanceof Influence)) { return false; }
+
+            final Influence influence = (Influence) comparee;
+            return (seat == influence.seat) && (index == influence.index)
+                    && (radius == influence.radius) && (damage == influence.damage);
+        }
+
+        @Override
+        public int hashCode() {
+            return ((seat * 31 + index) * 31 + radius) * 31 + damage;
+        }
+
+        /** Whether or not the influence threatens anything at all. */
+        boolean isExerted() {
+            return (seat >= 0) && (damage > 0) && (radius >= 0);
+        }
+    }
+
+    /**
+     * Per-tile threat counts and max damages of one seat's units. Each tile also counts the
+     * units dealing its max damage, so retracting one of them only scans for the next
+     * strongest once none are left.
+     */
+    private static final class Layer {
+        private final int[] maxDamage;
+
+        private final int[] numAtMax;
+
+        private final int[] numThreats;
+
+        Layer(final int numTiles) {
+            maxDamage = new int[numTiles];
+            numAtMax = new int[numTiles];
+            numThreats = new int[numTiles];
+        }
+    }
+}
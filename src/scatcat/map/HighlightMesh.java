@@ -0,0 +1,198 @@
+package scatcat.map;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import scatcat.general.Constants;
+import scatcat.graphics.DrawUtils;
+import scatcat.graphics.MVP;
+import scatcat.graphics.shaders.SimpleTexturedShader;
+import android.opengl.GLES20;
+
+/**
+ * Single vertex buffer holding the highlight quads of every highlighted tile, so the whole
+ * highlighted region draws in one call per texture instead of one call per tile. Each quad
+ * has its tile's position and highlight orientation baked into its vertices, relative to the
+ * battlefield's origin.
+ *
+ * The mesh is built from the battlefield's published {@link HighlightRegion} and only rebuilt
+ * when a different region is published, so setting up a highlighted region costs one rebuild
+ * rather than a draw per tile every frame. Render thread only.
+ *
+ * @author R. Matt McCann
+ */
+final class HighlightMesh {
+    /** Height of the highlight above the tile's surface. */
+    private static final float HIGHLIGHT_DEPTH = 0.01f;
+
+    /** Number of floats per quad. */
+    private static final int QUAD_SIZE = DrawUtils.POS_TEX_STRIDE * Constants.NUM_VERTICES_PER_SQUARE;
+
+    /** Unit quad the highlight quads are built from. */
+    private static final float[] UNIT_QUAD = DrawUtils.getUnitSquarePtVertices();
+
+    /** Vertices of the quads, grouped by texture. Direct, so it can be handed to OpenGL. */
+    private FloatBuffer buffer = null;
+
+    /** Number of textures drawn. */
+    private int numGroups = 0;
+
+    /** Region the mesh was last built from. */
+    private HighlightRegion region = null;
+
+    /** Texture of each group of quads. */
+    private int[] groupTextures = new int[0];
+
+    /** First vertex of each group of quads. */
+    private int[] groupFirstVertices = new int[0];
+
+    /** Number of vertices in each group of quads. */
+    private int[] groupNumVertices = new int[0];
+
+    /** Vertex buffer object the quads are uploaded to, or zero until first needed. */
+    private int vbo = 0;
+
+    /** Number of floats the vertex buffer object has room for. */
+    private int vboCapacity = 0;
+
+    /** Package-private as the battlefield owns the highlight mesh. */
+    HighlightMesh() { }
+
+    /**
+     * Draws the highlighted region, first rebuilding the mesh if the region has changed.
+     *
+     * @param mvp Model-View-Projection stack.
+     * @param origin Model matrix of the battlefield's tile space.
+     * @param shader Shader to draw with.
+     * @param region Region to draw. Must not be null.
+     */
+    void render(final MVP mvp, final float[] origin, final SimpleTexturedShader shader, final HighlightRegion region) {
+        if (region != this.region) {
+            rebuild(region);
+        }
+        if (numGroups == 0) { return; }
+
+        shader.activate();
+        shader.setMVPMatrix(mvp.collapseM(origin));
+        for (int groupIter = 0; groupIter < numGroups; groupIter++) {
+            shader.setTexture(groupTextures[groupIter]);
+            shader.setVBO(vbo);
+            shader.draw(GLES20.GL_TRIANGLES, groupFirstVertices[groupIter], groupNumVertices[groupIter]);
+        }
+    }
+
+    /** Lays the region's quads out by texture and uploads them. */
+    private void rebuild(final HighlightRegion region) {
+        this.region = region;
+        final int numQuads = region.size();
+
+        // Find the distinct textures. A battlefield only uses a handful, so a linear scan is fine
+        numGroups = 0;
+        for (int quadIter = 0; quadIter < numQuads; quadIter++) {
+            final int group = groupOf(region.getTexture(quadIter));
+            if (group == numGroups) {
+                if (numGroups == groupTextures.length) {
+                    final int capacity = Math.max(2 * groupTextures.length, 4);
+                    groupTextures = Arrays.copyOf(groupTextures, capacity);
+                    groupFirstVertices = Arrays.copyOf(groupFirstVertices, capacity);
+                    groupNumVertices = Arrays.copyOf(groupNumVertices, capacity);
+                }
+                groupTextures[numGroups] = region.getTexture(quadIter);
+                groupNumVertices[numGroups++] = 0;
+            }
+            groupNumVertices[group] += Constants.NUM_VERTICES_PER_SQUARE;
+        }
+
+        // Lay the groups out one after another
+        int firstVertex = 0;
+        for (int groupIter = 0; groupIter < numGroups; groupIter++) {
+            groupFirstVertices[groupIter] = firstVertex;
+            firstVertex += groupNumVertices[groupIter];
+        }
+        if (numQuads == 0) { return; }
+
+        final int numFloats = numQuads * QUAD_SIZE;
+        if ((buffer == null) || (buffer.capacity() < numFloats)) {
+            buffer = ByteBuffer.allocateDirect(Math.max(numFloats, QUAD_SIZE) * Constants.BYTES_PER_FLOAT)
+                    .order(ByteOrder.nativeOrder()).asFloatBuffer();
+        }
+
+        // Write each quad after those of its texture already written
+        final int[] nextVertex = Arrays.copyOf(groupFirstVertices, numGroups);
+        for (int quadIter = 0; quadIter < numQuads; quadIter++) {
+            final int group = groupOf(region.getTexture(quadIter));
+            putQuad(nextVertex[group] * DrawUtils.POS_TEX_STRIDE, region.getRow(quadIter), region.getColumn(quadIter),
+                    region.getOrientation(quadIter), region.isTransposed(quadIter));
+            nextVertex[group] += Constants.NUM_VERTICES_PER_SQUARE;
+        }
+
+        // Upload the quads, only reallocating the vertex buffer object when it has outgrown its storage
+        buffer.position(Constants.BEGINNING_OF_BUFFER);
+        if (vbo == 0) {
+            final int[] handle = new int[1];
+            GLES20.glGenBuffers(1, handle, Constants.BEGINNING_OF_BUFFER);
+            vbo = handle[0];
+        }
+        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, vbo);
+        if (numFloats > vboCapacity) {
+            vboCapacity = buffer.capacity();
+            GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, vboCapacity * Constants.BYTES_PER_FLOAT,
+                    buffer, GLES20.GL_DYNAMIC_DRAW);
+        } else {
+            GLES20.glBufferSubData(GLES20.GL_ARRAY_BUFFER, Constants.BEGINNING_OF_BUFFER,
+                    numFloats * Constants.BYTES_PER_FLOAT, buffer);
+        }
+    }
+
+    /** Group of the texture, or the number of groups if it has none yet. */
+    private int groupOf(final int texture) {
+        int groupIter = 0;
+        while ((groupIter < numGroups) && (groupTextures[groupIter] != texture)) {
+            groupIter++;
+        }
+
+        return groupIter;
+    }
+
+    /**
+     * Writes the quad of the tile's highlight, turned to its orientation, at the offset. A
+     * transposed highlight swaps its texture coordinates, mirroring the texture across its
+     * diagonal before it is turned.
+     */
+    private void putQuad(final int offset, final int row, final int column,
+                         final Tile.HighlightOrientation orientation, final boolean isTransposed) {
+        final float centerX = -Tile.SIZE * (column + 1);
+        final float centerY = -Tile.SIZE * (row + 1);
+
+        buffer.position(offset);
+        for (int vertexIter = 0; vertexIter < Constants.NUM_VERTICES_PER_SQUARE; vertexIter++) {
+            final int vertex = vertexIter * DrawUtils.POS_TEX_STRIDE;
+            final float x = UNIT_QUAD[vertex];
+            final float y = UNIT_QUAD[vertex + 1];
+
+            // Turn the quad about the tile's center by the orientation's angle
+            switch (orientation) {
+                case NORTH:
+                    buffer.put(centerX + y).put(centerY - x);
+                    break;
+                case EAST:
+                    buffer.put(centerX - x).put(centerY - y);
+                    break;
+                case SOUTH:
+                    buffer.put(centerX - y).put(centerY + x);
+                    break;
+                case WEST:
+                    buffer.put(centerX + x).put(centerY + y);
+                    break;
+            }
+            buffer.put(UNIT_QUAD[vertex + 2] + HIGHLIGHT_DEPTH);
+            if (isTransposed) {
+                buffer.put(UNIT_QUAD[vertex + 4]).put(UNIT_QUAD[vertex + 3]);
+            } else {
+                buffer.put(UNIT_QUAD[vertex + 3]).put(UNIT_QUAD[vertex + 4]);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import scatcat.map.Tile.HighlightOrientation;
+
+/**
+ * Highlighted tiles with the texture and orientation each is drawn with. Immutable, so a
+ * region built on a background thread can be handed to the render thread as a whole. See
+ * {@link Battlefield#publishHighlights}.
+ *
+ * @author R. Matt McCann
+ */
+public final class HighlightRegion {
+    /** Region with no highlighted tiles. */
+    public static final HighlightRegion EMPTY = builder().build();
+
+    private final int[] columns;
+
+    private final HighlightOrientation[] orientations;
+
+    private final int[] rows;
+
+    private final int[] textures;
+
+    private final boolean[] transposes;
+
+    private HighlightRegion(final Builder builder) {
+        columns = Arrays.copyOf(builder.columns, builder.size);
+        orientations = Arrays.copyOf(builder.orientations, builder.size);
+        rows = Arrays.copyOf(builder.rows, builder.size);
+        textures = Arrays.copyOf(builder.textures, builder.size);
+        transposes = Arrays.copyOf(builder.transposes, builder.size);
+    }
+
+    /** Starts an empty region. */
+    public static Builder builder() { return new Builder(); }
+
+    public int getColumn(final int tileIter) { return columns[tileIter]; }
+    public HighlightOrientation getOrientation(final int tileIter) { return orientations[tileIter]; }
+    public int getRow(final int tileIter) { return rows[tileIter]; }
+    public int getTexture(final int tileIter) { return textures[tileIter]; }
+    public boolean isTransposed(final int tileIter) { return transposes[tileIter]; }
+    public int size() { return rows.length; }
+
+    /** Mutable builder for highlight regions. */
+    public static final class Builder {
+        private int[] columns = new int[0];
+
+        private HighlightOrientation[] orientations = new HighlightOrientation[0];
+
+        private int[] rows = new int[0];
+
+        private int size = 0;
+
+        private int[] textures = new int[0];
+
+        private boolean[] transposes = new boolean[0];
+
+        private Builder() { }
+
+        /**
+         * Adds a highlighted tile.
+         *
+         * @param row Row of the tile.
+         * @param column Column of the tile.
+         * @param texture Highlight texture of the tile.
+         * @param orientation Orientation of the texture. Must not be null.
+         * @param transpose Whether or not the texture is transposed.
+         */
+        public Builder add(final int row,
+                           final int column,
+                           final int texture,
+                           final HighlightOrientation orientation,
+                           final boolean transpose) {
+            checkArgument(orientation != null, "Orientation must not be null!");
+            
+            if (size == rows.length) {
+                final int capacity = Math.max(2 * size, 16);
+                columns = Arrays.copyOf(columns, capacity);
+                orientations = Arrays.copyOf(orientations, capacity);
+                rows = Arrays.copyOf(rows, capacity);
+                textures = Arrays.copyOf(textures, capacity);
+                transposes = Arrays.copyOf(transposes, capacity);
+            }
+
+            columns[size] = column;
+            orientations[size] = orientation;
+            rows[size] = row;
+            textures[size] = texture;
+            transposes[size++] = transpose;
+
+            return this;
+        }
+
+        public HighlightRegion build() { return new HighlightRegion(this); }
+    }
+}
@@ -0,0 +1,207 @@
+package scatcat.map;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts text map layouts into the binary {@link MapFormat}. Run at build time, as in
+ *
+ * <pre>java scatcat.map.MapConverter layout.txt layout.map</pre>
+ *
+ * The text layout is line based. Blank lines and lines starting with '#' are ignored.
+ *
+ * <pre>
+ * size &lt;rows&gt; &lt;columns&gt;
+ * spawn &lt;seat&gt; &lt;first row&gt; &lt;first column&gt; &lt;rows&gt; &lt;columns&gt;
+ * terrain
+ * ..X.......           one line per row. '.' is grass, 'X' is grass blocked by an obstacle
+ * elevation            optional, flat when left out
+ * 0 0 0.5 1 ...        one line per row, in tiles
+ * </pre>
+ *
+ * @author R. Matt McCann
+ */
+public final class MapConverter {
+    /** Hidden constructor. This is a utility class. */
+    private MapConverter() { }
+
+    /** Marks a grass tile in the terrain section. */
+    private static final char GRASS = '.';
+
+    /** Marks a grass tile blocked by an obstacle in the terrain section. */
+    private static final char OBSTACLE = 'X';
+
+    /**
+     * Converts the text layout into a binary map, replacing any existing output.
+     *
+     * @param input Text layout. Closed once read.
+     * @param output Binary map to write.
+     * @throws IOException If the layout is malformed or the map can't be written.
+     */
+    public static void convert(final BufferedReader input, final File output) throws IOException {
+        int numRows = -1;
+        int numColumns = -1;
+        byte[] terrain = null;
+        long[] obstacles = null;
+        short[] elevation = null;
+        final List<SpawnZone> spawnZones = new ArrayList<SpawnZone>();
+
+        try {
+            int lineNumber = 0;
+            String line;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) { continue; }
+
+                final String[] tokens = line.split("\\s+");
+                if (tokens[0].equals("size")) {
+                    expect(tokens.length == 3, lineNumber, "Expected 'size <rows> <columns>'");
+                    numRows = parseInt(tokens[1], lineNumber);
+                    numColumns = parseInt(tokens[2], lineNumber);
+                    expect((numRows > 0) && (numColumns > 0), lineNumber, "Size must be positive");
+
+                    terrain = new byte[numRows * numColumns];
+                    obstacles = new long[OccupancyBitboard.wordsFor(numRows * numColumns)];
+                    elevation = new short[numRows * numColumns];
+                } else if (tokens[0].equals("spawn")) {
+                    expect(tokens.length == 6, lineNumber,
+                            "Expected 'spawn <seat> <first row> <first column> <rows> <columns>'");
+                    try {
+                        spawnZones.add(new SpawnZone(parseInt(tokens[1], lineNumber),
+                                parseInt(tokens[2], lineNumber), parseInt(tokens[3], lineNumber),
+                                parseInt(tokens[4], lineNumber), parseInt(tokens[5], lineNumber)));
+                    } catch (IllegalArgumentException ex) {
+                        throw new IOException("Line " + lineNumber + ": " + ex.getMessage());
+                    }
+                } else if (tokens[0].equals("terrain")) {
+                    expect(terrain != null, lineNumber, "Size must come before the terrain");
+
+                    for (int rowIter = 0; rowIter < numRows; rowIter++) {
+                        final String row = input.readLine();
+                        lineNumber++;
+                        expect((row != null) && (row.trim().length() == numColumns), lineNumber,
+                                "Expected " + numColumns + " tiles");
+
+                        final String tiles = row.trim();
+                        for (int colIter = 0; colIter < numColumns; colIter++) {
+                            final int index = rowIter * numColumns + colIter;
+                            final char tile = tiles.charAt(colIter);
+                            expect((tile == GRASS) || (tile == OBSTACLE), lineNumber, "Unknown tile '" + tile + "'");
+
+                            terrain[index] = (byte) TileFactory.Type.GRASS.ordinal();
+                            if (tile == OBSTACLE) {
+                                OccupancyBitboard.set(obstacles, index);
+                            }
+                        }
+                    }
+                } else if (tokens[0].equals("elevation")) {
+                    expect(elevation != null, lineNumber, "Size must come before the elevation");
+
+                    for (int rowIter = 0; rowIter < numRows; rowIter++) {
+                        final String row = input.readLine();
+                        lineNumber++;
+                        final String[] heights = (row != null) ? row.trim().split("\\s+") : new String[0];
+                        expect(heights.length == numColumns, lineNumber, "Expected " + numColumns + " elevations");
+
+                        for (int colIter = 0; colIter < numColumns; colIter++) {
+                            elevation[rowIter * numColumns + colIter] =
+                                    toStoredElevation(heights[colIter], lineNumber);
+                        }
+                    }
+                } else {
+                    throw new IOException("Line " + lineNumber + ": Unknown section '" + tokens[0] + "'");
+                }
+            }
+        } finally {
+            input.close();
+        }
+
+        if (terrain == null) {
+            throw new IOException("Layout is missing its size!");
+        }
+        for (SpawnZone zone : spawnZones) {
+            if ((zone.getFirstRow() + zone.getNumRows() > numRows)
+                    || (zone.getFirstColumn() + zone.getNumColumns() > numColumns)) {
+                throw new IOException("Spawn zone for seat " + zone.getSeat() + " falls off the battlefield!");
+            }
+        }
+
+        write(output, numRows, numColumns, terrain, obstacles, spawnZones, elevation);
+    }
+
+    /** Throws a line numbered parse error unless the condition holds. */
+    private static void expect(final boolean condition,
+                               final int lineNumber,
+                               final String message) throws IOException {
+        if (!condition) {
+            throw new IOException("Line " + lineNumber + ": " + message + "!");
+        }
+    }
+
+    /**
+     * Converts a text layout into a binary map.
+     *
+     * @param args Text layout followed by the binary map to write.
+     */
+    public static void main(final String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MapConverter <layout.txt> <layout.map>");
+            System.exit(1);
+        }
+
+        convert(new BufferedReader(new FileReader(args[0])), new File(args[1]));
+    }
+
+    /** Parses an integer, reporting the line on failure. */
+    private static int parseInt(final String token, final int lineNumber) throws IOException {
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException ex) {
+            throw new IOException("Line " + lineNumber + ": Expected a number, found '" + token + "'!");
+        }
+    }
+
+    /** Parses an elevation in tiles into its stored form. */
+    private static short toStoredElevation(final String token, final int lineNumber) throws IOException {
+        final float stored;
+        try {
+            stored = Float.parseFloat(token) * MapFormat.ELEVATION_SCALE;
+        } catch (NumberFormatException ex) {
+            throw new IOException("Line " + lineNumber + ": Expected an elevation, found '" + token + "'!");
+        }
+        expect((stored >= Short.MIN_VALUE) && (stored <= Short.MAX_VALUE), lineNumber, "Elevation out of range");
+
+        return (short) Math.round(stored);
+    }
+
+    /** Writes the binary map through a mapped buffer sized to fit. */
+    private static void write(final File output,
+                              final int numRows,
+                              final int numColumns,
+                              final byte[] terrain,
+                              final long[] obstacles,
+                              final List<SpawnZone> spawnZones,
+                              final short[] elevation) throws IOException {
+        final int numTiles = numRows * numColumns;
+        final RandomAccessFile file = new RandomAccessFile(output, "rw");
+
+        try {
+            final long size = MapFormat.sizeOf(numTiles, spawnZones.size());
+            file.setLength(size);
+            final MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+            MapFormat.write(buffer, numRows, numColumns, terrain, obstacles, spawnZones, elevation);
+            buffer.force();
+        } finally {
+            file.close();
+        }
+    }
+}
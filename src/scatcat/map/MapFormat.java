@@ -0,0 +1,118 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Layout of the binary map format. Maps are laid out so they can be memory-mapped and read
+ * in place, with no per-tile parsing objects. All values are big-endian. In order:
+ *
+ * <ol>
+ *   <li>Header: magic, version, number of rows, number of columns, number of spawn zones.
+ *       Each is an int.</li>
+ *   <li>Terrain: one byte per tile in row-major order, holding the ordinal of the tile's
+ *       {@link TileFactory.Type}.</li>
+ *   <li>Obstacles: one bit per tile in row-major order, packed into longs the same way as
+ *       {@link OccupancyBitboard} layers.</li>
+ *   <li>Spawn zones: seat, first row, first column, number of rows and number of columns of
+ *       each zone. Each is an int.</li>
+ *   <li>Elevation: one short per tile in row-major order, in {@link #ELEVATION_SCALE}ths of
+ *       a tile.</li>
+ * </ol>
+ *
+ * Bump {@link #VERSION} whenever the layout changes.
+ *
+ * @author R. Matt McCann
+ */
+public final class MapFormat {
+    /** Hidden constructor. This is a utility class. */
+    private MapFormat() { }
+
+    /** Marks the file as a Stratagem map. Spells "SGMP". */
+    public static final int MAGIC = 0x53474D50;
+
+    /** Version of the layout written by this build. */
+    public static final int VERSION = 1;
+
+    /** Number of bytes in the header. */
+    public static final int HEADER_SIZE = 5 * 4;
+
+    /** Number of bytes per spawn zone. */
+    public static final int SPAWN_ZONE_SIZE = 5 * 4;
+
+    /** Stored elevations are the elevation in tiles times this. */
+    public static final float ELEVATION_SCALE = 100.0f;
+
+    /** Offset of the terrain array. */
+    public static int terrainOffset() { return HEADER_SIZE; }
+
+    /** Offset of the obstacle layer. */
+    public static int obstacleOffset(final int numTiles) { return terrainOffset() + numTiles; }
+
+    /** Offset of the spawn zones. */
+    public static int spawnZoneOffset(final int numTiles) {
+        return obstacleOffset(numTiles) + OccupancyBitboard.wordsFor(numTiles) * 8;
+    }
+
+    /**
+     * Offset of the elevation array. A long, as a corrupt number of spawn zones can push it
+     * past the largest int.
+     */
+    public static long elevationOffset(final int numTiles, final int numSpawnZones) {
+        return spawnZoneOffset(numTiles) + (long) numSpawnZones * SPAWN_ZONE_SIZE;
+    }
+
+    /**
+     * Total size of a map of the provided dimensions. A long, as a corrupt number of spawn
+     * zones can push it past the largest int.
+     */
+    public static long sizeOf(final int numTiles, final int numSpawnZones) {
+        return elevationOffset(numTiles, numSpawnZones) + (long) numTiles * 2;
+    }
+
+    /**
+     * Writes a map into the buffer, starting at its current position.
+     *
+     * @param buffer Must have {@link #sizeOf(int, int)} bytes remaining.
+     * @param numRows Number of rows of tiles.
+     * @param numColumns Number of columns of tiles.
+     * @param terrain Terrain type ordinal of each tile, in row-major order.
+     * @param obstacles Obstacle layer, see {@link OccupancyBitboard}.
+     * @param spawnZones Zones the players deploy into.
+     * @param elevation Stored elevation of each tile, in row-major order.
+     */
+    public static void write(final ByteBuffer buffer,
+                             final int numRows,
+                             final int numColumns,
+                             final byte[] terrain,
+                             final long[] obstacles,
+                             final List<SpawnZone> spawnZones,
+                             final short[] elevation) {
+        final int numTiles = numRows * numColumns;
+        checkArgument(buffer.remaining() >= sizeOf(numTiles, spawnZones.size()), "Buffer is too small for the map!");
+        checkArgument((terrain.length == numTiles) && (elevation.length == numTiles), "Layers must cover every tile!");
+        checkArgument(obstacles.length == OccupancyBitboard.wordsFor(numTiles), "Obstacle layer must cover every tile!");
+
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putInt(numRows);
+        buffer.putInt(numColumns);
+        buffer.putInt(spawnZones.size());
+        buffer.put(terrain);
+        for (int wordIter = 0; wordIter < obstacles.length; wordIter++) {
+            buffer.putLong(obstacles[wordIter]);
+        }
+        for (SpawnZone zone : spawnZones) {
+            buffer.putInt(zone.getSeat());
+            buffer.putInt(zone.getFirstRow());
+            buffer.putInt(zone.getFirstColumn());
+            buffer.putInt(zone.getNumRows());
+            buffer.putInt(zone.getNumColumns());
+        }
+        for (int tileIter = 0; tileIter < numTiles; tileIter++) {
+            buffer.putShort(elevation[tileIter]);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Generates battlefields procedurally from a seed. The same seed and dimensions always give
+ * the same map, whatever the number of threads used.
+ *
+ * Large maps are split into chunks generated in parallel. Every tile's noise is a pure
+ * function of the seed and the tile's coordinates, so a chunk computes the halo it needs from
+ * its neighbors' coordinates rather than waiting on their results, and the chunks stitch
+ * together at their borders exactly as if the map had been generated in one piece.
+ *
+ * Maps are produced in the binary {@link MapFormat}, so they can be handed straight to
+ * {@link BattlefieldFactory#load(ByteBuffer)} or saved for later.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class MapGenerator {
+    /** Number of rows and columns of tiles generated by each task. */
+    private static final int CHUNK_SIZE = 4 * Battlefield.CHUNK_SIZE;
+
+    /** Number of rows and columns of tiles between elevation lattice points. */
+    private static final int ELEVATION_CELL_SIZE = 8;
+
+    /** Salt separating the elevation noise from the obstacle noise. */
+    private static final long ELEVATION_SALT = 1L;
+
+    /** Highest generated elevation, in tiles. */
+    private static final float MAX_ELEVATION = 2.0f;
+
+    /** Chance of a tile seeding an obstacle. */
+    private static final float OBSTACLE_DENSITY = 0.3f;
+
+    /** Salt separating the obstacle noise from the elevation noise. */
+    private static final long OBSTACLE_SALT = 2L;
+
+    /** Seeded tiles needed in a tile's 3x3 neighborhood for an obstacle to grow there. */
+    private static final int OBSTACLE_THRESHOLD = 5;
+
+    /** Number of rows deep each spawn zone is. */
+    private static final int SPAWN_ZONE_DEPTH = 2;
+
+    /** Runs the chunk tasks. Daemon threads, so an idle generator doesn't hold up exit. */
+    private final ExecutorService executor;
+
+    /** Guice injection constructor. */
+    @Inject
+    protected MapGenerator() {
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("MapGenerator-%d").build());
+    }
+
+    /**
+     * Generates a map. The first and last rows of the map are kept clear as spawn zones for
+     * the first and second players.
+     *
+     * @param seed Seed of the map.
+     * @param numRows Must leave room for both spawn zones.
+     * @param numColumns Must be positive.
+     * @return Generated map in the binary map format, positioned at its start.
+     */
+    public ByteBuffer generate(final long seed, final int numRows, final int numColumns) {
+        checkArgument(numRows >= 2 * SPAWN_ZONE_DEPTH, "Battlefield must fit both spawn zones!");
+        checkArgument(numColumns > 0, "Battlefield must have columns!");
+
+        final int numTiles = numRows * numColumns;
+        final boolean[] obstacles = new boolean[numTiles];
+        final short[] elevation = new short[numTiles];
+
+        // Generate the chunks, each writing only its own tiles
+        final List<Callable<Void>> chunks = new ArrayList<Callable<Void>>();
+        for (int firstRow = 0; firstRow < numRows; firstRow += CHUNK_SIZE) {
+            for (int firstColumn = 0; firstColumn < numColumns; firstColumn += CHUNK_SIZE) {
+                chunks.add(new ChunkTask(seed, numRows, numColumns, firstRow, firstColumn, obstacles, elevation));
+            }
+        }
+        runAll(chunks);
+
+        // Keep the spawn zones clear
+        final List<SpawnZone> spawnZones = new ArrayList<SpawnZone>(2);
+        spawnZones.add(new SpawnZone(0, 0, 0, SPAWN_ZONE_DEPTH, numColumns));
+        spawnZones.add(new SpawnZone(1, numRows - SPAWN_ZONE_DEPTH, 0, SPAWN_ZONE_DEPTH, numColumns));
+        final long[] obstacleLayer = new long[OccupancyBitboard.wordsFor(numTiles)];
+        for (int tileIter = 0; tileIter < numTiles; tileIter++) {
+            final int row = tileIter / numColumns;
+            if (obstacles[tileIter] && (row >= SPAWN_ZONE_DEPTH) && (row < numRows - SPAWN_ZONE_DEPTH)) {
+                OccupancyBitboard.set(obstacleLayer, tileIter);
+            }
+        }
+
+        // Grass is the only terrain so far, and its ordinal is zero
+        final byte[] terrain = new byte[numTiles];
+
+        final ByteBuffer map = ByteBuffer.allocate(Ints.checkedCast(MapFormat.sizeOf(numTiles, spawnZones.size())));
+        MapFormat.write(map, numRows, numColumns, terrain, obstacleLayer, spawnZones, elevation);
+        map.flip();
+
+        return map;
+    }
+
+    /** Hashes the tile's coordinates into noise in [0, 1). */
+    private static float noise(final long seed, final long salt, final int row, final int column) {
+        final long hash = Zobrist.mix(Zobrist.mix(seed + salt) ^ (((long) row << 32) | (column & 0xFFFFFFFFL)));
+
+        return (hash >>> 40) / (float) (1 << 24);
+    }
+
+    /** Runs the tasks on the executor, or inline if there is only one, and waits for them all. */
+    private void runAll(final List<Callable<Void>> tasks) {
+        try {
+            if (tasks.size() == 1) {
+                tasks.get(0).call();
+                return;
+            }
+
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating a map!", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to generate a map chunk!", ex.getCause());
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to generate a map chunk!", ex);
+        }
+    }
+
+    /** Generates the obstacles and elevation of a single chunk. */
+    private static final class ChunkTask implements Callable<Void> {
+        private final int firstColumn;
+
+        private final int firstRow;
+
+        private final int numColumns;
+
+        private final int numRows;
+
+        /** Shared across the chunks, which each write only their own tiles. */
+        private final boolean[] obstacles;
+
+        /** Shared across the chunks, which each write only their own tiles. */
+        private final short[] elevation;
+
+        private final long seed;
+
+        ChunkTask(final long seed,
+                  final int numRows,
+                  final int numColumns,
+                  final int firstRow,
+                  final int firstColumn,
+                  final boolean[] obstacles,
+                  final short[] elevation) {
+            this.seed = seed;
+            this.numRows = numRows;
+            this.numColumns = numColumns;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+            this.obstacles = obstacles;
+            this.elevation = elevation;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Void call() {
+            final int lastRow = Math.min(firstRow + CHUNK_SIZE, numRows);
+            final int lastColumn = Math.min(firstColumn + CHUNK_SIZE, numColumns);
+
+            for (int rowIter = firstRow; rowIter < lastRow; rowIter++) {
+                for (int colIter = firstColumn; colIter < lastColumn; colIter++) {
+                    final int index = rowIter * numColumns + colIter;
+
+                    obstacles[index] = isObstacle(rowIter, colIter);
+                    elevation[index] = (short) Math.round(
+                            elevationAt(rowIter, colIter) * MAX_ELEVATION * MapFormat.ELEVATION_SCALE);
+                }
+            }
+
+            return null;
+        }
+
+        /** Smoothly interpolates the lattice noise surrounding the tile, giving [0, 1). */
+        private float elevationAt(final int row, final int column) {
+            final int latticeRow = row / ELEVATION_CELL_SIZE;
+            final int latticeColumn = column / ELEVATION_CELL_SIZE;
+            final float rowFraction = smoothstep((row % ELEVATION_CELL_SIZE) / (float) ELEVATION_CELL_SIZE);
+            final float columnFraction = smoothstep((column % ELEVATION_CELL_SIZE) / (float) ELEVATION_CELL_SIZE);
+
+            final float topLeft = noise(seed, ELEVATION_SALT, latticeRow, latticeColumn);
+            final float topRight = noise(seed, ELEVATION_SALT, latticeRow, latticeColumn + 1);
+            final float bottomLeft = noise(seed, ELEVATION_SALT, latticeRow + 1, latticeColumn);
+            final float bottomRight = noise(seed, ELEVATION_SALT, latticeRow + 1, latticeColumn + 1);
+            final float top = topLeft + (topRight - topLeft) * columnFraction;
+            final float bottom = bottomLeft + (bottomRight - bottomLeft) * columnFraction;
+
+            return top + (bottom - top) * rowFraction;
+        }
+
+        /**
+         * Whether or not an obstacle grows on the tile. Obstacles grow where seeded tiles
+         * cluster, so they form walls and outcrops rather than scattered single tiles. The
+         * neighborhood may reach into the neighboring chunks.
+         */
+        private boolean isObstacle(final int row, final int column) {
+            int numSeeded = 0;
+            for (int rowIter = row - 1; rowIter <= row + 1; rowIter++) {
+                for (int colIter = column - 1; colIter <= column + 1; colIter++) {
+                    if ((rowIter >= 0) && (rowIter < numRows) && (colIter >= 0) && (colIter < numColumns)
+                            && (noise(seed, OBSTACLE_SALT, rowIter, colIter) < OBSTACLE_DENSITY)) {
+                        numSeeded++;
+                    }
+                }
+            }
+
+            return numSeeded >= OBSTACLE_THRESHOLD;
+        }
+
+        /** Eases the fraction so the elevation has no creases at the lattice lines. */
+        private static float smoothstep(final float fraction) {
+            return fraction * fraction * (3.0f - 2.0f * fraction);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Bitboard view of who occupies the battlefield. Each layer holds one bit per tile, addressed
+ * by the tile's row-major index, packed into longs. There is a layer of empty tiles, a layer
+ * of obstacles and one layer per owning player. The battlefield keeps the layers in step
+ * with the tiles' occupants, so checks that used to walk the object graph become bit tests
+ * and word-level AND/OR operations.
+ *
+ * Layers handed out by this class are live views and must not be modified by callers.
+ *
+ * @author R. Matt McCann
+ */
+public final class OccupancyBitboard {
+    /** Number of bits in a bitboard word. */
+    public static final int BITS_PER_WORD = 64;
+
+    /** Log2 of the bits per word, used to turn a tile index into a word index. */
+    private static final int WORD_SHIFT = 6;
+
+    /** Tiles without an occupant. */
+    private long[] empty = new long[0];
+
+    /** Tiles occupied by an obstacle. */
+    private long[] obstacles = new long[0];
+
+    /** Number of tiles covered by the layers. */
+    private int numTiles = 0;
+
+    /** Tiles occupied by each player's units. */
+    private final Map<Player, long[]> owned = new IdentityHashMap<Player, long[]>();
+
+    /** All-zero layer handed out for players without any units on the battlefield. */
+    private long[] unowned = new long[0];
+
+    /** Package-private as the battlefield owns the bitboard. */
+    OccupancyBitboard() { }
+
+    /**
+     * Intersects the mask with the layer, word by word.
+     *
+     * @param mask Updated in place. Must be the same length as the layer.
+     * @param layer Layer to intersect with.
+     */
+    public static void and(final long[] mask, final long[] layer) {
+        checkArgument(mask.length == layer.length, "Mask and layer must be the same length!");
+
+        for (int wordIter = 0; wordIter < mask.length; wordIter++) {
+            mask[wordIter] &= layer[wordIter];
+        }
+    }
+
+    /**
+     * Removes the layer's bits from the mask, word by word.
+     *
+     * @param mask Updated in place. Must be the same length as the layer.
+     * @param layer Layer to remove.
+     */
+    public static void andNot(final long[] mask, final long[] layer) {
+        checkArgument(mask.length == layer.length, "Mask and layer must be the same length!");
+
+        for (int wordIter = 0; wordIter < mask.length; wordIter++) {
+            mask[wordIter] &= ~layer[wordIter];
+        }
+    }
+
+    /** Clears the bit of the tile at the provided index. */
+    public static void clear(final long[] layer, final int index) {
+        layer[index >>> WORD_SHIFT] &= ~(1L << index);
+    }
+
+    /** Counts the bits set in the layer. */
+    public static int count(final long[] layer) {
+        int numSet = 0;
+        for (int wordIter = 0; wordIter < layer.length; wordIter++) {
+            numSet += Long.bitCount(layer[wordIter]);
+        }
+
+        return numSet;
+    }
+
+    /**
+     * Adds the layer's bits to the mask, word by word.
+     *
+     * @param mask Updated in place. Must be the same length as the layer.
+     * @param layer Layer to add.
+     */
+    public static void or(final long[] mask, final long[] layer) {
+        checkArgument(mask.length == layer.length, "Mask and layer must be the same length!");
+
+        for (int wordIter = 0; wordIter < mask.length; wordIter++) {
+            mask[wordIter] |= layer[wordIter];
+        }
+    }
+
+    /** Sets the bit of the tile at the provided index. */
+    public static void set(final long[] layer, final int index) {
+        layer[index >>> WORD_SHIFT] |= 1L << index;
+    }
+
+    /** Whether or not the bit of the tile at the provided index is set. */
+    public static boolean test(final long[] layer, final int index) {
+        return (layer[index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    /** Number of words needed to hold a layer covering the provided number of tiles. */
+    public static int wordsFor(final int numTiles) {
+        return (numTiles + BITS_PER_WORD - 1) >>> WORD_SHIFT;
+    }
+
+    /** Creates an all-zero mask sized to match the layers. */
+    public long[] createMask() { return new long[empty.length]; }
+
+    /** Tiles without an occupant. */
+    public long[] getEmpty() { return empty; }
+
+    /** Number of tiles covered by the layers. */
+    public int getNumTiles() { return numTiles; }
+
+    /** Tiles occupied by an obstacle. */
+    public long[] getObstacles() { return obstacles; }
+
+    /** Tiles occupied by units the player owns. */
+    public long[] getOwnedBy(final Player player) {
+        final long[] layer = owned.get(player);
+
+        return (layer != null) ? layer : unowned;
+    }
+
+    /** Whether or not the tile at the index is without an occupant. */
+    public boolean isEmpty(final int index) { return test(empty, index); }
+
+    /**
+     * Whether or not the tile at the index holds an occupant the player does not own.
+     * Obstacles count as hostile as they do not belong to any player.
+     */
+    public boolean isHostileTo(final Player player, final int index) {
+        return !test(empty, index) && !isOwnedBy(player, index);
+    }
+
+    /** Whether or not the tile at the index holds an obstacle. */
+    public boolean isObstacle(final int index) { return test(obstacles, index); }
+
+    /** Whether or not the tile at the index holds a unit the player owns. */
+    public boolean isOwnedBy(final Player player, final int index) {
+        final long[] layer = owned.get(player);
+
+        return (layer != null) && test(layer, index);
+    }
+
+    /**
+     * Clears the layers and resizes them to cover the provided number of tiles, all empty.
+     *
+     * @param numTiles Must not be negative.
+     */
+    void reset(final int numTiles) {
+        checkArgument(numTiles >= 0, "Number of tiles must not be negative!");
+
+        final int numWords = wordsFor(numTiles);
+
+        this.numTiles = numTiles;
+        empty = new long[numWords];
+        obstacles = new long[numWords];
+        unowned = new long[numWords];
+        owned.clear();
+
+        // Mark every tile as empty, leaving the padding bits of the last word clear
+        Arrays.fill(empty, -1L);
+        final int numPaddingBits = numWords * BITS_PER_WORD - numTiles;
+        if (numPaddingBits > 0) {
+            empty[numWords - 1] = -1L >>> numPaddingBits;
+        }
+    }
+
+    /**
+     * Moves the tile's bits from the previous occupant to the current one.
+     *
+     * @param index Row-major index of the tile.
+     * @param previous Occupant before the change. May be null.
+     * @param current Occupant after the change. May be null.
+     */
+    void update(final int index, final Unit previous, final Unit current) {
+        if ((previous != null) && previous.isObstacle()) {
+            clear(obstacles, index);
+        }
+
+        if (current == null) {
+            clearOwner(index);
+            set(empty, index);
+            return;
+        }
+
+        clear(empty, index);
+        if (current.isObstacle()) {
+            set(obstacles, index);
+        }
+
+        updateOwner(index, current.getOwner());
+    }
+
+    /**
+     * Moves the occupied tile's bit to the layer of its occupant's new owner.
+     *
+     * @param index Row-major index of the tile.
+     * @param owner Owner of the tile's occupant. May be null.
+     * @return Whether or not any layer changed.
+     */
+    boolean updateOwner(final int index, final Player owner) {
+        // If the tile is already marked as owned by the player, there's nothing to move
+        if ((owner != null) && isOwnedBy(owner, index)) { return false; }
+
+        // The previous owner may no longer be known by the occupant, so clear the bit everywhere
+        boolean isChanged = clearOwner(index);
+        if (owner != null) {
+            long[] layer = owned.get(owner);
+            if (layer == null) {
+                layer = new long[empty.length];
+                owned.put(owner, layer);
+            }
+            set(layer, index);
+            isChanged = true;
+        }
+
+        return isChanged;
+    }
+
+    /** Clears the tile's bit from every owner's layer, returning whether or not one was set. */
+    private boolean clearOwner(final int index) {
+        boolean isCleared = false;
+        for (long[] layer : owned.values()) {
+            if (test(layer, index)) {
+                clear(layer, index);
+                isCleared = true;
+            }
+        }
+
+        return isCleared;
+    }
+}
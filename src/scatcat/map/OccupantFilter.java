@@ -0,0 +1,71 @@
+package scatcat.map;
+
+import com.sneaky.stratagem.match.Player;
+
+/**
+ * Filters the tiles visited by the battlefield's spatial queries by their occupant, relative
+ * to a player. Checks are answered by the occupancy bitboard, so filtering never touches the
+ * tiles themselves. Obstacles do not belong to any player and so count as hostile.
+ * 
+ * @author R. Matt McCann
+ */
+public enum OccupantFilter {
+    /** Every tile. */
+    ANY {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return true;
+        }
+    },
+    /** Tiles without an occupant. */
+    EMPTY {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return occupancy.isEmpty(index);
+        }
+    },
+    /** Tiles holding the player's units. */
+    FRIENDLY {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return occupancy.isOwnedBy(player, index);
+        }
+    },
+    /** Tiles holding an occupant the player doesn't own. */
+    HOSTILE {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return occupancy.isHostileTo(player, index);
+        }
+    },
+    /** Tiles without one of the player's units, empty or hostile. */
+    NOT_FRIENDLY {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return !occupancy.isOwnedBy(player, index);
+        }
+    },
+    /** Tiles without a hostile occupant, empty or friendly. */
+    NOT_HOSTILE {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return !occupancy.isHostileTo(player, index);
+        }
+    },
+    /** Tiles with any occupant. */
+    OCCUPIED {
+        @Override
+        public boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index) {
+            return !occupancy.isEmpty(index);
+        }
+    };
+    
+    /**
+     * Whether or not the tile passes the filter.
+     * 
+     * @param occupancy Occupancy of the battlefield being queried.
+     * @param player Player the filter is relative to. Only consulted by the ownership filters.
+     * @param index Row-major index of the tile.
+     */
+    public abstract boolean accepts(final OccupancyBitboard occupancy, final Player player, final int index);
+}
@@ -0,0 +1,292 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import scatcat.general.points.PackedGridPointMap;
+
+import com.google.common.base.Optional;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.sneaky.stratagem.match.Player;
+
+/**
+ * Finds shortest walking paths across the battlefield with A*, using the Manhattan distance
+ * as the heuristic. Paths follow the same rules as {@link Reachability}: walls, terrain
+ * obstacles and other players' units block the way, and the player's own units may be passed
+ * through but not stopped on.
+ *
+ * The score, parent and open set buffers are sized to the battlefield and reused between
+ * searches, stamped with a generation rather than cleared. Found paths are cached by start and
+ * goal until the battlefield's occupancy epoch moves on, as any change of occupant or terrain
+ * obstacle may open or close a path.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class PathService {
+    /** Most paths cached at once. The cache is emptied when it fills. */
+    private static final int MAX_CACHED_PATHS = 256;
+
+    /** Column offset of each orthogonal neighbor. */
+    private static final int[] COLUMN_STEPS = {0, 1, 0, -1};
+
+    /** Row offset of each orthogonal neighbor. */
+    private static final int[] ROW_STEPS = {-1, 0, 1, 0};
+
+    /** Paths found since the epoch last moved on, keyed by start and goal. */
+    private final PackedGridPointMap<CachedPath> cache = new PackedGridPointMap<CachedPath>(MAX_CACHED_PATHS);
+
+    /** Occupancy epoch the cached paths were found in. */
+    private int cachedEpoch = 0;
+
+    /** Battlefield the cached paths were found on. */
+    private Battlefield cachedBattlefield = null;
+
+    /** Generation of the current search. */
+    private int currentGeneration = 0;
+
+    /** Generation of the search that last reached each tile. */
+    private int[] generation = new int[0];
+
+    /** Steps from the start to each reached tile. */
+    private int[] gScore = new int[0];
+
+    /** Open tiles, as a binary heap ordered by estimated path length. */
+    private int[] heap = new int[0];
+
+    /** Position of each open tile within the heap, or {@link #CLOSED} once expanded. */
+    private int[] heapPosition = new int[0];
+
+    /** Number of open tiles. */
+    private int heapSize = 0;
+
+    /** Estimated length of the best path through each reached tile. */
+    private int[] fScore = new int[0];
+
+    /** Tile each reached tile was reached from. */
+    private int[] parent = new int[0];
+
+    /** Heap position of tiles that have been expanded. */
+    private static final int CLOSED = -1;
+
+    /** Guice injection constructor. */
+    @Inject
+    public PathService() { }
+
+    /**
+     * Finds the shortest path between the tiles.
+     *
+     * @param battlefield Battlefield to search. Must not be null.
+     * @param start Row-major index of the moving unit's tile. Must be on the battlefield.
+     * @param goal Row-major index of the tile to move to. Must be on the battlefield.
+     * @param owner Owner of the moving unit, which should be the occupant of the start tile.
+     * @return Row-major indices of the tiles stepped through, goal included and start
+     *         excluded, if the goal can be reached. Shared with the cache, so do not modify.
+     */
+    public synchronized Optional<int[]> findPath(final Battlefield battlefield,
+                                                 final int start,
+                                                 final int goal,
+                                                 final Player owner) {
+        checkArgument(battlefield != null, "Battlefield must not be null!");
+
+        final int numTiles = battlefield.getHeight() * battlefield.getWidth();
+        checkArgument((start >= 0) && (start < numTiles), "Start must be on the battlefield!");
+        checkArgument((goal >= 0) && (goal < numTiles), "Goal must be on the battlefield!");
+
+        // Forget the cached paths if any occupant or terrain has changed since they were found
+        final int epoch = battlefield.getOccupancyEpoch();
+        if ((battlefield != cachedBattlefield) || (epoch != cachedEpoch) || (cache.size() >= MAX_CACHED_PATHS)) {
+            cache.clear();
+            cachedBattlefield = battlefield;
+            cachedEpoch = epoch;
+        }
+
+        final long key = ((long) start << 32) | (goal & 0xFFFFFFFFL);
+        final CachedPath cached = cache.get(key);
+        if ((cached != null) && (cached.owner == owner)) {
+            return cached.path;
+        }
+
+        final Optional<int[]> path = search(battlefield, start, goal, owner);
+        cache.put(key, new CachedPath(owner, path));
+
+        return path;
+    }
+
+    /** Whether or not the first open tile should be expanded before the second. */
+    private boolean isBefore(final int first, final int second) {
+        // Break ties towards the tile further along, as it's likely closer to the goal
+        return (fScore[first] < fScore[second])
+                || ((fScore[first] == fScore[second]) && (gScore[first] > gScore[second]));
+    }
+
+    /** Removes and returns the most promising open tile. */
+    private int pollOpen() {
+        final int best = heap[0];
+        heapPosition[best] = CLOSED;
+
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapPosition[heap[0]] = 0;
+            siftDown(0);
+        }
+
+        return best;
+    }
+
+    /** Sizes the buffers to the battlefield and starts a new generation. */
+    private void prepare(final int numTiles) {
+        if (generation.length != numTiles) {
+            fScore = new int[numTiles];
+            generation = new int[numTiles];
+            gScore = new int[numTiles];
+            heap = new int[numTiles];
+            heapPosition = new int[numTiles];
+            parent = new int[numTiles];
+            currentGeneration = 0;
+        }
+
+        // If the generations have wrapped, old stamps could be mistaken for new ones
+        currentGeneration++;
+        if (currentGeneration == 0) {
+            Arrays.fill(generation, 0);
+            currentGeneration = 1;
+        }
+
+        heapSize = 0;
+    }
+
+    /** Adds the tile to the open set. */
+    private void pushOpen(final int index) {
+        heap[heapSize] = index;
+        heapPosition[index] = heapSize++;
+        siftUp(heapPosition[index]);
+    }
+
+    /** Runs A* from the start to the goal. */
+    private Optional<int[]> search(final Battlefield battlefield,
+                                   final int start,
+                                   final int goal,
+                                   final Player owner) {
+        final int width = battlefield.getWidth();
+        final int height = battlefield.getHeight();
+        final int goalRow = goal / width;
+        final int goalColumn = goal % width;
+        if (start == goal) { return Optional.of(new int[0]); }
+
+        // The unit can only stop on an empty, passable tile
+        if (!battlefield.getOccupancy().isEmpty(goal) || !battlefield.isPassable(owner, goalRow, goalColumn)) {
+            return Optional.absent();
+        }
+
+        prepare(height * width);
+        generation[start] = currentGeneration;
+        gScore[start] = 0;
+        fScore[start] = Math.abs(start / width - goalRow) + Math.abs(start % width - goalColumn);
+        parent[start] = start;
+        pushOpen(start);
+
+        while (heapSize > 0) {
+            final int current = pollOpen();
+            if (current == goal) {
+                return Optional.of(tracePath(goal));
+            }
+
+            final int row = current / width;
+            final int column = current - row * width;
+            for (int stepIter = 0; stepIter < ROW_STEPS.length; stepIter++) {
+                final int nextRow = row + ROW_STEPS[stepIter];
+                final int nextColumn = column + COLUMN_STEPS[stepIter];
+                if ((nextRow < 0) || (nextRow >= height) || (nextColumn < 0) || (nextColumn >= width)) { continue; }
+
+                final int next = current + ROW_STEPS[stepIter] * width + COLUMN_STEPS[stepIter];
+                final int steps = gScore[current] + 1;
+                final boolean isSeen = generation[next] == currentGeneration;
+                
+                // If the tile has already been expanded, or reached at least as cheaply, skip it
+                if (isSeen && ((heapPosition[next] == CLOSED) || (gScore[next] <= steps))) { continue; }
+
+                // If the tile is walled off or held by another player, it can't be entered
+                if (!isSeen && !battlefield.isPassable(owner, nextRow, nextColumn)) { continue; }
+
+                generation[next] = currentGeneration;
+                gScore[next] = steps;
+                fScore[next] = steps + Math.abs(nextRow - goalRow) + Math.abs(nextColumn - goalColumn);
+                parent[next] = current;
+                if (isSeen) {
+                    siftUp(heapPosition[next]);
+                } else {
+                    pushOpen(next);
+                }
+            }
+        }
+
+        return Optional.absent();
+    }
+
+    /** Moves the open tile at the provided heap position down to where it belongs. */
+    private void siftDown(int position) {
+        final int index = heap[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) { break; }
+            if ((child + 1 < heapSize) && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], index)) { break; }
+
+            heap[position] = heap[child];
+            heapPosition[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = index;
+        heapPosition[index] = position;
+    }
+
+    /** Moves the open tile at the provided heap position up to where it belongs. */
+    private void siftUp(int position) {
+        final int index = heap[position];
+
+        while (position > 0) {
+            final int parentPosition = (position - 1) / 2;
+            if (!isBefore(index, heap[parentPosition])) { break; }
+
+            heap[position] = heap[parentPosition];
+            heapPosition[heap[position]] = position;
+            position = parentPosition;
+        }
+
+        heap[position] = index;
+        heapPosition[index] = position;
+    }
+
+    /** Follows the parents back from the goal to rebuild the path. */
+    private int[] tracePath(final int goal) {
+        final int[] path = new int[gScore[goal]];
+
+        int current = goal;
+        for (int stepIter = path.length - 1; stepIter >= 0; stepIter--) {
+            path[stepIter] = current;
+            current = parent[current];
+        }
+
+        return path;
+    }
+
+    /** Path found for a start and goal, along with the owner it was found for. */
+    private static final class CachedPath {
+        private final Player owner;
+
+        private final Optional<int[]> path;
+
+        CachedPath(final Player owner, final Optional<int[]> path) {
+            this.owner = owner;
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.sneaky.stratagem.match.Player;
+
+/**
+ * Finds the tiles a unit can walk to. Movement is a breadth-first search out from the unit's
+ * tile over the four orthogonal neighbors. Walls, terrain obstacles and the units of other
+ * players block the way. A unit may pass through its own side's units but may not stop on
+ * them. Every step costs the same, so a breadth-first search gives the shortest distances.
+ * Switch to Dijkstra's algorithm if tiles ever get different movement costs.
+ *
+ * The distance, parent and queue buffers are plain int arrays sized to the battlefield and
+ * reused between searches. Each search stamps the tiles it reaches with a new generation
+ * rather than clearing the buffers, so a search costs time in proportion to the tiles it
+ * reaches and allocates nothing once the buffers are sized.
+ *
+ * Results stay valid until the next search. Not thread safe. The shared instance is for the
+ * threat patterns, which all compute on the threat worker's thread. Searches on other threads,
+ * such as the AI's, need their own instance.
+ *
+ * @author R. Matt McCann
+ */
+@Singleton
+public final class Reachability {
+    /** Parent of the source tile and of tiles that weren't reached. */
+    public static final int NO_PARENT = -1;
+
+    /** Distance of tiles that weren't reached. */
+    public static final int UNREACHED = -1;
+
+    /** Column offset of each orthogonal neighbor. */
+    private static final int[] COLUMN_STEPS = {0, 1, 0, -1};
+
+    /** Row offset of each orthogonal neighbor. */
+    private static final int[] ROW_STEPS = {-1, 0, 1, 0};
+
+    /** Steps from the source to each tile stamped with the current generation. */
+    private int[] distance = new int[0];
+
+    /** Generation of the search that last reached each tile. */
+    private int[] generation = new int[0];
+
+    /** Whether or not the unit may stop on each tile stamped with the current generation. */
+    private boolean[] isStoppable = new boolean[0];
+
+    /** Generation of the current search. */
+    private int currentGeneration = 0;
+
+    /** Tiles the unit may stop on, in order of distance. */
+    private int[] destinations = new int[0];
+
+    /** Number of destinations found by the current search. */
+    private int numDestinations = 0;
+
+    /** Tile each tile was reached from. */
+    private int[] parent = new int[0];
+
+    /** Breadth-first search frontier. Each tile is queued at most once. */
+    private int[] queue = new int[0];
+
+    /** Tile the current search started from. */
+    private int source = Battlefield.NOT_ON_BATTLEFIELD;
+
+    /** Guice injection constructor. */
+    @Inject
+    public Reachability() { }
+
+    /**
+     * Searches for the tiles a unit standing on the source tile can move to.
+     *
+     * @param battlefield Battlefield to search. Must not be null.
+     * @param sourceRow Row of the moving unit's tile. Must be on the battlefield.
+     * @param sourceColumn Column of the moving unit's tile. Must be on the battlefield.
+     * @param owner Owner of the moving unit. Other players' units block the way.
+     * @param maxSteps Furthest the unit may move, in steps. Must not be negative.
+     */
+    public void compute(final Battlefield battlefield,
+                        final int sourceRow,
+                        final int sourceColumn,
+                        final Player owner,
+                        final int maxSteps) {
+        checkArgument(battlefield != null, "Battlefield must not be null!");
+        checkArgument(battlefield.isInside(sourceRow, sourceColumn), "Source must be on the battlefield!");
+        checkArgument(maxSteps >= 0, "Steps must not be negative!");
+
+        final OccupancyBitboard occupancy = battlefield.getOccupancy();
+        final int height = battlefield.getHeight();
+        final int width = battlefield.getWidth();
+        prepare(height * width);
+
+        // The unit may always stay where it is
+        source = battlefield.indexOf(sourceRow, sourceColumn);
+        reach(source, NO_PARENT, 0, true);
+        queue[0] = source;
+
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            final int current = queue[head++];
+            final int steps = distance[current] + 1;
+            if (steps > maxSteps) { continue; }
+
+            final int row = current / width;
+            final int column = current - row * width;
+            for (int stepIter = 0; stepIter < ROW_STEPS.length; stepIter++) {
+                final int nextRow = row + ROW_STEPS[stepIter];
+                final int nextColumn = column + COLUMN_STEPS[stepIter];
+                if ((nextRow < 0) || (nextRow >= height) || (nextColumn < 0) || (nextColumn >= width)) { continue; }
+
+                final int next = current + ROW_STEPS[stepIter] * width + COLUMN_STEPS[stepIter];
+                if (generation[next] == currentGeneration) { continue; }
+
+                // If the tile is walled off or held by another player, it can't be entered
+                if (!battlefield.isPassable(owner, nextRow, nextColumn)) { continue; }
+
+                // Friendly units may be passed through but not stopped on
+                reach(next, current, steps, occupancy.isEmpty(next));
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    /** Row-major index of the destination at the provided position in the results. */
+    public int getDestination(final int destinationIter) {
+        checkArgument((destinationIter >= 0) && (destinationIter < numDestinations), "No such destination!");
+
+        return destinations[destinationIter];
+    }
+
+    /** Steps from the source to the tile, or {@link #UNREACHED}. */
+    public int getDistance(final int index) {
+        return isReached(index) ? distance[index] : UNREACHED;
+    }
+
+    /** Number of tiles the unit may move to, its own tile included. */
+    public int getNumDestinations() { return numDestinations; }
+
+    /**
+     * Tile the shortest path to the tile passes through just before it, or {@link #NO_PARENT}
+     * for the source and tiles that weren't reached. Follow the parents back to the source to
+     * rebuild the path.
+     */
+    public int getParent(final int index) {
+        return isReached(index) ? parent[index] : NO_PARENT;
+    }
+
+    /** Tile the last search started from. */
+    public int getSource() { return source; }
+
+    /** Whether or not the unit may stop on the tile. */
+    public boolean isDestination(final int index) {
+        return isReached(index) && isStoppable[index];
+    }
+
+    /** Whether or not the search reached the tile, whether or not the unit may stop there. */
+    public boolean isReached(final int index) {
+        return (index >= 0) && (index < generation.length) && (generation[index] == currentGeneration);
+    }
+
+    /** Sizes the buffers to the battlefield and starts a new generation. */
+    private void prepare(final int numTiles) {
+        if (generation.length != numTiles) {
+            distance = new int[numTiles];
+            destinations = new int[numTiles];
+            generation = new int[numTiles];
+            isStoppable = new boolean[numTiles];
+            parent = new int[numTiles];
+            queue = new int[numTiles];
+            currentGeneration = 0;
+        }
+
+        // If the generations have wrapped, old stamps could be mistaken for new ones
+        currentGeneration++;
+        if (currentGeneration == 0) {
+            Arrays.fill(generation, 0);
+            currentGeneration = 1;
+        }
+
+        numDestinations = 0;
+    }
+
+    /** Stamps the tile as reached, recording it as a destination if the unit may stop there. */
+    private void reach(final int index, final int from, final int steps, final boolean isStoppable) {
+        generation[index] = currentGeneration;
+        distance[index] = steps;
+        parent[index] = from;
+        this.isStoppable[index] = isStoppable;
+        if (isStoppable) {
+            destinations[numDestinations++] = index;
+        }
+    }
+}
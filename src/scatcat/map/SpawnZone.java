@@ -0,0 +1,62 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Rectangle of tiles a player may deploy their army into. Immutable.
+ *
+ * @author R. Matt McCann
+ */
+public final class SpawnZone {
+    /** Top-most row of the zone. */
+    private final int firstRow;
+
+    /** Left-most column of the zone. */
+    private final int firstColumn;
+
+    /** Number of columns the zone spans. */
+    private final int numColumns;
+
+    /** Number of rows the zone spans. */
+    private final int numRows;
+
+    /** Play position of the player that deploys into the zone. */
+    private final int seat;
+
+    /**
+     * Constructor.
+     *
+     * @param seat Must not be negative.
+     * @param firstRow Must not be negative.
+     * @param firstColumn Must not be negative.
+     * @param numRows Must be positive.
+     * @param numColumns Must be positive.
+     */
+    public SpawnZone(final int seat,
+                     final int firstRow,
+                     final int firstColumn,
+                     final int numRows,
+                     final int numColumns) {
+        checkArgument(seat >= 0, "Seat must not be negative!");
+        checkArgument((firstRow >= 0) && (firstColumn >= 0), "Zone must not start off the battlefield!");
+        checkArgument((numRows > 0) && (numColumns > 0), "Zone must not be empty!");
+
+        this.seat = seat;
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+    }
+
+    /** Whether or not the zone covers the tile at the provided position. */
+    public boolean contains(final int row, final int column) {
+        return (row >= firstRow) && (row < firstRow + numRows)
+                && (column >= firstColumn) && (column < firstColumn + numColumns);
+    }
+
+    public int getFirstColumn() { return firstColumn; }
+    public int getFirstRow() { return firstRow; }
+    public int getNumColumns() { return numColumns; }
+    public int getNumRows() { return numRows; }
+    public int getSeat() { return seat; }
+}
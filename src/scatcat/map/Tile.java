@@ -27,12 +27,13 @@ import com.sneaky.stratagem.units.Unit;
  * @author R. Matt McCann
  */
 public class Tile implements RenderableMVP {
-    private List<Object> effects = new ArrayList<Object>();
+    /** Battlefield the tile is placed in, notified when the occupant changes. */
+    private Battlefield battlefield = null;
     
-    /** Orientation of the highlight texture. */
-    private HighlightOrientation highlightOrientation = HighlightOrientation.NORTH;
+    private List<Object> effects = new ArrayList<Object>();
     
-    private Optional<Integer> highlightTexture = Optional.absent();
+    /** Row-major index of the tile within its battlefield. */
+    private int index = -1;
     
     /** Whether or not the tile is currently selected. */
     private boolean isSelected = false;
@@ -47,10 +48,7 @@ public class Tile implements RenderableMVP {
     /** Texture displayed on on the surface of the tile. */
     private int surfaceTexture;
     
-    /** Whether or not to transpose the highlight texture. */
-    private boolean transposeHighlight = false;
-    
-    /** Orientation of the highlight texture. */
+    /** Orientation of a highlight texture. See {@link HighlightRegion}. */
     public enum HighlightOrientation {
         EAST,
         NORTH,
@@ -68,6 +66,18 @@ public class Tile implements RenderableMVP {
         this.shader = shader;
     }
     
+    /** Places the tile in the battlefield at the provided row-major index. */
+    final void attach(final Battlefield battlefield, final int index) {
+        this.battlefield = battlefield;
+        this.index = index;
+    }
+    
+    /** Removes the tile from its battlefield. */
+    final void detach() {
+        this.battlefield = null;
+        this.index = -1;
+    }
+    
     public synchronized void addEffect(final Object effect) {
         effects.add(effect);
     }
@@ -80,7 +90,12 @@ public class Tile implements RenderableMVP {
         effects.remove(effect);
     }
     
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     * 
+     * Only draws the surface. The battlefield draws its highlighted region in one batch, and
+     * then each tile's overlay with {@link #renderOverlay}.
+     */
     @Override
     public synchronized final void render(final MVP mvp) {
         // Render the underlying texture of the tile
@@ -88,35 +103,10 @@ public class Tile implements RenderableMVP {
         shader.setMVPMatrix(mvp.collapse());
         shader.setTexture(surfaceTexture);
         shader.draw();
-        
-        // If there is a tile highlight that needs to be rendered
-        //if (isAttackable || isMovable || isSelected) {
-        if (highlightTexture.isPresent()) {
-            // Transpose the texture if necessary
-            final float[] model = mvp.peekCopy(MVP.Type.MODEL);
-            Matrix.translateM(model, Constants.NO_OFFSET, 0.0f, 0.0f, 0.01f);
-
-            // Orient the texture
-            switch (highlightOrientation) {
-                case NORTH:
-                    Matrix.rotateM(model, Constants.NO_OFFSET, -90.0f, 0.0f, 0.0f, 1.0f);
-                    break;
-                case EAST:
-                    Matrix.rotateM(model, Constants.NO_OFFSET, -180.0f, 0.0f, 0.0f, 1.0f);
-                    break;
-                case SOUTH:
-                    Matrix.rotateM(model, Constants.NO_OFFSET, 90.0f, 0.0f, 0.0f, 1.0f);
-                    break;
-                case WEST:
-                    Matrix.rotateM(model, Constants.NO_OFFSET, 0.0f, 0.0f, 0.0f, 1.0f);
-                    break;
-            }
-            
-            shader.setMVPMatrix(mvp.collapseM(model));
-            shader.setTexture(highlightTexture.get());
-            shader.draw();
-        }
-        
+    }
+    
+    /** Renders the selection or team color drawn over the tile's highlight. */
+    synchronized final void renderOverlay(final MVP mvp) {
         // If the tile is selected
         if (isSelected) {
             final float[] model = mvp.peekCopy(MVP.Type.MODEL);
@@ -133,32 +123,70 @@ public class Tile implements RenderableMVP {
             shader.setTexture(mOccupant.getOwner().getTeamColorTexture());   
             shader.draw();
         }
-        
+    }
+    
+    /** Whether or not the tile draws anything over its highlight. */
+    synchronized final boolean hasOverlay() {
+        return isSelected || ((mOccupant != null) && (mOccupant.getOwner() != null));
     }
     
     private Vector<Effect>    mEffects = new Vector<Effect>();
-    private float             mElevation;
+    private volatile float    mElevation;
     private Unit              mOccupant = null;
     private int               mVbo = DrawUtils.getUnitSquarePtVbo();
     public static final float SIZE = 1.0f;
     
+    /**
+     * Height of the tile's surface, in tiles. Not synchronized, as the visibility reads it
+     * while the tile may be held by a thread waiting on the unit index.
+     */
+    public final float getElevation() { return mElevation; }
+    
     public Unit getOccupant() { return mOccupant; }
     
+    /** Texture displayed on the surface of the tile. */
+    public synchronized final int getSurfaceTexture() { return surfaceTexture; }
+    
     public boolean hasObstacle() { return obstacle.isPresent(); }
     
     public boolean hasOccupant() { return (mOccupant != null); }
     public final boolean isSelected() { return isSelected; }
 
-    public final void setHighlightOrientation(final HighlightOrientation highlightOrientation) { 
-        this.highlightOrientation = highlightOrientation; }
-    public synchronized void setHighlightTexture(final Optional<Integer> highlightTexture) {
-        this.highlightTexture = highlightTexture;
+    public final void setElevation(final float elevation) {
+        synchronized (this) {
+            mElevation = elevation;
+        }
+        
+        // Let the battlefield forget any line of sight over the tile
+        if (battlefield != null) {
+            battlefield.handleTerrainChange(index);
+        }
     }
     public final void setIsSelected(boolean isSelected) { this.isSelected = isSelected; }
     public synchronized final void setIsSelectedTexture(int isSelectedTexture) { 
         this.isSelectedTexture = Optional.<Integer>of(isSelectedTexture); }
-    public synchronized final void setOccupant(Unit unit) { mOccupant = unit; }
+    public final void setObstacle(final Optional<Obstacle> obstacle) {
+        synchronized (this) {
+            this.obstacle = obstacle;
+        }
+        
+        // Let the battlefield forget any line of sight through the tile
+        if (battlefield != null) {
+            battlefield.handleTerrainChange(index);
+        }
+    }
+    public final void setOccupant(Unit unit) {
+        // Notify while still holding the tile, so concurrent replacements reach the unit index
+        // in the same order they were applied to the tile
+        synchronized (this) {
+            final Unit previous = mOccupant;
+            mOccupant = unit;
+            
+            // Keep the battlefield's unit index up to date
+            if (battlefield != null) {
+                battlefield.handleOccupantChange(index, previous, unit);
+            }
+        }
+    }
     public synchronized final void setSurfaceTexture(final int surfaceTexture) { this.surfaceTexture = surfaceTexture; }
-    public final void setTransposeHighlight(boolean transposeHighlight) { 
-        this.transposeHighlight = transposeHighlight; }
 }
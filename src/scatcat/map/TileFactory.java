@@ -1,5 +1,8 @@
 package scatcat.map;
 
+import scatcat.graphics.shaders.SimpleTexturedShader;
+
+import com.google.common.base.Optional;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Key;
@@ -16,8 +19,16 @@ import com.sneaky.stratagem.graphics.textures.SingleTexturePack.SingleTexturePac
  * @author R. Matt McCann
  */
 public final class TileFactory {
+    /** Surface texture of grass tiles. Looked up with the first tile. */
+    private Optional<Integer> grassTexture = Optional.<Integer>absent();
+    
     private final Injector injector;
     
+    /** Selection overlay shared by every tile. Loaded with the first tile. */
+    private Optional<Integer> selectedTexture = Optional.<Integer>absent();
+    
+    private final SimpleTexturedShader shader;
+    
     private final SingleTexturePackFactory singleTexturePackFactory;
     
     private final TextureFactory textureFactory;
@@ -25,9 +36,11 @@ public final class TileFactory {
     /** Guice injection constructor. */
     @Inject
     protected TileFactory(final Injector injector,
+                          final SimpleTexturedShader shader,
                           final SingleTexturePackFactory singleTexturePackFactory,
                           final TextureFactory textureFactory) { 
         this.injector = injector;
+        this.shader = shader;
         this.singleTexturePackFactory = singleTexturePackFactory;
         this.textureFactory = textureFactory;
     }
@@ -64,12 +77,35 @@ public final class TileFactory {
         }
         texturePack.incrementRefCount();*/
         
-        Tile grass = injector.getInstance(Tile.class);
-        grass.setSurfaceTexture(injector.getInstance(Key.get(Integer.class, Names.named("GrassTileTexture"))));
-        grass.setIsSelectedTexture(textureFactory.loadTexture(R.drawable.overlays_selected));
+        // Tiles are built directly rather than through the injector, as generated and loaded
+        // maps may create a great many of them
+        Tile grass = new Tile(shader);
+        grass.setSurfaceTexture(getGrassTexture());
+        grass.setIsSelectedTexture(getSelectedTexture());
         return grass;
     }
     
+    /** Looks up the grass texture once rather than once per tile. */
+    private synchronized int getGrassTexture() {
+        if (!grassTexture.isPresent()) {
+            grassTexture = Optional.<Integer>of(injector.getInstance(Key.get(Integer.class, Names.named("GrassTileTexture"))));
+        }
+        
+        return grassTexture.get();
+    }
+    
+    /**
+     * Loads the selection overlay once rather than once per tile, as battlefields create
+     * their tiles lazily and may create a great many of them.
+     */
+    private synchronized int getSelectedTexture() {
+        if (!selectedTexture.isPresent()) {
+            selectedTexture = Optional.<Integer>of(textureFactory.loadTexture(R.drawable.overlays_selected));
+        }
+        
+        return selectedTexture.get();
+    }
+    
     /** Legal tile types. */
     public enum Type {
         GRASS
@@ -0,0 +1,18 @@
+package scatcat.map;
+
+/**
+ * Callback for the battlefield's spatial queries. Visitors are meant to be created once and
+ * reused, so a query does not allocate anything.
+ * 
+ * @author R. Matt McCann
+ */
+public interface TileVisitor {
+    /**
+     * Visits a tile that falls within the query's shape and passes its filter.
+     * 
+     * @param row Row of the tile.
+     * @param column Column of the tile.
+     * @param index Row-major index of the tile. See {@link Battlefield#indexOf(int, int)}.
+     */
+    void visit(final int row, final int column, final int index);
+}
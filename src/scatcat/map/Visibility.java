@@ -0,0 +1,247 @@
+package scatcat.map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.Arrays;
+
+/**
+ * Line of sight across the battlefield. A target is visible from a source when no tile strictly
+ * between them along the Bresenham line holds a wall or terrain obstacle, or rises above the
+ * sight line running from the source's elevation to the target's. Sight is symmetric.
+ *
+ * The lines to every target within {@link #MAX_CACHED_RANGE} are traced once, as offsets from
+ * the source, and each source's answers are cached one bit per line. When a tile's blockers or
+ * elevation change, only the lines of nearby sources that cross or end at the tile are
+ * forgotten, a word-level mask per source, so a cached query is O(1). Targets further out are
+ * traced on every query. The battlefield keeps the cache in step with its tiles.
+ *
+ * @author R. Matt McCann
+ */
+public final class Visibility {
+    /** Furthest row or column distance whose sight lines are cached. */
+    public static final int MAX_CACHED_RANGE = 8;
+
+    /** Number of rows and columns of targets around a source whose sight lines are cached. */
+    private static final int WINDOW_SIZE = 2 * MAX_CACHED_RANGE + 1;
+
+    /** Number of cached sight lines per source, one per tile of the window. */
+    private static final int NUM_LINES = WINDOW_SIZE * WINDOW_SIZE;
+
+    /** Number of bitboard words holding a bit per cached sight line. */
+    private static final int NUM_WORDS = OccupancyBitboard.wordsFor(NUM_LINES);
+
+    /** Lines that depend on each tile of the window, as they cross or end on it. By slot. */
+    private static final long[][] DEPENDENTS = new long[NUM_LINES][NUM_WORDS];
+
+    /** Column offsets of the tiles strictly between the source and the target. By slot. */
+    private static final int[][] LINE_COLUMNS = new int[NUM_LINES][];
+
+    /** Row offsets of the tiles strictly between the source and the target. By slot. */
+    private static final int[][] LINE_ROWS = new int[NUM_LINES][];
+
+    static {
+        for (int rowIter = -MAX_CACHED_RANGE; rowIter <= MAX_CACHED_RANGE; rowIter++) {
+            for (int colIter = -MAX_CACHED_RANGE; colIter <= MAX_CACHED_RANGE; colIter++) {
+                final int line = slotOf(rowIter, colIter);
+                final int numBetween = Math.max(Math.max(Math.abs(rowIter), Math.abs(colIter)) - 1, 0);
+
+                LINE_ROWS[line] = new int[numBetween];
+                LINE_COLUMNS[line] = new int[numBetween];
+                traceLine(rowIter, colIter, LINE_ROWS[line], LINE_COLUMNS[line]);
+
+                // The line depends on the tiles it crosses and the target's elevation
+                for (int tileIter = 0; tileIter < numBetween; tileIter++) {
+                    OccupancyBitboard.set(DEPENDENTS[slotOf(LINE_ROWS[line][tileIter],
+                            LINE_COLUMNS[line][tileIter])], line);
+                }
+                OccupancyBitboard.set(DEPENDENTS[line], line);
+            }
+        }
+
+        // Every line depends on the source's elevation
+        Arrays.fill(DEPENDENTS[slotOf(0, 0)], -1L);
+    }
+
+    private final Battlefield battlefield;
+
+    /** Cached sight lines of each source tile, by row-major index. Null until queried. */
+    private CachedSight[] cache = new CachedSight[0];
+
+    /** Number of columns of tiles. */
+    private int numColumns = 0;
+
+    /** Number of rows of tiles. */
+    private int numRows = 0;
+
+    /** Scratch offsets for tracing lines too long to cache. */
+    private int[] scratchColumns = new int[0];
+    private int[] scratchRows = new int[0];
+
+    /** Package-private as the battlefield owns its visibility. */
+    Visibility(final Battlefield battlefield) {
+        this.battlefield = battlefield;
+    }
+
+    /**
+     * Whether or not the target tile can be seen from the source tile.
+     *
+     * @param fromRow Row of the source. Must be on the battlefield.
+     * @param fromColumn Column of the source. Must be on the battlefield.
+     * @param toRow Row of the target. Must be on the battlefield.
+     * @param toColumn Column of the target. Must be on the battlefield.
+     */
+    public synchronized boolean isVisible(final int fromRow, final int fromColumn,
+                                          final int toRow, final int toColumn) {
+        checkArgument(isInside(fromRow, fromColumn), "Source must be on the battlefield!");
+        checkArgument(isInside(toRow, toColumn), "Target must be on the battlefield!");
+
+        final int rowOffset = toRow - fromRow;
+        final int columnOffset = toColumn - fromColumn;
+
+        // If the target is too far out to be cached, trace the line from scratch
+        if ((Math.abs(rowOffset) > MAX_CACHED_RANGE) || (Math.abs(columnOffset) > MAX_CACHED_RANGE)) {
+            final int numBetween = Math.max(Math.abs(rowOffset), Math.abs(columnOffset)) - 1;
+            if (scratchRows.length < numBetween) {
+                scratchRows = new int[numBetween];
+                scratchColumns = new int[numBetween];
+            }
+            traceLine(rowOffset, columnOffset, scratchRows, scratchColumns);
+
+            return isClear(fromRow, fromColumn, toRow, toColumn, scratchRows, scratchColumns, numBetween);
+        }
+
+        final int source = fromRow * numColumns + fromColumn;
+        CachedSight sight = cache[source];
+        if (sight == null) {
+            sight = new CachedSight();
+            cache[source] = sight;
+        }
+
+        final int line = slotOf(rowOffset, columnOffset);
+        if (!OccupancyBitboard.test(sight.known, line)) {
+            OccupancyBitboard.set(sight.known, line);
+            if (isClear(fromRow, fromColumn, toRow, toColumn, LINE_ROWS[line], LINE_COLUMNS[line],
+                    LINE_ROWS[line].length)) {
+                OccupancyBitboard.set(sight.visible, line);
+            } else {
+                OccupancyBitboard.clear(sight.visible, line);
+            }
+        }
+
+        return OccupancyBitboard.test(sight.visible, line);
+    }
+
+    /**
+     * Forgets the cached lines that cross or end on the tile at the index. Called whenever
+     * the tile's blockers or elevation change.
+     */
+    synchronized void handleChange(final int index) {
+        if ((index < 0) || (index >= cache.length)) { return; }
+
+        final int row = index / numColumns;
+        final int column = index % numColumns;
+        final int lastRow = Math.min(row + MAX_CACHED_RANGE, numRows - 1);
+        final int lastColumn = Math.min(column + MAX_CACHED_RANGE, numColumns - 1);
+        for (int rowIter = Math.max(row - MAX_CACHED_RANGE, 0); rowIter <= lastRow; rowIter++) {
+            for (int colIter = Math.max(column - MAX_CACHED_RANGE, 0); colIter <= lastColumn; colIter++) {
+                final CachedSight sight = cache[rowIter * numColumns + colIter];
+                if (sight != null) {
+                    OccupancyBitboard.andNot(sight.known, DEPENDENTS[slotOf(row - rowIter, column - colIter)]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Whether or not the answer for the line from the source to the target is cached. Lets
+     * the tests check that a change forgets exactly the lines it should.
+     */
+    synchronized boolean isCached(final int fromRow, final int fromColumn, final int toRow, final int toColumn) {
+        final int rowOffset = toRow - fromRow;
+        final int columnOffset = toColumn - fromColumn;
+        if ((Math.abs(rowOffset) > MAX_CACHED_RANGE) || (Math.abs(columnOffset) > MAX_CACHED_RANGE)) {
+            return false;
+        }
+
+        final CachedSight sight = cache[fromRow * numColumns + fromColumn];
+
+        return (sight != null) && OccupancyBitboard.test(sight.known, slotOf(rowOffset, columnOffset));
+    }
+
+    /** Clears the cache and resizes it to the provided dimensions. */
+    synchronized void reset(final int numRows, final int numColumns) {
+        this.numRows = numRows;
+        this.numColumns = numColumns;
+        cache = new CachedSight[numRows * numColumns];
+    }
+
+    /** Whether or not nothing between the source and target blocks the line between them. */
+    private boolean isClear(final int fromRow, final int fromColumn, final int toRow, final int toColumn,
+                            final int[] rowOffsets, final int[] columnOffsets, final int numBetween) {
+        final OccupancyBitboard occupancy = battlefield.getOccupancy();
+        final float fromElevation = battlefield.getElevation(fromRow, fromColumn);
+        final float rise = battlefield.getElevation(toRow, toColumn) - fromElevation;
+        final int numSteps = numBetween + 1;
+
+        for (int tileIter = 0; tileIter < numBetween; tileIter++) {
+            final int row = fromRow + rowOffsets[tileIter];
+            final int column = fromColumn + columnOffsets[tileIter];
+
+            // If a wall or the terrain is in the way, the line is blocked
+            if (occupancy.isObstacle(row * numColumns + column) || battlefield.hasTerrainObstacle(row, column)) {
+                return false;
+            }
+
+            // If the tile rises above the sight line, the line is blocked. One tile per step.
+            final float lineElevation = fromElevation + rise * (tileIter + 1) / numSteps;
+            if (battlefield.getElevation(row, column) > lineElevation) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean isInside(final int row, final int column) {
+        return (row >= 0) && (row < numRows) && (column >= 0) && (column < numColumns);
+    }
+
+    /**
+     * Divides by the positive divisor, rounding halves up. As sources sit on whole tiles, the
+     * line back from the target then crosses the same tiles, which keeps sight symmetric.
+     */
+    private static int roundedQuotient(final int dividend, final int divisor) {
+        final int numerator = 2 * dividend + divisor;
+        final int denominator = 2 * divisor;
+
+        // Round towards negative infinity, which integer division doesn't for negatives
+        return (numerator >= 0) ? numerator / denominator : -((-numerator + denominator - 1) / denominator);
+    }
+
+    /** Slot of the offset within a source's window. */
+    private static int slotOf(final int rowOffset, final int columnOffset) {
+        return (rowOffset + MAX_CACHED_RANGE) * WINDOW_SIZE + (columnOffset + MAX_CACHED_RANGE);
+    }
+
+    /**
+     * Writes the offsets of the tiles strictly between a source and the target at the offset,
+     * one per step along the longer axis.
+     */
+    private static void traceLine(final int rowOffset, final int columnOffset,
+                                  final int[] rowOffsets, final int[] columnOffsets) {
+        final int numSteps = Math.max(Math.abs(rowOffset), Math.abs(columnOffset));
+        for (int stepIter = 1; stepIter < numSteps; stepIter++) {
+            rowOffsets[stepIter - 1] = roundedQuotient(rowOffset * stepIter, numSteps);
+            columnOffsets[stepIter - 1] = roundedQuotient(columnOffset * stepIter, numSteps);
+        }
+    }
+
+    /** Sight lines of one source, as bits by slot. */
+    private static final class CachedSight {
+        /** Lines whose answer is cached. */
+        private final long[] known = new long[NUM_WORDS];
+
+        /** Lines that were clear when cached. */
+        private final long[] visible = new long[NUM_WORDS];
+    }
+}
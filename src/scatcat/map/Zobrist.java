@@ -0,0 +1,78 @@
+package scatcat.map;
+
+/**
+ * Keys for Zobrist hashing of the match state. A position's hash is the XOR of one key per
+ * feature present, so a change to a single feature updates the hash in O(1) by XORing the
+ * old feature's key out and the new one in.
+ * 
+ * Rather than storing tables of random keys, which would be huge for large battlefields,
+ * each key is derived by running the feature's coordinates through the SplitMix64 finalizer.
+ * Keys are therefore identical across runs, so hashes can be compared between processes.
+ * 
+ * @author R. Matt McCann
+ */
+public final class Zobrist {
+    /** Hidden constructor. This is a utility class. */
+    private Zobrist() { }
+    
+    /** Feature: remaining action points of the current player. */
+    public static final int ACTION_POINTS = 1;
+    
+    /** Feature: a unit's discretized charge points. */
+    public static final int CHARGE = 2;
+    
+    /** Feature: play position of the player whose turn it is. */
+    public static final int CURRENT_PLAYER = 3;
+    
+    /** Feature: a unit's discretized health. */
+    public static final int HEALTH = 4;
+    
+    /** Feature: play position of a unit's owner. */
+    public static final int OWNER = 5;
+    
+    /** Feature: the current round. */
+    public static final int ROUND = 6;
+    
+    /** Feature: the tile a unit stands on. */
+    public static final int TILE = 7;
+    
+    /** Feature: the kind of unit. */
+    public static final int TYPE = 8;
+    
+    /** Hash of a position with no features at all. */
+    public static final long EMPTY = 0L;
+    
+    /** Discretizes a health or charge value so tiny float drift doesn't change the hash. */
+    public static int discretize(final float value) {
+        return Math.round(value);
+    }
+    
+    /**
+     * Key for the feature taking the provided value.
+     * 
+     * @param feature One of the feature constants.
+     * @param value Value of the feature.
+     */
+    public static long key(final int feature, final int value) {
+        return mix(((long) feature << 32) | (value & 0xFFFFFFFFL));
+    }
+    
+    /** SplitMix64 finalizer. Spreads every input bit across the whole output. */
+    public static long mix(final long input) {
+        long mixed = input + 0x9E3779B97F4A7C15L;
+        mixed = (mixed ^ (mixed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        mixed = (mixed ^ (mixed >>> 27)) * 0x94D049BB133111EBL;
+        return mixed ^ (mixed >>> 31);
+    }
+    
+    /**
+     * Key for a unit standing on a tile. Mixing the unit's key with the tile's keeps units
+     * on different tiles from cancelling each other out.
+     * 
+     * @param index Row-major index of the tile.
+     * @param unitKey Position independent key of the unit. See {@link #key(int, int)}.
+     */
+    public static long tileKey(final int index, final long unitKey) {
+        return mix(unitKey ^ key(TILE, index));
+    }
+}
@@ -0,0 +1,154 @@
+package com.sneaky.stratagem.actions.threats;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.TestCase;
+import scatcat.general.points.GridPoint2D;
+import scatcat.map.HighlightRegion;
+
+/**
+ * Covers the hand off of a threat from the threat worker to the taps judged against it.
+ *
+ * @author R. Matt McCann
+ */
+public class PublishedThreatTest extends TestCase {
+    /** How long a tap is given to return when it shouldn't be held. */
+    private static final long RELEASE_TIMEOUT_MS = 5000;
+
+    /** How long a held tap is watched to make sure it stays held. */
+    private static final long HOLD_MS = 200;
+
+    private PublishedThreat threat;
+
+    @Override
+    protected void setUp() {
+        threat = new PublishedThreat();
+    }
+
+    /** Checks the tile from another thread, as the input thread would. */
+    private static final class Tap extends Thread {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicBoolean isThreatened = new AtomicBoolean();
+        private final int row;
+        private final int column;
+        private final PublishedThreat threat;
+
+        Tap(final PublishedThreat threat, final int row, final int column) {
+            this.threat = threat;
+            this.row = row;
+            this.column = column;
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            try {
+                isThreatened.set(threat.isThreatened(row, column));
+            } catch (InterruptedException e) {
+                isThreatened.set(false);
+            }
+            done.countDown();
+        }
+    }
+
+    private static Set<GridPoint2D> tiles(final GridPoint2D... points) {
+        final Set<GridPoint2D> tiles = new HashSet<GridPoint2D>();
+        for (GridPoint2D point : points) {
+            tiles.add(point);
+        }
+
+        return tiles;
+    }
+
+    public void testNothingIsThreatenedBeforeTheFirstThreat() throws InterruptedException {
+        assertFalse(threat.isThreatened(0, 0));
+    }
+
+    public void testPublishedTilesAreThreatened() throws InterruptedException {
+        final int ticket = threat.begin();
+
+        assertTrue(threat.publish(ticket, 4, 5, tiles(GridPoint2D.of(3, 4), GridPoint2D.of(9, 9)),
+                HighlightRegion.EMPTY));
+        assertTrue(threat.isThreatened(3, 4));
+        assertFalse(threat.isThreatened(4, 3));
+        assertFalse(threat.isThreatened(9, 9));
+        assertFalse(threat.isThreatened(-1, 0));
+    }
+
+    /** A tap made while the threat is still being computed must not be judged against the previous one. */
+    public void testTapBeforePublishIsHeldUntilPublished() throws InterruptedException {
+        final int first = threat.begin();
+        assertTrue(threat.publish(first, 4, 4, tiles(GridPoint2D.of(0, 0)), HighlightRegion.EMPTY));
+
+        // Reapply the threat, so the previous tiles are stale until the worker publishes
+        final int second = threat.begin();
+        final Tap tap = new Tap(threat, 2, 2);
+        tap.start();
+        assertFalse(tap.done.await(HOLD_MS, TimeUnit.MILLISECONDS));
+
+        assertTrue(threat.publish(second, 4, 4, tiles(GridPoint2D.of(2, 2)), HighlightRegion.EMPTY));
+        assertTrue(tap.done.await(RELEASE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertTrue(tap.isThreatened.get());
+        assertFalse(threat.isThreatened(0, 0));
+    }
+
+    public void testSupersededPublishIsDropped() throws InterruptedException {
+        final int stale = threat.begin();
+        final int latest = threat.begin();
+
+        assertFalse(threat.publish(stale, 4, 4, tiles(GridPoint2D.of(1, 1)), HighlightRegion.EMPTY));
+        assertTrue(threat.publish(latest, 4, 4, tiles(GridPoint2D.of(2, 2)), HighlightRegion.EMPTY));
+        assertFalse(threat.isThreatened(1, 1));
+        assertTrue(threat.isThreatened(2, 2));
+    }
+
+    public void testRetractReleasesHeldTapAsMiss() throws InterruptedException {
+        final int ticket = threat.begin();
+        final Tap tap = new Tap(threat, 1, 1);
+        tap.start();
+        assertFalse(tap.done.await(HOLD_MS, TimeUnit.MILLISECONDS));
+
+        threat.retract();
+        assertTrue(tap.done.await(RELEASE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertFalse(tap.isThreatened.get());
+
+        // The computation that was running when the threat was cleaned up can't bring it back
+        assertFalse(threat.publish(ticket, 4, 4, tiles(GridPoint2D.of(1, 1)), HighlightRegion.EMPTY));
+        assertFalse(threat.isThreatened(1, 1));
+    }
+
+    public void testRetractHandsBackPublishedHighlights() {
+        final HighlightRegion region = HighlightRegion.builder().build();
+        final int ticket = threat.begin();
+        assertTrue(threat.publish(ticket, 4, 4, tiles(), region));
+
+        assertSame(region, threat.retract());
+        assertSame(HighlightRegion.EMPTY, threat.retract());
+    }
+
+    public void testAbandonReleasesHeldTapAsMiss() throws InterruptedException {
+        final int first = threat.begin();
+        assertTrue(threat.publish(first, 4, 4, tiles(GridPoint2D.of(1, 1)), HighlightRegion.EMPTY));
+
+        final int second = threat.begin();
+        final Tap tap = new Tap(threat, 1, 1);
+        tap.start();
+        assertFalse(tap.done.await(HOLD_MS, TimeUnit.MILLISECONDS));
+
+        threat.abandon(second);
+        assertTrue(tap.done.await(RELEASE_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+        assertFalse(tap.isThreatened.get());
+    }
+
+    public void testAbandonAfterPublishKeepsThreat() throws InterruptedException {
+        final int ticket = threat.begin();
+        assertTrue(threat.publish(ticket, 4, 4, tiles(GridPoint2D.of(1, 1)), HighlightRegion.EMPTY));
+
+        threat.abandon(ticket);
+        assertTrue(threat.isThreatened(1, 1));
+    }
+}
@@ -0,0 +1,128 @@
+package com.sneaky.stratagem.actions.threats;
+
+import scatcat.general.Microbenchmark;
+
+/**
+ * Compares walking each kind of threat shape with the nested loops the patterns used to run
+ * against iterating the cached {@link ThreatShape} offsets. Each run centers the shape on every
+ * tile of a battlefield and sums the indices of the tiles that land on it, which is the work
+ * the patterns do before filtering on occupancy.
+ *
+ * Not run as part of the tests. Run its main on a desktop JVM, see {@link Microbenchmark}.
+ *
+ * @author R. Matt McCann
+ */
+public final class ThreatShapeBenchmark {
+    /** Rows and columns of the battlefield the shapes are centered on. */
+    private static final int BATTLEFIELD_SIZE = 16;
+
+    /** Range of every shape. */
+    private static final int RANGE = 5;
+
+    /** Hidden constructor. This is a benchmark. */
+    private ThreatShapeBenchmark() { }
+
+    /** Index of the tile, or 0 if it is off the battlefield. */
+    private static int indexOf(final int row, final int column) {
+        if ((row < 0) || (row >= BATTLEFIELD_SIZE) || (column < 0) || (column >= BATTLEFIELD_SIZE)) {
+            return 0;
+        }
+
+        return row * BATTLEFIELD_SIZE + column;
+    }
+
+    /** Centers the cached shape on every tile. */
+    private static Microbenchmark.Task cached(final ThreatShape.Kind kind) {
+        return new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                final ThreatShape shape = ThreatShape.of(kind, RANGE);
+
+                long sum = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        for (int tileIter = 0; tileIter < shape.size(); tileIter++) {
+                            sum += indexOf(row + shape.getRowOffset(tileIter),
+                                    column + shape.getColumnOffset(tileIter));
+                        }
+                    }
+                }
+
+                return sum;
+            }
+        };
+    }
+
+    private static int numOps(final ThreatShape.Kind kind) {
+        return BATTLEFIELD_SIZE * BATTLEFIELD_SIZE * ThreatShape.of(kind, RANGE).size();
+    }
+
+    public static void main(final String[] args) {
+        Microbenchmark.measure("DIAMOND on the fly", numOps(ThreatShape.Kind.DIAMOND), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                long sum = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        for (int rowIter = -RANGE; rowIter <= RANGE; rowIter++) {
+                            final int span = RANGE - Math.abs(rowIter);
+                            for (int colIter = -span; colIter <= span; colIter++) {
+                                sum += indexOf(row + rowIter, column + colIter);
+                            }
+                        }
+                    }
+                }
+
+                return sum;
+            }
+        });
+        Microbenchmark.measure("DIAMOND cached", numOps(ThreatShape.Kind.DIAMOND), cached(ThreatShape.Kind.DIAMOND));
+
+        Microbenchmark.measure("LINE on the fly", numOps(ThreatShape.Kind.LINE), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                long sum = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        for (int colIter = -RANGE; colIter <= RANGE; colIter++) {
+                            if (colIter == 0) { continue; }
+
+                            sum += indexOf(row, column + colIter);
+                        }
+                        for (int rowIter = -RANGE; rowIter < RANGE; rowIter++) {
+                            if (rowIter == 0) { continue; }
+
+                            sum += indexOf(row + rowIter, column);
+                        }
+                    }
+                }
+
+                return sum;
+            }
+        });
+        Microbenchmark.measure("LINE cached", numOps(ThreatShape.Kind.LINE), cached(ThreatShape.Kind.LINE));
+
+        Microbenchmark.measure("RAYS on the fly", numOps(ThreatShape.Kind.RAYS), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                final int[] rowSteps = {1, -1, 0, 0};
+                final int[] columnSteps = {0, 0, 1, -1};
+
+                long sum = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        for (int rayIter = 0; rayIter < rowSteps.length; rayIter++) {
+                            for (int stepIter = 1; stepIter <= RANGE; stepIter++) {
+                                sum += indexOf(row + rowSteps[rayIter] * stepIter,
+                                        column + columnSteps[rayIter] * stepIter);
+                            }
+                        }
+                    }
+                }
+
+                return sum;
+            }
+        });
+        Microbenchmark.measure("RAYS cached", numOps(ThreatShape.Kind.RAYS), cached(ThreatShape.Kind.RAYS));
+    }
+}
@@ -0,0 +1,137 @@
+package com.sneaky.stratagem.actions.threats;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import scatcat.general.points.GridPoint2D;
+
+/**
+ * Checks the cached shapes against the loops the threat patterns walked before the shapes
+ * were cached, so the patterns threaten exactly the tiles they used to.
+ *
+ * @author R. Matt McCann
+ */
+public class ThreatShapeTest extends TestCase {
+    /** Largest range checked. Covers every range the units use, and then some. */
+    private static final int MAX_RANGE = 12;
+
+    /** Offsets of the shape, in order. */
+    private static List<GridPoint2D> offsetsOf(final ThreatShape shape) {
+        final List<GridPoint2D> offsets = new ArrayList<GridPoint2D>();
+        for (int tileIter = 0; tileIter < shape.size(); tileIter++) {
+            offsets.add(GridPoint2D.of(shape.getRowOffset(tileIter), shape.getColumnOffset(tileIter)));
+        }
+
+        return offsets;
+    }
+
+    /** Tiles the battlefield's diamond visitor walked, row by row, ignoring the edges. */
+    private static List<GridPoint2D> legacyDiamond(final int radius) {
+        final List<GridPoint2D> offsets = new ArrayList<GridPoint2D>();
+        for (int rowIter = -radius; rowIter <= radius; rowIter++) {
+            final int span = radius - Math.abs(rowIter);
+            for (int colIter = -span; colIter <= span; colIter++) {
+                offsets.add(GridPoint2D.of(rowIter, colIter));
+            }
+        }
+
+        return offsets;
+    }
+
+    /** Tiles the linear attack threatened, the actor's own tile left out. */
+    private static Set<GridPoint2D> legacyLine(final int range) {
+        final GridPoint2D selectedTile = GridPoint2D.of(0, 0);
+        final Set<GridPoint2D> tilesInRange = new HashSet<GridPoint2D>();
+
+        for (int colIter = -range; colIter <= range; colIter++) {
+            tilesInRange.add(selectedTile.add(0, colIter));
+        }
+        for (int rowIter = -range; rowIter < range; rowIter++) {
+            if (rowIter == 0) { continue; }
+
+            tilesInRange.add(selectedTile.add(rowIter, 0));
+        }
+        tilesInRange.remove(selectedTile);
+
+        return tilesInRange;
+    }
+
+    /** Tiles the linear charge walked, ray by ray, ignoring blockers. */
+    private static List<GridPoint2D> legacyRays(final int range) {
+        final List<GridPoint2D> offsets = new ArrayList<GridPoint2D>();
+        for (int rowIter = 1; rowIter <= range; rowIter++) {
+            offsets.add(GridPoint2D.of(rowIter, 0));
+        }
+        for (int rowIter = -1; rowIter >= -range; rowIter--) {
+            offsets.add(GridPoint2D.of(rowIter, 0));
+        }
+        for (int colIter = 1; colIter <= range; colIter++) {
+            offsets.add(GridPoint2D.of(0, colIter));
+        }
+        for (int colIter = -1; colIter >= -range; colIter--) {
+            offsets.add(GridPoint2D.of(0, colIter));
+        }
+
+        return offsets;
+    }
+
+    public void testDiamondMatchesLegacyWalk() {
+        for (int range = 0; range <= MAX_RANGE; range++) {
+            final ThreatShape shape = ThreatShape.of(ThreatShape.Kind.DIAMOND, range);
+
+            assertEquals(2 * range * (range + 1) + 1, shape.size());
+            assertEquals(legacyDiamond(range), offsetsOf(shape));
+        }
+    }
+
+    public void testLineMatchesLegacyTiles() {
+        for (int range = 0; range <= MAX_RANGE; range++) {
+            final ThreatShape shape = ThreatShape.of(ThreatShape.Kind.LINE, range);
+            final List<GridPoint2D> offsets = offsetsOf(shape);
+
+            assertEquals(Math.max(4 * range - 1, 0), shape.size());
+            assertEquals(offsets.size(), new HashSet<GridPoint2D>(offsets).size());
+            assertEquals(legacyLine(range), new HashSet<GridPoint2D>(offsets));
+        }
+    }
+
+    public void testRaysMatchLegacyWalk() {
+        for (int range = 0; range <= MAX_RANGE; range++) {
+            final ThreatShape shape = ThreatShape.of(ThreatShape.Kind.RAYS, range);
+
+            assertEquals(4 * range, shape.size());
+            assertEquals(legacyRays(range), offsetsOf(shape));
+        }
+    }
+
+    public void testShapesAreCached() {
+        for (ThreatShape.Kind kind : ThreatShape.Kind.values()) {
+            final ThreatShape shape = ThreatShape.of(kind, 3);
+
+            // Growing the cache for a longer range must keep the shapes already handed out
+            ThreatShape.of(kind, MAX_RANGE * 4);
+            assertSame(shape, ThreatShape.of(kind, 3));
+        }
+        assertNotSame(ThreatShape.of(ThreatShape.Kind.DIAMOND, 2), ThreatShape.of(ThreatShape.Kind.DIAMOND, 3));
+        assertNotSame(ThreatShape.of(ThreatShape.Kind.LINE, 2), ThreatShape.of(ThreatShape.Kind.RAYS, 2));
+    }
+
+    public void testRejectsBadArguments() {
+        try {
+            ThreatShape.of(null, 1);
+            fail("Null kind was accepted!");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+
+        try {
+            ThreatShape.of(ThreatShape.Kind.DIAMOND, -1);
+            fail("Negative range was accepted!");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
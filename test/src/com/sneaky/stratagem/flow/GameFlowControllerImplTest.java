@@ -0,0 +1,128 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.concurrent.TimeUnit;
+
+import android.content.Context;
+import android.opengl.GLSurfaceView;
+import android.test.InstrumentationTestCase;
+
+/**
+ * Covers the pacing of the game loop, driven by a {@link ManualClock} so each pass sees
+ * exactly the time the test hands it.
+ *
+ * @author R. Matt McCann
+ */
+public class GameFlowControllerImplTest extends InstrumentationTestCase {
+    /** Tick period of the controller, at 50 ticks per second. */
+    private static final long TICK = TimeUnit.SECONDS.toNanos(1) / 50;
+
+    /** Most ticks the controller runs back to back before rendering. */
+    private static final int MAX_SKIPPED_RENDERS = 20;
+
+    /** Slack allowed on interpolation alphas. */
+    private static final float EPSILON = 1e-4f;
+
+    private ManualClock clock;
+
+    private GameFlowControllerImpl controller;
+
+    /** Number of times the object has been updated. */
+    private int numUpdates;
+
+    private UpdateProfiler profiler;
+
+    /** View that counts the frames requested of it rather than drawing them. */
+    private CountingView view;
+
+    private static final class CountingView extends GLSurfaceView {
+        int numFrames = 0;
+
+        CountingView(final Context context) { super(context); }
+
+        @Override
+        public void requestRender() { numFrames++; }
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+
+        // Views must be created on the main thread
+        getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                view = new CountingView(getInstrumentation().getTargetContext());
+            }
+        });
+
+        clock = new ManualClock(0);
+        profiler = new UpdateProfiler(clock);
+        profiler.setEnabled(true);
+        controller = new GameFlowControllerImpl(view, clock, new UpdateWorkers(profiler, 0), profiler);
+        controller.addUpdatable(new Updatable() {
+            @Override
+            public void updateState(final int updatesPerSecond) {
+                numUpdates++;
+            }
+        });
+        controller.resetTimekeeping(clock.nanoTime());
+    }
+
+    public void testRunsOneTickPerPeriod() {
+        clock.advance(TICK);
+        assertEquals(1, controller.pass());
+
+        clock.advance(TICK / 2);
+        assertEquals(0, controller.pass());
+
+        clock.advance(TICK / 2);
+        assertEquals(1, controller.pass());
+
+        assertEquals(2, numUpdates);
+        assertEquals(3, view.numFrames);
+        assertEquals(0, profiler.getSkippedRenders());
+        assertEquals(0, profiler.getDroppedTicks());
+    }
+
+    public void testCatchesUpOnMissedTicks() {
+        clock.advance(5 * TICK + TICK / 4);
+        assertEquals(5, controller.pass());
+
+        assertEquals(5, numUpdates);
+        assertEquals(1, view.numFrames);
+        assertEquals(4, profiler.getSkippedRenders());
+        assertEquals(0, profiler.getDroppedTicks());
+    }
+
+    public void testDropsBacklogPastMaxSkippedRenders() {
+        clock.advance(25 * TICK + TICK / 2);
+        assertEquals(MAX_SKIPPED_RENDERS, controller.pass());
+
+        assertEquals(MAX_SKIPPED_RENDERS, numUpdates);
+        assertEquals(MAX_SKIPPED_RENDERS - 1, profiler.getSkippedRenders());
+        assertEquals(5, profiler.getDroppedTicks());
+
+        // Only the part of a tick left over is carried, not the dropped backlog
+        assertEquals(0.5f, controller.getInterpolation(), EPSILON);
+        clock.advance(TICK / 2);
+        assertEquals(1, controller.pass());
+        assertEquals(5, profiler.getDroppedTicks());
+    }
+
+    public void testInterpolatesBetweenTicks() {
+        assertEquals(0.0f, controller.getInterpolation(), EPSILON);
+
+        clock.advance(TICK + TICK / 4);
+        assertEquals(1, controller.pass());
+        assertEquals(0.25f, controller.getInterpolation(), EPSILON);
+
+        // The alpha keeps moving with the clock between passes
+        clock.advance(TICK / 2);
+        assertEquals(0.75f, controller.beginFrame(), EPSILON);
+        assertEquals(0.75f, controller.getFrameAlpha(), EPSILON);
+
+        // Never extrapolates past the next tick
+        clock.advance(2 * TICK);
+        assertEquals(1.0f, controller.getInterpolation(), EPSILON);
+    }
+}
@@ -0,0 +1,235 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+/**
+ * Covers the registration of updatables: requests made from any thread are applied between
+ * ticks, additions before removals, and each phase updates its objects in the order they
+ * were added.
+ *
+ * @author R. Matt McCann
+ */
+public class GameFlowControllerTest extends TestCase {
+    private static final int TICKS_PER_SECOND = 50;
+
+    private ManualClock clock;
+
+    private TestController controller;
+
+    /** Names of the objects updated, in the order they were updated. */
+    private final List<String> updated = Collections.synchronizedList(new ArrayList<String>());
+
+    /** Controller driven by hand, one tick at a time. */
+    private static final class TestController extends GameFlowController {
+        TestController(final UpdateWorkers workers, final UpdateProfiler profiler) {
+            // Ticks never render, so no view is needed
+            super(null, workers, profiler);
+        }
+
+        @Override
+        protected float getInterpolation() { return 0.0f; }
+
+        @Override
+        public void run() { }
+    }
+
+    /** Object that records its name each time it's updated. */
+    private class Named implements Updatable {
+        private final String name;
+
+        Named(final String name) { this.name = name; }
+
+        @Override
+        public void updateState(final int updatesPerSecond) {
+            updated.add(name);
+        }
+    }
+
+    private class NamedIndependent extends Named implements IndependentUpdatable {
+        NamedIndependent(final String name) { super(name); }
+    }
+
+    @Override
+    protected void setUp() {
+        clock = new ManualClock(0);
+        final UpdateProfiler profiler = new UpdateProfiler(clock);
+        controller = new TestController(new UpdateWorkers(profiler, 0), profiler);
+    }
+
+    /** Runs a tick, returning the names of the objects updated by it. */
+    private List<String> tick() {
+        updated.clear();
+        controller.tick(clock, TICKS_PER_SECOND);
+
+        return new ArrayList<String>(updated);
+    }
+
+    private static List<String> names(final String... names) {
+        final List<String> list = new ArrayList<String>();
+        Collections.addAll(list, names);
+
+        return list;
+    }
+
+    public void testAddsApplyFromNextTick() {
+        final Named first = new Named("first");
+        controller.addUpdatable(first);
+        assertTrue(updated.isEmpty());
+
+        assertEquals(names("first"), tick());
+        assertEquals(names("first"), tick());
+    }
+
+    public void testUpdatesInOrderAddedAndByPhase() {
+        controller.addUpdatable(new Named("ui"), UpdatePhase.UI);
+        controller.addUpdatable(new Named("first"));
+        controller.addUpdatable(new Named("input"), UpdatePhase.INPUT);
+        controller.addUpdatable(new Named("second"));
+        controller.addUpdatable(new Named("animation"), UpdatePhase.ANIMATION);
+        controller.addUpdatable(new Named("third"));
+
+        assertEquals(names("input", "first", "second", "third", "animation", "ui"), tick());
+    }
+
+    public void testSequentialUpdateBeforeIndependent() {
+        controller.addUpdatable(new NamedIndependent("independent"));
+        controller.addUpdatable(new Named("sequential"));
+
+        assertEquals(names("sequential", "independent"), tick());
+    }
+
+    public void testAddedThenRemovedBeforeTickIsNeverUpdated() {
+        final Named kept = new Named("kept");
+        final Named dropped = new Named("dropped");
+        controller.addUpdatable(kept);
+        controller.addUpdatable(dropped);
+        controller.removeUpdatable(dropped);
+
+        assertEquals(names("kept"), tick());
+    }
+
+    /** Additions are applied before removals, whichever was requested first. */
+    public void testRemovedThenAddedBeforeTickEndsRemoved() {
+        final Named named = new Named("named");
+        controller.addUpdatable(named);
+        assertEquals(names("named"), tick());
+
+        controller.removeUpdatable(named);
+        controller.addUpdatable(named);
+        assertTrue(tick().isEmpty());
+    }
+
+    public void testDuplicateAddsUpdateOnce() {
+        final Named named = new Named("named");
+        controller.addUpdatable(named);
+        controller.addUpdatable(named);
+        assertEquals(names("named"), tick());
+
+        // Already updated objects stay in their phase
+        controller.addUpdatable(named, UpdatePhase.UI);
+        controller.addUpdatable(new Named("input"), UpdatePhase.INPUT);
+        assertEquals(names("input", "named"), tick());
+    }
+
+    public void testRemovalKeepsOthersInOrder() {
+        final Named first = new Named("first");
+        final Named second = new Named("second");
+        final NamedIndependent third = new NamedIndependent("third");
+        final NamedIndependent fourth = new NamedIndependent("fourth");
+        controller.addUpdatable(first);
+        controller.addUpdatable(second);
+        controller.addUpdatable(third);
+        controller.addUpdatable(fourth);
+        assertEquals(names("first", "second", "third", "fourth"), tick());
+
+        controller.removeUpdatable(first);
+        controller.removeUpdatable(third);
+        assertEquals(names("second", "fourth"), tick());
+
+        // Removing what isn't updated does nothing
+        controller.removeUpdatable(first);
+        controller.removeUpdatable(new Named("stranger"));
+        assertEquals(names("second", "fourth"), tick());
+
+        // Coming back joins the end of the order
+        controller.addUpdatable(first);
+        assertEquals(names("second", "first", "fourth"), tick());
+    }
+
+    public void testRemovalAfterManyAddsKeepsOrder() {
+        final List<Named> all = new ArrayList<Named>();
+        for (int namedIter = 0; namedIter < 100; namedIter++) {
+            final Named named = new Named(Integer.toString(namedIter));
+            all.add(named);
+            controller.addUpdatable(named);
+        }
+        tick();
+
+        final List<String> expected = new ArrayList<String>();
+        for (int namedIter = 0; namedIter < all.size(); namedIter++) {
+            if (namedIter % 3 == 0) {
+                controller.removeUpdatable(all.get(namedIter));
+            } else {
+                expected.add(Integer.toString(namedIter));
+            }
+        }
+        assertEquals(expected, tick());
+        assertEquals(expected, tick());
+    }
+
+    /** Requests made from many threads at once must all be applied, none lost or doubled. */
+    public void testConcurrentRegistration() throws InterruptedException {
+        final int numThreads = 4;
+        final int numPerThread = 500;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<Thread>();
+        final List<String> expected = Collections.synchronizedList(new ArrayList<String>());
+
+        for (int threadIter = 0; threadIter < numThreads; threadIter++) {
+            final int thread = threadIter;
+            threads.add(new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int namedIter = 0; namedIter < numPerThread; namedIter++) {
+                        final String name = thread + "-" + namedIter;
+                        final Named named = new Named(name);
+                        controller.addUpdatable(named);
+                        if (namedIter % 2 == 0) {
+                            controller.removeUpdatable(named);
+                        } else {
+                            expected.add(name);
+                        }
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        // Tick while the requests pour in, as the game loop would
+        start.countDown();
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                tick();
+            }
+            thread.join();
+        }
+
+        final List<String> lastTick = tick();
+        Collections.sort(lastTick);
+        Collections.sort(expected);
+        assertEquals(expected, lastTick);
+    }
+}
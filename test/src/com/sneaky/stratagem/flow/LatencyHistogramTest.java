@@ -0,0 +1,158 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Covers the histogram's bucketing at its edges, the rounding of its percentiles, and taking
+ * copies of it and resetting it.
+ *
+ * @author R. Matt McCann
+ */
+public class LatencyHistogramTest extends TestCase {
+    private LatencyHistogram histogram;
+
+    @Override
+    protected void setUp() {
+        histogram = new LatencyHistogram();
+    }
+
+    public void testSmallValuesHaveBucketsOfTheirOwn() {
+        for (long value = 0; value < 8; value++) {
+            assertEquals((int) value, LatencyHistogram.bucketOf(value));
+            assertEquals(value, LatencyHistogram.highestInBucket((int) value));
+        }
+        assertEquals(8, LatencyHistogram.bucketOf(8));
+    }
+
+    /** Buckets run one after the other, each starting just past the highest value of the last. */
+    public void testBucketsAreContiguous() {
+        final int lastBucket = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        for (int bucket = 0; bucket < lastBucket; bucket++) {
+            final long highest = LatencyHistogram.highestInBucket(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(highest));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(highest + 1));
+        }
+    }
+
+    public void testPowersOfTwoStartBuckets() {
+        for (int bitIter = 3; bitIter < Long.SIZE - 1; bitIter++) {
+            final long power = 1L << bitIter;
+            final int bucket = LatencyHistogram.bucketOf(power);
+
+            assertEquals(bucket - 1, LatencyHistogram.bucketOf(power - 1));
+            assertEquals(power - 1, LatencyHistogram.highestInBucket(bucket - 1));
+            assertEquals(bucket, LatencyHistogram.bucketOf(power + (power >> 3) - 1));
+            assertEquals(bucket + 1, LatencyHistogram.bucketOf(power + (power >> 3)));
+        }
+    }
+
+    public void testLongMaxValueFillsTheLastBucket() {
+        final int lastBucket = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestInBucket(lastBucket));
+        assertEquals(lastBucket, LatencyHistogram.bucketOf(1L << (Long.SIZE - 2)) + 7);
+
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, histogram.getMax());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(50.0));
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100.0));
+    }
+
+    /** Every value is reported to within an eighth of itself. */
+    public void testBucketsKeepAnEighthPrecision() {
+        final Random random = new Random(0x1A7E5CL);
+        for (int valueIter = 0; valueIter < 10000; valueIter++) {
+            final long value = (random.nextLong() >>> 1) >>> random.nextInt(Long.SIZE - 1);
+            final long highest = LatencyHistogram.highestInBucket(LatencyHistogram.bucketOf(value));
+
+            assertTrue(value + " reported as " + highest, highest >= value);
+            assertTrue(value + " reported as " + highest, highest - value <= (value >> 3));
+        }
+    }
+
+    public void testPercentilesOfExactValues() {
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(1, histogram.getValueAtPercentile(0.0));
+        assertEquals(1, histogram.getValueAtPercentile(10.0));
+        assertEquals(5, histogram.getValueAtPercentile(50.0));
+        assertEquals(6, histogram.getValueAtPercentile(50.1));
+        assertEquals(9, histogram.getValueAtPercentile(90.0));
+        assertEquals(10, histogram.getValueAtPercentile(100.0));
+    }
+
+    /** Percentiles round up to the top of their bucket, but never past the longest recorded. */
+    public void testPercentilesRoundUpToTheirBucket() {
+        histogram.record(16);
+        histogram.record(100);
+
+        assertEquals(17, histogram.getValueAtPercentile(50.0));
+        assertEquals(100, histogram.getValueAtPercentile(50.1));
+        assertEquals(100, histogram.getValueAtPercentile(100.0));
+    }
+
+    public void testEmptyHistogramReportsZero() {
+        assertEquals(0, histogram.getValueAtPercentile(50.0));
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getTotalCount());
+    }
+
+    public void testPercentileOutsideRangeIsRejected() {
+        try {
+            histogram.getValueAtPercentile(-0.1);
+            fail();
+        } catch (IllegalArgumentException expected) { }
+
+        try {
+            histogram.getValueAtPercentile(100.1);
+            fail();
+        } catch (IllegalArgumentException expected) { }
+    }
+
+    public void testNegativeLatencyCountsAsZero() {
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(0, histogram.getTotalTime());
+        assertEquals(0, histogram.getValueAtPercentile(100.0));
+    }
+
+    public void testCopyIsIndependent() {
+        histogram.record(3);
+        histogram.record(40);
+
+        final LatencyHistogram copy = histogram.copy();
+        histogram.record(1000);
+
+        assertEquals(2, copy.getTotalCount());
+        assertEquals(43, copy.getTotalTime());
+        assertEquals(21, copy.getMean());
+        assertEquals(40, copy.getMax());
+        assertEquals(3, copy.getValueAtPercentile(50.0));
+        assertEquals(40, copy.getValueAtPercentile(100.0));
+        assertEquals(3, histogram.getTotalCount());
+        assertEquals(1000, histogram.getValueAtPercentile(100.0));
+    }
+
+    public void testResetForgetsEverything() {
+        histogram.record(7);
+        histogram.record(5000);
+        final LatencyHistogram copy = histogram.copy();
+
+        histogram.reset();
+        assertEquals(0, histogram.getTotalCount());
+        assertEquals(0, histogram.getTotalTime());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(100.0));
+        assertEquals(2, copy.getTotalCount());
+
+        // Records made after the reset are counted afresh
+        histogram.record(2);
+        assertEquals(1, histogram.getTotalCount());
+        assertEquals(2, histogram.getValueAtPercentile(100.0));
+    }
+}
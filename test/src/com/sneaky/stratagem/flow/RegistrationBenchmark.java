@@ -0,0 +1,174 @@
+package com.sneaky.stratagem.flow;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import scatcat.general.Microbenchmark;
+
+/**
+ * Compares the registration of updatables under churn, as when every shot and status message
+ * adds an animation that removes itself a few ticks later. The legacy controller guarded hash
+ * sets with its monitor and walked them with an iterator every tick. The current one queues
+ * requests lock-free and walks an array. Each is timed without churn, which is the cost of the
+ * update pass alone, and with it.
+ *
+ * Not run as part of the tests. Run its main on a desktop JVM with android.jar on the class
+ * path, see {@link Microbenchmark}.
+ *
+ * @author R. Matt McCann
+ */
+public final class RegistrationBenchmark {
+    /** Objects updated for the whole run, such as units and the UI. */
+    private static final int NUM_LONG_LIVED = 1000;
+
+    /** Short-lived objects added every tick. */
+    private static final int NUM_ADDED_PER_TICK = 200;
+
+    /** Ticks each short-lived object is updated for before removing itself. */
+    private static final int LIFETIME = 5;
+
+    /** Ticks in one run. */
+    private static final int NUM_TICKS = 100;
+
+    private static final int TICKS_PER_SECOND = 50;
+
+    /** Hidden constructor. This is a benchmark. */
+    private RegistrationBenchmark() { }
+
+    /** Counts its updates, so the update pass has something to do. */
+    private static final class Counter implements Updatable {
+        long numUpdates = 0;
+
+        @Override
+        public void updateState(final int updatesPerSecond) {
+            numUpdates++;
+        }
+    }
+
+    /** Registration as it was before it was made lock-free, copied from the legacy game loop. */
+    private static final class LegacyRegistration {
+        private final Set<Updatable> toBeAdded = new HashSet<Updatable>();
+
+        private final Set<Updatable> toBeRemoved = new HashSet<Updatable>();
+
+        private final Set<Updatable> updatables = new HashSet<Updatable>();
+
+        synchronized void addUpdatable(final Updatable updatable) {
+            toBeAdded.add(updatable);
+        }
+
+        synchronized void removeUpdatable(final Updatable updatable) {
+            toBeRemoved.add(updatable);
+        }
+
+        synchronized void tick(final int ticksPerSecond) {
+            for (Updatable addMe : toBeAdded) {
+                updatables.add(addMe);
+            }
+            toBeAdded.clear();
+
+            for (Updatable removeMe : toBeRemoved) {
+                updatables.remove(removeMe);
+            }
+            toBeRemoved.clear();
+
+            for (Updatable toBeUpdated : updatables) {
+                toBeUpdated.updateState(ticksPerSecond);
+            }
+        }
+    }
+
+    /** Controller driven by hand, one tick at a time. */
+    private static final class ManualController extends GameFlowController {
+        ManualController(final UpdateWorkers workers, final UpdateProfiler profiler) {
+            super(null, workers, profiler);
+        }
+
+        @Override
+        protected float getInterpolation() { return 0.0f; }
+
+        @Override
+        public void run() { }
+    }
+
+    /** Short-lived objects, by the tick they were added on modulo their lifetime. */
+    private static Counter[][] newGenerations(final int numAddedPerTick) {
+        final Counter[][] generations = new Counter[LIFETIME][numAddedPerTick];
+        for (Counter[] generation : generations) {
+            for (int counterIter = 0; counterIter < generation.length; counterIter++) {
+                generation[counterIter] = new Counter();
+            }
+        }
+
+        return generations;
+    }
+
+    /** Times the legacy registration with the provided number of objects added every tick. */
+    private static void measureLegacy(final String name, final int numAddedPerTick) {
+        final Counter longLived = new Counter();
+        final LegacyRegistration legacy = new LegacyRegistration();
+        for (int counterIter = 0; counterIter < NUM_LONG_LIVED; counterIter++) {
+            legacy.addUpdatable(new Counter());
+        }
+        legacy.addUpdatable(longLived);
+
+        final Counter[][] generations = newGenerations(numAddedPerTick);
+        Microbenchmark.measure(name, NUM_TICKS, new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                for (int tickIter = 0; tickIter < NUM_TICKS; tickIter++) {
+                    // Retire the generation added a lifetime ago, then bring in the next
+                    final Counter[] generation = generations[tickIter % LIFETIME];
+                    for (Counter counter : generation) {
+                        legacy.removeUpdatable(counter);
+                    }
+                    legacy.tick(TICKS_PER_SECOND);
+                    for (Counter counter : generation) {
+                        legacy.addUpdatable(counter);
+                    }
+                }
+
+                return longLived.numUpdates;
+            }
+        });
+    }
+
+    /** Times the current registration with the provided number of objects added every tick. */
+    private static void measureCurrent(final String name, final int numAddedPerTick) {
+        final ManualClock clock = new ManualClock(0);
+        final UpdateProfiler profiler = new UpdateProfiler(clock);
+        final ManualController controller = new ManualController(new UpdateWorkers(profiler, 0), profiler);
+        final Counter longLived = new Counter();
+        for (int counterIter = 0; counterIter < NUM_LONG_LIVED; counterIter++) {
+            controller.addUpdatable(new Counter());
+        }
+        controller.addUpdatable(longLived);
+
+        final Counter[][] generations = newGenerations(numAddedPerTick);
+        Microbenchmark.measure(name, NUM_TICKS, new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                for (int tickIter = 0; tickIter < NUM_TICKS; tickIter++) {
+                    // Retire the generation added a lifetime ago, then bring in the next
+                    final Counter[] generation = generations[tickIter % LIFETIME];
+                    for (Counter counter : generation) {
+                        controller.removeUpdatable(counter);
+                    }
+                    controller.tick(clock, TICKS_PER_SECOND);
+                    for (Counter counter : generation) {
+                        controller.addUpdatable(counter);
+                    }
+                }
+
+                return longLived.numUpdates;
+            }
+        });
+    }
+
+    public static void main(final String[] args) {
+        measureLegacy("Legacy, no churn, per tick", 0);
+        measureCurrent("Lock-free, no churn, per tick", 0);
+        measureLegacy("Legacy, " + NUM_ADDED_PER_TICK + " added per tick, per tick", NUM_ADDED_PER_TICK);
+        measureCurrent("Lock-free, " + NUM_ADDED_PER_TICK + " added per tick, per tick", NUM_ADDED_PER_TICK);
+    }
+}
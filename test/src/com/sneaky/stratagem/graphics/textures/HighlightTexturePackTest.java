@@ -0,0 +1,717 @@
+package com.sneaky.stratagem.graphics.textures;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.TestCase;
+import scatcat.general.points.GridPoint2D;
+import scatcat.map.HighlightRegion;
+import scatcat.map.Tile.HighlightOrientation;
+
+import com.google.common.collect.Sets;
+
+/**
+ * Checks the highlight rule table against the if/else cascade it replaced, for every one of
+ * the 256 adjacency masks.
+ *
+ * @author R. Matt McCann
+ */
+public class HighlightTexturePackTest extends TestCase {
+    /** Position of the highlighted tile. Away from the edges, so every neighbor exists. */
+    private static final int ROW = 5;
+    private static final int COLUMN = 7;
+
+    /** Texture handles, one per slot, in the order the pack takes them. */
+    private static final int BRIDGE = 100;
+    private static final int CENTER = 101;
+    private static final int CORNER = 102;
+    private static final int CORNER_MISSING_1_CORNER = 103;
+    private static final int ISLAND = 104;
+    private static final int MISSING_1_CORNER = 105;
+    private static final int MISSING_2_CORNERS = 106;
+    private static final int MISSING_2_CORNERS_OPPOSITE = 107;
+    private static final int MISSING_3_CORNERS = 108;
+    private static final int MISSING_4_CORNERS = 109;
+    private static final int PENINSULA = 110;
+    private static final int SHORE = 111;
+    private static final int SHORE_MISSING_1_CORNER = 112;
+    private static final int SHORE_MISSING_2_CORNERS = 113;
+
+    /** Highlight the legacy cascade picked. Whatever it left untouched on the tile is null. */
+    private static final class Choice {
+        Integer texture = null;
+        HighlightOrientation orientation = null;
+        Boolean transpose = null;
+    }
+
+    /**
+     * Copy of the cascade from before the rule table, reporting its pick rather than setting it
+     * on the tile. Kept verbatim otherwise, so don't tidy it up.
+     */
+    private static final class LegacyCascade {
+        private final int bridgeTexture = BRIDGE;
+        private final int centerTexture = CENTER;
+        private final int cornerTexture = CORNER;
+        private final int cornerMissing1CornerTexture = CORNER_MISSING_1_CORNER;
+        private final int islandTexture = ISLAND;
+        private final int missing1CornerTexture = MISSING_1_CORNER;
+        private final int missing2CornersTexture = MISSING_2_CORNERS;
+        private final int missing2CornersOppositeTexture = MISSING_2_CORNERS_OPPOSITE;
+        private final int missing3CornersTexture = MISSING_3_CORNERS;
+        private final int missing4CornersTexture = MISSING_4_CORNERS;
+        private final int peninsulaTexture = PENINSULA;
+        private final int shoreTexture = SHORE;
+        private final int shoreMissing1CornerTexture = SHORE_MISSING_1_CORNER;
+        private final int shoreMissing2CornersTexture = SHORE_MISSING_2_CORNERS;
+
+        Choice choose(final GridPoint2D target, final Set<GridPoint2D> highlighted) {
+            final Choice chosen = new Choice();
+
+            // Get the adjacent tiles
+            GridPoint2D topLeft = GridPoint2D.of(target.getRow() - 1, target.getColumn() - 1);
+            GridPoint2D topCenter = GridPoint2D.of(target.getRow(), target.getColumn() - 1);
+            GridPoint2D topRight = GridPoint2D.of(target.getRow() + 1, target.getColumn() - 1);
+            GridPoint2D midLeft = GridPoint2D.of(target.getRow() - 1, target.getColumn());
+            GridPoint2D midRight = GridPoint2D.of(target.getRow() + 1, target.getColumn());
+            GridPoint2D bottomLeft = GridPoint2D.of(target.getRow() - 1,target.getColumn() + 1);
+            GridPoint2D bottomCenter = GridPoint2D.of(target.getRow(), target.getColumn() + 1);
+            GridPoint2D bottomRight = GridPoint2D.of(target.getRow() + 1, target.getColumn() + 1);
+            Set<GridPoint2D> all = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter, topRight, 
+                    midLeft, midRight, bottomLeft, bottomCenter, bottomRight));
+        
+            // If the tile is surrounded on all sides and corners [Center]
+            if (highlighted.containsAll(Arrays.asList(all.toArray()))) {
+                chosen.texture = centerTexture;
+                return chosen;
+            }
+        
+            // If the tile is completely surrounded except one side [North-Facing Shore]
+            Set<GridPoint2D> contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,                  midRight,
+                                                                                bottomLeft, bottomCenter, bottomRight));
+            Set<GridPoint2D> missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile is completely surrounded except one side [East-Facing Shore]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter, 
+                                                               midLeft, 
+                                                               bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile is completely surrounded except one side [South-Facing Shore]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter, topRight,
+                                                               midLeft,            midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile is completely surrounded except on side [West-Facing Shore]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(      topCenter,    topRight,
+                                                                                   midRight,
+                                                                     bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile is surrounded by two sides [North-East-Facing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft, 
+                                                               bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, midRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile is surrounded by two sides [East-South-Facing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
+                                                               midLeft));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midRight, bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile is surrounded by two sides [South-West-Facing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter, topRight,
+                                                                          midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter, midLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile is surrounded by two sides [West-North-Facing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(              midRight,
+                                                               bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, topCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile is surrounded on opposite sides [North-South Bridge]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, midRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = bridgeTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile is surrounded on opposite sides [East-West Bridge]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft, midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = bridgeTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has one adjacent side [North Facing Peninsula]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
+                                                             midLeft,           midRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = peninsulaTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has one adjacent side [East Facing Peninsula]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter,
+                                                                         midRight,
+                                                             bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = peninsulaTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has one adjacent side [South Facing Peninsula]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft,            midRight,
+                                                                     bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = peninsulaTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has one adjacent side [West Facing Peninsula]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
+                                                             midLeft,
+                                                                     bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = peninsulaTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile has no adjacent highlighted tiles [Island]
+            missing = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
+                                                             midLeft,                  midRight,
+                                                                         bottomCenter));
+            if (Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = islandTexture;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for one corner [North-East Missing One Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter, 
+                                                              midLeft,                  midRight,
+                                                              bottomLeft, bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing1CornerTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for one corner [East-South Missing One Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter,    topRight,
+                                                              midLeft,                  midRight,
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing1CornerTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for one corner [South-West Missing One Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,    topRight,
+                                                              midLeft,               midRight,
+                                                                       bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing1CornerTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for one corner [West-North Missing One Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,    topRight,
+                                                              midLeft,               midRight,
+                                                              bottomLeft, bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing1CornerTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two adjacent corners [North Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
+                                                              midLeft,                  midRight,
+                                                              bottomLeft, bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two adjacent corners [East Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft,    topCenter,
+                                                              midLeft,                  midRight,
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two adjacent corners [South Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,   topRight,
+                                                              midLeft,              midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(bottomLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two adjacent corners [West Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,    topRight,
+                                                              midLeft,               midRight,
+                                                                       bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two opposite corners [North-East-South-West Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
+                                                              midLeft,               midRight,
+                                                                       bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersOppositeTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for two opposite corners [North-West-South-East Missing Two Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,    topRight,
+                                                              midLeft,                  midRight,
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing2CornersOppositeTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for three corners [North-East Missing Three Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,   topRight,
+                                                              midLeft,              midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing3CornersTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for three corners [East-South Missing Three Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                              midLeft,               midRight,
+                                                                       bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing3CornersTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for three corners [South-West Missing Three Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
+                                                              midLeft,                 midRight,
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topRight, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing3CornersTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has total adjacency except for three corners [West-North Missing Three Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
+                                                              midLeft,              midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing3CornersTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile has all sides adjacent but no corners [Missing Four Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                              midLeft,              midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,               topRight,
+                 
+                                                             bottomLeft,            bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = missing4CornersTexture;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [North Untransposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,                 midRight,
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                chosen.transpose = false;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [North Transposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,               midRight,
+                                                                       bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                chosen.transpose = true;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [East Untransposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
+                                                              midLeft,               
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midRight, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                chosen.transpose = false;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [East Transposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(            topCenter,
+                                                              midLeft,               
+                                                              bottomLeft, bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, midRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                chosen.transpose = true;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [South Untransposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(        topCenter, topRight,
+                                                              midLeft,           midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                chosen.transpose = false;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [South Transposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topLeft, topCenter,
+                                                              midLeft,           midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                chosen.transpose = true;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [West Untransposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter,
+                                                                            midRight,
+                                                              bottomCenter, bottomRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topRight, midLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                chosen.transpose = false;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and one corner [West Transposed Shore Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(topCenter,   topRight,
+                                                                           midRight,
+                                                              bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(midLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                chosen.transpose = true;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and two corner [North Shore Missing 2 Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(
+                                                              midLeft,              midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topCenter, bottomLeft, bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing2CornersTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and two corner [East Shore Missing 2 Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                              midLeft,             
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft, midRight, bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing2CornersTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and two corner [South Shore Missing 2 Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                              midLeft,              midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,               topRight, 
+                
+                                                                      bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing2CornersTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except a side and two corner [West Shore Missing 2 Corners]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(        topCenter,
+                                                                                   midRight,
+                                                                      bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(                      topRight, 
+                                                              midLeft,
+                                                                                   bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = shoreMissing2CornersTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except two consecutive sides and the opposite corner [North Corner Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                                                 midRight));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(                    topRight,
+                                                               midLeft,
+                                                                       bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.NORTH;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except two consecutive sides and the opposite corner [East Corner Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(                      midRight,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(          topCenter,
+                                                             midLeft,
+                                                                                    bottomRight));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.EAST;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except two consecutive sides and the opposite corner [South Corner Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(midLeft,
+                                                                       bottomCenter));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(          topCenter,
+                                                                                  midRight,
+                                                             bottomLeft));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.SOUTH;
+                return chosen;
+            }
+        
+            // If the tile has adjacencies except two consecutive sides and the opposite corner [West Corner Missing Corner]
+            contains = new HashSet<GridPoint2D>(Arrays.asList(         topCenter,
+                                                              midLeft));
+            missing = new HashSet<GridPoint2D>(Arrays.asList(topLeft,
+                                                                                 midRight,
+                                                                     bottomCenter));
+            if (highlighted.containsAll(Arrays.asList(contains.toArray())) &&
+                Sets.difference(all, highlighted).containsAll(Arrays.asList(missing.toArray()))) {
+                chosen.texture = cornerMissing1CornerTexture;
+                chosen.orientation = HighlightOrientation.WEST;
+                return chosen;
+            }
+
+            return chosen;
+        }
+    }
+
+    /**
+     * Highlighted tiles for the adjacency mask: the target plus the neighbors behind the
+     * mask's bits, located the way the legacy cascade names them.
+     */
+    private static Set<GridPoint2D> highlightedFor(final GridPoint2D target, final int mask) {
+        final GridPoint2D[] neighbors = {
+            GridPoint2D.of(target.getRow() - 1, target.getColumn() - 1), // Top left
+            GridPoint2D.of(target.getRow(), target.getColumn() - 1),     // Top center
+            GridPoint2D.of(target.getRow() + 1, target.getColumn() - 1), // Top right
+            GridPoint2D.of(target.getRow() - 1, target.getColumn()),     // Mid left
+            GridPoint2D.of(target.getRow() + 1, target.getColumn()),     // Mid right
+            GridPoint2D.of(target.getRow() - 1, target.getColumn() + 1), // Bottom left
+            GridPoint2D.of(target.getRow(), target.getColumn() + 1),     // Bottom center
+            GridPoint2D.of(target.getRow() + 1, target.getColumn() + 1)  // Bottom right
+        };
+
+        final Set<GridPoint2D> highlighted = new HashSet<GridPoint2D>();
+        highlighted.add(target);
+        for (int neighborIter = 0; neighborIter < neighbors.length; neighborIter++) {
+            if ((mask & (1 << neighborIter)) != 0) {
+                highlighted.add(neighbors[neighborIter]);
+            }
+        }
+
+        return highlighted;
+    }
+
+    public void testEveryMaskMatchesLegacyCascade() {
+        final HighlightTexturePack pack = new HighlightTexturePack(null, BRIDGE, CENTER, CORNER,
+                CORNER_MISSING_1_CORNER, ISLAND, MISSING_1_CORNER, MISSING_2_CORNERS,
+                MISSING_2_CORNERS_OPPOSITE, MISSING_3_CORNERS, MISSING_4_CORNERS, PENINSULA, SHORE,
+                SHORE_MISSING_1_CORNER, SHORE_MISSING_2_CORNERS);
+        final LegacyCascade legacy = new LegacyCascade();
+        final GridPoint2D target = GridPoint2D.of(ROW, COLUMN);
+
+        int numHighlighted = 0;
+        for (int mask = 0; mask <= 0xFF; mask++) {
+            final String message = "Mask " + Integer.toBinaryString(mask);
+            final Set<GridPoint2D> highlighted = highlightedFor(target, mask);
+            assertEquals(message, mask, HighlightTexturePack.adjacencyOf(target, highlighted));
+
+            final HighlightRegion.Builder builder = HighlightRegion.builder();
+            pack.addTo(ROW, COLUMN, mask, builder);
+            final HighlightRegion region = builder.build();
+            final Choice expected = legacy.choose(target, highlighted);
+
+            // If the cascade left the tile alone, so must the table
+            if (expected.texture == null) {
+                assertEquals(message, 0, region.size());
+                continue;
+            }
+
+            numHighlighted++;
+            assertEquals(message, 1, region.size());
+            assertEquals(message, ROW, region.getRow(0));
+            assertEquals(message, COLUMN, region.getColumn(0));
+            assertEquals(message, expected.texture.intValue(), region.getTexture(0));
+
+            // The cascade only left the orientation alone for the symmetric shapes, which the
+            // table draws facing north
+            if (expected.orientation == null) {
+                assertTrue(message, Arrays.asList(CENTER, ISLAND, MISSING_4_CORNERS).contains(expected.texture));
+                assertEquals(message, HighlightOrientation.NORTH, region.getOrientation(0));
+            } else {
+                assertEquals(message, expected.orientation, region.getOrientation(0));
+            }
+
+            // The cascade only set the transpose for the shapes that need it
+            final boolean isTransposed = (expected.transpose != null) && expected.transpose;
+            assertEquals(message, isTransposed, region.isTransposed(0));
+        }
+
+        // Guard against a cascade copy that never matches anything
+        assertTrue(numHighlighted > 0);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sneaky.stratagem.match;
+
+/**
+ * Builds players for tests outside of the match package, which can't seat them. The players
+ * have no device, shader or textures, so they can't be drawn.
+ *
+ * @author R. Matt McCann
+ */
+public final class TestPlayers {
+    /** Hidden constructor. This is a utility class. */
+    private TestPlayers() { }
+
+    /** Player sat at the provided seat, as if added to a match. */
+    public static Player seated(final int seat) {
+        final Player player = new Player(null, null, null);
+        player.setSeat(seat);
+
+        return player;
+    }
+}
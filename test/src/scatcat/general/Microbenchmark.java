@@ -0,0 +1,57 @@
+package scatcat.general;
+
+/**
+ * Bare timing loop for the benchmarks kept alongside the tests. The Android build has no room
+ * for a proper harness, so this only warms the task up for a second, times a handful of runs
+ * and reports the best one. Good enough to compare two approaches on the same machine, not to
+ * quote absolute numbers. Run a benchmark's main on a desktop JVM with src, test/src and libs
+ * on the class path.
+ *
+ * @author R. Matt McCann
+ */
+public final class Microbenchmark {
+    /** How long the task is run untimed first, so the JIT has compiled it before it is timed. */
+    private static final long WARMUP_NANOS = 1000L * 1000L * 1000L;
+
+    /** Timed runs, of which the fastest is reported. */
+    private static final int NUM_RUNS = 10;
+
+    /** Collects the results of the tasks, so the JIT can't discard their work. */
+    private static volatile long sink;
+
+    /** Hidden constructor. This is a utility class. */
+    private Microbenchmark() { }
+
+    /** Work being timed. */
+    public interface Task {
+        /** Does one run of the work, returning any value derived from it. */
+        long run();
+    }
+
+    /**
+     * Times the task and prints its best time per operation.
+     *
+     * @param name Name the result is printed under.
+     * @param numOps Number of operations one run of the task performs. Must be positive.
+     * @param task Task to time.
+     * @return Best time per operation, in nanoseconds.
+     */
+    public static double measure(final String name, final int numOps, final Task task) {
+        final long warmupStart = System.nanoTime();
+        while (System.nanoTime() - warmupStart < WARMUP_NANOS) {
+            sink += task.run();
+        }
+
+        long best = Long.MAX_VALUE;
+        for (int runIter = 0; runIter < NUM_RUNS; runIter++) {
+            final long start = System.nanoTime();
+            sink += task.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        final double nanosPerOp = (double) best / numOps;
+        System.out.println(String.format("%-48s %10.1f ns/op", name, nanosPerOp));
+
+        return nanosPerOp;
+    }
+}
@@ -0,0 +1,85 @@
+package scatcat.general.points;
+
+import junit.framework.TestCase;
+
+/**
+ * Covers grid points, both as interned objects and packed into longs.
+ *
+ * @author R. Matt McCann
+ */
+public class GridPoint2DTest extends TestCase {
+    public void testOfInternsCommonPoints() {
+        assertSame(GridPoint2D.of(0, 0), GridPoint2D.of(0, 0));
+        assertSame(GridPoint2D.of(-16, 255), GridPoint2D.of(-16, 255));
+        assertSame(GridPoint2D.of(7, -3), GridPoint2D.of(PackedGridPoint.pack(7, -3)));
+    }
+
+    public void testOfOutsideCacheIsStillEqual() {
+        final GridPoint2D first = GridPoint2D.of(256, -17);
+        final GridPoint2D second = GridPoint2D.of(256, -17);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertEquals(256, first.getRow());
+        assertEquals(-17, first.getColumn());
+    }
+
+    public void testEqualsMatchesConstructedPoints() {
+        assertEquals(new GridPoint2D(3, 4), GridPoint2D.of(3, 4));
+        assertEquals(new GridPoint2D(3, 4).hashCode(), GridPoint2D.of(3, 4).hashCode());
+        assertFalse(GridPoint2D.of(3, 4).equals(GridPoint2D.of(4, 3)));
+        assertFalse(GridPoint2D.of(3, 4).equals(null));
+    }
+
+    public void testArithmetic() {
+        final GridPoint2D point = GridPoint2D.of(3, 4);
+
+        assertEquals(GridPoint2D.of(1, 7), point.add(-2, 3));
+        assertEquals(GridPoint2D.of(5, 3), point.plus(GridPoint2D.of(2, -1)));
+        assertEquals(GridPoint2D.of(1, 5), point.minus(GridPoint2D.of(2, -1)));
+        assertEquals(GridPoint2D.of(-300, 400), GridPoint2D.of(-100, 100).add(-200, 300));
+    }
+
+    public void testPackRoundTrips() {
+        final int[] values = new int[] {0, 1, -1, 255, -16, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        for (int row : values) {
+            for (int column : values) {
+                final long packed = PackedGridPoint.pack(row, column);
+
+                assertEquals(row, PackedGridPoint.row(packed));
+                assertEquals(column, PackedGridPoint.column(packed));
+                assertEquals(packed, new GridPoint2D(row, column).pack());
+            }
+        }
+    }
+
+    /** A negative column must not bleed into the row when packed. */
+    public void testPackKeepsNegativeColumnOutOfRow() {
+        assertEquals(0, PackedGridPoint.row(PackedGridPoint.pack(0, -1)));
+        assertEquals(-1, PackedGridPoint.row(PackedGridPoint.pack(-1, -1)));
+        assertFalse(PackedGridPoint.pack(0, -1) == PackedGridPoint.pack(-1, -1));
+    }
+
+    public void testPackedArithmetic() {
+        final long point = PackedGridPoint.pack(3, -4);
+
+        assertEquals(PackedGridPoint.pack(1, -1), PackedGridPoint.add(point, -2, 3));
+        assertEquals(PackedGridPoint.pack(5, -5), PackedGridPoint.plus(point, PackedGridPoint.pack(2, -1)));
+        assertEquals(PackedGridPoint.pack(1, -3), PackedGridPoint.minus(point, PackedGridPoint.pack(2, -1)));
+        assertEquals(9, PackedGridPoint.manhattanDistance(point, PackedGridPoint.pack(-1, 1)));
+        assertEquals("(3, -4)", PackedGridPoint.toString(point));
+    }
+
+    public void testNeighborsAreNorthEastSouthWest() {
+        final long point = PackedGridPoint.pack(0, 0);
+
+        assertEquals(PackedGridPoint.pack(0, -1), PackedGridPoint.neighbor(point, 0));
+        assertEquals(PackedGridPoint.pack(1, 0), PackedGridPoint.neighbor(point, 1));
+        assertEquals(PackedGridPoint.pack(0, 1), PackedGridPoint.neighbor(point, 2));
+        assertEquals(PackedGridPoint.pack(-1, 0), PackedGridPoint.neighbor(point, 3));
+        for (int direction = 0; direction < 4; direction++) {
+            assertEquals(1, PackedGridPoint.manhattanDistance(point, PackedGridPoint.neighbor(point, direction)));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package scatcat.general.points;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import scatcat.general.Microbenchmark;
+
+import com.google.common.base.Objects;
+
+/**
+ * Compares the ways of collecting the tiles within reach of a unit: the mutable grid points
+ * the threats used to allocate into a hash set, interned {@link GridPoint2D}s in a hash set,
+ * and packed points in a {@link PackedGridPointSet}. Each run floods a diamond around every
+ * tile of a battlefield, then looks every tile of the battlefield up in it.
+ *
+ * Not run as part of the tests. Run its main on a desktop JVM, see {@link Microbenchmark}.
+ *
+ * @author R. Matt McCann
+ */
+public final class GridPointBenchmark {
+    /** Rows and columns of the battlefield the diamonds are centered on. */
+    private static final int BATTLEFIELD_SIZE = 16;
+
+    /** Manhattan radius of each diamond. */
+    private static final int RANGE = 6;
+
+    /** Hidden constructor. This is a benchmark. */
+    private GridPointBenchmark() { }
+
+    /** Grid point as it was before interning: mutable, and allocated by every bit of arithmetic. */
+    private static final class LegacyGridPoint {
+        private int column = 0;
+        private int row = 0;
+
+        LegacyGridPoint(final int row, final int column) {
+            this.row = row;
+            this.column = column;
+        }
+
+        LegacyGridPoint add(final int rowOffset, final int columnOffset) {
+            return new LegacyGridPoint(row + rowOffset, column + columnOffset);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (!(object instanceof LegacyGridPoint)) {
+                return false;
+            }
+
+            final LegacyGridPoint comparee = (LegacyGridPoint) object;
+            return ((this.column == comparee.column) && (this.row == comparee.row));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(column, row);
+        }
+    }
+
+    /** Number of operations in one run: the adds of every diamond and one lookup per tile. */
+    private static int numOps() {
+        final int diamondSize = 2 * RANGE * (RANGE + 1) + 1;
+        final int numTiles = BATTLEFIELD_SIZE * BATTLEFIELD_SIZE;
+
+        return numTiles * (diamondSize + numTiles);
+    }
+
+    public static void main(final String[] args) {
+        Microbenchmark.measure("Legacy GridPoint2D in HashSet", numOps(), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                long numThreatened = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        final LegacyGridPoint center = new LegacyGridPoint(row, column);
+                        final Set<LegacyGridPoint> reach = new HashSet<LegacyGridPoint>();
+                        for (int rowOffset = -RANGE; rowOffset <= RANGE; rowOffset++) {
+                            final int span = RANGE - Math.abs(rowOffset);
+                            for (int columnOffset = -span; columnOffset <= span; columnOffset++) {
+                                reach.add(center.add(rowOffset, columnOffset));
+                            }
+                        }
+                        for (int tileRow = 0; tileRow < BATTLEFIELD_SIZE; tileRow++) {
+                            for (int tileColumn = 0; tileColumn < BATTLEFIELD_SIZE; tileColumn++) {
+                                if (reach.contains(new LegacyGridPoint(tileRow, tileColumn))) { numThreatened++; }
+                            }
+                        }
+                    }
+                }
+
+                return numThreatened;
+            }
+        });
+
+        Microbenchmark.measure("Interned GridPoint2D in HashSet", numOps(), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                long numThreatened = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        final GridPoint2D center = GridPoint2D.of(row, column);
+                        final Set<GridPoint2D> reach = new HashSet<GridPoint2D>();
+                        for (int rowOffset = -RANGE; rowOffset <= RANGE; rowOffset++) {
+                            final int span = RANGE - Math.abs(rowOffset);
+                            for (int columnOffset = -span; columnOffset <= span; columnOffset++) {
+                                reach.add(center.add(rowOffset, columnOffset));
+                            }
+                        }
+                        for (int tileRow = 0; tileRow < BATTLEFIELD_SIZE; tileRow++) {
+                            for (int tileColumn = 0; tileColumn < BATTLEFIELD_SIZE; tileColumn++) {
+                                if (reach.contains(GridPoint2D.of(tileRow, tileColumn))) { numThreatened++; }
+                            }
+                        }
+                    }
+                }
+
+                return numThreatened;
+            }
+        });
+
+        final PackedGridPointSet reach = new PackedGridPointSet();
+        Microbenchmark.measure("Packed points in PackedGridPointSet", numOps(), new Microbenchmark.Task() {
+            @Override
+            public long run() {
+                long numThreatened = 0;
+                for (int row = 0; row < BATTLEFIELD_SIZE; row++) {
+                    for (int column = 0; column < BATTLEFIELD_SIZE; column++) {
+                        final long center = PackedGridPoint.pack(row, column);
+                        reach.clear();
+                        for (int rowOffset = -RANGE; rowOffset <= RANGE; rowOffset++) {
+                            final int span = RANGE - Math.abs(rowOffset);
+                            for (int columnOffset = -span; columnOffset <= span; columnOffset++) {
+                                reach.add(PackedGridPoint.add(center, rowOffset, columnOffset));
+                            }
+                        }
+                        for (int tileRow = 0; tileRow < BATTLEFIELD_SIZE; tileRow++) {
+                            for (int tileColumn = 0; tileColumn < BATTLEFIELD_SIZE; tileColumn++) {
+                                if (reach.contains(tileRow, tileColumn)) { numThreatened++; }
+                            }
+                        }
+                    }
+                }
+
+                return numThreatened;
+            }
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package scatcat.general.points;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the packed point set and map against the JDK's hash set and map, over the same random
+ * mix of adds, removals and lookups. The points are kept to a small grid so removals and repeat
+ * adds hit the probe runs often.
+ *
+ * @author R. Matt McCann
+ */
+public class PackedGridPointSetTest extends TestCase {
+    /** Seed of the operations, fixed so a failure can be replayed. */
+    private static final long SEED = 0x5CA7CA7L;
+
+    private static final int NUM_OPERATIONS = 20000;
+
+    /** Points are drawn from a grid this many tiles across, centered on the origin. */
+    private static final int GRID_SIZE = 40;
+
+    private static long randomPoint(final Random random) {
+        return PackedGridPoint.pack(random.nextInt(GRID_SIZE) - GRID_SIZE / 2,
+                random.nextInt(GRID_SIZE) - GRID_SIZE / 2);
+    }
+
+    private static void assertSameContents(final Set<Long> expected, final PackedGridPointSet actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        final Set<Long> visited = new HashSet<Long>();
+        for (int slot = actual.nextSlot(0); slot != -1; slot = actual.nextSlot(slot + 1)) {
+            assertTrue(visited.add(actual.keyAt(slot)));
+        }
+        assertEquals(expected, visited);
+    }
+
+    private static void assertSameContents(final Map<Long, Integer> expected,
+                                           final PackedGridPointMap<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.isEmpty(), actual.isEmpty());
+
+        final Map<Long, Integer> visited = new HashMap<Long, Integer>();
+        for (int slot = actual.nextSlot(0); slot != -1; slot = actual.nextSlot(slot + 1)) {
+            assertNull(visited.put(actual.keyAt(slot), actual.valueAt(slot)));
+        }
+        assertEquals(expected, visited);
+    }
+
+    public void testSetMatchesHashSet() {
+        final Random random = new Random(SEED);
+        final Set<Long> expected = new HashSet<Long>();
+        final PackedGridPointSet actual = new PackedGridPointSet(4);
+
+        for (int operationIter = 0; operationIter < NUM_OPERATIONS; operationIter++) {
+            final long point = randomPoint(random);
+
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.add(point), actual.add(point));
+                break;
+            case 1:
+                assertEquals(expected.remove(point), actual.remove(point));
+                break;
+            default:
+                assertEquals(expected.contains(point), actual.contains(point));
+                break;
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertSameContents(expected, actual);
+
+        // Every point still present must be found after the removals shifted the probe runs
+        for (int row = -GRID_SIZE / 2; row < GRID_SIZE / 2; row++) {
+            for (int column = -GRID_SIZE / 2; column < GRID_SIZE / 2; column++) {
+                assertEquals(expected.contains(PackedGridPoint.pack(row, column)), actual.contains(row, column));
+            }
+        }
+    }
+
+    public void testSetRemovesEverything() {
+        final Random random = new Random(SEED);
+        final Set<Long> expected = new HashSet<Long>();
+        final PackedGridPointSet actual = new PackedGridPointSet();
+
+        for (int pointIter = 0; pointIter < NUM_OPERATIONS / 10; pointIter++) {
+            final long point = randomPoint(random);
+            expected.add(point);
+            actual.add(point);
+        }
+        for (Long point : expected) {
+            assertTrue(actual.remove(point));
+            assertFalse(actual.remove(point));
+        }
+        assertSameContents(new HashSet<Long>(), actual);
+    }
+
+    public void testSetClearKeepsWorking() {
+        final PackedGridPointSet set = new PackedGridPointSet();
+
+        set.add(1, 2);
+        set.add(-3, 4);
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.contains(1, 2));
+        assertTrue(set.add(1, 2));
+        assertEquals(1, set.size());
+    }
+
+    public void testMapMatchesHashMap() {
+        final Random random = new Random(SEED);
+        final Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        final PackedGridPointMap<Integer> actual = new PackedGridPointMap<Integer>(4);
+
+        for (int operationIter = 0; operationIter < NUM_OPERATIONS; operationIter++) {
+            final long point = randomPoint(random);
+
+            switch (random.nextInt(3)) {
+            case 0:
+                assertEquals(expected.put(point, operationIter), actual.put(point, operationIter));
+                break;
+            case 1:
+                assertEquals(expected.remove(point), actual.remove(point));
+                break;
+            default:
+                assertEquals(expected.containsKey(point), actual.containsKey(point));
+                assertEquals(expected.get(point), actual.get(point));
+                break;
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+        assertSameContents(expected, actual);
+
+        actual.clear();
+        assertSameContents(new HashMap<Long, Integer>(), actual);
+    }
+
+    public void testCapacityIsPowerOfTwoAtHalfLoad() {
+        for (int expectedSize = 0; expectedSize < 1000; expectedSize++) {
+            final int capacity = PackedGridPointMap.capacityFor(expectedSize);
+
+            assertEquals(0, capacity & (capacity - 1));
+            assertTrue(capacity >= expectedSize * 2);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package scatcat.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+/**
+ * Covers the rejection of corrupt binary maps. Every corrupt map must be turned away with an
+ * IOException before a battlefield is built from it.
+ *
+ * @author R. Matt McCann
+ */
+public class BattlefieldFactoryTest extends TestCase {
+    private BattlefieldFactory factory;
+
+    @Override
+    protected void setUp() {
+        // Corrupt maps are rejected before any battlefield or tile is needed
+        factory = new BattlefieldFactory(null, null, null);
+    }
+
+    /** Header of a map, followed by the provided number of bytes of body. */
+    private static ByteBuffer header(final int magic, final int version, final int numRows,
+                                     final int numColumns, final int numSpawnZones, final int bodySize) {
+        final ByteBuffer map = ByteBuffer.allocate(MapFormat.HEADER_SIZE + bodySize);
+        map.putInt(magic).putInt(version).putInt(numRows).putInt(numColumns).putInt(numSpawnZones);
+
+        return map;
+    }
+
+    private void assertRejected(final ByteBuffer map) {
+        try {
+            factory.load(map);
+            fail("Corrupt map was loaded!");
+        } catch (IOException expected) {
+            // Expected
+        }
+    }
+
+    public void testRejectsShortHeader() {
+        assertRejected(ByteBuffer.allocate(MapFormat.HEADER_SIZE - 1));
+    }
+
+    public void testRejectsBadMagic() {
+        assertRejected(header(MapFormat.MAGIC + 1, MapFormat.VERSION, 1, 1, 0, 64));
+    }
+
+    public void testRejectsUnknownVersion() {
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION + 1, 1, 1, 0, 64));
+    }
+
+    public void testRejectsNegativeDimensions() {
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, -1, 1, 0, 64));
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 1, -1, 0, 64));
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 1, 1, -1, 64));
+    }
+
+    public void testRejectsOversizedDimensions() {
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, Integer.MAX_VALUE, Integer.MAX_VALUE, 0, 64));
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 1 << 16, 1 << 16, 0, 64));
+    }
+
+    public void testRejectsTruncatedLayers() {
+        final int numTiles = 4 * 4;
+        final int size = (int) MapFormat.sizeOf(numTiles, 0);
+
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 4, 4, 0, size - MapFormat.HEADER_SIZE - 1));
+    }
+
+    /** A spawn zone count whose size wraps around an int must not slip past the size check. */
+    public void testRejectsSpawnZoneCountThatOverflows() {
+        final int numSpawnZones = Integer.MAX_VALUE / MapFormat.SPAWN_ZONE_SIZE + 1;
+
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 1, 1, numSpawnZones, 64));
+        assertRejected(header(MapFormat.MAGIC, MapFormat.VERSION, 1, 1, Integer.MAX_VALUE, 64));
+    }
+
+    /** Gets are bounded by the limit, so a map cut short by its limit must be rejected. */
+    public void testRejectsMapTruncatedByLimit() {
+        final int numTiles = 4 * 4;
+        final ByteBuffer map = ByteBuffer.allocate((int) MapFormat.sizeOf(numTiles, 0));
+        MapFormat.write(map, 4, 4, new byte[numTiles], new long[OccupancyBitboard.wordsFor(numTiles)],
+                Collections.<SpawnZone>emptyList(), new short[numTiles]);
+
+        map.limit(map.capacity() - 1);
+        assertRejected(map);
+        map.limit(MapFormat.HEADER_SIZE - 1);
+        assertRejected(map);
+    }
+
+    /** The loader must turn away the same spawn zones the converter does. */
+    public void testRejectsSpawnZoneOffBattlefield() {
+        assertRejected(mapWithZone(new SpawnZone(0, 2, 0, 3, 1)));
+        assertRejected(mapWithZone(new SpawnZone(0, 0, 3, 1, 2)));
+        assertRejected(mapWithZone(new SpawnZone(0, Integer.MAX_VALUE, 0, 1, 1)));
+        assertRejected(mapWithZone(new SpawnZone(0, 0, 1, 1, Integer.MAX_VALUE)));
+    }
+
+    /** Map of 4 by 4 open tiles with the spawn zone. */
+    private static ByteBuffer mapWithZone(final SpawnZone zone) {
+        final int numTiles = 4 * 4;
+        final List<SpawnZone> zones = Collections.singletonList(zone);
+        final ByteBuffer map = ByteBuffer.allocate((int) MapFormat.sizeOf(numTiles, zones.size()));
+        MapFormat.write(map, 4, 4, new byte[numTiles], new long[OccupancyBitboard.wordsFor(numTiles)],
+                zones, new short[numTiles]);
+
+        return map;
+    }
+
+    public void testSizeOfDoesNotOverflow() {
+        final long size = MapFormat.sizeOf(1, Integer.MAX_VALUE);
+
+        assertTrue(size > Integer.MAX_VALUE);
+        assertEquals(MapFormat.spawnZoneOffset(1) + (long) Integer.MAX_VALUE * MapFormat.SPAWN_ZONE_SIZE,
+                MapFormat.elevationOffset(1, Integer.MAX_VALUE));
+    }
+
+    public void testSizeOfMatchesWrittenMap() {
+        final int numRows = 3;
+        final int numColumns = 5;
+        final int numTiles = numRows * numColumns;
+        final ByteBuffer map = ByteBuffer.allocate((int) MapFormat.sizeOf(numTiles, 0));
+
+        MapFormat.write(map, numRows, numColumns, new byte[numTiles],
+                new long[OccupancyBitboard.wordsFor(numTiles)], Collections.<SpawnZone>emptyList(),
+                new short[numTiles]);
+        assertEquals(0, map.remaining());
+    }
+}
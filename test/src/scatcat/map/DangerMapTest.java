@@ -0,0 +1,182 @@
+package scatcat.map;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.sneaky.stratagem.match.Player;
+import com.sneaky.stratagem.match.TestPlayers;
+import com.sneaky.stratagem.units.Unit;
+
+/**
+ * Covers the danger map's incremental upkeep against a brute force scan of every unit, as
+ * units are placed, moved, removed, change hands and change reach.
+ *
+ * @author R. Matt McCann
+ */
+public class DangerMapTest extends TestCase {
+    private static final int NUM_COLUMNS = 12;
+
+    private static final int NUM_ROWS = 9;
+
+    private static final int NUM_SEATS = 3;
+
+    private DangerMap dangerMap;
+
+    private Injector injector;
+
+    private final List<Player> players = new ArrayList<Player>();
+
+    /** Tile index of every unit placed on the map, as the battlefield would track it. */
+    private final Map<Unit, Integer> positions = new IdentityHashMap<Unit, Integer>();
+
+    @Override
+    protected void setUp() {
+        injector = Guice.createInjector();
+        for (int seatIter = 0; seatIter < NUM_SEATS; seatIter++) {
+            players.add(TestPlayers.seated(seatIter));
+        }
+
+        dangerMap = new DangerMap();
+        dangerMap.reset(NUM_ROWS, NUM_COLUMNS);
+    }
+
+    private Unit newUnit(final Player owner, final int movementRange, final int attackRange, final int damage) {
+        final Unit unit = new Unit(injector, 0, 0, 0, 0, 0) { };
+        unit.setOwner(owner);
+        unit.setMovementRange(movementRange);
+        unit.setAttackRange(attackRange);
+        unit.setAttackDamage(damage);
+
+        return unit;
+    }
+
+    private void place(final Unit unit, final int row, final int column) {
+        final int index = row * NUM_COLUMNS + column;
+        positions.put(unit, index);
+        dangerMap.place(unit, index);
+    }
+
+    private void remove(final Unit unit) {
+        positions.remove(unit);
+        dangerMap.remove(unit);
+    }
+
+    /** Checks every tile, as seen by every seat, against a scan of every unit on the map. */
+    private void assertMatchesBruteForce() {
+        for (Player player : players) {
+            for (int index = 0; index < NUM_ROWS * NUM_COLUMNS; index++) {
+                int numThreats = 0;
+                int maxDamage = 0;
+                for (Map.Entry<Unit, Integer> entry : positions.entrySet()) {
+                    final Unit unit = entry.getKey();
+                    final Player owner = unit.getOwner();
+                    if ((owner == null) || (owner.getSeat() == player.getSeat()) || (unit.getAttackDamage() <= 0)) {
+                        continue;
+                    }
+
+                    final int unitIndex = entry.getValue();
+                    final int distance = Math.abs(unitIndex / NUM_COLUMNS - index / NUM_COLUMNS)
+                            + Math.abs(unitIndex % NUM_COLUMNS - index % NUM_COLUMNS);
+                    if (distance <= unit.getMovementRange() + unit.getAttackRange()) {
+                        numThreats++;
+                        maxDamage = Math.max(maxDamage, unit.getAttackDamage());
+                    }
+                }
+
+                final String where = "Seat " + player.getSeat() + ", tile " + index;
+                assertEquals(where, numThreats, dangerMap.getNumThreats(player, index));
+                assertEquals(where, maxDamage, dangerMap.getMaxDamage(player, index));
+                assertEquals(where, numThreats > 0, dangerMap.isThreatened(player, index));
+            }
+        }
+    }
+
+    public void testMaxDamageFallsToNextStrongest() {
+        final Unit strong = newUnit(players.get(1), 1, 1, 9);
+        final Unit weak = newUnit(players.get(1), 2, 1, 4);
+        place(strong, 4, 4);
+        place(weak, 4, 5);
+        assertEquals(9, dangerMap.getMaxDamage(players.get(0), 4 * NUM_COLUMNS + 4));
+
+        remove(strong);
+        assertEquals(4, dangerMap.getMaxDamage(players.get(0), 4 * NUM_COLUMNS + 4));
+        assertMatchesBruteForce();
+    }
+
+    /** Retracting one of several units tied at the max damage keeps the max. */
+    public void testTiedMaxDamageSurvivesRetraction() {
+        final Unit first = newUnit(players.get(1), 1, 1, 7);
+        final Unit second = newUnit(players.get(1), 1, 1, 7);
+        final Unit weak = newUnit(players.get(1), 1, 1, 3);
+        place(first, 2, 2);
+        place(second, 2, 3);
+        place(weak, 3, 2);
+
+        remove(first);
+        assertEquals(7, dangerMap.getMaxDamage(players.get(0), 2 * NUM_COLUMNS + 2));
+        assertMatchesBruteForce();
+
+        remove(second);
+        assertEquals(3, dangerMap.getMaxDamage(players.get(0), 2 * NUM_COLUMNS + 2));
+        assertMatchesBruteForce();
+    }
+
+    public void testOwnUnitsAndUnownedUnitsExertNoDanger() {
+        place(newUnit(players.get(0), 2, 1, 5), 4, 4);
+        place(newUnit(null, 2, 1, 5), 4, 6);
+
+        assertEquals(0, dangerMap.getNumThreats(players.get(0), 4 * NUM_COLUMNS + 5));
+        assertEquals(1, dangerMap.getNumThreats(players.get(1), 4 * NUM_COLUMNS + 5));
+        assertMatchesBruteForce();
+    }
+
+    public void testRandomChangesMatchBruteForce() {
+        final Random random = new Random(0xDA46E7L);
+        final List<Unit> units = new ArrayList<Unit>();
+
+        for (int changeIter = 0; changeIter < 2000; changeIter++) {
+            final Unit unit = units.isEmpty() ? null : units.get(random.nextInt(units.size()));
+            final int change = (unit == null) ? 0 : random.nextInt(7);
+            switch (change) {
+                case 0:
+                    // Place a new unit, sometimes unowned or with no damage at all
+                    final Player owner = (random.nextInt(8) == 0) ? null : players.get(random.nextInt(NUM_SEATS));
+                    final Unit placed = newUnit(owner, random.nextInt(4), random.nextInt(3), random.nextInt(6));
+                    units.add(placed);
+                    place(placed, random.nextInt(NUM_ROWS), random.nextInt(NUM_COLUMNS));
+                    break;
+                case 1:
+                case 2:
+                    // Move the unit, at times onto its own tile
+                    place(unit, random.nextInt(NUM_ROWS), random.nextInt(NUM_COLUMNS));
+                    break;
+                case 3:
+                    units.remove(unit);
+                    remove(unit);
+                    break;
+                case 4:
+                    unit.setOwner(players.get(random.nextInt(NUM_SEATS)));
+                    dangerMap.place(unit, positions.get(unit));
+                    break;
+                case 5:
+                    unit.setMovementRange(random.nextInt(4));
+                    unit.setAttackRange(random.nextInt(3));
+                    dangerMap.place(unit, positions.get(unit));
+                    break;
+                default:
+                    unit.setAttackDamage(random.nextInt(6));
+                    dangerMap.place(unit, positions.get(unit));
+                    break;
+            }
+
+            assertMatchesBruteForce();
+        }
+    }
+}
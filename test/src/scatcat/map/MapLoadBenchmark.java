@@ -0,0 +1,82 @@
+package scatcat.map;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import scatcat.general.Microbenchmark;
+import android.test.ActivityInstrumentationTestCase2;
+import android.view.ViewGroup;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.sneaky.stratagem.battle.BattleModule;
+import com.sneaky.stratagem.proxy.ProxyActivity;
+import com.sneaky.stratagem.proxy.ProxyRenderer;
+import com.sneaky.stratagem.proxy.ProxyView;
+import com.sneaky.stratagem.units.UnitModule;
+
+/**
+ * Times {@link BattlefieldFactory#load(ByteBuffer)} on a large generated map, from the header
+ * checks through to the tiles that differ from open grass being created.
+ *
+ * Battlefields and tiles load their textures as they are built, so unlike the other benchmarks
+ * this one runs on a device, on the game's GL thread. It has no test methods, so it is left out
+ * of the test runs. Run it on its own with
+ * {@code adb shell am instrument -w -e class scatcat.map.MapLoadBenchmark#benchmarkLoad
+ * scatcat.android.test/android.test.InstrumentationTestRunner} and read the result from the log.
+ *
+ * @author R. Matt McCann
+ */
+public class MapLoadBenchmark extends ActivityInstrumentationTestCase2<ProxyActivity> {
+    /** Rows and columns of the generated map. */
+    private static final int MAP_SIZE = 1000;
+
+    /** Seed of the generated map, fixed so every run loads the same map. */
+    private static final long SEED = 0x5CA7CA7L;
+
+    /** How long the benchmark is given to finish. */
+    private static final long TIMEOUT_MINUTES = 10;
+
+    public MapLoadBenchmark() {
+        super(ProxyActivity.class);
+    }
+
+    public void benchmarkLoad() throws InterruptedException {
+        final ProxyActivity activity = getActivity();
+        final ProxyView view = (ProxyView) ((ViewGroup) activity.findViewById(android.R.id.content)).getChildAt(0);
+        final ProxyRenderer renderer = new ProxyRenderer(activity);
+        renderer.setView(view);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        view.queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final BattleModule battleModule = new BattleModule(renderer);
+                    final Injector injector = Guice.createInjector(battleModule, new UnitModule(renderer));
+                    final BattlefieldFactory factory = injector.getInstance(BattlefieldFactory.class);
+                    final ByteBuffer map = injector.getInstance(MapGenerator.class).generate(SEED, MAP_SIZE, MAP_SIZE);
+
+                    Microbenchmark.measure("Load " + MAP_SIZE + "x" + MAP_SIZE + " map, per tile",
+                            MAP_SIZE * MAP_SIZE, new Microbenchmark.Task() {
+                        @Override
+                        public long run() {
+                            try {
+                                return factory.load(map).getHeight();
+                            } catch (IOException ex) {
+                                throw new IllegalStateException("Generated an unreadable map!", ex);
+                            }
+                        }
+                    });
+                    battleModule.close(injector);
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+
+        assertTrue(done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+    }
+}
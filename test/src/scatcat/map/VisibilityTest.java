@@ -0,0 +1,218 @@
+package scatcat.map;
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import android.test.ActivityInstrumentationTestCase2;
+import android.view.ViewGroup;
+
+import com.google.common.base.Optional;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.sneaky.stratagem.battle.BattleModule;
+import com.sneaky.stratagem.proxy.ProxyActivity;
+import com.sneaky.stratagem.proxy.ProxyRenderer;
+import com.sneaky.stratagem.proxy.ProxyView;
+import com.sneaky.stratagem.units.UnitModule;
+
+/**
+ * Covers the cached sight lines as the terrain changes at random. A change must forget
+ * exactly the cached lines whose footprint, the source, the target and the tiles between
+ * them, holds the changed tile. Every answer must match a trace made from scratch, and sight
+ * must stay symmetric.
+ *
+ * Battlefields and tiles load their textures as they are built, so this runs on a device, on
+ * the game's GL thread.
+ *
+ * @author R. Matt McCann
+ */
+public class VisibilityTest extends ActivityInstrumentationTestCase2<ProxyActivity> {
+    /** Random changes made to the terrain, each checked before the next. */
+    private static final int NUM_CHANGES = 40;
+
+    private static final int NUM_COLUMNS = 20;
+
+    private static final int NUM_ROWS = 18;
+
+    /** Tiles raised before the checks start, so the lines cross rough terrain from the first. */
+    private static final int NUM_RAISED = 60;
+
+    /** How long each test is given to finish on the GL thread. */
+    private static final long TIMEOUT_MINUTES = 5;
+
+    public VisibilityTest() {
+        super(ProxyActivity.class);
+    }
+
+    /** Work done against a battlefield on the GL thread. */
+    private interface Check {
+        void run(Battlefield battlefield);
+    }
+
+    /**
+     * Runs the check on the GL thread against a new battlefield of open grass, and rethrows
+     * whatever it throws on the test's thread.
+     */
+    private void onBattlefield(final Check check) throws Throwable {
+        final ProxyActivity activity = getActivity();
+        final ProxyView view = (ProxyView) ((ViewGroup) activity.findViewById(android.R.id.content)).getChildAt(0);
+        final ProxyRenderer renderer = new ProxyRenderer(activity);
+        renderer.setView(view);
+
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Throwable> thrown = new AtomicReference<Throwable>();
+        view.queueEvent(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final BattleModule battleModule = new BattleModule(renderer);
+                    final Injector injector = Guice.createInjector(battleModule, new UnitModule(renderer));
+                    try {
+                        final Battlefield battlefield = injector.getInstance(Battlefield.class);
+                        battlefield.resize(NUM_ROWS, NUM_COLUMNS);
+                        check.run(battlefield);
+                    } finally {
+                        battleModule.close(injector);
+                    }
+                } catch (Throwable ex) {
+                    thrown.set(ex);
+                } finally {
+                    done.countDown();
+                }
+            }
+        });
+
+        assertTrue(done.await(TIMEOUT_MINUTES, TimeUnit.MINUTES));
+        if (thrown.get() != null) {
+            throw thrown.get();
+        }
+    }
+
+    /** Raises random tiles of the battlefield to random heights. */
+    private static void roughen(final Battlefield battlefield, final Random random) {
+        for (int tileIter = 0; tileIter < NUM_RAISED; tileIter++) {
+            battlefield.tileAt(random.nextInt(NUM_ROWS), random.nextInt(NUM_COLUMNS))
+                    .setElevation(random.nextInt(4) * 0.5f);
+        }
+    }
+
+    /** Visibility of the battlefield with nothing cached, so every answer is traced afresh. */
+    private static Visibility freshVisibility(final Battlefield battlefield) {
+        final Visibility fresh = new Visibility(battlefield);
+        fresh.reset(NUM_ROWS, NUM_COLUMNS);
+
+        return fresh;
+    }
+
+    /**
+     * Whether or not the tile lies on the line from the source to the target, its ends
+     * included. Steps one tile along the longer axis at a time, rounding halves up.
+     */
+    private static boolean isOnLine(final int fromRow, final int fromColumn, final int toRow, final int toColumn,
+                                    final int row, final int column) {
+        final int rowOffset = toRow - fromRow;
+        final int columnOffset = toColumn - fromColumn;
+        final int numSteps = Math.max(Math.abs(rowOffset), Math.abs(columnOffset));
+        if (numSteps == 0) {
+            return (row == fromRow) && (column == fromColumn);
+        }
+
+        for (int stepIter = 0; stepIter <= numSteps; stepIter++) {
+            final int stepRow = fromRow + (int) Math.floor((double) rowOffset * stepIter / numSteps + 0.5);
+            final int stepColumn = fromColumn + (int) Math.floor((double) columnOffset * stepIter / numSteps + 0.5);
+            if ((stepRow == row) && (stepColumn == column)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Queries, or checks, every cacheable line of every source close enough to the tile for
+     * one of its lines to cross it. When checking, only the lines through the tile may have
+     * been forgotten, and every answer must match the fresh visibility.
+     */
+    private static void visitLinesNear(final Visibility visibility, final Visibility fresh,
+                                       final int row, final int column) {
+        final int range = Visibility.MAX_CACHED_RANGE;
+        for (int fromRow = Math.max(row - range, 0); fromRow <= Math.min(row + range, NUM_ROWS - 1); fromRow++) {
+            for (int fromColumn = Math.max(column - range, 0); fromColumn <= Math.min(column + range, NUM_COLUMNS - 1); fromColumn++) {
+                for (int toRow = Math.max(fromRow - range, 0); toRow <= Math.min(fromRow + range, NUM_ROWS - 1); toRow++) {
+                    for (int toColumn = Math.max(fromColumn - range, 0); toColumn <= Math.min(fromColumn + range, NUM_COLUMNS - 1); toColumn++) {
+                        if (fresh != null) {
+                            final String line = "(" + fromRow + ", " + fromColumn + ") to (" + toRow + ", " + toColumn
+                                    + ") after a change at (" + row + ", " + column + ")";
+                            assertEquals(line, !isOnLine(fromRow, fromColumn, toRow, toColumn, row, column),
+                                    visibility.isCached(fromRow, fromColumn, toRow, toColumn));
+                            assertEquals(line, fresh.isVisible(fromRow, fromColumn, toRow, toColumn),
+                                    visibility.isVisible(fromRow, fromColumn, toRow, toColumn));
+                        } else {
+                            visibility.isVisible(fromRow, fromColumn, toRow, toColumn);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public void testCacheMatchesFreshTraceAcrossChanges() throws Throwable {
+        onBattlefield(new Check() {
+            @Override
+            public void run(final Battlefield battlefield) {
+                final Random random = new Random(0x5167L);
+                final Visibility visibility = battlefield.getVisibility();
+                roughen(battlefield, random);
+
+                for (int changeIter = 0; changeIter < NUM_CHANGES; changeIter++) {
+                    final int row = random.nextInt(NUM_ROWS);
+                    final int column = random.nextInt(NUM_COLUMNS);
+
+                    // Cache every line that could cross the tile, then change it
+                    visitLinesNear(visibility, null, row, column);
+                    final Tile tile = battlefield.tileAt(row, column);
+                    if (random.nextBoolean()) {
+                        tile.setElevation(random.nextInt(4) * 0.5f);
+                    } else if (tile.hasObstacle()) {
+                        tile.setObstacle(Optional.<Obstacle>absent());
+                    } else {
+                        tile.setObstacle(Optional.of(new Obstacle()));
+                    }
+
+                    visitLinesNear(visibility, freshVisibility(battlefield), row, column);
+                }
+            }
+        });
+    }
+
+    /** Every pair of tiles, near enough to be cached or not, sees each other alike both ways. */
+    public void testSightIsSymmetric() throws Throwable {
+        onBattlefield(new Check() {
+            @Override
+            public void run(final Battlefield battlefield) {
+                final Random random = new Random(0x5E7EL);
+                roughen(battlefield, random);
+                for (int obstacleIter = 0; obstacleIter < NUM_RAISED / 4; obstacleIter++) {
+                    battlefield.tileAt(random.nextInt(NUM_ROWS), random.nextInt(NUM_COLUMNS))
+                            .setObstacle(Optional.of(new Obstacle()));
+                }
+
+                final Visibility visibility = battlefield.getVisibility();
+                for (int from = 0; from < NUM_ROWS * NUM_COLUMNS; from++) {
+                    for (int to = from + 1; to < NUM_ROWS * NUM_COLUMNS; to++) {
+                        final int fromRow = from / NUM_COLUMNS;
+                        final int fromColumn = from % NUM_COLUMNS;
+                        final int toRow = to / NUM_COLUMNS;
+                        final int toColumn = to % NUM_COLUMNS;
+
+                        assertEquals("(" + fromRow + ", " + fromColumn + ") and (" + toRow + ", " + toColumn + ")",
+                                visibility.isVisible(fromRow, fromColumn, toRow, toColumn),
+                                visibility.isVisible(toRow, toColumn, fromRow, fromColumn));
+                    }
+                }
+            }
+        });
+    }
+}